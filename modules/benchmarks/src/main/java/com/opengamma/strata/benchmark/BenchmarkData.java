@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.EUR_EURIBOR_3M;
+import static com.opengamma.strata.basics.index.IborIndices.EUR_EURIBOR_6M;
+import static com.opengamma.strata.basics.index.OvernightIndices.EUR_EONIA;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_3M;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_6M;
+import static com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions.EUR_FIXED_1Y_EONIA_OIS;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.ImmutableMarketDataBuilder;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketDataBuilder;
+import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveNode;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.curve.node.FixedIborSwapCurveNode;
+import com.opengamma.strata.market.curve.node.FixedOvernightSwapCurveNode;
+import com.opengamma.strata.market.curve.node.FraCurveNode;
+import com.opengamma.strata.market.curve.node.IborFixingDepositCurveNode;
+import com.opengamma.strata.market.observable.QuoteId;
+import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
+import com.opengamma.strata.pricer.curve.CurveCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.deposit.type.IborFixingDepositTemplate;
+import com.opengamma.strata.product.fra.type.FraTemplate;
+import com.opengamma.strata.product.swap.SwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConvention;
+import com.opengamma.strata.product.swap.type.FixedIborSwapTemplate;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapTemplate;
+
+/**
+ * Data shared by the benchmarks.
+ * <p>
+ * This provides a realistic EUR multi-curve setup, consisting of an EONIA discounting curve
+ * and EURIBOR 3M and 6M forward curves, calibrated together as a single group.
+ */
+final class BenchmarkData {
+
+  /**
+   * The reference data.
+   */
+  static final ReferenceData REF_DATA = ReferenceData.standard();
+  /**
+   * The valuation date.
+   */
+  static final LocalDate VAL_DATE = LocalDate.of(2018, 6, 15);
+  /**
+   * The curve group name.
+   */
+  static final CurveGroupName GROUP_NAME = CurveGroupName.of("EUR-DSCON-EURIBOR3M-EURIBOR6M");
+  /**
+   * The discounting curve name.
+   */
+  static final CurveName DSC_NAME = CurveName.of("EUR-DSCON");
+  /**
+   * The EURIBOR 3M forward curve name.
+   */
+  static final CurveName FWD3_NAME = CurveName.of("EUR-EURIBOR3M");
+  /**
+   * The EURIBOR 6M forward curve name.
+   */
+  static final CurveName FWD6_NAME = CurveName.of("EUR-EURIBOR6M");
+  /**
+   * The rates lookup, referring to the curves of the group.
+   */
+  static final RatesMarketDataLookup RATES_LOOKUP = RatesMarketDataLookup.of(
+      GROUP_NAME,
+      ImmutableMap.of(EUR, DSC_NAME),
+      ImmutableMap.of(EUR_EONIA, DSC_NAME, EUR_EURIBOR_3M, FWD3_NAME, EUR_EURIBOR_6M, FWD6_NAME));
+
+  private static final String SCHEME = "BENCHMARK";
+  private static final int[] OIS_MONTHS = {1, 2, 3, 6, 9, 12, 18, 24, 36, 48, 60, 84, 120, 180, 240, 360};
+  private static final double[] OIS_QUOTES =
+      {-0.0036, -0.0036, -0.0036, -0.0035, -0.0034, -0.0033, -0.0030, -0.0026,
+          -0.0014, 0.0001, 0.0016, 0.0043, 0.0075, 0.0110, 0.0125, 0.0130};
+  private static final int[] FRA_MONTHS = {1, 2, 3, 6, 9, 12};
+  private static final int[] IRS_YEARS = {2, 3, 4, 5, 7, 10, 12, 15, 20, 25, 30};
+  private static final double[] IRS_QUOTES =
+      {-0.0010, 0.0005, 0.0020, 0.0035, 0.0060, 0.0092, 0.0108, 0.0125, 0.0140, 0.0145, 0.0147};
+  private static final double FWD3_SPREAD = 0.0004;
+  private static final double FWD6_SPREAD = 0.0010;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the curve group definition.
+   *
+   * @return the curve group definition
+   */
+  static RatesCurveGroupDefinition curveGroupDefinition() {
+    List<CurveNode> dscNodes = new ArrayList<>();
+    for (int i = 0; i < OIS_MONTHS.length; i++) {
+      dscNodes.add(FixedOvernightSwapCurveNode.of(
+          FixedOvernightSwapTemplate.of(Period.ZERO, Tenor.ofMonths(OIS_MONTHS[i]), EUR_FIXED_1Y_EONIA_OIS),
+          quoteId("OIS-" + OIS_MONTHS[i] + "M")));
+    }
+    return RatesCurveGroupDefinition.builder()
+        .name(GROUP_NAME)
+        .addCurve(curveDefinition(DSC_NAME, dscNodes), EUR, EUR_EONIA)
+        .addForwardCurve(curveDefinition(FWD3_NAME, forwardNodes(EUR_EURIBOR_3M, 3)), EUR_EURIBOR_3M)
+        .addForwardCurve(curveDefinition(FWD6_NAME, forwardNodes(EUR_EURIBOR_6M, 6)), EUR_EURIBOR_6M)
+        .build();
+  }
+
+  // the forward curve nodes, fixing then FRAs then swaps
+  private static List<CurveNode> forwardNodes(IborIndex index, int months) {
+    List<CurveNode> nodes = new ArrayList<>();
+    nodes.add(IborFixingDepositCurveNode.of(IborFixingDepositTemplate.of(index), quoteId("FIXING-" + months + "M")));
+    for (int fraMonths : FRA_MONTHS) {
+      nodes.add(FraCurveNode.of(
+          FraTemplate.of(Period.ofMonths(fraMonths), index),
+          quoteId("FRA-" + months + "M-" + fraMonths + "M")));
+    }
+    for (int irsYears : IRS_YEARS) {
+      FixedIborSwapTemplate template = FixedIborSwapTemplate.of(
+          Period.ZERO, Tenor.ofYears(irsYears), months == 3 ? EUR_FIXED_1Y_EURIBOR_3M : EUR_FIXED_1Y_EURIBOR_6M);
+      nodes.add(FixedIborSwapCurveNode.of(template, quoteId("IRS-" + months + "M-" + irsYears + "Y")));
+    }
+    return nodes;
+  }
+
+  // the curve definition
+  private static InterpolatedNodalCurveDefinition curveDefinition(CurveName name, List<CurveNode> nodes) {
+    return InterpolatedNodalCurveDefinition.builder()
+        .name(name)
+        .xValueType(ValueType.YEAR_FRACTION)
+        .yValueType(ValueType.ZERO_RATE)
+        .dayCount(ACT_365F)
+        .interpolator(CurveInterpolators.NATURAL_SPLINE)
+        .extrapolatorLeft(CurveExtrapolators.FLAT)
+        .extrapolatorRight(CurveExtrapolators.FLAT)
+        .nodes(nodes)
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates the quotes needed to calibrate the curve group.
+   *
+   * @return the quotes
+   */
+  static ImmutableMarketData quotes() {
+    return quotes(0d);
+  }
+
+  /**
+   * Creates the quotes needed to calibrate the curve group, applying a parallel shift.
+   *
+   * @param shift  the shift to apply to all quotes
+   * @return the quotes
+   */
+  static ImmutableMarketData quotes(double shift) {
+    ImmutableMarketDataBuilder builder = ImmutableMarketData.builder(VAL_DATE);
+    for (int i = 0; i < OIS_MONTHS.length; i++) {
+      builder.addValue(quoteId("OIS-" + OIS_MONTHS[i] + "M"), OIS_QUOTES[i] + shift);
+    }
+    addForwardQuotes(builder, 3, FWD3_SPREAD + shift);
+    addForwardQuotes(builder, 6, FWD6_SPREAD + shift);
+    return builder.build();
+  }
+
+  // the forward quotes, based on the OIS rates plus a spread
+  private static void addForwardQuotes(ImmutableMarketDataBuilder builder, int months, double spread) {
+    builder.addValue(quoteId("FIXING-" + months + "M"), OIS_QUOTES[0] + spread);
+    for (int i = 0; i < FRA_MONTHS.length; i++) {
+      builder.addValue(quoteId("FRA-" + months + "M-" + FRA_MONTHS[i] + "M"), OIS_QUOTES[i] + spread);
+    }
+    for (int i = 0; i < IRS_YEARS.length; i++) {
+      builder.addValue(quoteId("IRS-" + months + "M-" + IRS_YEARS[i] + "Y"), IRS_QUOTES[i] + spread);
+    }
+  }
+
+  private static QuoteId quoteId(String value) {
+    return QuoteId.of(StandardId.of(SCHEME, value));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates the curve group.
+   *
+   * @return the calibrated rates provider
+   */
+  static ImmutableRatesProvider calibratedProvider() {
+    return CurveCalibrator.standard().calibrate(curveGroupDefinition(), quotes(), REF_DATA);
+  }
+
+  /**
+   * Creates scenario market data containing the calibrated curves.
+   * <p>
+   * Each scenario applies a different parallel shift to the calibrated zero rates.
+   *
+   * @param scenarioCount  the number of scenarios
+   * @return the scenario market data
+   */
+  static ImmutableScenarioMarketData scenarioMarketData(int scenarioCount) {
+    ImmutableRatesProvider provider = calibratedProvider();
+    ImmutableScenarioMarketDataBuilder builder = ImmutableScenarioMarketData.builder(VAL_DATE);
+    for (CurveName name : ImmutableList.of(DSC_NAME, FWD3_NAME, FWD6_NAME)) {
+      Curve curve = provider.findData(name).get();
+      List<Curve> curves = IntStream.range(0, scenarioCount)
+          .mapToObj(i -> shift(i, scenarioCount))
+          .map(shift -> curve.withPerturbation((idx, value, meta) -> value + shift))
+          .collect(toImmutableList());
+      builder.addScenarioValue(CurveId.of(GROUP_NAME, name), curves);
+    }
+    return builder.build();
+  }
+
+  // a shift between -1% and 1%
+  private static double shift(int scenarioIndex, int scenarioCount) {
+    return scenarioCount == 1 ? 0d : -0.01 + 0.02 * scenarioIndex / (scenarioCount - 1);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a portfolio of EURIBOR swaps.
+   * <p>
+   * The swaps cycle through tenors from 1 to 30 years, alternating between 3M and 6M indices.
+   *
+   * @param size  the number of trades
+   * @return the trades
+   */
+  static List<SwapTrade> swapPortfolio(int size) {
+    return IntStream.range(0, size)
+        .mapToObj(i -> swap(i % 2 == 0 ? EUR_FIXED_1Y_EURIBOR_6M : EUR_FIXED_1Y_EURIBOR_3M, i))
+        .collect(toImmutableList());
+  }
+
+  // creates a single swap
+  private static SwapTrade swap(FixedIborSwapConvention convention, int index) {
+    Tenor tenor = Tenor.ofYears(1 + index % 30);
+    BuySell buySell = index % 3 == 0 ? BuySell.SELL : BuySell.BUY;
+    double notional = 1_000_000d * (1 + index % 50);
+    double fixedRate = 0.005 + 0.0001 * (index % 100);
+    return convention.createTrade(VAL_DATE, tenor, buySell, notional, fixedRate, REF_DATA);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor.
+   */
+  private BenchmarkData() {
+  }
+
+}
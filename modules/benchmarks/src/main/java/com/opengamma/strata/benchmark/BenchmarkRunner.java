@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the Strata benchmarks, writing the results as JSON.
+ * <p>
+ * The JSON output contains one entry for each benchmark and parameter combination,
+ * including the score, the error and the raw data of each iteration.
+ * Storing the file for each version allows regressions to be detected by comparison.
+ * <p>
+ * The first argument is an optional regular expression selecting the benchmarks to run.
+ * The second argument is the optional location of the result file.
+ */
+public final class BenchmarkRunner {
+
+  /**
+   * The default location of the result file.
+   */
+  private static final String DEFAULT_RESULT_FILE = "strata-benchmarks.json";
+
+  /**
+   * Runs the benchmarks.
+   * 
+   * @param args  the include pattern and result file, both optional
+   * @throws RunnerException if unable to run the benchmarks
+   */
+  public static void main(String[] args) throws RunnerException {
+    String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+    String resultFile = args.length > 1 ? args[1] : DEFAULT_RESULT_FILE;
+    Options options = new OptionsBuilder()
+        .include(include)
+        .resultFormat(ResultFormatType.JSON)
+        .result(resultFile)
+        .shouldFailOnError(true)
+        .build();
+    new Runner(options).run();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor.
+   */
+  private BenchmarkRunner() {
+  }
+
+}
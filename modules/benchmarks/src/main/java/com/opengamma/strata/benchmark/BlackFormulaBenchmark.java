@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
+
+/**
+ * Benchmarks the Black formula.
+ * <p>
+ * Each invocation prices a strip of options across strikes and expiries,
+ * with the score reported per option.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlackFormulaBenchmark {
+
+  private static final int SIZE = 1000;
+  private static final double FORWARD = 0.02;
+  private static final double VOL = 0.3;
+
+  private final double[] strikes = new double[SIZE];
+  private final double[] expiries = new double[SIZE];
+  private final double[] prices = new double[SIZE];
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    for (int i = 0; i < SIZE; i++) {
+      strikes[i] = FORWARD * (0.5 + i % 20 * 0.05);
+      expiries[i] = 0.25 + i % 40 * 0.25;
+      prices[i] = BlackFormulaRepository.price(FORWARD, strikes[i], expiries[i], VOL, true);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the price.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void price(Blackhole bh) {
+    for (int i = 0; i < SIZE; i++) {
+      bh.consume(BlackFormulaRepository.price(FORWARD, strikes[i], expiries[i], VOL, true));
+    }
+  }
+
+  /**
+   * Calculates the price and its derivatives.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void priceAdjoint(Blackhole bh) {
+    for (int i = 0; i < SIZE; i++) {
+      bh.consume(BlackFormulaRepository.priceAdjoint(FORWARD, strikes[i], expiries[i], VOL, true));
+    }
+  }
+
+  /**
+   * Calculates the vega.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void vega(Blackhole bh) {
+    for (int i = 0; i < SIZE; i++) {
+      bh.consume(BlackFormulaRepository.vega(FORWARD, strikes[i], expiries[i], VOL));
+    }
+  }
+
+  /**
+   * Calculates the implied volatility.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(SIZE)
+  public void impliedVolatility(Blackhole bh) {
+    for (int i = 0; i < SIZE; i++) {
+      bh.consume(BlackFormulaRepository.impliedVolatility(prices[i], FORWARD, strikes[i], expiries[i], true));
+    }
+  }
+
+}
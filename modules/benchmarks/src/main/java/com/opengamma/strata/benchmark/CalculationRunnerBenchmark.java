@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.benchmark.BenchmarkData.REF_DATA;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.CalculationTaskRunnerOptions;
+import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.StandardComponents;
+import com.opengamma.strata.product.swap.SwapTrade;
+
+/**
+ * Benchmarks the calculation engine.
+ * <p>
+ * A portfolio of swaps is priced for multiple scenarios using the multi-threaded task runner
+ * or the fork-join task runner that splits each task by scenario.
+ * The tasks are created once, so the benchmark measures the execution of the tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculationRunnerBenchmark {
+
+  /**
+   * The number of trades.
+   */
+  @Param({"100", "500"})
+  private int tradeCount;
+  /**
+   * The number of scenarios.
+   */
+  @Param({"1", "20"})
+  private int scenarioCount;
+  /**
+   * The maximum number of scenarios calculated by a task without splitting, zero to use the standard runner.
+   */
+  @Param({"0", "4"})
+  private int scenarioChunkSize;
+
+  private CalculationTaskRunner taskRunner;
+  private CalculationTasks tasks;
+  private ScenarioMarketData marketData;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    List<SwapTrade> trades = BenchmarkData.swapPortfolio(tradeCount);
+    List<Column> columns = ImmutableList.of(
+        Column.of(Measures.PRESENT_VALUE),
+        Column.of(Measures.PAR_RATE),
+        Column.of(Measures.PV01_CALIBRATED_SUM));
+    CalculationRules rules = CalculationRules.of(StandardComponents.calculationFunctions(), BenchmarkData.RATES_LOOKUP);
+    tasks = CalculationTasks.of(rules, trades, columns, REF_DATA);
+    marketData = BenchmarkData.scenarioMarketData(scenarioCount);
+    taskRunner = scenarioChunkSize > 0 ?
+        CalculationTaskRunner.of(
+            new ForkJoinPool(),
+            CalculationTaskRunnerOptions.builder().scenarioChunkSize(scenarioChunkSize).build()) :
+        CalculationTaskRunner.ofMultiThreaded();
+  }
+
+  /**
+   * Tears down the benchmark.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    taskRunner.close();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the results for all the trades and scenarios.
+   *
+   * @return the results
+   */
+  @Benchmark
+  public Results calculateMultiScenario() {
+    return taskRunner.calculateMultiScenario(tasks, marketData, REF_DATA);
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.benchmark.BenchmarkData.REF_DATA;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.pricer.curve.CurveCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * Benchmarks curve calibration.
+ * <p>
+ * A EUR multi-curve group, consisting of discounting, EURIBOR 3M and EURIBOR 6M curves,
+ * is calibrated from market quotes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurveCalibratorBenchmark {
+
+  private final CurveCalibrator calibrator = CurveCalibrator.standard();
+  private RatesCurveGroupDefinition groupDefinition;
+  private RatesCurveGroupDefinition groupDefinitionNoJacobian;
+  private MarketData quotes;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    groupDefinition = BenchmarkData.curveGroupDefinition();
+    groupDefinitionNoJacobian = groupDefinition.toBuilder().computeJacobian(false).build();
+    quotes = BenchmarkData.quotes();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates the curve group, including the Jacobian matrices.
+   *
+   * @return the calibrated rates provider
+   */
+  @Benchmark
+  public ImmutableRatesProvider calibrate() {
+    return calibrator.calibrate(groupDefinition, quotes, REF_DATA);
+  }
+
+  /**
+   * Calibrates the curve group, without computing the Jacobian matrices.
+   *
+   * @return the calibrated rates provider
+   */
+  @Benchmark
+  public ImmutableRatesProvider calibrateNoJacobian() {
+    return calibrator.calibrate(groupDefinitionNoJacobian, quotes, REF_DATA);
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.benchmark.BenchmarkData.REF_DATA;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.loader.csv.FxRatesCsvLoader;
+import com.opengamma.strata.loader.csv.QuotesCsvLoader;
+import com.opengamma.strata.loader.csv.RatesCalibrationCsvLoader;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.pricer.curve.CurveCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * Benchmarks curve calibration with serial and parallel evaluation of the calibration trades,
+ * and with the Broyden and Newton root finders.
+ * <p>
+ * The USD-EUR cross-currency group of the calibration examples, consisting of four curves
+ * and around fifty trades, is calibrated from market quotes and FX rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurveCalibratorXCcyBenchmark {
+
+  private static final LocalDate VAL_DATE = LocalDate.of(2015, 11, 2);
+  private static final CurveGroupName CURVE_GROUP_NAME = CurveGroupName.of("USD-EUR-XCCY");
+  private static final String PATH = "classpath:com/opengamma/strata/benchmark/xccy/";
+
+  private final CurveCalibrator serialCalibrator = CurveCalibrator.standard();
+  private final CurveCalibrator parallelCalibrator = CurveCalibrator.standard().withParallelRows(true);
+  private final CurveCalibrator newtonCalibrator = CurveCalibrator.ofNewton(1e-9, 1e-9, 100);
+  private RatesCurveGroupDefinition groupDefinition;
+  private MarketData marketData;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    groupDefinition = RatesCalibrationCsvLoader.load(
+        ResourceLocator.of(PATH + "groups-xccy.csv"),
+        ResourceLocator.of(PATH + "settings-xccy.csv"),
+        ResourceLocator.of(PATH + "calibrations-xccy.csv"))
+        .get(CURVE_GROUP_NAME);
+    marketData = ImmutableMarketData.builder(VAL_DATE)
+        .addValueMap(QuotesCsvLoader.load(VAL_DATE, ResourceLocator.of(PATH + "quotes-xccy.csv")))
+        .addValueMap(FxRatesCsvLoader.load(VAL_DATE, ResourceLocator.of(PATH + "fx-rates-xccy.csv")))
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrates the curve group, evaluating the calibration trades serially.
+   *
+   * @return the calibrated rates provider
+   */
+  @Benchmark
+  public ImmutableRatesProvider calibrateSerial() {
+    return serialCalibrator.calibrate(groupDefinition, marketData, REF_DATA);
+  }
+
+  /**
+   * Calibrates the curve group, evaluating the calibration trades in parallel.
+   *
+   * @return the calibrated rates provider
+   */
+  @Benchmark
+  public ImmutableRatesProvider calibrateParallel() {
+    return parallelCalibrator.calibrate(groupDefinition, marketData, REF_DATA);
+  }
+
+  /**
+   * Calibrates the curve group using the Newton root finder with the exact Jacobian.
+   *
+   * @return the calibrated rates provider
+   */
+  @Benchmark
+  public ImmutableRatesProvider calibrateNewton() {
+    return newtonCalibrator.calibrate(groupDefinition, marketData, REF_DATA);
+  }
+
+}
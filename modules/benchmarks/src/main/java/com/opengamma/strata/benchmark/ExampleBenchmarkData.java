@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.convert.RenameHandler;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.ImmutableMarketDataBuilder;
+import com.opengamma.strata.loader.csv.FixingSeriesCsvLoader;
+import com.opengamma.strata.loader.csv.RatesCurvesCsvLoader;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.RatesCurveGroup;
+import com.opengamma.strata.product.Trade;
+
+/**
+ * The example portfolios and market data used by the benchmarks.
+ * <p>
+ * The files are those of the examples module, copied into the benchmarks at build time.
+ * Only the rates portfolios are used, as these are priced using the example curves.
+ */
+final class ExampleBenchmarkData {
+
+  /**
+   * The valuation date of the example market data.
+   */
+  static final LocalDate VAL_DATE = LocalDate.of(2014, 1, 22);
+  /**
+   * The example portfolios that are priced.
+   */
+  private static final List<String> PORTFOLIOS = ImmutableList.of(
+      "swap-portfolio.xml",
+      "fra-portfolio.xml",
+      "term-deposit-portfolio.xml");
+  /**
+   * The example historical fixings.
+   */
+  private static final List<String> FIXINGS = ImmutableList.of(
+      "gbp-libor-3m.csv",
+      "usd-fed-fund.csv",
+      "usd-libor-3m.csv",
+      "usd-libor-6m.csv");
+  private static final String PORTFOLIOS_DIR = "example-portfolios/";
+  private static final String CURVES_DIR = "example-marketdata/curves/";
+  private static final String FIXINGS_DIR = "example-marketdata/historical-fixings/";
+
+  static {
+    // the portfolios are serialized using a class from the examples module
+    RenameHandler.INSTANCE.renamedType("com.opengamma.strata.examples.report.TradeList", ExamplePortfolio.class);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Loads the trades of the example rates portfolios.
+   *
+   * @return the trades
+   */
+  static List<Trade> trades() {
+    return PORTFOLIOS.stream()
+        .flatMap(file -> loadPortfolio(file).getTrades().stream())
+        .collect(toImmutableList());
+  }
+
+  // loads an example portfolio
+  private static ExamplePortfolio loadPortfolio(String file) {
+    ResourceLocator locator = ResourceLocator.ofClasspath(PORTFOLIOS_DIR + file);
+    try (Reader reader = locator.getCharSource().openBufferedStream()) {
+      return JodaBeanSer.COMPACT.xmlReader().read(reader, ExamplePortfolio.class);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Loads the example curve group.
+   *
+   * @return the curve group
+   */
+  static RatesCurveGroup curveGroup() {
+    List<ResourceLocator> curves = ImmutableList.of(ResourceLocator.ofClasspath(CURVES_DIR + VAL_DATE + ".csv"));
+    return RatesCurvesCsvLoader.load(
+        VAL_DATE,
+        ResourceLocator.ofClasspath(CURVES_DIR + "groups.csv"),
+        ResourceLocator.ofClasspath(CURVES_DIR + "settings.csv"),
+        curves).get(0);
+  }
+
+  /**
+   * Creates the example market data, containing the curves, historical fixings and FX rate.
+   *
+   * @param curveGroup  the curve group
+   * @return the market data
+   */
+  static ImmutableMarketData marketData(RatesCurveGroup curveGroup) {
+    ImmutableMarketDataBuilder builder = ImmutableMarketData.builder(VAL_DATE);
+    Stream.concat(curveGroup.getDiscountCurves().values().stream(), curveGroup.getForwardCurves().values().stream())
+        .distinct()
+        .forEach(curve -> builder.addValue(CurveId.of(curveGroup.getName(), curve.getName()), curve));
+    List<ResourceLocator> fixings = FIXINGS.stream()
+        .map(file -> ResourceLocator.ofClasspath(FIXINGS_DIR + file))
+        .collect(toImmutableList());
+    builder.addTimeSeriesMap(FixingSeriesCsvLoader.load(fixings));
+    builder.addValue(FxRateId.of(Currency.GBP, Currency.USD), FxRate.of(Currency.GBP, Currency.USD, 1.61));
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor.
+   */
+  private ExampleBenchmarkData() {
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.product.Trade;
+
+/**
+ * The trades of an example portfolio.
+ * <p>
+ * The example portfolios are serialized as a {@code TradeList} from the examples module,
+ * which is not available to the benchmarks. This class has the same form, allowing the
+ * portfolios to be deserialized once the type is renamed.
+ */
+@BeanDefinition(style = "light")
+final class ExamplePortfolio implements ImmutableBean {
+
+  /**
+   * The trades.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<Trade> trades;
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code ExamplePortfolio}.
+   */
+  private static final TypedMetaBean<ExamplePortfolio> META_BEAN =
+      LightMetaBean.of(
+          ExamplePortfolio.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "trades"},
+          ImmutableList.of());
+
+  /**
+   * The meta-bean for {@code ExamplePortfolio}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<ExamplePortfolio> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  private ExamplePortfolio(
+      List<Trade> trades) {
+    JodaBeanUtils.notNull(trades, "trades");
+    this.trades = ImmutableList.copyOf(trades);
+  }
+
+  @Override
+  public TypedMetaBean<ExamplePortfolio> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the trades.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<Trade> getTrades() {
+    return trades;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ExamplePortfolio other = (ExamplePortfolio) obj;
+      return JodaBeanUtils.equal(trades, other.trades);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(trades);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(64);
+    buf.append("ExamplePortfolio{");
+    buf.append("trades").append('=').append(JodaBeanUtils.toString(trades));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
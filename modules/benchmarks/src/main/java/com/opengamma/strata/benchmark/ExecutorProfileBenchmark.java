@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.benchmark.BenchmarkData.REF_DATA;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationFunction;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.calc.runner.CalculationTask;
+import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.CalculationTaskRunnerOptions;
+import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.calc.runner.FunctionRequirements;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.RatesCurveGroup;
+import com.opengamma.strata.market.observable.QuoteId;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.StandardComponents;
+import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
+import com.opengamma.strata.product.Trade;
+
+/**
+ * Benchmarks the executor profiles of the calculation engine when market data is loaded lazily.
+ * <p>
+ * The example rates portfolios are priced for multiple scenarios, using the example curves and fixings.
+ * Each calculation also requires a value that is loaded lazily, blocking when first requested,
+ * simulating market data or reference data held in a remote store.
+ * The profiles compared are:
+ * <ul>
+ * <li>{@code FIXED} - a fixed pool of threads based on the number of processors
+ * <li>{@code VIRTUAL} - a new virtual thread for each task, if available
+ * <li>{@code SPLIT} - the data loaded using virtual threads if available, the pricing using a fixed pool
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorProfileBenchmark {
+
+  /**
+   * The scheme of the identifiers of the values that are loaded lazily.
+   */
+  private static final String LAZY_SCHEME = "LAZY";
+  /**
+   * The number of scenarios.
+   */
+  private static final int SCENARIOS = 5;
+
+  /**
+   * The executor profile.
+   */
+  @Param({"FIXED", "VIRTUAL", "SPLIT"})
+  private String profile;
+  /**
+   * The time that loading a lazy value blocks for, in microseconds.
+   */
+  @Param({"0", "500"})
+  private int blockingMicros;
+
+  private CalculationTaskRunner taskRunner;
+  private CalculationTasks tasks;
+  private ScenarioMarketData baseMarketData;
+  private ScenarioMarketData marketData;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    List<Trade> trades = ExampleBenchmarkData.trades();
+    RatesCurveGroup curveGroup = ExampleBenchmarkData.curveGroup();
+    List<Column> columns = ImmutableList.of(
+        Column.of(Measures.PRESENT_VALUE),
+        Column.of(Measures.PV01_CALIBRATED_SUM));
+    CalculationRules rules =
+        CalculationRules.of(StandardComponents.calculationFunctions(), RatesMarketDataLookup.of(curveGroup));
+    CalculationTasks standardTasks = CalculationTasks.of(rules, trades, columns, REF_DATA);
+    // each task requires its own lazy value
+    List<CalculationTask> taskList = standardTasks.getTasks().stream()
+        .map(task -> CalculationTask.of(
+            task.getTarget(),
+            new LazyDataFunction<>(task.getFunction(), lazyId(task.getRowIndex())),
+            task.getParameters(),
+            task.getCells()))
+        .collect(toImmutableList());
+    tasks = CalculationTasks.of(taskList, columns);
+    baseMarketData = ScenarioMarketData.of(SCENARIOS, ExampleBenchmarkData.marketData(curveGroup));
+    switch (profile) {
+      case "VIRTUAL":
+        taskRunner = CalculationTaskRunner.ofVirtualThreads();
+        break;
+      case "SPLIT":
+        taskRunner = CalculationTaskRunner.of(
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()),
+            CalculationTaskRunnerOptions.builder()
+                .blockingTasks(task -> true)
+                .build());
+        break;
+      default:
+        taskRunner = CalculationTaskRunner.ofMultiThreaded();
+        break;
+    }
+  }
+
+  // the identifier of the lazy value required by a row
+  private static QuoteId lazyId(int rowIndex) {
+    return QuoteId.of(StandardId.of(LAZY_SCHEME, Integer.toString(rowIndex)));
+  }
+
+  /**
+   * Sets up the market data, such that the lazy values are loaded again by each invocation.
+   */
+  @Setup(Level.Invocation)
+  public void setUpMarketData() {
+    marketData = new LazyMarketData(baseMarketData, blockingMicros);
+  }
+
+  /**
+   * Tears down the benchmark.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    taskRunner.close();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the results for all the trades and scenarios.
+   *
+   * @return the results
+   */
+  @Benchmark
+  public Results calculateMultiScenario() {
+    return taskRunner.calculateMultiScenario(tasks, marketData, REF_DATA);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Function that requires a lazy value before delegating to the underlying function.
+   */
+  private static final class LazyDataFunction<T extends CalculationTarget> implements CalculationFunction<T> {
+
+    private final CalculationFunction<T> underlying;
+    private final QuoteId lazyId;
+
+    private LazyDataFunction(CalculationFunction<T> underlying, QuoteId lazyId) {
+      this.underlying = underlying;
+      this.lazyId = lazyId;
+    }
+
+    @Override
+    public Class<T> targetType() {
+      return underlying.targetType();
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return underlying.supportedMeasures();
+    }
+
+    @Override
+    public Optional<String> identifier(T target) {
+      return underlying.identifier(target);
+    }
+
+    @Override
+    public Currency naturalCurrency(T target, ReferenceData refData) {
+      return underlying.naturalCurrency(target, refData);
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        T target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return underlying.requirements(target, measures, parameters, refData)
+          .combinedWith(FunctionRequirements.builder().valueRequirements(ImmutableSet.of(lazyId)).build());
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        T target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      marketData.getValue(lazyId);
+      return underlying.calculate(target, measures, parameters, marketData, refData);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Market data that loads the lazy values when first requested, blocking while each is loaded.
+   */
+  private static final class LazyMarketData implements ScenarioMarketData {
+
+    private final ScenarioMarketData underlying;
+    private final long blockingNanos;
+    private final Map<StandardId, MarketDataBox<Double>> loaded = new ConcurrentHashMap<>();
+
+    private LazyMarketData(ScenarioMarketData underlying, int blockingMicros) {
+      this.underlying = underlying;
+      this.blockingNanos = TimeUnit.MICROSECONDS.toNanos(blockingMicros);
+    }
+
+    @Override
+    public MarketDataBox<LocalDate> getValuationDate() {
+      return underlying.getValuationDate();
+    }
+
+    @Override
+    public int getScenarioCount() {
+      return underlying.getScenarioCount();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+      if (id instanceof QuoteId && ((QuoteId) id).getStandardId().getScheme().equals(LAZY_SCHEME)) {
+        return Optional.of((MarketDataBox<T>) load(((QuoteId) id).getStandardId()));
+      }
+      return underlying.findValue(id);
+    }
+
+    // the value is loaded outside a lock, as locking would pin a virtual thread while it blocks
+    private MarketDataBox<Double> load(StandardId id) {
+      MarketDataBox<Double> value = loaded.get(id);
+      if (value != null) {
+        return value;
+      }
+      if (blockingNanos > 0) {
+        LockSupport.parkNanos(blockingNanos);
+      }
+      MarketDataBox<Double> loadedValue = MarketDataBox.ofSingleValue(1d);
+      value = loaded.putIfAbsent(id, loadedValue);
+      return value != null ? value : loadedValue;
+    }
+
+    @Override
+    public Set<MarketDataId<?>> getIds() {
+      return underlying.getIds();
+    }
+
+    @Override
+    public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+      return underlying.findIds(name);
+    }
+
+    @Override
+    public Set<ObservableId> getTimeSeriesIds() {
+      return underlying.getTimeSeriesIds();
+    }
+
+    @Override
+    public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+      return underlying.getTimeSeries(id);
+    }
+  }
+
+}
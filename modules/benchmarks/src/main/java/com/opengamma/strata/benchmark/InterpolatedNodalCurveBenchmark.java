@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
+
+/**
+ * Benchmarks curve interpolation.
+ * <p>
+ * Each invocation evaluates the curve at a set of points spread over 30 years,
+ * matching the pattern of a long swap leg, with the score reported per point.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpolatedNodalCurveBenchmark {
+
+  private static final int POINTS = 360;
+  private static final DoubleArray X_VALUES =
+      DoubleArray.of(0.08, 0.25, 0.5, 0.75, 1, 1.5, 2, 3, 4, 5, 7, 10, 12, 15, 20, 25, 30);
+  private static final DoubleArray Y_VALUES =
+      DoubleArray.of(-0.0036, -0.0036, -0.0035, -0.0034, -0.0033, -0.0030, -0.0026,
+          -0.0014, 0.0001, 0.0016, 0.0043, 0.0075, 0.0090, 0.0110, 0.0125, 0.0128, 0.0130);
+
+  /**
+   * The name of the interpolator.
+   */
+  @Param({"Linear", "LogLinear", "DoubleQuadratic", "NaturalSpline", "PiecewiseCubicHermiteMonotonicity"})
+  private String interpolatorName;
+
+  private InterpolatedNodalCurve curve;
+  private final double[] xs = new double[POINTS];
+  private DoubleArray xArray;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    curve = InterpolatedNodalCurve.of(
+        Curves.zeroRates("Benchmark", ACT_365F),
+        X_VALUES,
+        Y_VALUES.map(y -> y + 0.01),
+        CurveInterpolator.of(interpolatorName),
+        CurveExtrapolators.FLAT,
+        CurveExtrapolators.FLAT);
+    for (int i = 0; i < POINTS; i++) {
+      xs[i] = (i + 0.5) / 12d;
+    }
+    xArray = DoubleArray.copyOf(xs);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the y-value.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void yValue(Blackhole bh) {
+    for (int i = 0; i < POINTS; i++) {
+      bh.consume(curve.yValue(xs[i]));
+    }
+  }
+
+  /**
+   * Calculates the y-values in a single batch, the points being in ascending order.
+   *
+   * @return the y-values
+   */
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public DoubleArray yValues() {
+    return curve.yValues(xArray);
+  }
+
+  /**
+   * Calculates the first derivative.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void firstDerivative(Blackhole bh) {
+    for (int i = 0; i < POINTS; i++) {
+      bh.consume(curve.firstDerivative(xs[i]));
+    }
+  }
+
+  /**
+   * Calculates the sensitivity of the y-value to the parameters.
+   *
+   * @param bh  the black hole
+   */
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void yValueParameterSensitivity(Blackhole bh) {
+    for (int i = 0; i < POINTS; i++) {
+      bh.consume(curve.yValueParameterSensitivity(xs[i]));
+    }
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.benchmark;
+
+import static com.opengamma.strata.benchmark.BenchmarkData.REF_DATA;
+import static com.opengamma.strata.benchmark.BenchmarkData.VAL_DATE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+
+/**
+ * Benchmarks the swap pricer.
+ * <p>
+ * A EURIBOR 6M swap is priced against calibrated curves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwapPricerBenchmark {
+
+  /**
+   * The tenor of the swap, in years.
+   */
+  @Param({"5", "30"})
+  private int tenorYears;
+
+  private final DiscountingSwapProductPricer pricer = DiscountingSwapProductPricer.DEFAULT;
+  private ImmutableRatesProvider provider;
+  private ResolvedSwap swap;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Sets up the benchmark.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    provider = BenchmarkData.calibratedProvider();
+    swap = FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_6M
+        .createTrade(VAL_DATE, Tenor.ofYears(tenorYears), BuySell.BUY, 10_000_000d, 0.01, REF_DATA)
+        .getProduct()
+        .resolve(REF_DATA);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value.
+   *
+   * @return the present value
+   */
+  @Benchmark
+  public MultiCurrencyAmount presentValue() {
+    return pricer.presentValue(swap, provider);
+  }
+
+  /**
+   * Calculates the present value point sensitivity.
+   *
+   * @return the point sensitivity
+   */
+  @Benchmark
+  public PointSensitivityBuilder presentValueSensitivity() {
+    return pricer.presentValueSensitivity(swap, provider);
+  }
+
+  /**
+   * Calculates the present value parameter sensitivity, from point sensitivity to curve parameters.
+   *
+   * @return the parameter sensitivity
+   */
+  @Benchmark
+  public CurrencyParameterSensitivities presentValueParameterSensitivity() {
+    PointSensitivities pointSens = pricer.presentValueSensitivity(swap, provider).build();
+    return provider.parameterSensitivity(pointSens);
+  }
+
+}
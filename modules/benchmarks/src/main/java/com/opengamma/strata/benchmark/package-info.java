@@ -0,0 +1,14 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+
+/**
+ * JMH benchmarks for Strata.
+ * <p>
+ * The benchmarks cover the calculation engine, curve calibration and the core pricers.
+ * They are run using {@link com.opengamma.strata.benchmark.BenchmarkRunner BenchmarkRunner},
+ * which writes the results in a format suitable for comparison between versions.
+ */
+package com.opengamma.strata.benchmark;
@@ -5,13 +5,17 @@
  */
 package com.opengamma.strata.calc;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.runner.CalculationHandle;
 import com.opengamma.strata.calc.runner.CalculationListener;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.CalculationTaskRunnerOptions;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -54,6 +58,21 @@ public interface CalculationRunner extends AutoCloseable {
     return DefaultCalculationRunner.ofMultiThreaded();
   }
 
+  /**
+   * Creates a calculation runner that uses a new virtual thread for each calculation.
+   * <p>
+   * This suits functions that block, for example when market data or reference data is loaded lazily.
+   * Virtual threads are available from Java 21. On earlier versions, this factory creates
+   * an executor basing the number of threads on the number of available processors,
+   * as per {@link #ofMultiThreaded()}.
+   * It is recommended to use try-with-resources to manage the runner.
+   * 
+   * @return the calculation runner
+   */
+  public static CalculationRunner ofVirtualThreads() {
+    return DefaultCalculationRunner.ofVirtualThreads();
+  }
+
   /**
    * Creates a calculation runner capable of performing calculations, specifying the executor.
    * <p>
@@ -66,6 +85,23 @@ public interface CalculationRunner extends AutoCloseable {
     return DefaultCalculationRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor and options.
+   * <p>
+   * The options control how the calculations are executed, such as whether they are ordered by estimated cost,
+   * executed in batches, split by scenario or timed.
+   * See {@link CalculationTaskRunner#of(ExecutorService, CalculationTaskRunnerOptions)}.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param options  the options controlling how the calculations are executed
+   * @return the calculation runner
+   */
+  public static CalculationRunner of(ExecutorService executor, CalculationTaskRunnerOptions options) {
+    return DefaultCalculationRunner.of(executor, options);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
@@ -103,8 +139,9 @@ public interface CalculationRunner extends AutoCloseable {
    * @param marketData  the market data to be used in the calculations
    * @param refData  the reference data to be used in the calculations
    * @param listener  listener that is invoked when individual results are calculated
+   * @return the handle on the calculations, allowing them to be cancelled
    */
-  public abstract void calculateAsync(
+  public abstract CalculationHandle calculateAsync(
       CalculationRules calculationRules,
       List<? extends CalculationTarget> targets,
       List<Column> columns,
@@ -112,6 +149,42 @@ public interface CalculationRunner extends AutoCloseable {
       ReferenceData refData,
       CalculationListener listener);
 
+  /**
+   * Performs calculations asynchronously for a single set of market data, stopping at a deadline,
+   * invoking a listener as each calculation completes.
+   * <p>
+   * Tasks that have not started when the deadline passes are not run. Instead, they are passed
+   * to the listener as failures with a reason of {@link FailureReason#TIMEOUT}.
+   * <p>
+   * The default implementation delegates to the method without a deadline if the deadline is null,
+   * and throws an exception otherwise. Implementations that support deadlines override this method.
+   * 
+   * @param calculationRules  the rules defining how the calculation is performed
+   * @param targets  the targets for which values of the measures will be calculated
+   * @param columns  the configuration for the columns that will be calculated,
+   *   including the measure and any column-specific overrides
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @param listener  listener that is invoked when individual results are calculated
+   * @param deadline  the deadline after which tasks that have not started are not run, null if there is no deadline
+   * @return the handle on the calculations, allowing them to be cancelled
+   * @throws UnsupportedOperationException if the deadline is not null and deadlines are not supported
+   */
+  public default CalculationHandle calculateAsync(
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    if (deadline != null) {
+      throw new UnsupportedOperationException("Deadlines are not supported by " + getClass().getSimpleName());
+    }
+    return calculateAsync(calculationRules, targets, columns, marketData, refData, listener);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for multiple scenarios, each with a different set of market data.
@@ -149,8 +222,9 @@ public interface CalculationRunner extends AutoCloseable {
    * @param marketData  the market data to be used in the calculations
    * @param refData  the reference data to be used in the calculations
    * @param listener  listener that is invoked when individual results are calculated
+   * @return the handle on the calculations, allowing them to be cancelled
    */
-  public abstract void calculateMultiScenarioAsync(
+  public abstract CalculationHandle calculateMultiScenarioAsync(
       CalculationRules calculationRules,
       List<? extends CalculationTarget> targets,
       List<Column> columns,
@@ -158,6 +232,42 @@ public interface CalculationRunner extends AutoCloseable {
       ReferenceData refData,
       CalculationListener listener);
 
+  /**
+   * Performs calculations asynchronously for multiple scenarios, each with a different set of market data,
+   * stopping at a deadline, invoking a listener as each calculation completes.
+   * <p>
+   * Tasks that have not started when the deadline passes are not run. Instead, they are passed
+   * to the listener as failures with a reason of {@link FailureReason#TIMEOUT}.
+   * <p>
+   * The default implementation delegates to the method without a deadline if the deadline is null,
+   * and throws an exception otherwise. Implementations that support deadlines override this method.
+   * 
+   * @param calculationRules  the rules defining how the calculation is performed
+   * @param targets  the targets for which values of the measures will be calculated
+   * @param columns  the configuration for the columns that will be calculated,
+   *   including the measure and any column-specific overrides
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @param listener  listener that is invoked when individual results are calculated
+   * @param deadline  the deadline after which tasks that have not started are not run, null if there is no deadline
+   * @return the handle on the calculations, allowing them to be cancelled
+   * @throws UnsupportedOperationException if the deadline is not null and deadlines are not supported
+   */
+  public default CalculationHandle calculateMultiScenarioAsync(
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    if (deadline != null) {
+      throw new UnsupportedOperationException("Deadlines are not supported by " + getClass().getSimpleName());
+    }
+    return calculateMultiScenarioAsync(calculationRules, targets, columns, marketData, refData, listener);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the underlying task runner.
@@ -0,0 +1,604 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Calculation results stored by column, with values held as primitive arrays.
+ * <p>
+ * This is an alternative to {@link Results} that uses much less memory for large multi-scenario runs.
+ * Where {@code Results} holds a {@link Result} object for each cell, typically wrapping a scenario array,
+ * this class holds the values of each column in a single contiguous array of doubles.
+ * The columns that can be stored this way are those where every successful result is of the same type,
+ * one of {@code Double}, {@link DoubleScenarioArray}, {@link CurrencyAmount}, {@link CurrencyScenarioArray},
+ * {@link MultiCurrencyAmount} or {@link MultiCurrencyScenarioArray}, with the same number of scenarios.
+ * <p>
+ * Failures, and any other values that cannot be stored as primitives, are held in a sparse table.
+ * As such, the memory used is proportional to the number of values, not the number of cells.
+ * <p>
+ * The result of a cell is recreated each time it is requested by {@link #get(int, int)}.
+ * Totals of a column are calculated directly from the primitive arrays,
+ * see {@link #totalDoubles(int)} and {@link #totalCurrencyAmounts(int)}.
+ * <p>
+ * Instances are created from an existing set of results using {@link #of(Results)},
+ * or as the results are received using {@link #builder(List, int)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ColumnarResults {
+
+  /**
+   * The column headers.
+   */
+  private final ImmutableList<ColumnHeader> columns;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The values of each column.
+   */
+  private final ValueColumn[] valueColumns;
+  /**
+   * The cells that are not held as primitives, keyed by cell index, typically failures.
+   * The index of a given cell is {@code (rowIndex * columnCount) + columnIndex}.
+   */
+  private final ImmutableMap<Integer, Result<?>> otherCells;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a set of results.
+   *
+   * @param results  the results
+   * @return the columnar results
+   */
+  public static ColumnarResults of(Results results) {
+    ArgChecker.notNull(results, "results");
+    Builder builder = builder(results.getColumns(), results.getRowCount());
+    for (int row = 0; row < results.getRowCount(); row++) {
+      for (int column = 0; column < results.getColumnCount(); column++) {
+        builder.add(row, column, results.get(row, column));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns a builder that accepts the result of each cell in any order.
+   * <p>
+   * Each result is converted to primitives as it is added, thus the result object can be discarded.
+   *
+   * @param columns  the column headers
+   * @param rowCount  the number of rows
+   * @return the builder
+   */
+  public static Builder builder(List<ColumnHeader> columns, int rowCount) {
+    return new Builder(columns, rowCount);
+  }
+
+  // restricted constructor
+  private ColumnarResults(
+      ImmutableList<ColumnHeader> columns,
+      int rowCount,
+      ValueColumn[] valueColumns,
+      ImmutableMap<Integer, Result<?>> otherCells) {
+
+    this.columns = columns;
+    this.rowCount = rowCount;
+    this.valueColumns = valueColumns;
+    this.otherCells = otherCells;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the column headers.
+   *
+   * @return the column headers
+   */
+  public ImmutableList<ColumnHeader> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets the number of rows in the results.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the results.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Gets the number of cells that are not held as primitives.
+   * <p>
+   * This is typically the number of failures.
+   *
+   * @return the number of cells not held as primitives
+   */
+  public int getOtherCellCount() {
+    return otherCells.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the results for a target and column index.
+   * <p>
+   * The result is recreated from the primitive values, thus a new instance is returned each time.
+   * If the calculation did not complete successfully, a failure result will be returned.
+   *
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the result for the specified row and column
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public Result<?> get(int rowIndex, int columnIndex) {
+    ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+    ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+    Result<?> other = otherCells.get(rowIndex * columns.size() + columnIndex);
+    if (other != null) {
+      return other;
+    }
+    return Result.success(valueColumns[columnIndex].value(rowIndex));
+  }
+
+  /**
+   * Returns the results for a target and column index, casting the result to a known type.
+   *
+   * @param <T>  the result type
+   * @param rowIndex  the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @param type  the result type
+   * @return the result for the specified row and column, cast to the specified type
+   * @throws IllegalArgumentException if the row or column index is invalid
+   * @throws ClassCastException if the result is not of the specified type
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Result<T> get(int rowIndex, int columnIndex, Class<T> type) {
+    Result<?> result = get(rowIndex, columnIndex);
+    if (result.isFailure() || type.isInstance(result.getValue())) {
+      return (Result<T>) result;
+    }
+    throw new ClassCastException(Messages.format(
+        "Result queried with type '{}' but was '{}'", type.getName(), result.getValue().getClass().getName()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the total of a column of doubles, for each scenario.
+   * <p>
+   * The column must contain {@code Double} or {@link DoubleScenarioArray} values.
+   * Cells that are not held as primitives, such as failures, are excluded from the total.
+   * The total is calculated from the primitive values without creating any objects.
+   *
+   * @param columnIndex  the index of the column
+   * @return the total for each scenario, empty if the column has no values
+   * @throws IllegalArgumentException if the column index is invalid or the column does not contain doubles
+   */
+  public DoubleArray totalDoubles(int columnIndex) {
+    ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+    ValueColumn column = valueColumns[columnIndex];
+    if (column.type == null) {
+      return DoubleArray.EMPTY;
+    }
+    if (!column.type.isDouble()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Column {} does not contain doubles, it contains {}", columnIndex, column.type));
+    }
+    int scenarioCount = column.scenarioCount;
+    double[] total = new double[scenarioCount];
+    for (int entry = 0; entry < column.entryCount; entry++) {
+      int offset = entry * scenarioCount;
+      for (int i = 0; i < scenarioCount; i++) {
+        total[i] += column.values[offset + i];
+      }
+    }
+    return DoubleArray.ofUnsafe(total);
+  }
+
+  /**
+   * Calculates the total of a column of currency amounts, for each scenario.
+   * <p>
+   * The column must contain {@link CurrencyAmount}, {@link CurrencyScenarioArray}, {@link MultiCurrencyAmount}
+   * or {@link MultiCurrencyScenarioArray} values. The amounts are totalled separately for each currency.
+   * Cells that are not held as primitives, such as failures, are excluded from the total.
+   * The total is calculated from the primitive values, only creating an array for each currency.
+   *
+   * @param columnIndex  the index of the column
+   * @return the total for each scenario, empty if the column has no values
+   * @throws IllegalArgumentException if the column index is invalid or the column does not contain currency amounts
+   */
+  public MultiCurrencyScenarioArray totalCurrencyAmounts(int columnIndex) {
+    ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+    ValueColumn column = valueColumns[columnIndex];
+    if (column.type == null) {
+      return MultiCurrencyScenarioArray.of(ImmutableMap.of());
+    }
+    if (column.type.isDouble() || column.type == ValueType.OTHER) {
+      throw new IllegalArgumentException(Messages.format(
+          "Column {} does not contain currency amounts, it contains {}", columnIndex, column.type));
+    }
+    int scenarioCount = column.scenarioCount;
+    Map<Currency, double[]> totals = new HashMap<>();
+    for (int entry = 0; entry < column.entryCount; entry++) {
+      double[] total = totals.computeIfAbsent(column.currencies[entry], ccy -> new double[scenarioCount]);
+      int offset = entry * scenarioCount;
+      for (int i = 0; i < scenarioCount; i++) {
+        total[i] += column.values[offset + i];
+      }
+    }
+    Map<Currency, DoubleArray> values = new HashMap<>();
+    totals.forEach((ccy, total) -> values.put(ccy, DoubleArray.ofUnsafe(total)));
+    return MultiCurrencyScenarioArray.of(values);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts these results to an instance of {@link Results}, creating a result object for each cell.
+   *
+   * @return the results
+   */
+  public Results toResults() {
+    List<Result<?>> cells = new ArrayList<>(rowCount * columns.size());
+    for (int row = 0; row < rowCount; row++) {
+      for (int column = 0; column < columns.size(); column++) {
+        cells.add(get(row, column));
+      }
+    }
+    return Results.of(columns, cells);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "ColumnarResults[rowCount={}, columns={}, otherCellCount={}]", rowCount, columns, otherCells.size());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The types of value that are held as primitives.
+   */
+  private enum ValueType {
+    /** {@code Double}. */
+    DOUBLE,
+    /** {@code DoubleScenarioArray}. */
+    DOUBLE_SCENARIO_ARRAY,
+    /** {@code CurrencyAmount}. */
+    CURRENCY_AMOUNT,
+    /** {@code CurrencyScenarioArray}. */
+    CURRENCY_SCENARIO_ARRAY,
+    /** {@code MultiCurrencyAmount}. */
+    MULTI_CURRENCY_AMOUNT,
+    /** {@code MultiCurrencyScenarioArray}. */
+    MULTI_CURRENCY_SCENARIO_ARRAY,
+    /** Any other type, which is not held as primitives. */
+    OTHER;
+
+    // finds the type of the value
+    private static ValueType of(Object value) {
+      if (value instanceof Double) {
+        return DOUBLE;
+      } else if (value instanceof DoubleScenarioArray) {
+        return DOUBLE_SCENARIO_ARRAY;
+      } else if (value instanceof CurrencyAmount) {
+        return CURRENCY_AMOUNT;
+      } else if (value instanceof CurrencyScenarioArray) {
+        return CURRENCY_SCENARIO_ARRAY;
+      } else if (value instanceof MultiCurrencyAmount) {
+        return MULTI_CURRENCY_AMOUNT;
+      } else if (value instanceof MultiCurrencyScenarioArray) {
+        return MULTI_CURRENCY_SCENARIO_ARRAY;
+      }
+      return OTHER;
+    }
+
+    // the number of scenarios in the value
+    private int scenarioCount(Object value) {
+      return value instanceof ScenarioArray ? ((ScenarioArray<?>) value).getScenarioCount() : 1;
+    }
+
+    // checks if the type holds doubles rather than currency amounts
+    private boolean isDouble() {
+      return this == DOUBLE || this == DOUBLE_SCENARIO_ARRAY;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The values of a column.
+   * <p>
+   * Each row has zero or more entries, each consisting of a currency and a value for each scenario.
+   * The values of all entries are held in a single array, with the values of an entry being contiguous.
+   */
+  private static final class ValueColumn {
+
+    /** The type of the values, null if there are no values. */
+    private final ValueType type;
+    /** The number of scenarios. */
+    private final int scenarioCount;
+    /** The index of the first entry of each row. */
+    private final int[] rowEntryStart;
+    /** The number of entries of each row. */
+    private final int[] rowEntryCount;
+    /** The number of entries. */
+    private final int entryCount;
+    /** The currency of each entry, null if the column holds doubles. */
+    private final Currency[] currencies;
+    /** The values of each entry, grouped by entry. */
+    private final double[] values;
+
+    private ValueColumn(
+        ValueType type,
+        int scenarioCount,
+        int[] rowEntryStart,
+        int[] rowEntryCount,
+        int entryCount,
+        Currency[] currencies,
+        double[] values) {
+
+      this.type = type;
+      this.scenarioCount = scenarioCount;
+      this.rowEntryStart = rowEntryStart;
+      this.rowEntryCount = rowEntryCount;
+      this.entryCount = entryCount;
+      this.currencies = currencies;
+      this.values = values;
+    }
+
+    // recreates the value of a row
+    private Object value(int row) {
+      int entry = rowEntryStart[row];
+      switch (type) {
+        case DOUBLE:
+          return values[entry];
+        case DOUBLE_SCENARIO_ARRAY:
+          return DoubleScenarioArray.of(entryValues(entry));
+        case CURRENCY_AMOUNT:
+          return CurrencyAmount.of(currencies[entry], values[entry]);
+        case CURRENCY_SCENARIO_ARRAY:
+          return CurrencyScenarioArray.of(currencies[entry], entryValues(entry));
+        case MULTI_CURRENCY_AMOUNT: {
+          List<CurrencyAmount> amounts = new ArrayList<>(rowEntryCount[row]);
+          for (int i = entry; i < entry + rowEntryCount[row]; i++) {
+            amounts.add(CurrencyAmount.of(currencies[i], values[i]));
+          }
+          return MultiCurrencyAmount.of(amounts);
+        }
+        case MULTI_CURRENCY_SCENARIO_ARRAY: {
+          Map<Currency, DoubleArray> amounts = new HashMap<>();
+          for (int i = entry; i < entry + rowEntryCount[row]; i++) {
+            amounts.put(currencies[i], entryValues(i));
+          }
+          return MultiCurrencyScenarioArray.of(amounts);
+        }
+        default:
+          throw new IllegalStateException("Value not held as primitives: " + type);
+      }
+    }
+
+    // the values of an entry
+    private DoubleArray entryValues(int entry) {
+      return DoubleArray.copyOf(values, entry * scenarioCount, (entry + 1) * scenarioCount);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builder for {@code ColumnarResults}, accepting the result of each cell in any order.
+   * <p>
+   * This class is mutable and not thread-safe.
+   */
+  public static final class Builder {
+
+    /** The column headers. */
+    private final ImmutableList<ColumnHeader> columns;
+    /** The number of rows. */
+    private final int rowCount;
+    /** The builders for each column. */
+    private final ValueColumnBuilder[] valueColumns;
+    /** The cells that are not held as primitives, keyed by cell index. */
+    private final Map<Integer, Result<?>> otherCells = new HashMap<>();
+
+    private Builder(List<ColumnHeader> columns, int rowCount) {
+      this.columns = ImmutableList.copyOf(ArgChecker.notNull(columns, "columns"));
+      this.rowCount = ArgChecker.notNegative(rowCount, "rowCount");
+      this.valueColumns = new ValueColumnBuilder[columns.size()];
+      for (int i = 0; i < valueColumns.length; i++) {
+        valueColumns[i] = new ValueColumnBuilder(rowCount);
+      }
+    }
+
+    /**
+     * Adds the result of a cell.
+     * <p>
+     * The value of a successful result is held as primitives if it is of the same type and
+     * has the same number of scenarios as the first successful result of the column.
+     * Failures and other values are held as they are.
+     *
+     * @param rowIndex  the index of the row
+     * @param columnIndex  the index of the column
+     * @param result  the result of the cell
+     * @return this builder
+     * @throws IllegalArgumentException if the row or column index is invalid
+     */
+    public Builder add(int rowIndex, int columnIndex, Result<?> result) {
+      ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+      ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+      ArgChecker.notNull(result, "result");
+      if (!result.isSuccess() || !valueColumns[columnIndex].add(rowIndex, result.getValue())) {
+        otherCells.put(rowIndex * columns.size() + columnIndex, result);
+      }
+      return this;
+    }
+
+    /**
+     * Builds the results.
+     * <p>
+     * Cells that have not been added are failures.
+     *
+     * @return the results
+     */
+    public ColumnarResults build() {
+      ValueColumn[] built = new ValueColumn[valueColumns.length];
+      Map<Integer, Result<?>> other = new HashMap<>(otherCells);
+      for (int column = 0; column < valueColumns.length; column++) {
+        built[column] = valueColumns[column].build();
+        for (int row = 0; row < rowCount; row++) {
+          int index = row * columns.size() + column;
+          if (built[column].rowEntryStart[row] < 0 && !other.containsKey(index)) {
+            other.put(index, Result.failure(
+                FailureReason.MISSING_DATA,
+                "No result was added for row {} and column {}",
+                row,
+                column));
+          }
+        }
+      }
+      return new ColumnarResults(columns, rowCount, built, ImmutableMap.copyOf(other));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builder for the values of a column, growing the arrays as entries are added.
+   */
+  private static final class ValueColumnBuilder {
+
+    private ValueType type;
+    private int scenarioCount;
+    private final int[] rowEntryStart;
+    private final int[] rowEntryCount;
+    private int entryCount;
+    private Currency[] currencies = new Currency[16];
+    private double[] values = new double[0];
+
+    private ValueColumnBuilder(int rowCount) {
+      this.rowEntryStart = new int[rowCount];
+      this.rowEntryCount = new int[rowCount];
+      Arrays.fill(rowEntryStart, -1);
+    }
+
+    // adds the value of a row, returning false if it cannot be held as primitives
+    private boolean add(int row, Object value) {
+      ValueType valueType = ValueType.of(value);
+      if (type == null) {
+        type = valueType;
+        scenarioCount = valueType.scenarioCount(value);
+      }
+      if (valueType != type || type == ValueType.OTHER || valueType.scenarioCount(value) != scenarioCount) {
+        return false;
+      }
+      if (rowEntryStart[row] >= 0) {
+        throw new IllegalArgumentException(Messages.format("Result already added for row {}", row));
+      }
+      rowEntryStart[row] = entryCount;
+      switch (type) {
+        case DOUBLE:
+          addEntry(null, (double) (Double) value);
+          break;
+        case DOUBLE_SCENARIO_ARRAY:
+          addEntry(null, ((DoubleScenarioArray) value).getValues());
+          break;
+        case CURRENCY_AMOUNT: {
+          CurrencyAmount amount = (CurrencyAmount) value;
+          addEntry(amount.getCurrency(), amount.getAmount());
+          break;
+        }
+        case CURRENCY_SCENARIO_ARRAY: {
+          CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+          addEntry(array.getCurrency(), array.getAmounts().getValues());
+          break;
+        }
+        case MULTI_CURRENCY_AMOUNT:
+          for (CurrencyAmount amount : ((MultiCurrencyAmount) value).getAmounts()) {
+            addEntry(amount.getCurrency(), amount.getAmount());
+          }
+          break;
+        case MULTI_CURRENCY_SCENARIO_ARRAY: {
+          MultiCurrencyScenarioArray array = (MultiCurrencyScenarioArray) value;
+          for (Currency currency : array.getCurrencies()) {
+            addEntry(currency, array.getValues(currency));
+          }
+          break;
+        }
+        default:
+          throw new IllegalStateException("Value not held as primitives: " + type);
+      }
+      rowEntryCount[row] = entryCount - rowEntryStart[row];
+      return true;
+    }
+
+    // adds an entry with a single scenario
+    private void addEntry(Currency currency, double value) {
+      ensureCapacity();
+      currencies[entryCount] = currency;
+      values[entryCount++] = value;
+    }
+
+    // adds an entry with a value for each scenario
+    private void addEntry(Currency currency, DoubleArray entryValues) {
+      ensureCapacity();
+      currencies[entryCount] = currency;
+      entryValues.copyInto(values, entryCount++ * scenarioCount);
+    }
+
+    // ensures there is capacity for another entry, doubling the size of the arrays when full
+    private void ensureCapacity() {
+      if (entryCount == currencies.length) {
+        currencies = Arrays.copyOf(currencies, entryCount * 2);
+      }
+      int requiredValues = (entryCount + 1) * scenarioCount;
+      if (requiredValues > values.length) {
+        values = Arrays.copyOf(values, Math.max(requiredValues, values.length * 2));
+      }
+    }
+
+    // builds the column, trimming the arrays
+    private ValueColumn build() {
+      ValueType builtType = type == ValueType.OTHER ? null : type;
+      Currency[] builtCurrencies = builtType == null || builtType.isDouble() ?
+          null :
+          Arrays.copyOf(currencies, entryCount);
+      return new ValueColumn(
+          builtType,
+          scenarioCount,
+          rowEntryStart.clone(),
+          rowEntryCount.clone(),
+          entryCount,
+          builtCurrencies,
+          Arrays.copyOf(values, entryCount * scenarioCount));
+    }
+  }
+
+}
@@ -5,13 +5,16 @@
  */
 package com.opengamma.strata.calc;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.runner.CalculationHandle;
 import com.opengamma.strata.calc.runner.CalculationListener;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.CalculationTaskRunnerOptions;
 import com.opengamma.strata.calc.runner.CalculationTasks;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketData;
@@ -47,6 +50,18 @@ class DefaultCalculationRunner implements CalculationRunner {
     return new DefaultCalculationRunner(CalculationTaskRunner.ofMultiThreaded());
   }
 
+  /**
+   * Creates a calculation runner that uses a new virtual thread for each calculation.
+   * <p>
+   * On Java versions before 21, this creates an executor basing the number of threads
+   * on the number of available processors.
+   * 
+   * @return the calculation runner
+   */
+  static DefaultCalculationRunner ofVirtualThreads() {
+    return new DefaultCalculationRunner(CalculationTaskRunner.ofVirtualThreads());
+  }
+
   /**
    * Creates a calculation runner capable of performing calculations, specifying the executor.
    * <p>
@@ -59,6 +74,19 @@ class DefaultCalculationRunner implements CalculationRunner {
     return new DefaultCalculationRunner(CalculationTaskRunner.of(executor));
   }
 
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor and options.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param options  the options controlling how the calculations are executed
+   * @return the calculation runner
+   */
+  static DefaultCalculationRunner of(ExecutorService executor, CalculationTaskRunnerOptions options) {
+    return new DefaultCalculationRunner(CalculationTaskRunner.of(executor, options));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance specifying the underlying task runner to use.
@@ -83,7 +111,7 @@ class DefaultCalculationRunner implements CalculationRunner {
   }
 
   @Override
-  public void calculateAsync(
+  public CalculationHandle calculateAsync(
       CalculationRules calculationRules,
       List<? extends CalculationTarget> targets,
       List<Column> columns,
@@ -92,7 +120,21 @@ class DefaultCalculationRunner implements CalculationRunner {
       CalculationListener listener) {
 
     CalculationTasks tasks = CalculationTasks.of(calculationRules, targets, columns, refData);
-    taskRunner.calculateAsync(tasks, marketData, refData, listener);
+    return taskRunner.calculateAsync(tasks, marketData, refData, listener);
+  }
+
+  @Override
+  public CalculationHandle calculateAsync(
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    CalculationTasks tasks = CalculationTasks.of(calculationRules, targets, columns, refData);
+    return taskRunner.calculateAsync(tasks, marketData, refData, listener, deadline);
   }
 
   //-------------------------------------------------------------------------
@@ -109,7 +151,7 @@ class DefaultCalculationRunner implements CalculationRunner {
   }
 
   @Override
-  public void calculateMultiScenarioAsync(
+  public CalculationHandle calculateMultiScenarioAsync(
       CalculationRules calculationRules,
       List<? extends CalculationTarget> targets,
       List<Column> columns,
@@ -118,7 +160,21 @@ class DefaultCalculationRunner implements CalculationRunner {
       CalculationListener listener) {
 
     CalculationTasks tasks = CalculationTasks.of(calculationRules, targets, columns, refData);
-    taskRunner.calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+    return taskRunner.calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+  }
+
+  @Override
+  public CalculationHandle calculateMultiScenarioAsync(
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    CalculationTasks tasks = CalculationTasks.of(calculationRules, targets, columns, refData);
+    return taskRunner.calculateMultiScenarioAsync(tasks, marketData, refData, listener, deadline);
   }
 
   //-------------------------------------------------------------------------
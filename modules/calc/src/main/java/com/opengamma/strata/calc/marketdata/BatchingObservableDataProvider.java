@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Provider of observable market data that requests the data from another provider in batches.
+ * <p>
+ * The requested identifiers are split into chunks, and each chunk is requested from the underlying
+ * provider using an executor. The future for each identifier is completed when its chunk is received,
+ * or with a failure if the chunk is not received before the timeout.
+ */
+final class BatchingObservableDataProvider implements ObservableDataProvider {
+
+  /** The scheduler used to complete the requests that time out. */
+  private static final ScheduledThreadPoolExecutor TIMEOUT_SCHEDULER = createTimeoutScheduler();
+
+  /** The provider of the market data. */
+  private final ObservableDataProvider underlying;
+  /** The maximum number of identifiers in one request. */
+  private final int chunkSize;
+  /** The maximum time to wait for each request. */
+  private final Duration timeout;
+  /** The executor used to make the requests. */
+  private final Executor executor;
+
+  /**
+   * Creates an instance.
+   *
+   * @param underlying  the provider of the market data
+   * @param chunkSize  the maximum number of identifiers in one request
+   * @param timeout  the maximum time to wait for each request
+   * @param executor  the executor used to make the requests
+   */
+  BatchingObservableDataProvider(
+      ObservableDataProvider underlying,
+      int chunkSize,
+      Duration timeout,
+      Executor executor) {
+
+    this.underlying = ArgChecker.notNull(underlying, "underlying");
+    this.chunkSize = ArgChecker.notNegativeOrZero(chunkSize, "chunkSize");
+    this.timeout = ArgChecker.notNull(timeout, "timeout");
+    this.executor = ArgChecker.notNull(executor, "executor");
+    ArgChecker.isFalse(timeout.isNegative() || timeout.isZero(), "timeout must be positive");
+  }
+
+  // creates the scheduler, using a daemon thread so it does not prevent the JVM exiting
+  private static ScheduledThreadPoolExecutor createTimeoutScheduler() {
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "ObservableDataProvider-timeout");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> identifiers) {
+    return MapStream.of(provideObservableDataAsync(identifiers))
+        .mapValues(CompletableFuture::join)
+        .toMap();
+  }
+
+  @Override
+  public Map<ObservableId, CompletableFuture<Result<Double>>> provideObservableDataAsync(
+      Set<? extends ObservableId> identifiers) {
+
+    Map<ObservableId, CompletableFuture<Result<Double>>> futures = new HashMap<>();
+    for (List<? extends ObservableId> chunk : Iterables.partition(identifiers, chunkSize)) {
+      Map<ObservableId, CompletableFuture<Result<Double>>> chunkFutures = new HashMap<>();
+      chunk.forEach(id -> chunkFutures.put(id, new CompletableFuture<>()));
+      futures.putAll(chunkFutures);
+      request(ImmutableSet.copyOf(chunk), chunkFutures);
+    }
+    return futures;
+  }
+
+  // requests a chunk, completing the futures when the chunk is received or the request times out
+  private void request(Set<ObservableId> chunk, Map<ObservableId, CompletableFuture<Result<Double>>> chunkFutures) {
+    ScheduledFuture<?> timeoutTask = TIMEOUT_SCHEDULER.schedule(
+        () -> chunkFutures.forEach((id, future) -> future.complete(timeoutFailure(id))),
+        timeout.toNanos(),
+        TimeUnit.NANOSECONDS);
+    CompletableFuture.supplyAsync(() -> underlying.provideObservableDataAsync(chunk), executor)
+        .whenComplete((results, ex) -> {
+          chunkFutures.forEach((id, future) -> {
+            CompletableFuture<Result<Double>> result = results != null ? results.get(id) : null;
+            if (result != null) {
+              result.whenComplete((value, valueEx) ->
+                  future.complete(value != null ? value : requestFailure(id, valueEx)));
+            } else {
+              future.complete(requestFailure(id, ex));
+            }
+          });
+          CompletableFuture.allOf(chunkFutures.values().toArray(new CompletableFuture<?>[0]))
+              .whenComplete((ignored, ignoredEx) -> timeoutTask.cancel(false));
+        });
+  }
+
+  // the failure when a request times out
+  private Result<Double> timeoutFailure(ObservableId id) {
+    return Result.failure(
+        FailureReason.MISSING_DATA,
+        "Timed out after {} waiting for observable market data for '{}'",
+        timeout,
+        id);
+  }
+
+  /**
+   * Creates the failure when a request throws an exception or does not provide the identifier.
+   *
+   * @param id  the identifier
+   * @param ex  the exception thrown by the request, null if the identifier was not provided
+   * @return the failure
+   */
+  static Result<Double> requestFailure(ObservableId id, Throwable ex) {
+    if (ex == null) {
+      return Result.failure(FailureReason.MISSING_DATA, "No observable market data provided for '{}'", id);
+    }
+    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    return Result.failure(
+        FailureReason.MISSING_DATA,
+        "Unable to obtain observable market data for '{}': {}",
+        id,
+        cause.toString());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "BatchingObservableDataProvider[chunkSize={}, timeout={}, underlying={}]", chunkSize, timeout, underlying);
+  }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.BinaryTimeSeriesFile;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Implementation of a time-series provider that reads the time-series from a memory-mapped binary file.
+ * <p>
+ * The time-series returned are views of the mapped file, thus no data is copied
+ * unless the file contains more than one block for an identifier.
+ */
+final class BinaryFileTimeSeriesProvider implements TimeSeriesProvider {
+
+  /** The file containing the time-series. */
+  private final BinaryTimeSeriesFile file;
+
+  /**
+   * Creates an instance.
+   *
+   * @param file  the file containing the time-series
+   */
+  BinaryFileTimeSeriesProvider(BinaryTimeSeriesFile file) {
+    this.file = ArgChecker.notNull(file, "file");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Result<LocalDateDoubleTimeSeries> provideTimeSeries(ObservableId id) {
+    return file.findTimeSeries(id)
+        .map(Result::success)
+        .orElseGet(() -> Result.failure(
+            FailureReason.MISSING_DATA,
+            "No time-series found in file '{}' for '{}'",
+            file.getFile(),
+            id));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("BinaryFileTimeSeriesProvider[file={}]", file.getFile());
+  }
+
+}
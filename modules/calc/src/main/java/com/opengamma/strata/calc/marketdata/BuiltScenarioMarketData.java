@@ -5,6 +5,10 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -23,10 +27,12 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+import org.joda.beans.ser.JodaBeanSer;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.Unchecked;
 import com.opengamma.strata.collect.result.Failure;
 import com.opengamma.strata.collect.result.FailureException;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
@@ -35,6 +41,7 @@ import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.data.MarketDataNotFoundException;
 import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.BinaryMarketDataSnapshot;
 import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
@@ -104,6 +111,53 @@ public final class BuiltScenarioMarketData
     return EMPTY;
   }
 
+  /**
+   * Reads a snapshot of built market data written by {@link #writeSnapshot(OutputStream)}.
+   * <p>
+   * The stream is neither buffered nor closed by this method.
+   *
+   * @param in  the stream to read from
+   * @return the market data
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the stream does not contain a valid snapshot of built market data
+   */
+  public static BuiltScenarioMarketData readSnapshot(InputStream in) {
+    ImmutableScenarioMarketData underlying = BinaryMarketDataSnapshot.readScenarioMarketData(in);
+    BuiltScenarioMarketData failures = Unchecked.wrap(() -> {
+      DataInputStream dataIn = new DataInputStream(in);
+      byte[] bytes = new byte[dataIn.readInt()];
+      dataIn.readFully(bytes);
+      return JodaBeanSer.COMPACT.binReader().read(bytes, BuiltScenarioMarketData.class);
+    });
+    return new BuiltScenarioMarketData(underlying, failures.valueFailures, failures.timeSeriesFailures);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a snapshot of the market data, including the failures.
+   * <p>
+   * The underlying market data is written using {@link BinaryMarketDataSnapshot}, followed by the failures.
+   * The stream is neither buffered nor closed by this method.
+   *
+   * @param out  the stream to write to
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if an identifier or value cannot be written
+   */
+  public void writeSnapshot(OutputStream out) {
+    BinaryMarketDataSnapshot.write(underlying, out);
+    // the failures are written with market data containing no values
+    ImmutableScenarioMarketData noValues = ImmutableScenarioMarketData.of(
+        underlying.getScenarioCount(), underlying.getValuationDate(), ImmutableMap.of(), ImmutableMap.of());
+    BuiltScenarioMarketData failures = new BuiltScenarioMarketData(noValues, valueFailures, timeSeriesFailures);
+    byte[] bytes = JodaBeanSer.COMPACT.binWriter().write(failures);
+    Unchecked.wrap(() -> {
+      DataOutputStream dataOut = new DataOutputStream(out);
+      dataOut.writeInt(bytes.length);
+      dataOut.write(bytes);
+      dataOut.flush();
+    });
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public MarketDataBox<LocalDate> getValuationDate() {
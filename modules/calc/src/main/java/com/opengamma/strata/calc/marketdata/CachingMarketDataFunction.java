@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ser.JodaBeanSer;
+import org.joda.convert.StringConvert;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Ints;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Market data function that caches the market data built by another function.
+ * <p>
+ * The cache key is a SHA-256 digest of the ID, the valuation date, the configuration used to build
+ * the value, the values of all the market data required by the function and all the time-series.
+ * Every time-series is part of the key, rather than only those in the requirements, as functions
+ * such as curve calibration use any fixings that are available.
+ * The configuration is obtained using a function, which must return every item in the
+ * {@link MarketDataConfig} that affects the value. The reference data is not part of the key.
+ * <p>
+ * The key can only be calculated if the ID, configuration and market data are Joda-Beans or
+ * Joda-Convert types. If it cannot be calculated, the value is built without using the cache.
+ * Time-series that are not Joda-Beans, such as those read from a memory-mapped file, are converted
+ * to a standard time-series, thus equal points produce the same key whatever the type of time-series.
+ *
+ * @param <T>  the type of the market data built by this class
+ * @param <I>  the type of the market data ID handled by this class
+ */
+final class CachingMarketDataFunction<T, I extends MarketDataId<? extends T>> implements MarketDataFunction<T, I> {
+
+  /** The function that builds the values. */
+  private final MarketDataFunction<T, I> underlying;
+  /** The cache. */
+  private final MarketDataCache cache;
+  /** The function returning the configuration used to build a value. */
+  private final BiFunction<? super I, MarketDataConfig, ?> configFunction;
+
+  /**
+   * Creates an instance.
+   *
+   * @param underlying  the function that builds the values
+   * @param cache  the cache
+   * @param configFunction  the function returning the configuration used to build a value
+   */
+  CachingMarketDataFunction(
+      MarketDataFunction<T, I> underlying,
+      MarketDataCache cache,
+      BiFunction<? super I, MarketDataConfig, ?> configFunction) {
+
+    this.underlying = underlying;
+    this.cache = cache;
+    this.configFunction = configFunction;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataRequirements requirements(I id, MarketDataConfig marketDataConfig) {
+    return underlying.requirements(id, marketDataConfig);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public MarketDataBox<T> build(
+      I id,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    Optional<String> key = key(id, marketDataConfig, marketData);
+    if (!key.isPresent()) {
+      return underlying.build(id, marketDataConfig, marketData, refData);
+    }
+    Optional<MarketDataBox<?>> cached = cache.find(key.get());
+    if (cached.isPresent()) {
+      return (MarketDataBox<T>) cached.get();
+    }
+    MarketDataBox<T> value = underlying.build(id, marketDataConfig, marketData, refData);
+    cache.put(key.get(), value);
+    return value;
+  }
+
+  @Override
+  public Class<I> getMarketDataIdType() {
+    return underlying.getMarketDataIdType();
+  }
+
+  //-------------------------------------------------------------------------
+  // calculates the digest of everything used to build the value, empty if the digest cannot be calculated
+  private Optional<String> key(I id, MarketDataConfig marketDataConfig, ScenarioMarketData marketData) {
+    MessageDigest digest = sha256();
+    MarketDataRequirements requirements = underlying.requirements(id, marketDataConfig);
+    boolean digested = update(digest, id) &&
+        update(digest, marketData.getValuationDate()) &&
+        update(digest, configFunction.apply(id, marketDataConfig));
+    for (MarketDataId<?> requiredId : requirements.getNonObservables()) {
+      digested = digested && update(digest, marketData.findValue(requiredId).orElse(null));
+    }
+    for (ObservableId requiredId : requirements.getObservables()) {
+      digested = digested && update(digest, marketData.findValue(requiredId).orElse(null));
+    }
+    List<ObservableId> timeSeriesIds = marketData.getTimeSeriesIds().stream()
+        .sorted(Comparator.comparing(ObservableId::toString))
+        .collect(toImmutableList());
+    for (ObservableId timeSeriesId : timeSeriesIds) {
+      digested = digested && update(digest, timeSeriesId) && update(digest, marketData.getTimeSeries(timeSeriesId));
+    }
+    return digested ? Optional.of(BaseEncoding.base16().lowerCase().encode(digest.digest())) : Optional.empty();
+  }
+
+  // adds an object to the digest, prefixing the bytes with their length so adjacent objects cannot be confused
+  private static boolean update(MessageDigest digest, Object obj) {
+    if (obj == null) {
+      digest.update(Ints.toByteArray(-1));
+      return true;
+    }
+    if (obj instanceof Iterable) {
+      digest.update(Ints.toByteArray(-2));
+      for (Object item : (Iterable<?>) obj) {
+        if (!update(digest, item)) {
+          return false;
+        }
+      }
+      digest.update(Ints.toByteArray(-3));
+      return true;
+    }
+    if (obj instanceof LocalDateDoubleTimeSeries && !(obj instanceof Bean)) {
+      return update(digest, ((LocalDateDoubleTimeSeries) obj).toBuilder().build());
+    }
+    byte[] bytes;
+    if (obj instanceof Bean) {
+      try {
+        bytes = JodaBeanSer.COMPACT.binWriter().write((Bean) obj);
+      } catch (RuntimeException ex) {
+        return false;
+      }
+    } else if (StringConvert.INSTANCE.isConvertible(obj.getClass())) {
+      String str = obj.getClass().getName() + ':' + StringConvert.INSTANCE.convertToString(obj);
+      bytes = str.getBytes(StandardCharsets.UTF_8);
+    } else {
+      return false;
+    }
+    digest.update(Ints.toByteArray(bytes.length));
+    digest.update(bytes);
+    return true;
+  }
+
+  // obtains the digest, which is always available in the JVM
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CachingMarketDataFunction[" + underlying + "]";
+  }
+
+}
@@ -9,15 +9,27 @@ import static com.opengamma.strata.collect.Guavate.not;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.result.Failure;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.data.MarketData;
@@ -30,6 +42,15 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * The default market data factory.
  * <p>
  * This uses two providers, one for observable data and one for time-series.
+ * <p>
+ * If an executor is specified, non-observable market data is built concurrently using the executor.
+ * Each item of market data is built as soon as the market data it depends on has been built,
+ * thus independent items, such as unrelated curve groups and volatility surfaces, are built at the same time.
+ * Observable data is then requested using {@link ObservableDataProvider#provideObservableDataAsync(Set)},
+ * and items are built as soon as the observable data they depend on has been received, while the rest
+ * of the observable data is still outstanding.
+ * The calling thread also builds items while it waits, thus the factory may be invoked
+ * from a thread of a bounded executor, including the executor used by the factory itself.
  */
 final class DefaultMarketDataFactory implements MarketDataFactory {
 
@@ -42,6 +63,9 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
   /** Market data functions, keyed by the type of the market data ID they can handle. */
   private final Map<Class<? extends MarketDataId<?>>, MarketDataFunction<?, ?>> functions;
 
+  /** The executor used to build non-observable market data, null if built in the calling thread. */
+  private final Executor executor;
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance of the factory based on providers of market data and time-series.
@@ -52,14 +76,34 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param timeSeriesProvider  the provider time-series
    * @param functions  the functions that create the market data
    */
-  @SuppressWarnings("unchecked")
   DefaultMarketDataFactory(
       ObservableDataProvider observableDataProvider,
       TimeSeriesProvider timeSeriesProvider,
       List<MarketDataFunction<?, ?>> functions) {
 
+    this(observableDataProvider, timeSeriesProvider, null, functions);
+  }
+
+  /**
+   * Creates an instance of the factory based on providers of market data and time-series,
+   * building non-observable market data concurrently.
+   * <p>
+   * The market data functions are used to build the market data.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param executor  the executor used to build non-observable market data, null to build in the calling thread
+   * @param functions  the functions that create the market data
+   */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Executor executor,
+      List<MarketDataFunction<?, ?>> functions) {
+
     this.observableDataProvider = observableDataProvider;
     this.timeSeriesProvider = timeSeriesProvider;
+    this.executor = executor;
 
     // Use a HashMap instead of an ImmutableMap.Builder so values can be overwritten.
     // If the functions argument includes a missing mapping builder it can overwrite the one inserted below
@@ -128,6 +172,10 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     //
     // The result of this method also contains details of the problems for market data can't be built or found.
 
+    // When using an executor, each item is built as soon as its dependencies are built, rather than level by level
+    if (executor != null) {
+      return buildConcurrently(root, marketDataConfig, suppliedData, refData, scenarioDefinition, dataBuilder);
+    }
     while (!root.isLeaf()) {
       // Effectively final reference to buildData which can be used in a lambda expression
       BuiltScenarioMarketData marketData = builtData;
@@ -138,38 +186,8 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       // The requirements contained in the leaf nodes
       MarketDataRequirements leafRequirements = pair.getSecond();
 
-      // Time series of observable data ------------------------------------------------------------
-
-      // Build any time series that are required but not available
-      leafRequirements.getTimeSeries().stream()
-          .filter(id -> marketData.getTimeSeries(id).isEmpty())
-          .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesProvider.provideTimeSeries(id)));
-
-      // Copy supplied time series to the scenario data
-      leafRequirements.getTimeSeries().stream()
-          .filter(id -> !suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeries(id, suppliedData.getTimeSeries(id)));
-
-      // Single values of observable data -----------------------------------------------------------
-
-      // Filter out IDs for the data that is already available
-      Set<ObservableId> observableIds = leafRequirements.getObservables().stream()
-          .filter(not(marketData::containsValue))
-          .filter(not(suppliedData::containsValue))
-          .collect(toImmutableSet());
-
-      // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
-      if (!observableIds.isEmpty()) {
-        Map<ObservableId, Result<Double>> observableResults = observableDataProvider.provideObservableData(observableIds);
-        MapStream.of(observableResults)
-            .forEach((id, res) -> addObservableResult(id, res, refData, scenarioDefinition, dataBuilder));
-      }
-
-      // Copy observable data from the supplied data to the builder, applying any matching perturbations
-      leafRequirements.getObservables().stream()
-          .filter(suppliedData::containsValue)
-          .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
+      // Time series, observable data and supplied data
+      addAvailableData(leafRequirements, marketData, suppliedData, refData, scenarioDefinition, dataBuilder);
 
       // Non-observable data -----------------------------------------------------------------------
 
@@ -185,11 +203,6 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       MapStream.of(nonObservableResults)
           .forEach((id, result) -> addResult(id, result, refData, scenarioDefinition, dataBuilder));
 
-      // Copy supplied data to the scenario data after applying perturbations
-      leafRequirements.getNonObservables().stream()
-          .filter(suppliedData::containsValue)
-          .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
-
       // --------------------------------------------------------------------------------------------
 
       // Put the data built so far into an object that will be used in the next phase of building data
@@ -201,6 +214,221 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return builtData;
   }
 
+  /**
+   * Adds the market data that does not need to be built by a market data function.
+   * <p>
+   * This adds the time-series and observable data requested from the providers, plus any supplied data,
+   * applying any matching perturbations.
+   *
+   * @param leafRequirements  the requirements represented by the leaves of the dependency tree
+   * @param marketData  the market data built so far
+   * @param suppliedData  the market data supplied by the user
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @param dataBuilder  the market data is added to this builder
+   */
+  private void addAvailableData(
+      MarketDataRequirements leafRequirements,
+      BuiltScenarioMarketData marketData,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    addTimeSeries(leafRequirements, marketData, suppliedData, dataBuilder);
+
+    // Single values of observable data -----------------------------------------------------------
+
+    // Filter out IDs for the data that is already available
+    Set<ObservableId> observableIds = leafRequirements.getObservables().stream()
+        .filter(not(marketData::containsValue))
+        .filter(not(suppliedData::containsValue))
+        .collect(toImmutableSet());
+
+    // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
+    if (!observableIds.isEmpty()) {
+      Map<ObservableId, Result<Double>> observableResults = observableDataProvider.provideObservableData(observableIds);
+      MapStream.of(observableResults)
+          .forEach((id, res) -> addObservableResult(id, res, refData, scenarioDefinition, dataBuilder));
+    }
+    addSuppliedValues(leafRequirements, suppliedData, refData, scenarioDefinition, dataBuilder);
+  }
+
+  /**
+   * Adds the time-series, requesting those that have not been supplied from the time-series provider.
+   *
+   * @param leafRequirements  the requirements represented by the leaves of the dependency tree
+   * @param marketData  the market data built so far
+   * @param suppliedData  the market data supplied by the user
+   * @param dataBuilder  the market data is added to this builder
+   */
+  private void addTimeSeries(
+      MarketDataRequirements leafRequirements,
+      BuiltScenarioMarketData marketData,
+      ScenarioMarketData suppliedData,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    // Build any time series that are required but not available
+    leafRequirements.getTimeSeries().stream()
+        .filter(id -> marketData.getTimeSeries(id).isEmpty())
+        .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
+        .forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesProvider.provideTimeSeries(id)));
+
+    // Copy supplied time series to the scenario data
+    leafRequirements.getTimeSeries().stream()
+        .filter(id -> !suppliedData.getTimeSeries(id).isEmpty())
+        .forEach(id -> dataBuilder.addTimeSeries(id, suppliedData.getTimeSeries(id)));
+  }
+
+  /**
+   * Adds the supplied observable and non-observable data, applying any matching perturbations.
+   *
+   * @param leafRequirements  the requirements represented by the leaves of the dependency tree
+   * @param suppliedData  the market data supplied by the user
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @param dataBuilder  the market data is added to this builder
+   */
+  private void addSuppliedValues(
+      MarketDataRequirements leafRequirements,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    // Copy observable data from the supplied data to the builder, applying any matching perturbations
+    leafRequirements.getObservables().stream()
+        .filter(suppliedData::containsValue)
+        .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
+
+    // Copy supplied non-observable data to the scenario data after applying perturbations
+    leafRequirements.getNonObservables().stream()
+        .filter(suppliedData::containsValue)
+        .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
+  }
+
+  /**
+   * Builds the market data using the executor.
+   * <p>
+   * Observable data, time-series and supplied data are always leaves of the dependency tree.
+   * Time-series and supplied data are added first, then the observable data is requested asynchronously
+   * and the non-observable data is built concurrently.
+   * Each item of non-observable data is built as soon as the data it depends on has been built or received,
+   * rather than waiting for all the data at the same level of the tree.
+   *
+   * @param root  the root of the dependency tree
+   * @param marketDataConfig  configuration specifying how the market data should be built
+   * @param suppliedData  the market data supplied by the user
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @param dataBuilder  the market data is added to this builder
+   * @return the market data
+   */
+  private BuiltScenarioMarketData buildConcurrently(
+      MarketDataNode root,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    MarketDataRequirements leafRequirements = root.withLeavesRemoved().getSecond();
+    addTimeSeries(leafRequirements, dataBuilder.build(), suppliedData, dataBuilder);
+    addSuppliedValues(leafRequirements, suppliedData, refData, scenarioDefinition, dataBuilder);
+
+    // find the data to be built or requested and the data each item depends on, ignoring supplied data
+    Map<MarketDataId<?>, Set<MarketDataId<?>>> dependencies = new HashMap<>();
+    root.findValueDependencies(dependencies);
+    dependencies.keySet().removeIf(suppliedData::containsValue);
+    dependencies.values().forEach(ids -> ids.retainAll(dependencies.keySet()));
+
+    // the observable data is requested before any data is built, so slow requests do not delay the building
+    Set<ObservableId> observableIds = dependencies.keySet().stream()
+        .filter(ObservableId.class::isInstance)
+        .map(ObservableId.class::cast)
+        .collect(toImmutableSet());
+    Map<ObservableId, CompletableFuture<Result<Double>>> observableResults = observableIds.isEmpty() ?
+        ImmutableMap.of() :
+        observableDataProvider.provideObservableDataAsync(observableIds);
+
+    ConcurrentBuild build =
+        new ConcurrentBuild(dependencies, marketDataConfig, refData, scenarioDefinition, dataBuilder);
+    return build.run(observableResults);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Set<MarketDataId<?>> affectedIds(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    // the changed IDs are fed through the tree of dependencies, finding all the market data built from them
+    MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
+    Set<MarketDataId<?>> affectedIds = new HashSet<>(changedIds);
+    root.findAffected(changedIds, affectedIds);
+    return ImmutableSet.copyOf(affectedIds);
+  }
+
+  @Override
+  public BuiltScenarioMarketData rebuildMultiScenario(
+      BuiltScenarioMarketData previous,
+      Map<? extends ObservableId, Double> changedValues,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    // only the market data in the dependency tree is affected, changed values that are not required are ignored
+    MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
+    Set<MarketDataId<?>> affectedIds = new HashSet<>();
+    root.findAffected(changedValues.keySet(), affectedIds);
+
+    // the unaffected data, and failures, are copied from the previous market data
+    Map<MarketDataId<?>, MarketDataBox<?>> values = new HashMap<>(previous.getUnderlying().getValues());
+    Map<MarketDataId<?>, Failure> valueFailures = new HashMap<>(previous.getValueFailures());
+    values.keySet().removeAll(affectedIds);
+    valueFailures.keySet().removeAll(affectedIds);
+    BuiltScenarioMarketDataBuilder dataBuilder = new BuiltScenarioMarketDataBuilder(
+        previous.getValuationDate(),
+        previous.getScenarioCount(),
+        values,
+        previous.getUnderlying().getTimeSeries(),
+        valueFailures,
+        previous.getTimeSeriesFailures());
+
+    // the changed values are added, applying any matching perturbations
+    MapStream.of(changedValues)
+        .filterKeys(affectedIds::contains)
+        .mapValues(value -> MarketDataBox.ofSingleValue(value))
+        .forEach((id, value) -> addValue(id, value, refData, scenarioDefinition, dataBuilder));
+
+    // only the affected non-observable data is built, supplied data is never built
+    Map<MarketDataId<?>, Set<MarketDataId<?>>> dependencies = new HashMap<>();
+    root.findNonObservableDependencies(dependencies);
+    dependencies.keySet().retainAll(affectedIds);
+    dependencies.keySet().removeIf(suppliedData::containsValue);
+    dependencies.values().forEach(ids -> ids.retainAll(dependencies.keySet()));
+
+    if (executor != null) {
+      ConcurrentBuild build =
+          new ConcurrentBuild(dependencies, marketDataConfig, refData, scenarioDefinition, dataBuilder);
+      return build.run(ImmutableMap.of());
+    }
+    // each pass builds the data whose dependencies have all been built
+    while (!dependencies.isEmpty()) {
+      BuiltScenarioMarketData marketData = dataBuilder.build();
+      Set<MarketDataId<?>> readyIds = MapStream.of(dependencies).filterValues(Set::isEmpty).toMap().keySet();
+      MapStream.of(buildNonObservableData(readyIds, marketDataConfig, marketData, refData))
+          .forEach((id, result) -> addResult(id, result, refData, scenarioDefinition, dataBuilder));
+      dependencies.keySet().removeAll(readyIds);
+      dependencies.values().forEach(ids -> ids.removeAll(readyIds));
+    }
+    return dataBuilder.build();
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds items of non-observable market data using a market data function.
@@ -310,7 +538,6 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param scenarioDefinition  definition of a set of scenarios
    * @param builder  the market data is added to this builder
    */
-  @SuppressWarnings("unchecked")
   private void addValue(
       MarketDataId<?> id,
       MarketDataBox<?> value,
@@ -318,21 +545,236 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       ScenarioDefinition scenarioDefinition,
       BuiltScenarioMarketDataBuilder builder) {
 
-    Optional<PerturbationMapping<?>> optionalMapping = scenarioDefinition.getMappings().stream()
-        .filter(m -> m.matches(id, value, refData))
-        .findFirst();
-
-    if (optionalMapping.isPresent()) {
-      // This is definitely safe because the filter matched the value and the types of the filter and perturbation
-      // are compatible
-      PerturbationMapping<Object> mapping = (PerturbationMapping<Object>) optionalMapping.get();
-      MarketDataBox<Object> objectValue = ((MarketDataBox<Object>) value);
-      // Result.of() catches any exceptions thrown by the mapping and wraps them in a failure
-      Result<MarketDataBox<?>> result = Result.of(() -> mapping.applyPerturbation(objectValue, refData));
-      builder.addResult(id, result);
+    Optional<Result<MarketDataBox<?>>> perturbed = perturb(id, value, refData, scenarioDefinition);
+    if (perturbed.isPresent()) {
+      builder.addResult(id, perturbed.get());
     } else {
       builder.addBox(id, value);
     }
   }
 
+  /**
+   * Applies the first matching mapping from the scenario definition to an item of market data.
+   *
+   * @param id  ID of the market data value
+   * @param value  the market data value
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @return a result containing the perturbed values, empty if no mapping matches the value
+   */
+  @SuppressWarnings("unchecked")
+  private static Optional<Result<MarketDataBox<?>>> perturb(
+      MarketDataId<?> id,
+      MarketDataBox<?> value,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    Optional<PerturbationMapping<?>> optionalMapping = scenarioDefinition.findMapping(id, value, refData);
+
+    if (!optionalMapping.isPresent()) {
+      return Optional.empty();
+    }
+    // This is definitely safe because the filter matched the value and the types of the filter and perturbation
+    // are compatible
+    PerturbationMapping<Object> mapping = (PerturbationMapping<Object>) optionalMapping.get();
+    MarketDataBox<Object> objectValue = ((MarketDataBox<Object>) value);
+    // Result.of() catches any exceptions thrown by the mapping and wraps them in a failure
+    return Optional.of(Result.of(() -> mapping.applyPerturbation(objectValue, refData)));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The concurrent build of non-observable market data.
+   * <p>
+   * Each item is queued once all the items it depends on have been built or received,
+   * and a task is passed to the executor to build the next queued item.
+   * The calling thread also builds queued items while it waits for the build to complete,
+   * thus the build completes even if the executor has no free threads or rejects the tasks,
+   * for example if the calling thread is the only thread of the executor.
+   * The function is invoked with a snapshot of the market data built so far, which contains
+   * all of its dependencies. Observable items are complete when their future is complete.
+   * The results are added to the builder while holding the lock on this object.
+   */
+  private final class ConcurrentBuild {
+
+    /** The IDs of the items depending on each item. */
+    private final Map<MarketDataId<?>, List<MarketDataId<?>>> dependents = new HashMap<>();
+    /** The number of dependencies of each item that have not been built, guarded by this object. */
+    private final Map<MarketDataId<?>, Integer> remainingDependencies = new HashMap<>();
+    /** The configuration specifying how the market data should be built. */
+    private final MarketDataConfig marketDataConfig;
+    /** The reference data. */
+    private final ReferenceData refData;
+    /** The scenario definition. */
+    private final ScenarioDefinition scenarioDefinition;
+    /** The builder to which the results are added, guarded by this object. */
+    private final BuiltScenarioMarketDataBuilder dataBuilder;
+    /** Completed when all items have been built. */
+    private final CompletableFuture<BuiltScenarioMarketData> future = new CompletableFuture<>();
+    /** The items that are ready to be built but have not started, guarded by this object. */
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+    /** The number of items that have not been built, guarded by this object. */
+    private int remainingCount;
+
+    private ConcurrentBuild(
+        Map<MarketDataId<?>, Set<MarketDataId<?>>> dependencies,
+        MarketDataConfig marketDataConfig,
+        ReferenceData refData,
+        ScenarioDefinition scenarioDefinition,
+        BuiltScenarioMarketDataBuilder dataBuilder) {
+
+      this.marketDataConfig = marketDataConfig;
+      this.refData = refData;
+      this.scenarioDefinition = scenarioDefinition;
+      this.dataBuilder = dataBuilder;
+      this.remainingCount = dependencies.size();
+      dependencies.forEach((id, dependencyIds) -> {
+        remainingDependencies.put(id, dependencyIds.size());
+        dependencyIds.forEach(dependencyId -> dependents.computeIfAbsent(dependencyId, k -> new ArrayList<>()).add(id));
+      });
+    }
+
+    // builds the items, blocking until all items have been built and all observable items received
+    private BuiltScenarioMarketData run(Map<ObservableId, CompletableFuture<Result<Double>>> observableResults) {
+      synchronized (this) {
+        if (remainingCount == 0) {
+          return dataBuilder.build();
+        }
+        submit(MapStream.of(remainingDependencies)
+            .filter((id, count) -> count == 0 && !(id instanceof ObservableId))
+            .toMap()
+            .keySet());
+        for (MarketDataId<?> id : remainingDependencies.keySet()) {
+          if (id instanceof ObservableId) {
+            ObservableId observableId = (ObservableId) id;
+            CompletableFuture<Result<Double>> future = observableResults.get(observableId);
+            if (future == null) {
+              received(observableId, null, null);
+            } else {
+              future.whenComplete((result, ex) -> received(observableId, result, ex));
+            }
+          }
+        }
+      }
+      runUntilComplete();
+      try {
+        return future.join();
+      } catch (CompletionException ex) {
+        Throwables.throwIfUnchecked(ex.getCause());
+        throw ex;
+      }
+    }
+
+    // builds queued items in the calling thread until all items have been built, or the build has failed
+    private void runUntilComplete() {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          Runnable task;
+          synchronized (this) {
+            while (pending.isEmpty() && !future.isDone()) {
+              try {
+                wait();
+              } catch (InterruptedException ex) {
+                interrupted = true;
+              }
+            }
+            if (future.isDone()) {
+              return;
+            }
+            task = pending.poll();
+          }
+          task.run();
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+    // queues the items with a snapshot of the data built so far, called while holding the lock
+    // a task is passed to the executor for each item, the calling thread runs the item if the executor does not
+    private void submit(Set<MarketDataId<?>> ids) {
+      BuiltScenarioMarketData marketData = dataBuilder.build();
+      for (MarketDataId<?> id : ids) {
+        pending.add(() -> build(id, marketData));
+        try {
+          executor.execute(this::runPending);
+        } catch (RejectedExecutionException ex) {
+          // the calling thread builds the item
+        }
+      }
+      notifyAll();
+    }
+
+    // builds the next queued item, if it has not already been built by another thread
+    private void runPending() {
+      Runnable task;
+      synchronized (this) {
+        task = pending.poll();
+      }
+      if (task != null) {
+        task.run();
+      }
+    }
+
+    // builds a single item, applying any perturbations outside the lock
+    private void build(MarketDataId<?> id, BuiltScenarioMarketData marketData) {
+      try {
+        Result<MarketDataBox<?>> result = buildNonObservableData(id, marketDataConfig, marketData, refData);
+        Result<MarketDataBox<?>> perturbed = result.isSuccess() ?
+            perturb(id, result.getValue(), refData, scenarioDefinition).orElse(result) :
+            result;
+        completed(id, perturbed);
+      } catch (RuntimeException | Error ex) {
+        failed(ex);
+      }
+    }
+
+    // adds an item of observable data to the builder, applying any perturbations outside the lock
+    private void received(ObservableId id, Result<Double> result, Throwable ex) {
+      try {
+        Result<MarketDataBox<?>> boxResult;
+        if (result == null) {
+          boxResult = Result.failure(BatchingObservableDataProvider.requestFailure(id, ex));
+        } else if (result.isFailure()) {
+          boxResult = Result.failure(result);
+        } else {
+          MarketDataBox<?> value = MarketDataBox.ofSingleValue(result.getValue());
+          boxResult = perturb(id, value, refData, scenarioDefinition).orElse(Result.success(value));
+        }
+        completed(id, boxResult);
+      } catch (RuntimeException | Error e) {
+        failed(e);
+      }
+    }
+
+    // adds the result to the builder and submits the items that are ready to be built
+    private synchronized void completed(MarketDataId<?> id, Result<MarketDataBox<?>> result) {
+      dataBuilder.addResult(id, result);
+      remainingCount--;
+      Set<MarketDataId<?>> ready = new HashSet<>();
+      for (MarketDataId<?> dependentId : dependents.getOrDefault(id, ImmutableList.of())) {
+        int count = remainingDependencies.merge(dependentId, -1, Integer::sum);
+        if (count == 0) {
+          ready.add(dependentId);
+        }
+      }
+      if (!ready.isEmpty()) {
+        submit(ready);
+      } else if (remainingCount == 0) {
+        future.complete(dataBuilder.build());
+        notifyAll();
+      }
+    }
+
+    // fails the build, discarding the items that have not started and waking the calling thread
+    private synchronized void failed(Throwable ex) {
+      pending.clear();
+      future.completeExceptionally(ex);
+      notifyAll();
+    }
+  }
+
 }
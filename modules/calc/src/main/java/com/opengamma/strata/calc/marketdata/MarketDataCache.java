@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ser.JodaBeanSer;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * A cache of built market data, such as calibrated curve groups and volatility surfaces.
+ * <p>
+ * The cache is content-addressed, each item of market data is stored against a digest of
+ * everything used to build it. It is used by the market data functions returned by
+ * {@link MarketDataFunction#cached(MarketDataFunction, MarketDataCache, java.util.function.BiFunction)},
+ * allowing market data built by one calculation session to be reused by another.
+ * <p>
+ * The values are held in memory up to a maximum number of entries, with the least recently used
+ * entries discarded when the maximum is exceeded. Alternatively, the values can be held up to a maximum
+ * total weight, where the weight of each value is calculated by a function, for example an estimate
+ * of its size in bytes. This allows the memory used by the cache to be bounded when the values
+ * vary widely in size, such as curve groups built for a large number of scenarios.
+ * <p>
+ * If a directory is specified, the values are also written to disk using the Joda-Beans binary format.
+ * Values that are not in memory are then read from disk, allowing a restarted process to avoid
+ * building the market data again.
+ * The directory must only be shared by processes using the same version of the library.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class MarketDataCache {
+
+  /** The suffix of the files in the directory. */
+  private static final String FILE_SUFFIX = ".bin";
+
+  /** The maximum number of values held in memory. */
+  private final int maxSize;
+  /** The maximum total weight of the values held in memory. */
+  private final long maxWeight;
+  /** The function calculating the weight of a value. */
+  private final ToLongFunction<? super MarketDataBox<?>> weigher;
+  /** The directory containing the values written to disk, null if not written to disk. */
+  private final Path directory;
+  /** The values held in memory, in order of access, guarded by this object. */
+  private final Map<String, MarketDataBox<?>> values = new LinkedHashMap<>(16, 0.75f, true);
+  /** The weights of the values held in memory, guarded by the values. */
+  private final Map<String, Long> weights = new HashMap<>();
+  /** The total weight of the values held in memory, guarded by the values. */
+  private long totalWeight;
+  /** The number of values found in memory. */
+  private final AtomicLong hitCount = new AtomicLong();
+  /** The number of values found on disk. */
+  private final AtomicLong diskHitCount = new AtomicLong();
+  /** The number of values not found. */
+  private final AtomicLong missCount = new AtomicLong();
+  /** The number of values discarded from memory. */
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance holding values in memory.
+   *
+   * @param maxSize  the maximum number of values held in memory
+   * @return the cache
+   */
+  public static MarketDataCache of(int maxSize) {
+    return new MarketDataCache(maxSize, Long.MAX_VALUE, value -> 1, null);
+  }
+
+  /**
+   * Obtains an instance holding values in memory and on disk.
+   * <p>
+   * The directory is created if it does not exist.
+   *
+   * @param maxSize  the maximum number of values held in memory
+   * @param directory  the directory to which the values are written
+   * @return the cache
+   * @throws IllegalArgumentException if the directory cannot be created
+   */
+  public static MarketDataCache of(int maxSize, Path directory) {
+    return new MarketDataCache(maxSize, Long.MAX_VALUE, value -> 1, createDirectory(directory));
+  }
+
+  /**
+   * Obtains an instance holding values in memory up to a maximum total weight.
+   * <p>
+   * The weigher calculates the weight of each value when it is added to the cache, for example
+   * an estimate of its size in bytes. The least recently used values are discarded when the total
+   * weight exceeds the maximum. A value whose weight exceeds the maximum is not held in memory.
+   *
+   * @param maxWeight  the maximum total weight of the values held in memory
+   * @param weigher  the function calculating the weight of a value, which must not be negative
+   * @return the cache
+   */
+  public static MarketDataCache ofMaxWeight(long maxWeight, ToLongFunction<? super MarketDataBox<?>> weigher) {
+    ArgChecker.notNull(weigher, "weigher");
+    return new MarketDataCache(Integer.MAX_VALUE, maxWeight, weigher, null);
+  }
+
+  /**
+   * Obtains an instance holding values in memory up to a maximum total weight, and on disk.
+   * <p>
+   * The weigher calculates the weight of each value when it is added to the cache, for example
+   * an estimate of its size in bytes. The least recently used values are discarded from memory when
+   * the total weight exceeds the maximum. A value whose weight exceeds the maximum is not held in memory.
+   * The directory is created if it does not exist.
+   *
+   * @param maxWeight  the maximum total weight of the values held in memory
+   * @param weigher  the function calculating the weight of a value, which must not be negative
+   * @param directory  the directory to which the values are written
+   * @return the cache
+   * @throws IllegalArgumentException if the directory cannot be created
+   */
+  public static MarketDataCache ofMaxWeight(
+      long maxWeight,
+      ToLongFunction<? super MarketDataBox<?>> weigher,
+      Path directory) {
+
+    ArgChecker.notNull(weigher, "weigher");
+    return new MarketDataCache(Integer.MAX_VALUE, maxWeight, weigher, createDirectory(directory));
+  }
+
+  // creates the directory if necessary
+  private static Path createDirectory(Path directory) {
+    ArgChecker.notNull(directory, "directory");
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException(Messages.format("Unable to create cache directory: {}", directory), ex);
+    }
+    return directory;
+  }
+
+  // restricted constructor
+  private MarketDataCache(
+      int maxSize,
+      long maxWeight,
+      ToLongFunction<? super MarketDataBox<?>> weigher,
+      Path directory) {
+
+    this.maxSize = ArgChecker.notNegativeOrZero(maxSize, "maxSize");
+    this.maxWeight = ArgChecker.notNegativeOrZero(maxWeight, "maxWeight");
+    this.weigher = weigher;
+    this.directory = directory;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the value associated with the key.
+   * <p>
+   * The value is found in memory, or read from disk if not in memory.
+   *
+   * @param key  the digest of the inputs used to build the value
+   * @return the value, empty if not found
+   */
+  Optional<MarketDataBox<?>> find(String key) {
+    synchronized (values) {
+      MarketDataBox<?> value = values.get(key);
+      if (value != null) {
+        hitCount.incrementAndGet();
+        return Optional.of(value);
+      }
+    }
+    Optional<MarketDataBox<?>> stored = read(key);
+    if (stored.isPresent()) {
+      diskHitCount.incrementAndGet();
+      store(key, stored.get());
+    } else {
+      missCount.incrementAndGet();
+    }
+    return stored;
+  }
+
+  /**
+   * Adds a value to the cache, writing it to disk if a directory has been specified.
+   *
+   * @param key  the digest of the inputs used to build the value
+   * @param value  the value
+   */
+  void put(String key, MarketDataBox<?> value) {
+    store(key, value);
+    write(key, value);
+  }
+
+  // adds a value to memory, discarding the least recently used values if the maximum size or weight is exceeded
+  private void store(String key, MarketDataBox<?> value) {
+    long weight = ArgChecker.notNegative(weigher.applyAsLong(value), "weight");
+    synchronized (values) {
+      values.put(key, value);
+      Long previousWeight = weights.put(key, weight);
+      totalWeight += weight - (previousWeight != null ? previousWeight : 0);
+      Iterator<String> it = values.keySet().iterator();
+      while ((values.size() > maxSize || totalWeight > maxWeight) && it.hasNext()) {
+        String eldestKey = it.next();
+        it.remove();
+        totalWeight -= weights.remove(eldestKey);
+        evictionCount.incrementAndGet();
+      }
+    }
+  }
+
+  // reads a value from disk, treating a missing or unreadable file as not found
+  private Optional<MarketDataBox<?>> read(String key) {
+    if (directory == null) {
+      return Optional.empty();
+    }
+    Path file = directory.resolve(key + FILE_SUFFIX);
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(JodaBeanSer.COMPACT.binReader().read(Files.readAllBytes(file), MarketDataBox.class));
+    } catch (IOException | RuntimeException ex) {
+      return Optional.empty();
+    }
+  }
+
+  // writes a value to disk, the value is written to a temporary file first so readers never see partial files
+  private void write(String key, MarketDataBox<?> value) {
+    if (directory == null || !(value instanceof Bean)) {
+      return;
+    }
+    try {
+      byte[] bytes = JodaBeanSer.COMPACT.binWriter().write((Bean) value);
+      Path tempFile = Files.createTempFile(directory, key, ".tmp");
+      Files.write(tempFile, bytes);
+      Files.move(tempFile, directory.resolve(key + FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException | RuntimeException ex) {
+      // the disk is only used to avoid building the value again, failing to write it is not an error
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the maximum number of values held in memory.
+   *
+   * @return the maximum number of values held in memory
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Gets the maximum total weight of the values held in memory.
+   * <p>
+   * This is {@code Long.MAX_VALUE} if the values are only bounded by their number.
+   *
+   * @return the maximum total weight of the values held in memory
+   */
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  /**
+   * Gets the directory to which the values are written.
+   *
+   * @return the directory, empty if the values are only held in memory
+   */
+  public Optional<Path> getDirectory() {
+    return Optional.ofNullable(directory);
+  }
+
+  /**
+   * Gets the number of values held in memory.
+   *
+   * @return the number of values held in memory
+   */
+  public int size() {
+    synchronized (values) {
+      return values.size();
+    }
+  }
+
+  /**
+   * Gets the total weight of the values held in memory.
+   * <p>
+   * If the cache is only bounded by the number of values, this is the number of values.
+   *
+   * @return the total weight of the values held in memory
+   */
+  public long weight() {
+    synchronized (values) {
+      return totalWeight;
+    }
+  }
+
+  /**
+   * Gets the number of times a value was found in memory.
+   *
+   * @return the number of values found in memory
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Gets the number of times a value was not found in memory but was read from disk.
+   *
+   * @return the number of values read from disk
+   */
+  public long getDiskHitCount() {
+    return diskHitCount.get();
+  }
+
+  /**
+   * Gets the number of times a value was not found, and therefore had to be built.
+   *
+   * @return the number of values not found
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Gets the number of values discarded from memory because the maximum size or weight was exceeded.
+   *
+   * @return the number of values discarded from memory
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * Removes all the values held in memory.
+   * <p>
+   * Values written to disk are not removed.
+   */
+  public void clear() {
+    synchronized (values) {
+      values.clear();
+      weights.clear();
+      totalWeight = 0;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "MarketDataCache[size={}, maxSize={}, weight={}, maxWeight={}, hits={}, diskHits={}, misses={}, evictions={}]",
+        size(), maxSize, weight(), maxWeight, getHitCount(), getDiskHitCount(), getMissCount(), getEvictionCount());
+  }
+
+}
@@ -6,11 +6,18 @@
 package com.opengamma.strata.calc.marketdata;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -74,6 +81,32 @@ public interface MarketDataFactory {
     return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, functions);
   }
 
+  /**
+   * Obtains an instance of the factory that builds non-observable market data concurrently.
+   * <p>
+   * The market data functions are used to build the market data.
+   * Each item of non-observable market data, such as a curve group or volatility surface, is built
+   * using the executor as soon as the market data it depends on has been built.
+   * Independent items are therefore built at the same time.
+   * The calling thread builds items itself while it waits for all the market data to be built,
+   * thus the factory may be invoked from a thread of the executor, even if it is the only thread.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param executor  the executor used to build non-observable market data
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Executor executor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    ArgChecker.notNull(executor, "executor");
+    return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, executor, functions);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds a set of market data.
@@ -154,4 +187,69 @@ public interface MarketDataFactory {
       ReferenceData refData,
       ScenarioDefinition scenarioDefinition);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the market data affected by a change to some of the market data.
+   * <p>
+   * This determines the market data that depends, directly or indirectly, on the changed market data.
+   * For example, if a quote has changed, the curves calibrated using the quote are affected.
+   * The result includes the changed IDs and can be used to determine the calculations that need to be
+   * performed again, see {@code IncrementalCalculationRunner}.
+   * <p>
+   * The dependencies are determined in the same way as when building the market data.
+   * As such, the dependencies of market data present in {@code suppliedData} are not examined.
+   *
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  market data supplied by the user
+   * @param changedIds  the IDs of the market data that has changed
+   * @return the IDs of the market data affected by the change, including the changed IDs
+   */
+  public abstract Set<MarketDataId<?>> affectedIds(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      Set<? extends MarketDataId<?>> changedIds);
+
+  /**
+   * Rebuilds market data following a change to some of the observable market data.
+   * <p>
+   * This returns market data equivalent to that returned by
+   * {@link #createMultiScenario(MarketDataRequirements, MarketDataConfig, ScenarioMarketData, ReferenceData,
+   * ScenarioDefinition) createMultiScenario} if it were invoked with the changed values.
+   * The market data that does not depend, directly or indirectly, on the changed values is taken from
+   * the previously built market data, thus only the affected market data is built again.
+   * For example, if a quote has changed, only the curve groups calibrated using the quote are rebuilt.
+   * <p>
+   * The previous market data must have been built by this factory using the same requirements,
+   * configuration, supplied data and scenario definition. The changed values take precedence over
+   * the supplied data and the observable data provider. Changed values that are not required are ignored.
+   * <p>
+   * The default implementation builds all the market data again.
+   *
+   * @param previous  the market data previously built from the requirements
+   * @param changedValues  the new values of the observable market data that has changed
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  the base market data used to derive the data for each scenario
+   * @param refData  the reference data
+   * @param scenarioDefinition  defines how the market data for each scenario is derived from the base data
+   * @return the market data required by the calculations, reflecting the changed values
+   */
+  public default BuiltScenarioMarketData rebuildMultiScenario(
+      BuiltScenarioMarketData previous,
+      Map<? extends ObservableId, Double> changedValues,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    ScenarioMarketData changedData = suppliedData;
+    for (Map.Entry<? extends ObservableId, Double> entry : changedValues.entrySet()) {
+      changedData = changedData.withValue(entry.getKey(), MarketDataBox.ofSingleValue(entry.getValue()));
+    }
+    return createMultiScenario(requirements, marketDataConfig, changedData, refData, scenarioDefinition);
+  }
+
 }
@@ -5,7 +5,10 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.function.BiFunction;
+
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
@@ -20,6 +23,43 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  */
 public interface MarketDataFunction<T, I extends MarketDataId<? extends T>> {
 
+  /**
+   * Obtains a function that caches the market data built by another function.
+   * <p>
+   * The returned function stores each value built by the underlying function in the cache.
+   * The cache key is a digest of the ID, the valuation date, the configuration used to build the value,
+   * the market data required by the underlying function and all the time-series in the market data.
+   * Thus a value is only reused if it would be built from the same inputs.
+   * <p>
+   * The configuration function must return every item in the {@link MarketDataConfig} that affects the
+   * value built for an ID. This includes the definition of the market data, such as a curve group definition,
+   * and any other configuration read by the underlying function, such as calibration tolerances.
+   * A list can be returned if the value depends on more than one item of configuration.
+   * If an item that affects the value is omitted, a value built using different configuration may be
+   * returned from the cache.
+   * The reference data is not part of the key, thus the cache must only be used with a single set
+   * of reference data.
+   *
+   * @param <T>  the type of the market data built by the function
+   * @param <I>  the type of the market data ID handled by the function
+   * @param function  the function that builds the market data
+   * @param cache  the cache in which the market data is stored
+   * @param configFunction  the function returning the configuration used to build the value for an ID
+   * @return a function caching the market data built by the underlying function
+   */
+  public static <T, I extends MarketDataId<? extends T>> MarketDataFunction<T, I> cached(
+      MarketDataFunction<T, I> function,
+      MarketDataCache cache,
+      BiFunction<? super I, MarketDataConfig, ?> configFunction) {
+
+    ArgChecker.notNull(function, "function");
+    ArgChecker.notNull(cache, "cache");
+    ArgChecker.notNull(configFunction, "configFunction");
+    return new CachingMarketDataFunction<>(function, cache, configFunction);
+  }
+
+  //-------------------------------------------------------------------------
+
   /**
    * Returns requirements representing the data needed to build the item of market data identified by the ID.
    *
@@ -5,10 +5,12 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.ArgChecker;
@@ -162,6 +164,85 @@ final class MarketDataNode {
     return Pair.of(node, requirements);
   }
 
+  /**
+   * Finds the market data affected by a change to the specified market data.
+   * <p>
+   * A node is affected if its market data has changed, or if any of its dependencies are affected.
+   * For example, if a quote changes, the curve group built from the quote and the curves
+   * in the group are affected. The IDs of the affected nodes are added to the set.
+   *
+   * @param changedIds  the IDs of the market data that has changed
+   * @param affectedIds  the mutable set to which the IDs of the affected market data are added
+   * @return true if this node is affected
+   */
+  boolean findAffected(Set<? extends MarketDataId<?>> changedIds, Set<MarketDataId<?>> affectedIds) {
+    // all dependencies are checked, as each may contribute to the affected IDs
+    boolean affected = id != null && changedIds.contains(id);
+    for (MarketDataNode child : dependencies) {
+      affected |= child.findAffected(changedIds, affectedIds);
+    }
+    if (affected && id != null) {
+      affectedIds.add(id);
+    }
+    return affected;
+  }
+
+  /**
+   * Finds the non-observable single values in the tree and the values each directly depends on.
+   * <p>
+   * Each non-observable single value in the tree below this node is added to the map, together with
+   * the IDs of the non-observable single values represented by its children.
+   * Observable values and time-series are not included.
+   *
+   * @param found  the mutable map to which the IDs and their dependencies are added
+   */
+  void findNonObservableDependencies(Map<MarketDataId<?>, Set<MarketDataId<?>>> found) {
+    for (MarketDataNode child : dependencies) {
+      child.findNonObservableDependencies(found);
+    }
+    if (isNonObservableValue()) {
+      Set<MarketDataId<?>> childIds = found.computeIfAbsent(id, k -> new HashSet<>());
+      for (MarketDataNode child : dependencies) {
+        if (child.isNonObservableValue()) {
+          childIds.add(child.id);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the single values in the tree and the single values each directly depends on.
+   * <p>
+   * Each single value in the tree below this node is added to the map, including observable values,
+   * together with the IDs of the single values represented by its children.
+   * Time-series are not included.
+   *
+   * @param found  the mutable map to which the IDs and their dependencies are added
+   */
+  void findValueDependencies(Map<MarketDataId<?>, Set<MarketDataId<?>>> found) {
+    for (MarketDataNode child : dependencies) {
+      child.findValueDependencies(found);
+    }
+    if (isSingleValue()) {
+      Set<MarketDataId<?>> childIds = found.computeIfAbsent(id, k -> new HashSet<>());
+      for (MarketDataNode child : dependencies) {
+        if (child.isSingleValue()) {
+          childIds.add(child.id);
+        }
+      }
+    }
+  }
+
+  // checks if the node represents a single value
+  private boolean isSingleValue() {
+    return id != null && dataType == DataType.SINGLE_VALUE;
+  }
+
+  // checks if the node represents a single value that is not observable
+  private boolean isNonObservableValue() {
+    return isSingleValue() && !(id instanceof ObservableId);
+  }
+
   /**
    * Returns true if this node has no children.
    *
@@ -7,9 +7,13 @@ package com.opengamma.strata.calc.marketdata;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.ObservableId;
@@ -19,6 +23,9 @@ import com.opengamma.strata.data.ObservableId;
  * <p>
  * This plugin point allows a market data supplier to be provided.
  * Implementations might request data from an external data provider, such as Bloomberg or Reuters.
+ * <p>
+ * Market data can be requested synchronously or asynchronously. Implementations that are naturally
+ * asynchronous should override {@link #provideObservableDataAsync(Set)}.
  */
 public interface ObservableDataProvider {
 
@@ -39,6 +46,31 @@ public interface ObservableDataProvider {
                 id)));
   }
 
+  /**
+   * Obtains an instance that requests market data from another provider in batches.
+   * <p>
+   * The identifiers requested from the returned provider are split into chunks of at most the specified size.
+   * Each chunk is requested using the executor, so the chunks are requested concurrently and the
+   * market data in each chunk is available as soon as the chunk has been received.
+   * <p>
+   * If a chunk has not been received when the timeout expires, each identifier in the chunk is
+   * a failure. If the request for a chunk throws an exception, each identifier in the chunk is a failure.
+   *
+   * @param underlying  the provider of the market data
+   * @param chunkSize  the maximum number of identifiers requested from the underlying provider in one request
+   * @param timeout  the maximum time to wait for each request
+   * @param executor  the executor used to make the requests
+   * @return a provider that requests market data from the underlying provider in batches
+   */
+  public static ObservableDataProvider batched(
+      ObservableDataProvider underlying,
+      int chunkSize,
+      Duration timeout,
+      Executor executor) {
+
+    return new BatchingObservableDataProvider(underlying, chunkSize, timeout, executor);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Provides market data for the specified identifiers.
@@ -52,4 +84,27 @@ public interface ObservableDataProvider {
    */
   public abstract Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> identifiers);
 
+  /**
+   * Provides market data for the specified identifiers asynchronously.
+   * <p>
+   * The implementation will provide a future for each identifier, completed when the market data
+   * for the identifier is available. If market data cannot be obtained for an identifier, the future
+   * will be completed with a failure. The returned map must contain one entry for each identifier that was requested.
+   * <p>
+   * The futures may complete at different times, allowing market data that depends on some of the
+   * identifiers to be built while the others are still being requested.
+   * <p>
+   * The default implementation invokes {@link #provideObservableData(Set)}, returning completed futures.
+   *
+   * @param identifiers  the market data identifiers to find
+   * @return the map of futures for the market data values, keyed by identifier
+   */
+  public default Map<ObservableId, CompletableFuture<Result<Double>>> provideObservableDataAsync(
+      Set<? extends ObservableId> identifiers) {
+
+    return MapStream.of(provideObservableData(identifiers))
+        .mapValues(result -> CompletableFuture.completedFuture(result))
+        .toMap();
+  }
+
 }
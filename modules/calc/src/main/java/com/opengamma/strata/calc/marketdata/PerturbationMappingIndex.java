@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.NamedMarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * An index of perturbation mappings, used to find the first mapping that matches an item of market data.
+ * <p>
+ * Mappings whose filter matches a single ID or name are held in maps keyed by the ID or name,
+ * and mappings whose filter matches a type of ID are grouped by the type.
+ * Only the mappings that might match an item of market data are checked, in the order of the
+ * original list, thus the result is the same as checking every mapping in turn.
+ * Mappings using other filters are always checked.
+ * <p>
+ * This class is thread-safe.
+ */
+final class PerturbationMappingIndex {
+
+  /** An index with no mappings. */
+  private static final PerturbationMappingIndex EMPTY = new PerturbationMappingIndex(ImmutableList.of());
+  /** No indices. */
+  private static final int[] NO_INDICES = new int[0];
+
+  /** The mappings. */
+  private final ImmutableList<PerturbationMapping<?>> mappings;
+  /** The indices of the mappings whose filter matches a single ID, keyed by the ID. */
+  private final ImmutableMap<MarketDataId<?>, int[]> idIndices;
+  /** The indices of the mappings whose filter matches a single name, keyed by the name. */
+  private final ImmutableMap<MarketDataName<?>, int[]> nameIndices;
+  /** The indices of the mappings whose filter matches a type of ID, keyed by the type. */
+  private final ImmutableMap<Class<?>, int[]> typeIndices;
+  /** The indices of the mappings whose filter is not indexed. */
+  private final int[] otherIndices;
+  /** The indices of the mappings whose filter matches a type of ID, keyed by the concrete class of the ID. */
+  private final Map<Class<?>, int[]> classIndices = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an index of the mappings.
+   *
+   * @param mappings  the mappings, in the order they are checked
+   * @return the index
+   */
+  static PerturbationMappingIndex of(List<? extends PerturbationMapping<?>> mappings) {
+    return mappings.isEmpty() ? EMPTY : new PerturbationMappingIndex(mappings);
+  }
+
+  // restricted constructor
+  private PerturbationMappingIndex(List<? extends PerturbationMapping<?>> mappings) {
+    this.mappings = ImmutableList.copyOf(mappings);
+    Map<MarketDataId<?>, List<Integer>> ids = new HashMap<>();
+    Map<MarketDataName<?>, List<Integer>> names = new HashMap<>();
+    Map<Class<?>, List<Integer>> types = new HashMap<>();
+    List<Integer> others = new ArrayList<>();
+    for (int i = 0; i < mappings.size(); i++) {
+      MarketDataFilter<?, ?> filter = mappings.get(i).getFilter();
+      if (filter instanceof IdFilter) {
+        ids.computeIfAbsent(((IdFilter<?>) filter).getId(), k -> new ArrayList<>()).add(i);
+      } else if (filter instanceof NameFilter) {
+        names.computeIfAbsent(((NameFilter<?>) filter).getName(), k -> new ArrayList<>()).add(i);
+      } else if (filter instanceof IdTypeFilter) {
+        types.computeIfAbsent(((IdTypeFilter<?>) filter).getType(), k -> new ArrayList<>()).add(i);
+      } else {
+        others.add(i);
+      }
+    }
+    this.idIndices = toIndices(ids);
+    this.nameIndices = toIndices(names);
+    this.typeIndices = toIndices(types);
+    this.otherIndices = Ints.toArray(others);
+  }
+
+  // converts the lists of indices to arrays
+  private static <K> ImmutableMap<K, int[]> toIndices(Map<K, List<Integer>> indices) {
+    ImmutableMap.Builder<K, int[]> builder = ImmutableMap.builder();
+    indices.forEach((key, list) -> builder.put(key, Ints.toArray(list)));
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the first mapping that matches an item of market data.
+   *
+   * @param id  the ID of the market data
+   * @param value  the market data value
+   * @param refData  the reference data
+   * @return the first matching mapping, empty if no mapping matches
+   */
+  Optional<PerturbationMapping<?>> findMatch(MarketDataId<?> id, MarketDataBox<?> value, ReferenceData refData) {
+    if (mappings.isEmpty()) {
+      return Optional.empty();
+    }
+    int[] byId = idIndices.getOrDefault(id, NO_INDICES);
+    int[] byName = id instanceof NamedMarketDataId ?
+        nameIndices.getOrDefault(((NamedMarketDataId<?>) id).getMarketDataName(), NO_INDICES) :
+        NO_INDICES;
+    int[] byType = typeIndices.isEmpty() ?
+        NO_INDICES :
+        classIndices.computeIfAbsent(id.getClass(), this::findTypeIndices);
+
+    // each array is in ascending order, they are merged so the mappings are checked in the original order
+    int idPos = 0;
+    int namePos = 0;
+    int typePos = 0;
+    int otherPos = 0;
+    while (true) {
+      int idIndex = idPos < byId.length ? byId[idPos] : Integer.MAX_VALUE;
+      int nameIndex = namePos < byName.length ? byName[namePos] : Integer.MAX_VALUE;
+      int typeIndex = typePos < byType.length ? byType[typePos] : Integer.MAX_VALUE;
+      int otherIndex = otherPos < otherIndices.length ? otherIndices[otherPos] : Integer.MAX_VALUE;
+      int index = Math.min(Math.min(idIndex, nameIndex), Math.min(typeIndex, otherIndex));
+      if (index == Integer.MAX_VALUE) {
+        return Optional.empty();
+      }
+      PerturbationMapping<?> mapping = mappings.get(index);
+      if (mapping.matches(id, value, refData)) {
+        return Optional.of(mapping);
+      }
+      if (index == idIndex) {
+        idPos++;
+      } else if (index == nameIndex) {
+        namePos++;
+      } else if (index == typeIndex) {
+        typePos++;
+      } else {
+        otherPos++;
+      }
+    }
+  }
+
+  // finds the indices of the mappings whose filter matches a type of ID that is a supertype of the class
+  private int[] findTypeIndices(Class<?> idClass) {
+    return typeIndices.entrySet().stream()
+        .filter(entry -> entry.getKey().isAssignableFrom(idClass))
+        .map(Map.Entry::getValue)
+        .flatMapToInt(IntStream::of)
+        .sorted()
+        .toArray();
+  }
+
+}
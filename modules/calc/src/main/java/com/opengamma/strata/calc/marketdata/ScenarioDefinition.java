@@ -14,6 +14,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import org.joda.beans.Bean;
@@ -22,6 +23,7 @@ import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
 import org.joda.beans.gen.ImmutableValidator;
 import org.joda.beans.gen.PropertyDefinition;
 import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
@@ -30,8 +32,12 @@ import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.scenario.MarketDataBox;
 
 /**
  * A scenario definition defines how to create multiple sets of market data for running calculations over
@@ -56,6 +62,9 @@ public final class ScenarioDefinition implements ImmutableBean {
   @PropertyDefinition(validate = "notNull")
   private final ImmutableList<String> scenarioNames;
 
+  /** The index of the mappings, used to find the mapping matching an item of market data. */
+  private final transient PerturbationMappingIndex mappingIndex;  // not a property
+
   /** An empty scenario definition. */
   private static final ScenarioDefinition EMPTY = ScenarioDefinition.builder().build();
 
@@ -272,6 +281,18 @@ public final class ScenarioDefinition implements ImmutableBean {
         .collect(toImmutableList());
   }
 
+  @ImmutableConstructor
+  private ScenarioDefinition(
+      List<? extends PerturbationMapping<?>> mappings,
+      List<String> scenarioNames) {
+    JodaBeanUtils.notNull(mappings, "mappings");
+    JodaBeanUtils.notNull(scenarioNames, "scenarioNames");
+    this.mappings = ImmutableList.copyOf(mappings);
+    this.scenarioNames = ImmutableList.copyOf(scenarioNames);
+    this.mappingIndex = PerturbationMappingIndex.of(this.mappings);
+    validate();
+  }
+
   // validates that there are no duplicate scenario names
   @ImmutableValidator
   private void validate() {
@@ -296,6 +317,28 @@ public final class ScenarioDefinition implements ImmutableBean {
     return scenarioNames.size();
   }
 
+  /**
+   * Finds the first mapping that matches an item of market data.
+   * <p>
+   * The result is the first mapping in the list of mappings for which
+   * {@link PerturbationMapping#matches(MarketDataId, MarketDataBox, ReferenceData)} returns true.
+   * Mappings whose filter is created by {@link MarketDataFilter#ofId(MarketDataId)},
+   * {@link MarketDataFilter#ofName(MarketDataName)} or {@link MarketDataFilter#ofIdType(Class)} are indexed,
+   * thus the time taken does not depend on the number of such mappings.
+   *
+   * @param id  the ID of the market data
+   * @param value  the market data value
+   * @param refData  the reference data
+   * @return the first matching mapping, empty if no mapping matches
+   */
+  public Optional<PerturbationMapping<?>> findMapping(
+      MarketDataId<?> id,
+      MarketDataBox<?> value,
+      ReferenceData refData) {
+
+    return mappingIndex.findMatch(id, value, refData);
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   /**
    * The meta-bean for {@code ScenarioDefinition}.
@@ -317,16 +360,6 @@ public final class ScenarioDefinition implements ImmutableBean {
     return new ScenarioDefinition.Builder();
   }
 
-  private ScenarioDefinition(
-      List<? extends PerturbationMapping<?>> mappings,
-      List<String> scenarioNames) {
-    JodaBeanUtils.notNull(mappings, "mappings");
-    JodaBeanUtils.notNull(scenarioNames, "scenarioNames");
-    this.mappings = ImmutableList.copyOf(mappings);
-    this.scenarioNames = ImmutableList.copyOf(scenarioNames);
-    validate();
-  }
-
   @Override
   public ScenarioDefinition.Meta metaBean() {
     return ScenarioDefinition.Meta.INSTANCE;
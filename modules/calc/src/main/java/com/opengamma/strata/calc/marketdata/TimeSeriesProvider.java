@@ -7,6 +7,7 @@ package com.opengamma.strata.calc.marketdata;
 
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.BinaryTimeSeriesFile;
 import com.opengamma.strata.data.ObservableId;
 
 /**
@@ -41,6 +42,20 @@ public interface TimeSeriesProvider {
     return EmptyTimeSeriesProvider.INSTANCE;
   }
 
+  /**
+   * Returns a time-series provider that reads the time-series from a binary file.
+   * <p>
+   * The file is memory-mapped, and the time-series provided read their points directly
+   * from the mapped file without copying. Requests for a time-series that is not in the file
+   * will return a failure.
+   *
+   * @param file  the file containing the time-series
+   * @return the time-series provider
+   */
+  public static TimeSeriesProvider of(BinaryTimeSeriesFile file) {
+    return new BinaryFileTimeSeriesProvider(file);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Provides the time-series for the specified identifier.
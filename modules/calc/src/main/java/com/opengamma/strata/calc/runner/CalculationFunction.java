@@ -5,6 +5,9 @@
  */
 package com.opengamma.strata.calc.runner;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +42,9 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  *  - perform the calculation
  * </ul>
  * <p>
+ * Functions may also override {@link #calculateBatch calculateBatch}
+ * to calculate many targets in one call, sharing any setup that is common to the targets.
+ * <p>
  * If any of the calculated values contain any currency amounts and implement {@link ScenarioFxConvertible}
  * the calculation runner will automatically convert the amounts into the reporting currency.
  *
@@ -145,4 +151,35 @@ public interface CalculationFunction<T extends CalculationTarget> {
       ScenarioMarketData marketData,
       ReferenceData refData);
 
+  /**
+   * Calculates values of multiple measures for a batch of targets using multiple sets of market data.
+   * <p>
+   * This is used when the calculation runner groups targets using the same function, parameters and measures.
+   * It allows the function to share set up work, such as the creation of views on market data,
+   * between the targets of the batch. The result must contain one map for each target, in the
+   * same order as the targets, and each map must be as returned by
+   * {@link #calculate(CalculationTarget, Set, CalculationParameters, ScenarioMarketData, ReferenceData)}.
+   * <p>
+   * If this method throws an exception, each target is calculated individually.
+   * The default implementation invokes {@code calculate} for each target.
+   *
+   * @param targets  the targets of the calculation
+   * @param measures  the set of measures to calculate
+   * @param parameters  the parameters that affect how the calculation is performed
+   * @param marketData  the multi-scenario market data to be used in the calculation
+   * @param refData  the reference data to be used in the calculation
+   * @return the list of read-only maps of calculated values, keyed by their measure, one for each target
+   */
+  public default List<Map<Measure, Result<?>>> calculateBatch(
+      List<? extends T> targets,
+      Set<Measure> measures,
+      CalculationParameters parameters,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    return targets.stream()
+        .map(target -> calculate(target, measures, parameters, marketData, refData))
+        .collect(toImmutableList());
+  }
+
 }
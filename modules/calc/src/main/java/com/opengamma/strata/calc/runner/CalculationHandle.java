@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * A handle on calculations that are being performed asynchronously.
+ * <p>
+ * This is returned by the asynchronous methods of {@link CalculationTaskRunner}, allowing the
+ * calculations to be cancelled. If a deadline was specified, the calculations are stopped
+ * in the same way when the deadline passes.
+ * <p>
+ * When the calculations are stopped, tasks that have not started are removed from the executor,
+ * freeing its capacity immediately. Each task that is not run is passed to the listener with a
+ * failure result for each cell, with a reason of {@link FailureReason#CANCELLED} or {@link FailureReason#TIMEOUT}.
+ * As such, the listener is always notified when the calculations are complete.
+ * Tasks that have already started run to completion.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class CalculationHandle {
+
+  /**
+   * The deadline, null if there is no deadline.
+   */
+  private final Instant deadline;
+  /**
+   * The consumer of the results, wrapping the listener.
+   */
+  private final Consumer<CalculationResults> consumer;
+  /**
+   * The batches that have been submitted to an executor.
+   */
+  private final Queue<SubmittedBatch> submitted = new ConcurrentLinkedQueue<>();
+  /**
+   * The number of tasks for which results have not been passed to the consumer.
+   */
+  private final AtomicInteger remainingTasks;
+  /**
+   * The reason the calculations were stopped, null if they have not been stopped.
+   */
+  private final AtomicReference<FailureReason> stopReason = new AtomicReference<>();
+  /**
+   * The timer that stops the calculations at the deadline, null if there is no timer.
+   */
+  private volatile Future<?> deadlineTimer;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   *
+   * @param taskCount  the number of tasks to be submitted
+   * @param deadline  the deadline, null if there is no deadline
+   * @param consumer  the consumer of the results, wrapping the listener
+   */
+  CalculationHandle(int taskCount, Instant deadline, Consumer<CalculationResults> consumer) {
+    this.deadline = deadline;
+    this.consumer = consumer;
+    this.remainingTasks = new AtomicInteger(taskCount);
+    if (deadline != null && taskCount > 0) {
+      deadlineTimer = DeadlineScheduler.schedule(this::timeout, deadline);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the deadline, after which tasks that have not started are not run.
+   *
+   * @return the deadline, empty if there is no deadline
+   */
+  public Optional<Instant> getDeadline() {
+    return Optional.ofNullable(deadline);
+  }
+
+  /**
+   * Checks if the calculations are complete.
+   * <p>
+   * This returns true once every task has either been run or skipped because the calculations were stopped.
+   * The listener is notified that the calculations are complete after this becomes true.
+   *
+   * @return true if the calculations are complete
+   */
+  public boolean isDone() {
+    return remainingTasks.get() == 0;
+  }
+
+  /**
+   * Checks if the calculations were cancelled.
+   *
+   * @return true if {@link #cancel()} stopped the calculations
+   */
+  public boolean isCancelled() {
+    return stopReason.get() == FailureReason.CANCELLED;
+  }
+
+  /**
+   * Checks if the calculations were stopped because the deadline passed.
+   *
+   * @return true if the deadline passed before the calculations were complete
+   */
+  public boolean isTimedOut() {
+    return stopReason.get() == FailureReason.TIMEOUT;
+  }
+
+  /**
+   * Cancels the calculations.
+   * <p>
+   * Tasks that have not started are removed from the executor and are not run.
+   * They are passed to the listener as failures with a reason of {@link FailureReason#CANCELLED}.
+   * Tasks that have already started run to completion.
+   * <p>
+   * This has no effect if the calculations are complete or have already been stopped.
+   *
+   * @return true if this call stopped the calculations
+   */
+  public boolean cancel() {
+    return stop(FailureReason.CANCELLED);
+  }
+
+  // stops the calculations as the deadline has passed
+  private void timeout() {
+    stop(FailureReason.TIMEOUT);
+  }
+
+  // stops the calculations, cancelling the tasks that have not started
+  private boolean stop(FailureReason reason) {
+    if (isDone() || !stopReason.compareAndSet(null, reason)) {
+      return false;
+    }
+    cancelTimer();
+    Set<ExecutorService> executors = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (SubmittedBatch batch : submitted) {
+      cancel(batch);
+      executors.add(batch.executor);
+    }
+    // cancelled tasks remain in the queue of a thread pool until purged
+    for (ExecutorService executor : executors) {
+      if (executor instanceof ThreadPoolExecutor) {
+        ((ThreadPoolExecutor) executor).purge();
+      }
+    }
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Submits a batch of tasks to an executor.
+   * <p>
+   * When run, the batch is skipped if the calculations have been stopped.
+   *
+   * @param batch  the batch of tasks
+   * @param batchExecutor  the supplier that calculates the results of the batch
+   * @param executor  the executor used to run the batch
+   */
+  void submit(
+      List<CalculationTask> batch,
+      Supplier<List<CalculationResults>> batchExecutor,
+      ExecutorService executor) {
+
+    submit(batch, () -> complete(batchExecutor.get()), executor);
+  }
+
+  /**
+   * Submits a batch of tasks to an executor that prepares it, before it is submitted to a second executor.
+   * <p>
+   * The preparation is typically the loading of the data required by the tasks, which may block.
+   * When run, each stage is skipped if the calculations have been stopped.
+   *
+   * @param batch  the batch of tasks
+   * @param preparer  the action preparing the batch
+   * @param prepareExecutor  the executor used to prepare the batch
+   * @param batchExecutor  the supplier that calculates the results of the batch
+   * @param executor  the executor used to run the batch once it is prepared
+   */
+  void submit(
+      List<CalculationTask> batch,
+      Runnable preparer,
+      ExecutorService prepareExecutor,
+      Supplier<List<CalculationResults>> batchExecutor,
+      ExecutorService executor) {
+
+    submit(
+        batch,
+        () -> {
+          preparer.run();
+          submit(batch, batchExecutor, executor);
+        },
+        prepareExecutor);
+  }
+
+  // submits an action for a batch to an executor, the action being responsible for completing the batch
+  private void submit(List<CalculationTask> batch, Runnable action, ExecutorService executor) {
+    // the batch is claimed either when it starts or when it is cancelled, ensuring its results are passed once
+    // the future is passed to the executor directly, thus a thread pool can remove it from its queue when cancelled
+    AtomicBoolean claimed = new AtomicBoolean();
+    FutureTask<Void> future = new FutureTask<>(() -> {
+      if (claimed.compareAndSet(false, true)) {
+        if (stopReason.get() == null) {
+          action.run();
+        } else {
+          complete(failures(batch));
+        }
+      }
+    }, null);
+    SubmittedBatch submittedBatch = new SubmittedBatch(batch, future, executor, claimed);
+    submitted.add(submittedBatch);
+    executor.execute(future);
+    // the calculations might have been stopped while the batch was being added
+    if (stopReason.get() != null) {
+      cancel(submittedBatch);
+    }
+  }
+
+  // cancels a batch, passing failures to the consumer if the batch had not started
+  private void cancel(SubmittedBatch batch) {
+    if (batch.claimed.compareAndSet(false, true)) {
+      batch.future.cancel(false);
+      complete(failures(batch.batch));
+    }
+  }
+
+  // passes the results to the consumer, tidying up when all tasks are complete
+  // the count is updated first, thus the calculations are seen to be done before the listener is notified
+  private void complete(List<CalculationResults> results) {
+    if (remainingTasks.addAndGet(-results.size()) == 0) {
+      cancelTimer();
+      submitted.clear();
+    }
+    results.forEach(consumer);
+  }
+
+  // cancels the deadline timer if there is one
+  private void cancelTimer() {
+    Future<?> timer = deadlineTimer;
+    if (timer != null) {
+      timer.cancel(false);
+    }
+  }
+
+  // creates the results of a batch that was not run, with a failure for each cell
+  private List<CalculationResults> failures(List<CalculationTask> batch) {
+    FailureReason reason = stopReason.get();
+    String message = reason == FailureReason.TIMEOUT ?
+        Messages.format("Calculation not started before the deadline: {}", deadline) :
+        "Calculation cancelled before it started";
+    ImmutableList.Builder<CalculationResults> builder = ImmutableList.builder();
+    for (CalculationTask task : batch) {
+      ImmutableList.Builder<CalculationResult> cells = ImmutableList.builder();
+      for (CalculationTaskCell cell : task.getCells()) {
+        cells.add(CalculationResult.of(cell.getRowIndex(), cell.getColumnIndex(), Result.failure(reason, message)));
+      }
+      builder.add(CalculationResults.of(task.getTarget(), cells.build()));
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "CalculationHandle[remainingTasks={}, stopReason={}, deadline={}]",
+        remainingTasks.get(),
+        stopReason.get(),
+        deadline);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A batch of tasks that has been submitted to an executor.
+   */
+  private static final class SubmittedBatch {
+
+    private final List<CalculationTask> batch;
+    private final Future<?> future;
+    private final ExecutorService executor;
+    private final AtomicBoolean claimed;
+
+    private SubmittedBatch(
+        List<CalculationTask> batch,
+        Future<?> future,
+        ExecutorService executor,
+        AtomicBoolean claimed) {
+
+      this.batch = batch;
+      this.future = future;
+      this.executor = executor;
+      this.claimed = claimed;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Schedules the deadlines, using a single daemon thread that is only created when first needed.
+   */
+  private static final class DeadlineScheduler {
+
+    private static final ScheduledExecutorService SCHEDULER = createScheduler();
+
+    // creates a scheduler using a daemon thread, removing timers from the queue when cancelled
+    private static ScheduledExecutorService createScheduler() {
+      ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = Executors.defaultThreadFactory().newThread(r);
+        t.setName("CalculationTaskRunner-deadline");
+        t.setDaemon(true);
+        return t;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+      return scheduler;
+    }
+
+    // schedules the action to run at the deadline, returning null if the deadline is too distant to be reached
+    private static Future<?> schedule(Runnable action, Instant deadline) {
+      Duration delay = Duration.between(Instant.now(), deadline);
+      if (delay.isNegative()) {
+        return SCHEDULER.schedule(action, 0, TimeUnit.NANOSECONDS);
+      }
+      try {
+        return SCHEDULER.schedule(action, delay.toNanos(), TimeUnit.NANOSECONDS);
+      } catch (ArithmeticException ex) {
+        return null;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Instrumentation receiving the timing of each calculation task.
+ * <p>
+ * The calculation task runner measures the wall-clock time, CPU time and allocated memory of each task
+ * and passes a {@link CalculationTaskTiming} to the instrumentation when the task completes.
+ * This allows the slow functions, measures and targets of a run to be identified.
+ * Implementations might log slow tasks, publish metrics or emit profiler events.
+ * See {@link CalculationTimingRecorder} for an implementation aggregating the timings into a summary.
+ * <p>
+ * Implementations must be thread-safe, as tasks complete concurrently.
+ * Implementations should be fast, as they are invoked on the calculation threads.
+ */
+@FunctionalInterface
+public interface CalculationInstrumentation {
+
+  /**
+   * Obtains instrumentation that ignores the timings.
+   * <p>
+   * This can be used where instrumentation is required but the timings are not needed.
+   *
+   * @return the instrumentation
+   */
+  public static CalculationInstrumentation none() {
+    return timing -> {
+      // do nothing
+    };
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Invoked when a calculation task has completed.
+   *
+   * @param timing  the timing of the task
+   */
+  public abstract void taskCompleted(CalculationTaskTiming timing);
+
+  /**
+   * Combines this instrumentation with another.
+   * <p>
+   * The returned instrumentation passes each timing to this instrumentation and then to the other.
+   *
+   * @param other  the other instrumentation
+   * @return the combined instrumentation
+   */
+  public default CalculationInstrumentation combinedWith(CalculationInstrumentation other) {
+    ArgChecker.notNull(other, "other");
+    return timing -> {
+      taskCompleted(timing);
+      other.taskCompleted(timing);
+    };
+  }
+
+}
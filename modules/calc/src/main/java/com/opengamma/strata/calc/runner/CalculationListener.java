@@ -61,4 +61,22 @@ public interface CalculationListener {
    */
   public abstract void calculationsComplete();
 
+  /**
+   * Gets the maximum number of results that may be queued awaiting delivery to this listener.
+   * <p>
+   * The listener is only invoked by a single thread at any time. Results calculated by other threads
+   * while the listener is being invoked are queued. When the queue is full, the calculation threads
+   * block until there is space, applying backpressure to the calculations.
+   * This limits the memory used by results that have been calculated but not yet passed to the listener.
+   * <p>
+   * Each entry in the queue holds the results of a single calculation task, which is
+   * typically all the columns for a target that are calculated by the same function.
+   * By default, the queue is unbounded.
+   *
+   * @return the maximum number of queued results, greater than zero
+   */
+  public default int maxQueuedResults() {
+    return Integer.MAX_VALUE;
+  }
+
 }
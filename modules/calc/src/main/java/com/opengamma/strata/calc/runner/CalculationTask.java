@@ -10,6 +10,8 @@ import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +38,8 @@ import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirementsBuilder;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.FxRateId;
@@ -203,15 +207,78 @@ public final class CalculationTask implements ImmutableBean {
    * @param refData  the reference data
    * @return results of the calculation, one for every scenario in the market data
    */
-  @SuppressWarnings("unchecked")
   public CalculationResults execute(ScenarioMarketData marketData, ReferenceData refData) {
     // calculate the results
     Map<Measure, Result<?>> results = calculate(marketData, refData);
 
-    // get a suitable FX provider
-    ScenarioFxRateProvider fxProvider = parameters.findParameter(FxRateLookup.class)
+    // convert the results
+    return createResults(results, fxProvider(marketData), refData);
+  }
+
+  /**
+   * Executes a batch of tasks, performing calculations for the targets using multiple sets of market data.
+   * <p>
+   * The tasks must have the same function, parameters and measures, as grouped by
+   * {@link CalculationTasks#getBatches(int)}. The function is invoked once for all the targets
+   * of the batch, allowing set up work to be shared, see
+   * {@link CalculationFunction#calculateBatch(List, Set, CalculationParameters, ScenarioMarketData, ReferenceData)}.
+   * If the batch calculation fails, each task is executed individually.
+   *
+   * @param tasks  the tasks to execute
+   * @param marketData  the market data used in the calculation
+   * @param refData  the reference data
+   * @return results of the calculation, one for each task in the same order as the tasks
+   * @throws IllegalArgumentException if the tasks cannot be executed as a batch
+   */
+  public static List<CalculationResults> executeBatch(
+      List<CalculationTask> tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    ArgChecker.notEmpty(tasks, "tasks");
+    CalculationTask first = tasks.get(0);
+    if (tasks.size() == 1) {
+      return ImmutableList.of(first.execute(marketData, refData));
+    }
+    Set<Measure> measures = first.getMeasures();
+    for (CalculationTask task : tasks) {
+      if (!task.function.equals(first.function) ||
+          !task.parameters.equals(first.parameters) ||
+          !task.getMeasures().equals(measures)) {
+        throw new IllegalArgumentException(Messages.format(
+            "Tasks cannot be executed as a batch, function, parameters and measures must match: {} and {}",
+            first,
+            task));
+      }
+    }
+    // calculate the results, falling back to calculating each task if the batch fails
+    Optional<List<Map<Measure, Result<?>>>> batchResults = first.calculateBatch(tasks, marketData, refData);
+    if (!batchResults.isPresent()) {
+      return tasks.stream()
+          .map(task -> task.execute(marketData, refData))
+          .collect(toImmutableList());
+    }
+    // convert the results, using a normal loop for better stack traces
+    ScenarioFxRateProvider fxProvider = first.fxProvider(marketData);
+    ImmutableList.Builder<CalculationResults> resultsBuilder = ImmutableList.builder();
+    for (int i = 0; i < tasks.size(); i++) {
+      resultsBuilder.add(tasks.get(i).createResults(batchResults.get().get(i), fxProvider, refData));
+    }
+    return resultsBuilder.build();
+  }
+
+  // get a suitable FX provider
+  private ScenarioFxRateProvider fxProvider(ScenarioMarketData marketData) {
+    return parameters.findParameter(FxRateLookup.class)
         .map(lookup -> LookupScenarioFxRateProvider.of(marketData, lookup))
         .orElse(ScenarioFxRateProvider.of(marketData));
+  }
+
+  // converts the results
+  private CalculationResults createResults(
+      Map<Measure, Result<?>> results,
+      ScenarioFxRateProvider fxProvider,
+      ReferenceData refData) {
 
     // convert the results, using a normal loop for better stack traces
     ImmutableList.Builder<CalculationResult> resultBuilder = ImmutableList.builder();
@@ -223,6 +290,39 @@ public final class CalculationTask implements ImmutableBean {
     return CalculationResults.of(target, resultBuilder.build());
   }
 
+  // calculates the results of a batch of tasks, empty if the batch calculation failed
+  private Optional<List<Map<Measure, Result<?>>>> calculateBatch(
+      List<CalculationTask> tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    Set<Measure> requestedMeasures = getMeasures();
+    Set<Measure> supportedMeasures = function.supportedMeasures();
+    Set<Measure> measures = Sets.intersection(requestedMeasures, supportedMeasures);
+    List<CalculationTarget> targets = tasks.stream().map(CalculationTask::getTarget).collect(toImmutableList());
+    List<Map<Measure, Result<?>>> maps;
+    try {
+      maps = measures.isEmpty() ?
+          Collections.nCopies(tasks.size(), ImmutableMap.of()) :
+          function.calculateBatch(targets, measures, parameters, marketData, refData);
+    } catch (RuntimeException ex) {
+      return Optional.empty();
+    }
+    if (maps.size() != tasks.size()) {
+      return Optional.empty();
+    }
+    // check if each result does not contain all requested measures
+    List<Map<Measure, Result<?>>> results = new ArrayList<>(maps.size());
+    for (int i = 0; i < maps.size(); i++) {
+      Map<Measure, Result<?>> map = maps.get(i);
+      if (!map.keySet().containsAll(requestedMeasures)) {
+        map = tasks.get(i).handleMissing(requestedMeasures, supportedMeasures, map);
+      }
+      results.add(map);
+    }
+    return Optional.of(results);
+  }
+
   // calculates the result
   private Map<Measure, Result<?>> calculate(ScenarioMarketData marketData, ReferenceData refData) {
     try {
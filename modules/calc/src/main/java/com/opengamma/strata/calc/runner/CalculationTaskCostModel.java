@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+/**
+ * A model estimating the cost of executing a calculation task.
+ * <p>
+ * The calculation task runner can use a cost model to order the tasks before execution.
+ * The most expensive tasks are submitted first, so that an expensive task at the end of the
+ * list of tasks does not dictate the time taken by the calculation as a whole.
+ * <p>
+ * The cost is in arbitrary units and only the relative cost of tasks is significant.
+ * A cost model is typically keyed on the type of the {@link CalculationFunction} and
+ * the measures of the task, and may be implemented using a lambda.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface CalculationTaskCostModel {
+
+  /**
+   * Obtains a cost model that learns from the execution times of previous tasks.
+   * <p>
+   * The cost is keyed on the type of the calculation function and the set of measures of the task.
+   * The estimate is a moving average of the time taken per scenario by tasks with the same key.
+   * Tasks without a recorded time have an estimated cost of zero.
+   * <p>
+   * The returned model holds the learned costs, thus the same instance should be used
+   * for each run of the calculations.
+   * 
+   * @return the cost model
+   */
+  public static CalculationTaskCostModel learning() {
+    return new LearningCalculationTaskCostModel();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Estimates the cost of executing the task.
+   * 
+   * @param task  the task
+   * @return the estimated cost, in arbitrary units
+   */
+  public abstract double estimateCost(CalculationTask task);
+
+  /**
+   * Records the time taken to execute the task.
+   * <p>
+   * This is called by the runner once the task has been executed.
+   * The default implementation does nothing.
+   * 
+   * @param task  the task
+   * @param scenarioCount  the number of scenarios calculated by the task
+   * @param nanos  the time taken, in nanoseconds
+   */
+  public default void recordCost(CalculationTask task, int scenarioCount, long nanos) {
+    // do nothing
+  }
+
+}
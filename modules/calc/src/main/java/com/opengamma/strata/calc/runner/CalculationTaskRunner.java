@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.calc.runner;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -12,6 +13,7 @@ import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.CalculationRules;
 import com.opengamma.strata.calc.CalculationRunner;
 import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -67,6 +69,21 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.ofMultiThreaded();
   }
 
+  /**
+   * Creates a calculation task runner that uses a new virtual thread for each task.
+   * <p>
+   * This suits functions that block, for example when market data or reference data is loaded lazily.
+   * Virtual threads are available from Java 21. On earlier versions, this factory creates
+   * an executor basing the number of threads on the number of available processors,
+   * as per {@link #ofMultiThreaded()}.
+   * It is recommended to use try-with-resources to manage the runner.
+   * 
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofVirtualThreads() {
+    return DefaultCalculationTaskRunner.ofVirtualThreads();
+  }
+
   /**
    * Creates a calculation task runner capable of performing calculations, specifying the executor.
    * <p>
@@ -79,6 +96,23 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor and options.
+   * <p>
+   * The options control how the tasks are executed, such as whether they are ordered by estimated cost,
+   * executed in batches, split by scenario or timed. See {@link CalculationTaskRunnerOptions}.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * Any executor created for blocking tasks is owned by the runner and shut down when the runner is closed.
+   * 
+   * @param executor  the executor to use
+   * @param options  the options controlling how the tasks are executed
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(ExecutorService executor, CalculationTaskRunnerOptions options) {
+    return DefaultCalculationTaskRunner.of(executor, options);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
@@ -100,6 +134,29 @@ public interface CalculationTaskRunner extends AutoCloseable {
       MarketData marketData,
       ReferenceData refData);
 
+  /**
+   * Performs calculations for a single set of market data, recording the time taken by the tasks.
+   * <p>
+   * This is the same as {@link #calculate(CalculationTasks, MarketData, ReferenceData)},
+   * but also returns a summary of the timings of the tasks of this run.
+   * The timings are also passed to the instrumentation of the runner, if any.
+   * <p>
+   * The default implementation throws an exception. Implementations that support timing override this method.
+   * 
+   * @param tasks  the calculation tasks to invoke
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results and the summary of the time taken
+   * @throws UnsupportedOperationException if timing is not supported
+   */
+  public default TimedResults calculateTimed(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    throw new UnsupportedOperationException("Timing is not supported by " + getClass().getSimpleName());
+  }
+
   /**
    * Performs calculations asynchronously for a single set of market data,
    * invoking a listener as each calculation completes.
@@ -107,18 +164,53 @@ public interface CalculationTaskRunner extends AutoCloseable {
    * This method requires the listener to assemble the results, but it can be much more memory efficient when
    * calculating aggregate results. If the individual results are discarded after they are incorporated into
    * the aggregate they can be garbage collected.
+   * <p>
+   * The returned handle allows the calculations to be cancelled.
    * 
    * @param tasks  the calculation tasks to invoke
    * @param marketData  the market data to be used in the calculations
    * @param refData  the reference data to be used in the calculations
    * @param listener  listener that is invoked when individual results are calculated
+   * @return the handle on the calculations
    */
-  public abstract void calculateAsync(
+  public abstract CalculationHandle calculateAsync(
       CalculationTasks tasks,
       MarketData marketData,
       ReferenceData refData,
       CalculationListener listener);
 
+  /**
+   * Performs calculations asynchronously for a single set of market data, stopping at a deadline,
+   * invoking a listener as each calculation completes.
+   * <p>
+   * Tasks that have not started when the deadline passes are not run. Instead, they are passed
+   * to the listener as failures with a reason of {@link FailureReason#TIMEOUT}.
+   * The returned handle allows the calculations to be cancelled before the deadline.
+   * <p>
+   * The default implementation delegates to the method without a deadline if the deadline is null,
+   * and throws an exception otherwise. Implementations that support deadlines override this method.
+   * 
+   * @param tasks  the calculation tasks to invoke
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @param listener  listener that is invoked when individual results are calculated
+   * @param deadline  the deadline after which tasks that have not started are not run, null if there is no deadline
+   * @return the handle on the calculations
+   * @throws UnsupportedOperationException if the deadline is not null and deadlines are not supported
+   */
+  public default CalculationHandle calculateAsync(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    if (deadline != null) {
+      throw new UnsupportedOperationException("Deadlines are not supported by " + getClass().getSimpleName());
+    }
+    return calculateAsync(tasks, marketData, refData, listener);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for multiple scenarios, each with a different set of market data.
@@ -142,6 +234,29 @@ public interface CalculationTaskRunner extends AutoCloseable {
       ScenarioMarketData marketData,
       ReferenceData refData);
 
+  /**
+   * Performs calculations for multiple scenarios, recording the time taken by the tasks.
+   * <p>
+   * This is the same as {@link #calculateMultiScenario(CalculationTasks, ScenarioMarketData, ReferenceData)},
+   * but also returns a summary of the timings of the tasks of this run.
+   * The timings are also passed to the instrumentation of the runner, if any.
+   * <p>
+   * The default implementation throws an exception. Implementations that support timing override this method.
+   * 
+   * @param tasks  the calculation tasks to invoke
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results and the summary of the time taken
+   * @throws UnsupportedOperationException if timing is not supported
+   */
+  public default TimedResults calculateMultiScenarioTimed(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    throw new UnsupportedOperationException("Timing is not supported by " + getClass().getSimpleName());
+  }
+
   /**
    * Performs calculations asynchronously for multiple scenarios, each with a different set of market data,
    * invoking a listener as each calculation completes.
@@ -149,18 +264,53 @@ public interface CalculationTaskRunner extends AutoCloseable {
    * This method requires the listener to assemble the results, but it can be much more memory efficient when
    * calculating aggregate results. If the individual results are discarded after they are incorporated into
    * the aggregate they can be garbage collected.
+   * <p>
+   * The returned handle allows the calculations to be cancelled.
    * 
    * @param tasks  the calculation tasks to invoke
    * @param marketData  the market data to be used in the calculations
    * @param refData  the reference data to be used in the calculations
    * @param listener  listener that is invoked when individual results are calculated
+   * @return the handle on the calculations
    */
-  public abstract void calculateMultiScenarioAsync(
+  public abstract CalculationHandle calculateMultiScenarioAsync(
       CalculationTasks tasks,
       ScenarioMarketData marketData,
       ReferenceData refData,
       CalculationListener listener);
 
+  /**
+   * Performs calculations asynchronously for multiple scenarios, each with a different set of market data,
+   * stopping at a deadline, invoking a listener as each calculation completes.
+   * <p>
+   * Tasks that have not started when the deadline passes are not run. Instead, they are passed
+   * to the listener as failures with a reason of {@link FailureReason#TIMEOUT}.
+   * The returned handle allows the calculations to be cancelled before the deadline.
+   * <p>
+   * The default implementation delegates to the method without a deadline if the deadline is null,
+   * and throws an exception otherwise. Implementations that support deadlines override this method.
+   * 
+   * @param tasks  the calculation tasks to invoke
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @param listener  listener that is invoked when individual results are calculated
+   * @param deadline  the deadline after which tasks that have not started are not run, null if there is no deadline
+   * @return the handle on the calculations
+   * @throws UnsupportedOperationException if the deadline is not null and deadlines are not supported
+   */
+  public default CalculationHandle calculateMultiScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    if (deadline != null) {
+      throw new UnsupportedOperationException("Deadlines are not supported by " + getClass().getSimpleName());
+    }
+    return calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Closes any resources held by the component.
@@ -0,0 +1,706 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableDefaults;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Options controlling how a {@link CalculationTaskRunner} executes the calculation tasks.
+ * <p>
+ * The options are independent of one another and may be freely combined.
+ * For example, tasks may be both ordered by estimated cost and executed in batches,
+ * or split by scenario with the time taken by each task measured.
+ * The {@linkplain #standard() standard} options execute each task separately, in order.
+ * <p>
+ * The options are passed to {@link CalculationTaskRunner#of(java.util.concurrent.ExecutorService,
+ * CalculationTaskRunnerOptions)} together with the executor that runs the tasks.
+ */
+@BeanDefinition
+public final class CalculationTaskRunnerOptions implements ImmutableBean {
+
+  /**
+   * The standard options, executing each task separately in the order of the tasks.
+   */
+  private static final CalculationTaskRunnerOptions STANDARD = CalculationTaskRunnerOptions.builder().build();
+
+  /**
+   * The model used to estimate the cost of each task, empty if the tasks are submitted in order.
+   * <p>
+   * If present, the tasks are submitted in order of decreasing estimated cost.
+   * This avoids an expensive task at the end of the list of tasks dictating the overall time taken.
+   * The time taken by each task is passed to the model, allowing it to learn,
+   * see {@link CalculationTaskCostModel#learning()}.
+   */
+  @PropertyDefinition(get = "optional")
+  private final CalculationTaskCostModel costModel;
+  /**
+   * The maximum number of tasks in a batch, one if tasks are not batched.
+   * <p>
+   * Tasks with the same function, parameters and measures are grouped into batches,
+   * see {@link CalculationTasks#getBatches(int)}. Each batch is calculated by a single call to
+   * {@link CalculationFunction#calculateBatch calculateBatch}, allowing the function to share
+   * set up work between the targets.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegativeOrZero")
+  private final int maxBatchSize;
+  /**
+   * The maximum number of scenarios that a task calculates without splitting.
+   * <p>
+   * Each task with more scenarios than this is split into ranges of scenarios that are calculated
+   * separately and then merged, thus the results are the same as those of an unsplit calculation.
+   * This requires the executor to be a {@link ForkJoinPool}, where idle threads steal the ranges,
+   * which helps when the portfolio is small relative to the number of scenarios.
+   * Each result must be a {@link ScenarioArray}, otherwise the merged result is a failure.
+   * The default of {@code Integer.MAX_VALUE} means that tasks are never split.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegativeOrZero")
+  private final int scenarioChunkSize;
+  /**
+   * The predicate identifying the tasks that block, empty if no tasks block.
+   * <p>
+   * Tasks may block, for example, when market data or reference data is loaded lazily.
+   * If present, the calculation of a matching task is run in two phases.
+   * First, the reference data and market data required by the task are loaded using a separate executor
+   * owned by the runner. This uses a virtual thread per task if available, as in Java 21 and later,
+   * and {@linkplain #getMaxBlockingThreads() a bounded number} of daemon platform threads otherwise.
+   * Second, the task is priced by the main executor, keeping the CPU-bound work on its threads.
+   */
+  @PropertyDefinition(get = "optional")
+  private final Predicate<CalculationTask> blockingTasks;
+  /**
+   * The maximum number of platform threads used to load the data of blocking tasks.
+   * <p>
+   * This only applies when virtual threads are not available, bounding the number of native threads
+   * used when a large number of blocking tasks are loading data at the same time.
+   * The default is four times the number of available processors.
+   * This has no effect if there is no predicate identifying the blocking tasks.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegativeOrZero")
+  private final int maxBlockingThreads;
+  /**
+   * The instrumentation receiving the timing of each task, empty if the tasks are not timed.
+   * <p>
+   * If present, the wall-clock time, CPU time and allocated memory of each task is passed to the instrumentation.
+   * A summary of the timings of a single run can be obtained using the timed methods,
+   * see {@link CalculationTaskRunner#calculateMultiScenarioTimed}.
+   * The CPU time and allocated memory are those of the thread running the task, thus they exclude
+   * the ranges of scenarios run by other threads when the task is split by scenario.
+   */
+  @PropertyDefinition(get = "optional")
+  private final CalculationInstrumentation instrumentation;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the standard options, executing each task separately in the order of the tasks.
+   *
+   * @return the standard options
+   */
+  public static CalculationTaskRunnerOptions standard() {
+    return STANDARD;
+  }
+
+  @ImmutableDefaults
+  private static void applyDefaults(Builder builder) {
+    builder.maxBatchSize(1);
+    builder.scenarioChunkSize(Integer.MAX_VALUE);
+    builder.maxBlockingThreads(Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code CalculationTaskRunnerOptions}.
+   * @return the meta-bean, not null
+   */
+  public static CalculationTaskRunnerOptions.Meta meta() {
+    return CalculationTaskRunnerOptions.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(CalculationTaskRunnerOptions.Meta.INSTANCE);
+  }
+
+  /**
+   * Returns a builder used to create an instance of the bean.
+   * @return the builder, not null
+   */
+  public static CalculationTaskRunnerOptions.Builder builder() {
+    return new CalculationTaskRunnerOptions.Builder();
+  }
+
+  private CalculationTaskRunnerOptions(
+      CalculationTaskCostModel costModel,
+      int maxBatchSize,
+      int scenarioChunkSize,
+      Predicate<CalculationTask> blockingTasks,
+      int maxBlockingThreads,
+      CalculationInstrumentation instrumentation) {
+    ArgChecker.notNegativeOrZero(maxBatchSize, "maxBatchSize");
+    ArgChecker.notNegativeOrZero(scenarioChunkSize, "scenarioChunkSize");
+    ArgChecker.notNegativeOrZero(maxBlockingThreads, "maxBlockingThreads");
+    this.costModel = costModel;
+    this.maxBatchSize = maxBatchSize;
+    this.scenarioChunkSize = scenarioChunkSize;
+    this.blockingTasks = blockingTasks;
+    this.maxBlockingThreads = maxBlockingThreads;
+    this.instrumentation = instrumentation;
+  }
+
+  @Override
+  public CalculationTaskRunnerOptions.Meta metaBean() {
+    return CalculationTaskRunnerOptions.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the model used to estimate the cost of each task, empty if the tasks are submitted in order.
+   * <p>
+   * If present, the tasks are submitted in order of decreasing estimated cost.
+   * This avoids an expensive task at the end of the list of tasks dictating the overall time taken.
+   * The time taken by each task is passed to the model, allowing it to learn,
+   * see {@link CalculationTaskCostModel#learning()}.
+   * @return the optional value of the property, not null
+   */
+  public Optional<CalculationTaskCostModel> getCostModel() {
+    return Optional.ofNullable(costModel);
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum number of tasks in a batch, one if tasks are not batched.
+   * <p>
+   * Tasks with the same function, parameters and measures are grouped into batches,
+   * see {@link CalculationTasks#getBatches(int)}. Each batch is calculated by a single call to
+   * {@link CalculationFunction#calculateBatch calculateBatch}, allowing the function to share
+   * set up work between the targets.
+   * @return the value of the property
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum number of scenarios that a task calculates without splitting.
+   * <p>
+   * Each task with more scenarios than this is split into ranges of scenarios that are calculated
+   * separately and then merged, thus the results are the same as those of an unsplit calculation.
+   * This requires the executor to be a {@link ForkJoinPool}, where idle threads steal the ranges,
+   * which helps when the portfolio is small relative to the number of scenarios.
+   * Each result must be a {@link ScenarioArray}, otherwise the merged result is a failure.
+   * The default of {@code Integer.MAX_VALUE} means that tasks are never split.
+   * @return the value of the property
+   */
+  public int getScenarioChunkSize() {
+    return scenarioChunkSize;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the predicate identifying the tasks that block, empty if no tasks block.
+   * <p>
+   * Tasks may block, for example, when market data or reference data is loaded lazily.
+   * If present, the calculation of a matching task is run in two phases.
+   * First, the reference data and market data required by the task are loaded using a separate executor
+   * owned by the runner. This uses a virtual thread per task if available, as in Java 21 and later,
+   * and {@linkplain #getMaxBlockingThreads() a bounded number} of daemon platform threads otherwise.
+   * Second, the task is priced by the main executor, keeping the CPU-bound work on its threads.
+   * @return the optional value of the property, not null
+   */
+  public Optional<Predicate<CalculationTask>> getBlockingTasks() {
+    return Optional.ofNullable(blockingTasks);
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum number of platform threads used to load the data of blocking tasks.
+   * <p>
+   * This only applies when virtual threads are not available, bounding the number of native threads
+   * used when a large number of blocking tasks are loading data at the same time.
+   * The default is four times the number of available processors.
+   * This has no effect if there is no predicate identifying the blocking tasks.
+   * @return the value of the property
+   */
+  public int getMaxBlockingThreads() {
+    return maxBlockingThreads;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the instrumentation receiving the timing of each task, empty if the tasks are not timed.
+   * <p>
+   * If present, the wall-clock time, CPU time and allocated memory of each task is passed to the instrumentation.
+   * A summary of the timings of a single run can be obtained using the timed methods,
+   * see {@link CalculationTaskRunner#calculateMultiScenarioTimed}.
+   * The CPU time and allocated memory are those of the thread running the task, thus they exclude
+   * the ranges of scenarios run by other threads when the task is split by scenario.
+   * @return the optional value of the property, not null
+   */
+  public Optional<CalculationInstrumentation> getInstrumentation() {
+    return Optional.ofNullable(instrumentation);
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Returns a builder that allows this bean to be mutated.
+   * @return the mutable builder, not null
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      CalculationTaskRunnerOptions other = (CalculationTaskRunnerOptions) obj;
+      return JodaBeanUtils.equal(costModel, other.costModel) &&
+          (maxBatchSize == other.maxBatchSize) &&
+          (scenarioChunkSize == other.scenarioChunkSize) &&
+          JodaBeanUtils.equal(blockingTasks, other.blockingTasks) &&
+          (maxBlockingThreads == other.maxBlockingThreads) &&
+          JodaBeanUtils.equal(instrumentation, other.instrumentation);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(costModel);
+    hash = hash * 31 + JodaBeanUtils.hashCode(maxBatchSize);
+    hash = hash * 31 + JodaBeanUtils.hashCode(scenarioChunkSize);
+    hash = hash * 31 + JodaBeanUtils.hashCode(blockingTasks);
+    hash = hash * 31 + JodaBeanUtils.hashCode(maxBlockingThreads);
+    hash = hash * 31 + JodaBeanUtils.hashCode(instrumentation);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(224);
+    buf.append("CalculationTaskRunnerOptions{");
+    buf.append("costModel").append('=').append(costModel).append(',').append(' ');
+    buf.append("maxBatchSize").append('=').append(maxBatchSize).append(',').append(' ');
+    buf.append("scenarioChunkSize").append('=').append(scenarioChunkSize).append(',').append(' ');
+    buf.append("blockingTasks").append('=').append(blockingTasks).append(',').append(' ');
+    buf.append("maxBlockingThreads").append('=').append(maxBlockingThreads).append(',').append(' ');
+    buf.append("instrumentation").append('=').append(JodaBeanUtils.toString(instrumentation));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code CalculationTaskRunnerOptions}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code costModel} property.
+     */
+    private final MetaProperty<CalculationTaskCostModel> costModel = DirectMetaProperty.ofImmutable(
+        this, "costModel", CalculationTaskRunnerOptions.class, CalculationTaskCostModel.class);
+    /**
+     * The meta-property for the {@code maxBatchSize} property.
+     */
+    private final MetaProperty<Integer> maxBatchSize = DirectMetaProperty.ofImmutable(
+        this, "maxBatchSize", CalculationTaskRunnerOptions.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code scenarioChunkSize} property.
+     */
+    private final MetaProperty<Integer> scenarioChunkSize = DirectMetaProperty.ofImmutable(
+        this, "scenarioChunkSize", CalculationTaskRunnerOptions.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code blockingTasks} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<Predicate<CalculationTask>> blockingTasks = DirectMetaProperty.ofImmutable(
+        this, "blockingTasks", CalculationTaskRunnerOptions.class, (Class) Predicate.class);
+    /**
+     * The meta-property for the {@code maxBlockingThreads} property.
+     */
+    private final MetaProperty<Integer> maxBlockingThreads = DirectMetaProperty.ofImmutable(
+        this, "maxBlockingThreads", CalculationTaskRunnerOptions.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code instrumentation} property.
+     */
+    private final MetaProperty<CalculationInstrumentation> instrumentation = DirectMetaProperty.ofImmutable(
+        this, "instrumentation", CalculationTaskRunnerOptions.class, CalculationInstrumentation.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "costModel",
+        "maxBatchSize",
+        "scenarioChunkSize",
+        "blockingTasks",
+        "maxBlockingThreads",
+        "instrumentation");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -286706852:  // costModel
+          return costModel;
+        case 1892829527:  // maxBatchSize
+          return maxBatchSize;
+        case -1286068642:  // scenarioChunkSize
+          return scenarioChunkSize;
+        case -1742833575:  // blockingTasks
+          return blockingTasks;
+        case -642791504:  // maxBlockingThreads
+          return maxBlockingThreads;
+        case 544550766:  // instrumentation
+          return instrumentation;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public CalculationTaskRunnerOptions.Builder builder() {
+      return new CalculationTaskRunnerOptions.Builder();
+    }
+
+    @Override
+    public Class<? extends CalculationTaskRunnerOptions> beanType() {
+      return CalculationTaskRunnerOptions.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code costModel} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<CalculationTaskCostModel> costModel() {
+      return costModel;
+    }
+
+    /**
+     * The meta-property for the {@code maxBatchSize} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> maxBatchSize() {
+      return maxBatchSize;
+    }
+
+    /**
+     * The meta-property for the {@code scenarioChunkSize} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> scenarioChunkSize() {
+      return scenarioChunkSize;
+    }
+
+    /**
+     * The meta-property for the {@code blockingTasks} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Predicate<CalculationTask>> blockingTasks() {
+      return blockingTasks;
+    }
+
+    /**
+     * The meta-property for the {@code maxBlockingThreads} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> maxBlockingThreads() {
+      return maxBlockingThreads;
+    }
+
+    /**
+     * The meta-property for the {@code instrumentation} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<CalculationInstrumentation> instrumentation() {
+      return instrumentation;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case -286706852:  // costModel
+          return ((CalculationTaskRunnerOptions) bean).costModel;
+        case 1892829527:  // maxBatchSize
+          return ((CalculationTaskRunnerOptions) bean).getMaxBatchSize();
+        case -1286068642:  // scenarioChunkSize
+          return ((CalculationTaskRunnerOptions) bean).getScenarioChunkSize();
+        case -1742833575:  // blockingTasks
+          return ((CalculationTaskRunnerOptions) bean).blockingTasks;
+        case -642791504:  // maxBlockingThreads
+          return ((CalculationTaskRunnerOptions) bean).getMaxBlockingThreads();
+        case 544550766:  // instrumentation
+          return ((CalculationTaskRunnerOptions) bean).instrumentation;
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code CalculationTaskRunnerOptions}.
+   */
+  public static final class Builder extends DirectFieldsBeanBuilder<CalculationTaskRunnerOptions> {
+
+    private CalculationTaskCostModel costModel;
+    private int maxBatchSize;
+    private int scenarioChunkSize;
+    private Predicate<CalculationTask> blockingTasks;
+    private int maxBlockingThreads;
+    private CalculationInstrumentation instrumentation;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+      applyDefaults(this);
+    }
+
+    /**
+     * Restricted copy constructor.
+     * @param beanToCopy  the bean to copy from, not null
+     */
+    private Builder(CalculationTaskRunnerOptions beanToCopy) {
+      this.costModel = beanToCopy.costModel;
+      this.maxBatchSize = beanToCopy.getMaxBatchSize();
+      this.scenarioChunkSize = beanToCopy.getScenarioChunkSize();
+      this.blockingTasks = beanToCopy.blockingTasks;
+      this.maxBlockingThreads = beanToCopy.getMaxBlockingThreads();
+      this.instrumentation = beanToCopy.instrumentation;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -286706852:  // costModel
+          return costModel;
+        case 1892829527:  // maxBatchSize
+          return maxBatchSize;
+        case -1286068642:  // scenarioChunkSize
+          return scenarioChunkSize;
+        case -1742833575:  // blockingTasks
+          return blockingTasks;
+        case -642791504:  // maxBlockingThreads
+          return maxBlockingThreads;
+        case 544550766:  // instrumentation
+          return instrumentation;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case -286706852:  // costModel
+          this.costModel = (CalculationTaskCostModel) newValue;
+          break;
+        case 1892829527:  // maxBatchSize
+          this.maxBatchSize = (Integer) newValue;
+          break;
+        case -1286068642:  // scenarioChunkSize
+          this.scenarioChunkSize = (Integer) newValue;
+          break;
+        case -1742833575:  // blockingTasks
+          this.blockingTasks = (Predicate<CalculationTask>) newValue;
+          break;
+        case -642791504:  // maxBlockingThreads
+          this.maxBlockingThreads = (Integer) newValue;
+          break;
+        case 544550766:  // instrumentation
+          this.instrumentation = (CalculationInstrumentation) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public Builder set(MetaProperty<?> property, Object value) {
+      super.set(property, value);
+      return this;
+    }
+
+    @Override
+    public CalculationTaskRunnerOptions build() {
+      return new CalculationTaskRunnerOptions(
+          costModel,
+          maxBatchSize,
+          scenarioChunkSize,
+          blockingTasks,
+          maxBlockingThreads,
+          instrumentation);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sets the model used to estimate the cost of each task, empty if the tasks are submitted in order.
+     * <p>
+     * If present, the tasks are submitted in order of decreasing estimated cost.
+     * This avoids an expensive task at the end of the list of tasks dictating the overall time taken.
+     * The time taken by each task is passed to the model, allowing it to learn,
+     * see {@link CalculationTaskCostModel#learning()}.
+     * @param costModel  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder costModel(CalculationTaskCostModel costModel) {
+      this.costModel = costModel;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of tasks in a batch, one if tasks are not batched.
+     * <p>
+     * Tasks with the same function, parameters and measures are grouped into batches,
+     * see {@link CalculationTasks#getBatches(int)}. Each batch is calculated by a single call to
+     * {@link CalculationFunction#calculateBatch calculateBatch}, allowing the function to share
+     * set up work between the targets.
+     * @param maxBatchSize  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder maxBatchSize(int maxBatchSize) {
+      ArgChecker.notNegativeOrZero(maxBatchSize, "maxBatchSize");
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of scenarios that a task calculates without splitting.
+     * <p>
+     * Each task with more scenarios than this is split into ranges of scenarios that are calculated
+     * separately and then merged, thus the results are the same as those of an unsplit calculation.
+     * This requires the executor to be a {@link ForkJoinPool}, where idle threads steal the ranges,
+     * which helps when the portfolio is small relative to the number of scenarios.
+     * Each result must be a {@link ScenarioArray}, otherwise the merged result is a failure.
+     * The default of {@code Integer.MAX_VALUE} means that tasks are never split.
+     * @param scenarioChunkSize  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder scenarioChunkSize(int scenarioChunkSize) {
+      ArgChecker.notNegativeOrZero(scenarioChunkSize, "scenarioChunkSize");
+      this.scenarioChunkSize = scenarioChunkSize;
+      return this;
+    }
+
+    /**
+     * Sets the predicate identifying the tasks that block, empty if no tasks block.
+     * <p>
+     * Tasks may block, for example, when market data or reference data is loaded lazily.
+     * If present, the calculation of a matching task is run in two phases.
+     * First, the reference data and market data required by the task are loaded using a separate executor
+     * owned by the runner. This uses a virtual thread per task if available, as in Java 21 and later,
+     * and {@linkplain #getMaxBlockingThreads() a bounded number} of daemon platform threads otherwise.
+     * Second, the task is priced by the main executor, keeping the CPU-bound work on its threads.
+     * @param blockingTasks  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder blockingTasks(Predicate<CalculationTask> blockingTasks) {
+      this.blockingTasks = blockingTasks;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of platform threads used to load the data of blocking tasks.
+     * <p>
+     * This only applies when virtual threads are not available, bounding the number of native threads
+     * used when a large number of blocking tasks are loading data at the same time.
+     * The default is four times the number of available processors.
+     * This has no effect if there is no predicate identifying the blocking tasks.
+     * @param maxBlockingThreads  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder maxBlockingThreads(int maxBlockingThreads) {
+      ArgChecker.notNegativeOrZero(maxBlockingThreads, "maxBlockingThreads");
+      this.maxBlockingThreads = maxBlockingThreads;
+      return this;
+    }
+
+    /**
+     * Sets the instrumentation receiving the timing of each task, empty if the tasks are not timed.
+     * <p>
+     * If present, the wall-clock time, CPU time and allocated memory of each task is passed to the instrumentation.
+     * A summary of the timings of a single run can be obtained using the timed methods,
+     * see {@link CalculationTaskRunner#calculateMultiScenarioTimed}.
+     * The CPU time and allocated memory are those of the thread running the task, thus they exclude
+     * the ranges of scenarios run by other threads when the task is split by scenario.
+     * @param instrumentation  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder instrumentation(CalculationInstrumentation instrumentation) {
+      this.instrumentation = instrumentation;
+      return this;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(224);
+      buf.append("CalculationTaskRunnerOptions.Builder{");
+      buf.append("costModel").append('=').append(JodaBeanUtils.toString(costModel)).append(',').append(' ');
+      buf.append("maxBatchSize").append('=').append(JodaBeanUtils.toString(maxBatchSize)).append(',').append(' ');
+      buf.append("scenarioChunkSize").append('=').append(JodaBeanUtils.toString(scenarioChunkSize)).append(',').append(' ');
+      buf.append("blockingTasks").append('=').append(JodaBeanUtils.toString(blockingTasks)).append(',').append(' ');
+      buf.append("maxBlockingThreads").append('=').append(JodaBeanUtils.toString(maxBlockingThreads)).append(',').append(' ');
+      buf.append("instrumentation").append('=').append(JodaBeanUtils.toString(instrumentation));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
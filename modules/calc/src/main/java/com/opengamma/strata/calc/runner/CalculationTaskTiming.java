@@ -0,0 +1,334 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+import java.util.Set;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.result.FailureReason;
+
+/**
+ * The time taken and memory allocated by a single calculation task.
+ * <p>
+ * This is passed to {@link CalculationInstrumentation} when a task completes.
+ * It is tagged with the target, the function type, the measures, the number of scenarios
+ * and the reason for any failure, allowing slow targets and functions to be identified.
+ * <p>
+ * If tasks are executed in batches, the time and memory of the batch is shared equally between the tasks.
+ * The CPU time and allocated memory are those of the thread executing the task, and are
+ * negative if not supported by the JVM.
+ */
+@BeanDefinition(style = "light")
+public final class CalculationTaskTiming
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The target of the task, such as a trade.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CalculationTarget target;
+  /**
+   * The row index of the target in the results grid.
+   */
+  @PropertyDefinition
+  private final int rowIndex;
+  /**
+   * The type of the function that performed the calculation.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Class<?> functionType;
+  /**
+   * The measures calculated by the task.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableSet<Measure> measures;
+  /**
+   * The number of scenarios calculated by the task.
+   */
+  @PropertyDefinition
+  private final int scenarioCount;
+  /**
+   * The elapsed wall-clock time, in nanoseconds.
+   */
+  @PropertyDefinition
+  private final long wallTimeNanos;
+  /**
+   * The CPU time, in nanoseconds, negative if not available.
+   */
+  @PropertyDefinition
+  private final long cpuTimeNanos;
+  /**
+   * The number of bytes allocated, negative if not available.
+   */
+  @PropertyDefinition
+  private final long allocatedBytes;
+  /**
+   * The reason for the first failed result of the task, empty if all results succeeded.
+   */
+  @PropertyDefinition(get = "optional")
+  private final FailureReason failureReason;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param target  the target of the task
+   * @param rowIndex  the row index of the target
+   * @param functionType  the type of the function
+   * @param measures  the measures calculated by the task
+   * @param scenarioCount  the number of scenarios
+   * @param wallTimeNanos  the elapsed wall-clock time, in nanoseconds
+   * @param cpuTimeNanos  the CPU time, in nanoseconds, negative if not available
+   * @param allocatedBytes  the number of bytes allocated, negative if not available
+   * @param failureReason  the reason for the first failed result, null if all results succeeded
+   * @return the timing
+   */
+  public static CalculationTaskTiming of(
+      CalculationTarget target,
+      int rowIndex,
+      Class<?> functionType,
+      Set<Measure> measures,
+      int scenarioCount,
+      long wallTimeNanos,
+      long cpuTimeNanos,
+      long allocatedBytes,
+      FailureReason failureReason) {
+
+    return new CalculationTaskTiming(
+        target,
+        rowIndex,
+        functionType,
+        ImmutableSet.copyOf(measures),
+        scenarioCount,
+        wallTimeNanos,
+        cpuTimeNanos,
+        allocatedBytes,
+        failureReason);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code CalculationTaskTiming}.
+   */
+  private static final TypedMetaBean<CalculationTaskTiming> META_BEAN =
+      LightMetaBean.of(
+          CalculationTaskTiming.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "target",
+              "rowIndex",
+              "functionType",
+              "measures",
+              "scenarioCount",
+              "wallTimeNanos",
+              "cpuTimeNanos",
+              "allocatedBytes",
+              "failureReason"},
+          null,
+          0,
+          null,
+          ImmutableSet.of(),
+          0,
+          0L,
+          0L,
+          0L,
+          null);
+
+  /**
+   * The meta-bean for {@code CalculationTaskTiming}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<CalculationTaskTiming> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private CalculationTaskTiming(
+      CalculationTarget target,
+      int rowIndex,
+      Class<?> functionType,
+      Set<Measure> measures,
+      int scenarioCount,
+      long wallTimeNanos,
+      long cpuTimeNanos,
+      long allocatedBytes,
+      FailureReason failureReason) {
+    JodaBeanUtils.notNull(target, "target");
+    JodaBeanUtils.notNull(functionType, "functionType");
+    JodaBeanUtils.notNull(measures, "measures");
+    this.target = target;
+    this.rowIndex = rowIndex;
+    this.functionType = functionType;
+    this.measures = ImmutableSet.copyOf(measures);
+    this.scenarioCount = scenarioCount;
+    this.wallTimeNanos = wallTimeNanos;
+    this.cpuTimeNanos = cpuTimeNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.failureReason = failureReason;
+  }
+
+  @Override
+  public TypedMetaBean<CalculationTaskTiming> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the target of the task, such as a trade.
+   * @return the value of the property, not null
+   */
+  public CalculationTarget getTarget() {
+    return target;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the row index of the target in the results grid.
+   * @return the value of the property
+   */
+  public int getRowIndex() {
+    return rowIndex;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the type of the function that performed the calculation.
+   * @return the value of the property, not null
+   */
+  public Class<?> getFunctionType() {
+    return functionType;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the measures calculated by the task.
+   * @return the value of the property, not null
+   */
+  public ImmutableSet<Measure> getMeasures() {
+    return measures;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of scenarios calculated by the task.
+   * @return the value of the property
+   */
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the elapsed wall-clock time, in nanoseconds.
+   * @return the value of the property
+   */
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the CPU time, in nanoseconds, negative if not available.
+   * @return the value of the property
+   */
+  public long getCpuTimeNanos() {
+    return cpuTimeNanos;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of bytes allocated, negative if not available.
+   * @return the value of the property
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the reason for the first failed result of the task, empty if all results succeeded.
+   * @return the optional value of the property, not null
+   */
+  public Optional<FailureReason> getFailureReason() {
+    return Optional.ofNullable(failureReason);
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      CalculationTaskTiming other = (CalculationTaskTiming) obj;
+      return JodaBeanUtils.equal(target, other.target) &&
+          (rowIndex == other.rowIndex) &&
+          JodaBeanUtils.equal(functionType, other.functionType) &&
+          JodaBeanUtils.equal(measures, other.measures) &&
+          (scenarioCount == other.scenarioCount) &&
+          (wallTimeNanos == other.wallTimeNanos) &&
+          (cpuTimeNanos == other.cpuTimeNanos) &&
+          (allocatedBytes == other.allocatedBytes) &&
+          JodaBeanUtils.equal(failureReason, other.failureReason);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(target);
+    hash = hash * 31 + JodaBeanUtils.hashCode(rowIndex);
+    hash = hash * 31 + JodaBeanUtils.hashCode(functionType);
+    hash = hash * 31 + JodaBeanUtils.hashCode(measures);
+    hash = hash * 31 + JodaBeanUtils.hashCode(scenarioCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(wallTimeNanos);
+    hash = hash * 31 + JodaBeanUtils.hashCode(cpuTimeNanos);
+    hash = hash * 31 + JodaBeanUtils.hashCode(allocatedBytes);
+    hash = hash * 31 + JodaBeanUtils.hashCode(failureReason);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(320);
+    buf.append("CalculationTaskTiming{");
+    buf.append("target").append('=').append(target).append(',').append(' ');
+    buf.append("rowIndex").append('=').append(rowIndex).append(',').append(' ');
+    buf.append("functionType").append('=').append(functionType).append(',').append(' ');
+    buf.append("measures").append('=').append(measures).append(',').append(' ');
+    buf.append("scenarioCount").append('=').append(scenarioCount).append(',').append(' ');
+    buf.append("wallTimeNanos").append('=').append(wallTimeNanos).append(',').append(' ');
+    buf.append("cpuTimeNanos").append('=').append(cpuTimeNanos).append(',').append(' ');
+    buf.append("allocatedBytes").append('=').append(allocatedBytes).append(',').append(' ');
+    buf.append("failureReason").append('=').append(JodaBeanUtils.toString(failureReason));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
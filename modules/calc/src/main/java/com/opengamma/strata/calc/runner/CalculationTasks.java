@@ -8,7 +8,10 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.beans.ImmutableBean;
 import org.joda.beans.JodaBeanUtils;
@@ -21,6 +24,7 @@ import org.joda.beans.impl.light.LightMetaBean;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.ResolvableCalculationTarget;
@@ -31,7 +35,9 @@ import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.ReportingCurrency;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirementsBuilder;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
  * The tasks that will be used to perform the calculations.
@@ -250,6 +256,39 @@ public final class CalculationTasks implements ImmutableBean {
     return builder.build();
   }
 
+  /**
+   * Groups the tasks into batches that can be executed together.
+   * <p>
+   * Tasks are grouped if they have the same function, parameters and measures.
+   * Each group is then split into batches with no more than the specified number of tasks.
+   * The batches are returned in the order that the groups are first seen in the list of tasks,
+   * with the tasks in each batch retaining their relative order.
+   * <p>
+   * Each batch can be executed using {@link CalculationTask#executeBatch(List, ScenarioMarketData, ReferenceData)},
+   * allowing the function to share set up work between the targets.
+   *
+   * @param maxBatchSize  the maximum number of tasks in a batch
+   * @return the batches of tasks
+   */
+  public ImmutableList<ImmutableList<CalculationTask>> getBatches(int maxBatchSize) {
+    ArgChecker.notNegativeOrZero(maxBatchSize, "maxBatchSize");
+    if (maxBatchSize == 1) {
+      return tasks.stream().map(ImmutableList::of).collect(toImmutableList());
+    }
+    Map<List<Object>, List<CalculationTask>> grouped = new LinkedHashMap<>();
+    for (CalculationTask task : tasks) {
+      List<Object> key = ImmutableList.of(task.getFunction(), task.getParameters(), task.getMeasures());
+      grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(task);
+    }
+    ImmutableList.Builder<ImmutableList<CalculationTask>> builder = ImmutableList.builder();
+    for (List<CalculationTask> group : grouped.values()) {
+      for (List<CalculationTask> batch : Lists.partition(group, maxBatchSize)) {
+        builder.add(ImmutableList.copyOf(batch));
+      }
+    }
+    return builder.build();
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public String toString() {
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * Instrumentation that aggregates the timings of calculation tasks into a summary.
+ * <p>
+ * The timings are aggregated as they are received, thus the memory used does not depend
+ * on the number of tasks. Only the slowest tasks are retained.
+ * <p>
+ * This class is mutable and thread-safe.
+ */
+public final class CalculationTimingRecorder implements CalculationInstrumentation {
+
+  /**
+   * The default number of slowest tasks retained.
+   */
+  private static final int DEFAULT_SLOWEST_COUNT = 10;
+  /**
+   * Comparator by wall-clock time.
+   */
+  private static final Comparator<CalculationTaskTiming> WALL_TIME_COMPARATOR =
+      Comparator.comparingLong(CalculationTaskTiming::getWallTimeNanos);
+
+  /** The number of slowest tasks retained. */
+  private final int slowestCount;
+  /** The histogram buckets, indexed by the number of bits in the wall-clock time. */
+  private final int[] histogram = new int[Long.SIZE];
+  /** The total wall-clock time by function type. */
+  private final Map<Class<?>, Long> functionWallTimeNanos = new HashMap<>();
+  /** The slowest tasks, with the fastest of them at the head of the queue. */
+  private final PriorityQueue<CalculationTaskTiming> slowestTasks;
+  /** The number of tasks. */
+  private int taskCount;
+  /** The number of failed tasks. */
+  private int failureCount;
+  /** The total wall-clock time. */
+  private long totalWallTimeNanos;
+  /** The total CPU time. */
+  private long totalCpuTimeNanos;
+  /** The total allocated bytes. */
+  private long totalAllocatedBytes;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance retaining the ten slowest tasks.
+   *
+   * @return the recorder
+   */
+  public static CalculationTimingRecorder create() {
+    return new CalculationTimingRecorder(DEFAULT_SLOWEST_COUNT);
+  }
+
+  /**
+   * Obtains an instance retaining the specified number of slowest tasks.
+   *
+   * @param slowestCount  the number of slowest tasks to retain
+   * @return the recorder
+   */
+  public static CalculationTimingRecorder create(int slowestCount) {
+    return new CalculationTimingRecorder(slowestCount);
+  }
+
+  // restricted constructor
+  private CalculationTimingRecorder(int slowestCount) {
+    this.slowestCount = ArgChecker.notNegative(slowestCount, "slowestCount");
+    this.slowestTasks = new PriorityQueue<>(slowestCount + 1, WALL_TIME_COMPARATOR);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public synchronized void taskCompleted(CalculationTaskTiming timing) {
+    long wallTime = Math.max(timing.getWallTimeNanos(), 0);
+    taskCount++;
+    if (timing.getFailureReason().isPresent()) {
+      failureCount++;
+    }
+    totalWallTimeNanos += wallTime;
+    if (timing.getCpuTimeNanos() > 0) {
+      totalCpuTimeNanos += timing.getCpuTimeNanos();
+    }
+    if (timing.getAllocatedBytes() > 0) {
+      totalAllocatedBytes += timing.getAllocatedBytes();
+    }
+    histogram[Long.SIZE - Long.numberOfLeadingZeros(wallTime)]++;
+    functionWallTimeNanos.merge(timing.getFunctionType(), wallTime, Long::sum);
+    if (slowestCount > 0) {
+      slowestTasks.add(timing);
+      if (slowestTasks.size() > slowestCount) {
+        slowestTasks.poll();
+      }
+    }
+  }
+
+  /**
+   * Returns a summary of the timings received so far.
+   *
+   * @return the summary
+   */
+  public synchronized CalculationTimingSummary summary() {
+    TreeMap<Long, Integer> buckets = new TreeMap<>();
+    for (int i = 0; i < histogram.length; i++) {
+      if (histogram[i] > 0) {
+        // bucket i holds times with i significant bits, thus less than 2^i
+        buckets.put(i == Long.SIZE - 1 ? Long.MAX_VALUE : 1L << i, histogram[i]);
+      }
+    }
+    List<CalculationTaskTiming> slowest = new ArrayList<>(slowestTasks);
+    slowest.sort(WALL_TIME_COMPARATOR.reversed());
+    return CalculationTimingSummary.of(
+        taskCount,
+        failureCount,
+        totalWallTimeNanos,
+        totalCpuTimeNanos,
+        totalAllocatedBytes,
+        buckets,
+        functionWallTimeNanos,
+        slowest);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public synchronized String toString() {
+    return Messages.format(
+        "CalculationTimingRecorder[taskCount={}, totalWallTimeNanos={}]", taskCount, totalWallTimeNanos);
+  }
+
+}
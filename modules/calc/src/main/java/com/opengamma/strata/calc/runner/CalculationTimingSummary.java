@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A summary of the timings of the tasks of a calculation run.
+ * <p>
+ * This aggregates the {@link CalculationTaskTiming} of each task, providing totals,
+ * a histogram of the wall-clock time of the tasks, the time taken by each type of function,
+ * and the slowest tasks. It is created by {@link CalculationTimingRecorder}.
+ */
+@BeanDefinition(style = "light")
+public final class CalculationTimingSummary
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The number of tasks.
+   */
+  @PropertyDefinition
+  private final int taskCount;
+  /**
+   * The number of tasks with at least one failed result.
+   */
+  @PropertyDefinition
+  private final int failureCount;
+  /**
+   * The total wall-clock time of the tasks, in nanoseconds.
+   */
+  @PropertyDefinition
+  private final long totalWallTimeNanos;
+  /**
+   * The total CPU time of the tasks, in nanoseconds, excluding tasks where it is not available.
+   */
+  @PropertyDefinition
+  private final long totalCpuTimeNanos;
+  /**
+   * The total bytes allocated by the tasks, excluding tasks where it is not available.
+   */
+  @PropertyDefinition
+  private final long totalAllocatedBytes;
+  /**
+   * The histogram of the wall-clock time of the tasks.
+   * <p>
+   * The key is the exclusive upper bound of the bucket, in nanoseconds, with each bucket
+   * twice the size of the previous one. The value is the number of tasks in the bucket.
+   * Empty buckets are not included.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableSortedMap<Long, Integer> wallTimeHistogram;
+  /**
+   * The total wall-clock time of the tasks, in nanoseconds, keyed by the type of the function.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableMap<Class<?>, Long> functionWallTimeNanos;
+  /**
+   * The slowest tasks, in order of decreasing wall-clock time.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<CalculationTaskTiming> slowestTasks;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param taskCount  the number of tasks
+   * @param failureCount  the number of tasks with at least one failed result
+   * @param totalWallTimeNanos  the total wall-clock time, in nanoseconds
+   * @param totalCpuTimeNanos  the total CPU time, in nanoseconds
+   * @param totalAllocatedBytes  the total bytes allocated
+   * @param wallTimeHistogram  the histogram of wall-clock time, keyed by the upper bound of each bucket
+   * @param functionWallTimeNanos  the total wall-clock time keyed by function type
+   * @param slowestTasks  the slowest tasks
+   * @return the summary
+   */
+  public static CalculationTimingSummary of(
+      int taskCount,
+      int failureCount,
+      long totalWallTimeNanos,
+      long totalCpuTimeNanos,
+      long totalAllocatedBytes,
+      SortedMap<Long, Integer> wallTimeHistogram,
+      Map<Class<?>, Long> functionWallTimeNanos,
+      List<CalculationTaskTiming> slowestTasks) {
+
+    return new CalculationTimingSummary(
+        taskCount,
+        failureCount,
+        totalWallTimeNanos,
+        totalCpuTimeNanos,
+        totalAllocatedBytes,
+        wallTimeHistogram,
+        functionWallTimeNanos,
+        slowestTasks);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Estimates the wall-clock time below which the specified fraction of tasks completed.
+   * <p>
+   * This is estimated from the histogram, returning the upper bound of the bucket
+   * containing the specified fraction of tasks. Zero is returned if there are no tasks.
+   *
+   * @param fraction  the fraction of tasks, from 0 to 1
+   * @return the estimated wall-clock time, in nanoseconds
+   */
+  public long wallTimeNanosAtFraction(double fraction) {
+    ArgChecker.inRangeInclusive(fraction, 0d, 1d, "fraction");
+    long target = (long) Math.ceil(fraction * taskCount);
+    long cumulative = 0;
+    for (Map.Entry<Long, Integer> entry : wallTimeHistogram.entrySet()) {
+      cumulative += entry.getValue();
+      if (cumulative >= target) {
+        return entry.getKey();
+      }
+    }
+    return 0;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code CalculationTimingSummary}.
+   */
+  private static final TypedMetaBean<CalculationTimingSummary> META_BEAN =
+      LightMetaBean.of(
+          CalculationTimingSummary.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "taskCount",
+              "failureCount",
+              "totalWallTimeNanos",
+              "totalCpuTimeNanos",
+              "totalAllocatedBytes",
+              "wallTimeHistogram",
+              "functionWallTimeNanos",
+              "slowestTasks"},
+          0,
+          0,
+          0L,
+          0L,
+          0L,
+          ImmutableSortedMap.of(),
+          ImmutableMap.of(),
+          ImmutableList.of());
+
+  /**
+   * The meta-bean for {@code CalculationTimingSummary}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<CalculationTimingSummary> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private CalculationTimingSummary(
+      int taskCount,
+      int failureCount,
+      long totalWallTimeNanos,
+      long totalCpuTimeNanos,
+      long totalAllocatedBytes,
+      SortedMap<Long, Integer> wallTimeHistogram,
+      Map<Class<?>, Long> functionWallTimeNanos,
+      List<CalculationTaskTiming> slowestTasks) {
+    JodaBeanUtils.notNull(wallTimeHistogram, "wallTimeHistogram");
+    JodaBeanUtils.notNull(functionWallTimeNanos, "functionWallTimeNanos");
+    JodaBeanUtils.notNull(slowestTasks, "slowestTasks");
+    this.taskCount = taskCount;
+    this.failureCount = failureCount;
+    this.totalWallTimeNanos = totalWallTimeNanos;
+    this.totalCpuTimeNanos = totalCpuTimeNanos;
+    this.totalAllocatedBytes = totalAllocatedBytes;
+    this.wallTimeHistogram = ImmutableSortedMap.copyOfSorted(wallTimeHistogram);
+    this.functionWallTimeNanos = ImmutableMap.copyOf(functionWallTimeNanos);
+    this.slowestTasks = ImmutableList.copyOf(slowestTasks);
+  }
+
+  @Override
+  public TypedMetaBean<CalculationTimingSummary> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of tasks.
+   * @return the value of the property
+   */
+  public int getTaskCount() {
+    return taskCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of tasks with at least one failed result.
+   * @return the value of the property
+   */
+  public int getFailureCount() {
+    return failureCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the total wall-clock time of the tasks, in nanoseconds.
+   * @return the value of the property
+   */
+  public long getTotalWallTimeNanos() {
+    return totalWallTimeNanos;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the total CPU time of the tasks, in nanoseconds, excluding tasks where it is not available.
+   * @return the value of the property
+   */
+  public long getTotalCpuTimeNanos() {
+    return totalCpuTimeNanos;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the total bytes allocated by the tasks, excluding tasks where it is not available.
+   * @return the value of the property
+   */
+  public long getTotalAllocatedBytes() {
+    return totalAllocatedBytes;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the histogram of the wall-clock time of the tasks.
+   * <p>
+   * The key is the exclusive upper bound of the bucket, in nanoseconds, with each bucket
+   * twice the size of the previous one. The value is the number of tasks in the bucket.
+   * Empty buckets are not included.
+   * @return the value of the property, not null
+   */
+  public ImmutableSortedMap<Long, Integer> getWallTimeHistogram() {
+    return wallTimeHistogram;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the total wall-clock time of the tasks, in nanoseconds, keyed by the type of the function.
+   * @return the value of the property, not null
+   */
+  public ImmutableMap<Class<?>, Long> getFunctionWallTimeNanos() {
+    return functionWallTimeNanos;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the slowest tasks, in order of decreasing wall-clock time.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<CalculationTaskTiming> getSlowestTasks() {
+    return slowestTasks;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      CalculationTimingSummary other = (CalculationTimingSummary) obj;
+      return (taskCount == other.taskCount) &&
+          (failureCount == other.failureCount) &&
+          (totalWallTimeNanos == other.totalWallTimeNanos) &&
+          (totalCpuTimeNanos == other.totalCpuTimeNanos) &&
+          (totalAllocatedBytes == other.totalAllocatedBytes) &&
+          JodaBeanUtils.equal(wallTimeHistogram, other.wallTimeHistogram) &&
+          JodaBeanUtils.equal(functionWallTimeNanos, other.functionWallTimeNanos) &&
+          JodaBeanUtils.equal(slowestTasks, other.slowestTasks);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(taskCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(failureCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(totalWallTimeNanos);
+    hash = hash * 31 + JodaBeanUtils.hashCode(totalCpuTimeNanos);
+    hash = hash * 31 + JodaBeanUtils.hashCode(totalAllocatedBytes);
+    hash = hash * 31 + JodaBeanUtils.hashCode(wallTimeHistogram);
+    hash = hash * 31 + JodaBeanUtils.hashCode(functionWallTimeNanos);
+    hash = hash * 31 + JodaBeanUtils.hashCode(slowestTasks);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(288);
+    buf.append("CalculationTimingSummary{");
+    buf.append("taskCount").append('=').append(taskCount).append(',').append(' ');
+    buf.append("failureCount").append('=').append(failureCount).append(',').append(' ');
+    buf.append("totalWallTimeNanos").append('=').append(totalWallTimeNanos).append(',').append(' ');
+    buf.append("totalCpuTimeNanos").append('=').append(totalCpuTimeNanos).append(',').append(' ');
+    buf.append("totalAllocatedBytes").append('=').append(totalAllocatedBytes).append(',').append(' ');
+    buf.append("wallTimeHistogram").append('=').append(wallTimeHistogram).append(',').append(' ');
+    buf.append("functionWallTimeNanos").append('=').append(functionWallTimeNanos).append(',').append(' ');
+    buf.append("slowestTasks").append('=').append(JodaBeanUtils.toString(slowestTasks));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnarResults;
+
+/**
+ * Calculation listener that receives the results of individual calculations and builds a set of
+ * {@link ColumnarResults}.
+ * <p>
+ * Each result is converted to primitive values as it is received, thus the result objects can be
+ * garbage collected during the calculations. This uses much less memory than {@link ResultsListener}
+ * when there are many targets and scenarios.
+ */
+public final class ColumnarResultsListener extends AggregatingCalculationListener<ColumnarResults> {
+
+  /** The builder that is populated with the results as they arrive. */
+  private ColumnarResults.Builder builder;
+
+  /**
+   * Creates a new instance.
+   */
+  public ColumnarResultsListener() {
+  }
+
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    List<ColumnHeader> headers = columns.stream().map(Column::toHeader).collect(toImmutableList());
+    builder = ColumnarResults.builder(headers, targets.size());
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    builder.add(result.getRowIndex(), result.getColumnIndex(), result.getResult());
+  }
+
+  @Override
+  protected ColumnarResults createAggregateResult() {
+    return builder.build();
+  }
+
+}
@@ -7,20 +7,32 @@ package com.opengamma.strata.calc.runner;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioArray;
@@ -29,15 +41,48 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
 /**
  * The default calculation task runner.
  * <p>
- * This uses a single instance of {@link ExecutorService}.
+ * This uses a single instance of {@link ExecutorService}, plus a second executor that loads the data
+ * of tasks that block if the options identify any.
+ * The way in which the tasks are executed is controlled by {@link CalculationTaskRunnerOptions}.
  */
 final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
 
+  /**
+   * The logger.
+   */
+  private static final Logger log = LoggerFactory.getLogger(DefaultCalculationTaskRunner.class);
+
   /**
    * Executes the tasks that perform the individual calculations.
    * This will typically be multi-threaded, but single or direct executors also work.
    */
   private final ExecutorService executor;
+  /**
+   * Loads the data required by the tasks that block, null if no tasks block.
+   * This is created and owned by the runner.
+   */
+  private final ExecutorService blockingExecutor;
+  /**
+   * The predicate identifying the tasks that block.
+   */
+  private final Predicate<CalculationTask> blockingTasks;
+  /**
+   * The maximum number of scenarios that a single task calculates without splitting.
+   * A value of {@code Integer.MAX_VALUE} means that tasks are never split.
+   */
+  private final int scenarioChunkSize;
+  /**
+   * The model used to estimate the cost of each task, null if the tasks are submitted in order.
+   */
+  private final CalculationTaskCostModel costModel;
+  /**
+   * The maximum number of tasks in a batch, one if tasks are not batched.
+   */
+  private final int maxBatchSize;
+  /**
+   * The instrumentation receiving the timing of each task, null if tasks are not timed.
+   */
+  private final CalculationInstrumentation instrumentation;
 
   //-------------------------------------------------------------------------
   /**
@@ -54,7 +99,24 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner ofMultiThreaded() {
-    return new DefaultCalculationTaskRunner(createExecutor(Runtime.getRuntime().availableProcessors()));
+    return new DefaultCalculationTaskRunner(
+        createExecutor(Runtime.getRuntime().availableProcessors()), CalculationTaskRunnerOptions.standard());
+  }
+
+  /**
+   * Creates a calculation task runner that uses a new virtual thread for each task.
+   * <p>
+   * Virtual threads are available from Java 21. On earlier versions, this factory creates
+   * an executor basing the number of threads on the number of available processors,
+   * as per {@link #ofMultiThreaded()}.
+   *
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner ofVirtualThreads() {
+    ExecutorService executor = createVirtualThreadExecutor("CalculationTaskRunner-");
+    return new DefaultCalculationTaskRunner(
+        executor != null ? executor : createExecutor(Runtime.getRuntime().availableProcessors()),
+        CalculationTaskRunnerOptions.standard());
   }
 
   /**
@@ -66,7 +128,21 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner of(ExecutorService executor) {
-    return new DefaultCalculationTaskRunner(executor);
+    return new DefaultCalculationTaskRunner(executor, CalculationTaskRunnerOptions.standard());
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor and options.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * Any executor created for blocking tasks is owned by the runner and shut down when the runner is closed.
+   *
+   * @param executor  the executor to use
+   * @param options  the options controlling how the tasks are executed
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(ExecutorService executor, CalculationTaskRunnerOptions options) {
+    return new DefaultCalculationTaskRunner(executor, options);
   }
 
   // create an executor with daemon threads
@@ -81,14 +157,63 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     return Executors.newFixedThreadPool(effectiveThreads, threadFactory);
   }
 
+  // create an executor loading the data of the blocking tasks
+  // a virtual thread is used for each task if available, otherwise the number of daemon threads is bounded,
+  // thus a large number of tasks cannot exhaust the native threads
+  private static ExecutorService createBlockingExecutor(int maxThreads) {
+    ExecutorService virtualThreadExecutor = createVirtualThreadExecutor("CalculationTaskRunner-blocking-");
+    if (virtualThreadExecutor != null) {
+      return virtualThreadExecutor;
+    }
+    ThreadFactory threadFactory = r -> {
+      Thread t = Executors.defaultThreadFactory().newThread(r);
+      t.setName("CalculationTaskRunner-blocking-" + t.getName());
+      t.setDaemon(true);
+      return t;
+    };
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        maxThreads, maxThreads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  // create an executor that starts a new virtual thread for each task, returning null if not available
+  // virtual threads are only available from Java 21, thus reflection is used
+  private static ExecutorService createVirtualThreadExecutor(String threadNamePrefix) {
+    try {
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+      ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, threadFactory);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      return null;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
-   * Creates an instance specifying the executor to use.
+   * Creates an instance specifying the executor and options to use.
    *
    * @param executor  the executor that is used to perform the calculations
+   * @param options  the options controlling how the tasks are executed
    */
-  private DefaultCalculationTaskRunner(ExecutorService executor) {
+  private DefaultCalculationTaskRunner(ExecutorService executor, CalculationTaskRunnerOptions options) {
+    ArgChecker.notNull(options, "options");
     this.executor = ArgChecker.notNull(executor, "executor");
+    this.blockingTasks = options.getBlockingTasks().orElse(null);
+    this.blockingExecutor = blockingTasks != null ? createBlockingExecutor(options.getMaxBlockingThreads()) : null;
+    this.scenarioChunkSize = options.getScenarioChunkSize();
+    if (scenarioChunkSize != Integer.MAX_VALUE && !(executor instanceof ForkJoinPool)) {
+      throw new IllegalArgumentException(Messages.format(
+          "Scenario chunk size {} requires a ForkJoinPool executor, but was {}",
+          scenarioChunkSize,
+          executor.getClass().getSimpleName()));
+    }
+    this.costModel = options.getCostModel().orElse(null);
+    this.maxBatchSize = options.getMaxBatchSize();
+    this.instrumentation = options.getInstrumentation().orElse(null);
   }
 
   //-------------------------------------------------------------------------
@@ -101,9 +226,23 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     // perform the calculations
     ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
     Results results = calculateMultiScenario(tasks, md, refData);
+    return unwrapScenarioResults(results);
+  }
+
+  @Override
+  public TimedResults calculateTimed(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
+    TimedResults timedResults = calculateMultiScenarioTimed(tasks, md, refData);
+    return TimedResults.of(unwrapScenarioResults(timedResults.getResults()), timedResults.getTimingSummary());
+  }
 
-    // unwrap the results
-    // since there is only one scenario it is not desirable to return scenario result containers
+  // unwraps the results
+  // since there is only one scenario it is not desirable to return scenario result containers
+  private static Results unwrapScenarioResults(Results results) {
     List<Result<?>> mappedResults = results.getCells().stream()
         .map(r -> unwrapScenarioResult(r))
         .collect(toImmutableList());
@@ -141,16 +280,38 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
   }
 
   @Override
-  public void calculateAsync(
+  public CalculationHandle calculateAsync(
       CalculationTasks tasks,
       MarketData marketData,
       ReferenceData refData,
       CalculationListener listener) {
 
+    return calculateSingleScenarioAsync(tasks, marketData, refData, listener, null);
+  }
+
+  @Override
+  public CalculationHandle calculateAsync(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    return calculateSingleScenarioAsync(tasks, marketData, refData, listener, deadline);
+  }
+
+  // performs the calculations for a single scenario, stopping at the deadline if not null
+  private CalculationHandle calculateSingleScenarioAsync(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
     // the listener is decorated to unwrap ScenarioArrays containing a single result
     ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
     UnwrappingListener unwrappingListener = new UnwrappingListener(listener);
-    calculateMultiScenarioAsync(tasks, md, refData, unwrappingListener);
+    return calculateMultiScenarioAsync(tasks, md, refData, unwrappingListener, deadline, instrumentation);
   }
 
   //-------------------------------------------------------------------------
@@ -161,17 +322,66 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       ReferenceData refData) {
 
     ResultsListener listener = new ResultsListener();
-    calculateMultiScenarioAsync(tasks, marketData, refData, listener);
-    return listener.result();
+    CalculationHandle handle = calculateMultiScenarioAsync(tasks, marketData, refData, listener, null, instrumentation);
+    return result(listener, handle);
+  }
+
+  @Override
+  public TimedResults calculateMultiScenarioTimed(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    // the timings of this run are recorded to create the summary, as well as being passed to the instrumentation
+    // all timings are recorded before the results are passed to the listener
+    ResultsListener listener = new ResultsListener();
+    CalculationTimingRecorder recorder = CalculationTimingRecorder.create();
+    CalculationInstrumentation recording = instrumentation != null ? recorder.combinedWith(instrumentation) : recorder;
+    CalculationHandle handle = calculateMultiScenarioAsync(tasks, marketData, refData, listener, null, recording);
+    return TimedResults.of(result(listener, handle), recorder.summary());
+  }
+
+  // waits for the results, cancelling the tasks that have not started if the thread is interrupted
+  private static Results result(ResultsListener listener, CalculationHandle handle) {
+    try {
+      return listener.result();
+    } catch (RuntimeException ex) {
+      handle.cancel();
+      throw ex;
+    }
   }
 
   @Override
-  public void calculateMultiScenarioAsync(
+  public CalculationHandle calculateMultiScenarioAsync(
       CalculationTasks tasks,
       ScenarioMarketData marketData,
       ReferenceData refData,
       CalculationListener listener) {
 
+    return calculateMultiScenarioAsync(tasks, marketData, refData, listener, null, instrumentation);
+  }
+
+  @Override
+  public CalculationHandle calculateMultiScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline) {
+
+    return calculateMultiScenarioAsync(tasks, marketData, refData, listener, deadline, instrumentation);
+  }
+
+  // performs the calculations, stopping at the deadline if not null
+  // the timing of each task is passed to the instrumentation if not null
+  private CalculationHandle calculateMultiScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener,
+      Instant deadline,
+      CalculationInstrumentation taskInstrumentation) {
+
     List<CalculationTask> taskList = tasks.getTasks();
     // the listener is invoked via this wrapper
     // the wrapper ensures thread-safety for the listener
@@ -179,30 +389,156 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     Consumer<CalculationResults> consumer =
         new ListenerWrapper(listener, taskList.size(), tasks.getTargets(), tasks.getColumns());
 
-    // run each task using the executor
-    taskList.forEach(task -> runTask(task, marketData, refData, consumer));
+    // the handle submits the batches, allowing those that have not started to be cancelled
+    CalculationHandle handle = new CalculationHandle(taskList.size(), deadline, consumer);
+
+    // run each batch of tasks using the executor, a batch is a single task unless batching is enabled
+    // if there is a cost model, the most expensive batches are submitted first
+    List<ImmutableList<CalculationTask>> batches = tasks.getBatches(maxBatchSize);
+    orderBatches(batches).forEach(batch -> runBatch(batch, marketData, refData, handle, taskInstrumentation));
+    return handle;
+  }
+
+  // orders the batches by decreasing estimated cost, retaining the order of batches with equal cost
+  private List<ImmutableList<CalculationTask>> orderBatches(List<ImmutableList<CalculationTask>> batches) {
+    if (costModel == null) {
+      return batches;
+    }
+    return batches.stream()
+        .map(batch -> new CostedBatch(batch, batch.stream().mapToDouble(costModel::estimateCost).sum()))
+        .sorted(Comparator.comparingDouble((CostedBatch costed) -> costed.cost).reversed())
+        .map(costed -> costed.batch)
+        .collect(toImmutableList());
   }
 
-  // submits a task to the executor to be run
-  private void runTask(
-      CalculationTask task,
+  // submits a batch of tasks to the executor to be run
+  private void runBatch(
+      List<CalculationTask> batch,
       ScenarioMarketData marketData,
       ReferenceData refData,
-      Consumer<CalculationResults> consumer) {
+      CalculationHandle handle,
+      CalculationInstrumentation taskInstrumentation) {
 
-    // the task is executed, with the result passed to the consumer
+    // the batch is executed, with each result passed to the consumer of the handle
     // the consumer wraps the listener to ensure thread-safety
-    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData);
-    CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
+    // batches with many scenarios are split into ranges of scenarios, with the results merged
+    Supplier<List<CalculationResults>> batchExecutor = marketData.getScenarioCount() > scenarioChunkSize ?
+        () -> new ScenarioSplittingTask(batch, marketData, refData, scenarioChunkSize).invoke() :
+        () -> CalculationTask.executeBatch(batch, marketData, refData);
+    if (costModel != null) {
+      batchExecutor = timed(batch, marketData.getScenarioCount(), batchExecutor);
+    }
+    if (taskInstrumentation != null) {
+      batchExecutor = instrumented(batch, marketData.getScenarioCount(), batchExecutor, taskInstrumentation);
+    }
+    // batches containing a blocking task load their data using the blocking executor before being priced
+    if (blockingExecutor != null && batch.stream().anyMatch(blockingTasks)) {
+      handle.submit(batch, () -> loadData(batch, marketData, refData), blockingExecutor, batchExecutor, executor);
+    } else {
+      handle.submit(batch, batchExecutor, executor);
+    }
+  }
+
+  // loads the reference data and market data required by the tasks, thus pricing does not block on loading
+  // failures are ignored, as they are reported when the tasks are priced
+  private static void loadData(List<CalculationTask> batch, ScenarioMarketData marketData, ReferenceData refData) {
+    for (CalculationTask task : batch) {
+      try {
+        MarketDataRequirements requirements = task.requirements(refData);
+        requirements.getObservables().forEach(marketData::findValue);
+        requirements.getNonObservables().forEach(marketData::findValue);
+        requirements.getTimeSeries().forEach(marketData::getTimeSeries);
+      } catch (RuntimeException ex) {
+        log.debug("Unable to load data for task: " + task, ex);
+      }
+    }
+  }
+
+  // decorates the batch executor to record the time taken in the cost model
+  // the time taken by a batch is shared equally between the tasks
+  private Supplier<List<CalculationResults>> timed(
+      List<CalculationTask> batch,
+      int scenarioCount,
+      Supplier<List<CalculationResults>> batchExecutor) {
+
+    return () -> {
+      long start = System.nanoTime();
+      List<CalculationResults> results = batchExecutor.get();
+      long nanosPerTask = (System.nanoTime() - start) / batch.size();
+      for (CalculationTask task : batch) {
+        costModel.recordCost(task, scenarioCount, nanosPerTask);
+      }
+      return results;
+    };
+  }
+
+  // decorates the batch executor to measure the time taken and pass it to the instrumentation
+  // the time taken and memory allocated by a batch is shared equally between the tasks
+  private static Supplier<List<CalculationResults>> instrumented(
+      List<CalculationTask> batch,
+      int scenarioCount,
+      Supplier<List<CalculationResults>> batchExecutor,
+      CalculationInstrumentation taskInstrumentation) {
+
+    return () -> {
+      long startCpu = ThreadResourceUsage.cpuTimeNanos();
+      long startAllocated = ThreadResourceUsage.allocatedBytes();
+      long start = System.nanoTime();
+      List<CalculationResults> results = batchExecutor.get();
+      long wallTime = (System.nanoTime() - start) / batch.size();
+      long cpuTime = startCpu < 0 ? -1 : (ThreadResourceUsage.cpuTimeNanos() - startCpu) / batch.size();
+      long allocated = startAllocated < 0 ? -1 : (ThreadResourceUsage.allocatedBytes() - startAllocated) / batch.size();
+      for (int i = 0; i < batch.size(); i++) {
+        CalculationTask task = batch.get(i);
+        FailureReason failureReason = results.get(i).getCells().stream()
+            .map(CalculationResult::getResult)
+            .filter(Result::isFailure)
+            .map(result -> result.getFailure().getReason())
+            .findFirst()
+            .orElse(null);
+        CalculationTaskTiming timing = CalculationTaskTiming.of(
+            task.getTarget(),
+            task.getRowIndex(),
+            task.getFunction().getClass(),
+            task.getMeasures(),
+            scenarioCount,
+            wallTime,
+            cpuTime,
+            allocated,
+            failureReason);
+        try {
+          taskInstrumentation.taskCompleted(timing);
+        } catch (RuntimeException ex) {
+          log.warn("Exception invoking instrumentation.taskCompleted", ex);
+        }
+      }
+      return results;
+    };
   }
 
   //-------------------------------------------------------------------------
   @Override
   public void close() {
     executor.shutdown();
+    if (blockingExecutor != null) {
+      blockingExecutor.shutdown();
+    }
   }
 
   //-------------------------------------------------------------------------
+  /**
+   * A batch of tasks and its estimated cost.
+   */
+  private static final class CostedBatch {
+
+    private final ImmutableList<CalculationTask> batch;
+    private final double cost;
+
+    private CostedBatch(ImmutableList<CalculationTask> batch, double cost) {
+      this.batch = batch;
+      this.cost = cost;
+    }
+  }
 
   //-------------------------------------------------------------------------
   /**
@@ -231,6 +567,11 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       delegate.resultReceived(target, unwrappedCalculationResult);
     }
 
+    @Override
+    public int maxQueuedResults() {
+      return delegate.maxQueuedResults();
+    }
+
     @Override
     public void calculationsComplete() {
       delegate.calculationsComplete();
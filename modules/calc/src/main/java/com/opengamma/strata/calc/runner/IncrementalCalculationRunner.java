@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Runner that recalculates only those results affected by a change in market data.
+ * <p>
+ * The runner is created for a fixed set of {@link CalculationTasks}. The market data requirements
+ * of each task are determined once, when the runner is created. The runner holds the results of
+ * the last calculation. When some market data changes, only the targets whose tasks require the
+ * changed market data are calculated again, with the remaining results taken from the last calculation.
+ * <p>
+ * Market data is often derived from other market data, such as a curve calibrated from quotes.
+ * The requirements of a task refer to the derived data, thus the IDs of the changed quotes are expanded
+ * to include the data derived from them when recalculating. This uses the tree of market data dependencies
+ * of the market data factory, see
+ * {@link MarketDataFactory#affectedIds(MarketDataRequirements, MarketDataConfig, ScenarioMarketData, Set)}.
+ * All the dependencies known to the factory are followed, including those of market data that
+ * is supplied rather than built, thus a change may cause more results to be recalculated than necessary.
+ * <p>
+ * This class is mutable, holding the results of the last calculation.
+ * The calculation methods are synchronized, thus only one calculation is performed at a time.
+ */
+public final class IncrementalCalculationRunner {
+
+  /**
+   * The underlying task runner.
+   */
+  private final CalculationTaskRunner taskRunner;
+  /**
+   * The tasks.
+   */
+  private final CalculationTasks tasks;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+  /**
+   * The factory used to find the market data derived from the changed market data.
+   */
+  private final MarketDataFactory marketDataFactory;
+  /**
+   * The configuration used to build the market data.
+   */
+  private final MarketDataConfig marketDataConfig;
+  /**
+   * The market data required by all the tasks.
+   */
+  private final MarketDataRequirements requirements;
+  /**
+   * The tasks keyed by row index.
+   */
+  private final ListMultimap<Integer, CalculationTask> tasksByRow;
+  /**
+   * The row indices of the tasks requiring each item of market data.
+   */
+  private final Map<MarketDataId<?>, List<Integer>> rowsById;
+  /**
+   * The results of the last calculation, null if there has been no calculation.
+   */
+  private Results results;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance for a set of tasks.
+   * <p>
+   * The market data requirements of the tasks are determined using the reference data.
+   * The market data factory and configuration are those used to build the market data,
+   * allowing the market data derived from the changed market data to be found.
+   * It is the callers responsibility to manage the life-cycle of the task runner.
+   *
+   * @param taskRunner  the task runner used to perform the calculations
+   * @param tasks  the tasks
+   * @param refData  the reference data
+   * @param marketDataFactory  the factory used to build the market data
+   * @param marketDataConfig  the configuration used to build the market data
+   * @return the runner
+   */
+  public static IncrementalCalculationRunner of(
+      CalculationTaskRunner taskRunner,
+      CalculationTasks tasks,
+      ReferenceData refData,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig) {
+
+    return new IncrementalCalculationRunner(taskRunner, tasks, refData, marketDataFactory, marketDataConfig);
+  }
+
+  // restricted constructor
+  private IncrementalCalculationRunner(
+      CalculationTaskRunner taskRunner,
+      CalculationTasks tasks,
+      ReferenceData refData,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig) {
+
+    this.taskRunner = ArgChecker.notNull(taskRunner, "taskRunner");
+    this.tasks = ArgChecker.notNull(tasks, "tasks");
+    this.refData = ArgChecker.notNull(refData, "refData");
+    this.marketDataFactory = ArgChecker.notNull(marketDataFactory, "marketDataFactory");
+    this.marketDataConfig = ArgChecker.notNull(marketDataConfig, "marketDataConfig");
+
+    // index the tasks by the market data they require, using a normal loop for better stack traces
+    this.tasksByRow = ArrayListMultimap.create();
+    this.rowsById = new HashMap<>();
+    for (CalculationTask task : tasks.getTasks()) {
+      Integer row = task.getRowIndex();
+      tasksByRow.put(row, task);
+      MarketDataRequirements taskRequirements = task.requirements(refData);
+      taskRequirements.getNonObservables().forEach(id -> addRow(id, row));
+      taskRequirements.getObservables().forEach(id -> addRow(id, row));
+      taskRequirements.getTimeSeries().forEach(id -> addRow(id, row));
+    }
+    this.requirements = tasks.requirements(refData);
+  }
+
+  // adds a row to the index
+  private void addRow(MarketDataId<?> id, Integer row) {
+    rowsById.computeIfAbsent(id, k -> new ArrayList<>()).add(row);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the tasks.
+   *
+   * @return the tasks
+   */
+  public CalculationTasks getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Gets the market data required by all the tasks.
+   *
+   * @return the market data requirements
+   */
+  public MarketDataRequirements getRequirements() {
+    return requirements;
+  }
+
+  /**
+   * Finds the row indices of the targets affected by a change to the specified market data.
+   * <p>
+   * A target is affected if any of its tasks require any of the market data,
+   * or any market data derived from it.
+   *
+   * @param changedIds  the IDs of the market data that has changed
+   * @return the affected row indices, in ascending order
+   */
+  public Set<Integer> affectedRows(Set<? extends MarketDataId<?>> changedIds) {
+    // the dependencies of all market data are followed, as the market data that is supplied is not known
+    Set<MarketDataId<?>> affectedIds =
+        marketDataFactory.affectedIds(requirements, marketDataConfig, ScenarioMarketData.empty(), changedIds);
+    Set<Integer> rows = new TreeSet<>();
+    for (MarketDataId<?> id : affectedIds) {
+      List<Integer> idRows = rowsById.get(id);
+      if (idRows != null) {
+        rows.addAll(idRows);
+      }
+    }
+    return rows;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates all the results for a single set of market data.
+   * <p>
+   * The results are retained for use by subsequent recalculations.
+   *
+   * @param marketData  the market data
+   * @return the results
+   */
+  public synchronized Results calculate(MarketData marketData) {
+    results = taskRunner.calculate(tasks, marketData, refData);
+    return results;
+  }
+
+  /**
+   * Calculates all the results for multiple scenarios.
+   * <p>
+   * The results are retained for use by subsequent recalculations.
+   *
+   * @param marketData  the market data
+   * @return the results
+   */
+  public synchronized Results calculateMultiScenario(ScenarioMarketData marketData) {
+    results = taskRunner.calculateMultiScenario(tasks, marketData, refData);
+    return results;
+  }
+
+  /**
+   * Recalculates the results affected by a change in a single set of market data.
+   * <p>
+   * The targets whose tasks require any of the changed market data, or any market data derived from it,
+   * are calculated again.
+   * All other results are taken from the last calculation.
+   * If there has been no previous calculation, all the results are calculated.
+   * <p>
+   * The market data must contain the changed data, and the results of the last calculation
+   * must have been calculated using a single set of market data.
+   *
+   * @param marketData  the market data, including the changes
+   * @param changedIds  the IDs of the market data that has changed, such as quotes
+   * @return the results
+   */
+  public synchronized Results recalculate(MarketData marketData, Set<? extends MarketDataId<?>> changedIds) {
+    if (results == null) {
+      return calculate(marketData);
+    }
+    Set<Integer> rows = affectedRows(changedIds);
+    if (!rows.isEmpty()) {
+      CalculationTasks affectedTasks = affectedTasks(rows);
+      results = merge(rows, taskRunner.calculate(affectedTasks, marketData, refData));
+    }
+    return results;
+  }
+
+  /**
+   * Recalculates the results affected by a change in market data for multiple scenarios.
+   * <p>
+   * The targets whose tasks require any of the changed market data, or any market data derived from it,
+   * are calculated again.
+   * All other results are taken from the last calculation.
+   * If there has been no previous calculation, all the results are calculated.
+   * <p>
+   * The market data must contain the changed data, and the results of the last calculation
+   * must have been calculated using the same number of scenarios.
+   *
+   * @param marketData  the market data, including the changes
+   * @param changedIds  the IDs of the market data that has changed, such as quotes
+   * @return the results
+   */
+  public synchronized Results recalculateMultiScenario(
+      ScenarioMarketData marketData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    if (results == null) {
+      return calculateMultiScenario(marketData);
+    }
+    Set<Integer> rows = affectedRows(changedIds);
+    if (!rows.isEmpty()) {
+      CalculationTasks affectedTasks = affectedTasks(rows);
+      results = merge(rows, taskRunner.calculateMultiScenario(affectedTasks, marketData, refData));
+    }
+    return results;
+  }
+
+  // creates the tasks for the affected rows, which are renumbered from zero
+  private CalculationTasks affectedTasks(Set<Integer> rows) {
+    ImmutableList.Builder<CalculationTask> builder = ImmutableList.builder();
+    int newRow = 0;
+    for (Integer row : rows) {
+      for (CalculationTask task : tasksByRow.get(row)) {
+        List<CalculationTaskCell> cells = new ArrayList<>();
+        for (CalculationTaskCell cell : task.getCells()) {
+          cells.add(CalculationTaskCell.of(
+              newRow, cell.getColumnIndex(), cell.getMeasure(), cell.getReportingCurrency()));
+        }
+        builder.add(CalculationTask.of(task.getTarget(), task.getFunction(), task.getParameters(), cells));
+      }
+      newRow++;
+    }
+    return CalculationTasks.of(builder.build(), tasks.getColumns());
+  }
+
+  // merges the recalculated rows into the last results
+  private Results merge(Set<Integer> rows, Results recalculated) {
+    int columnCount = results.getColumnCount();
+    List<Result<?>> cells = new ArrayList<>(results.getCells());
+    int newRow = 0;
+    for (Integer row : rows) {
+      for (int column = 0; column < columnCount; column++) {
+        cells.set(row * columnCount + column, recalculated.get(newRow, column));
+      }
+      newRow++;
+    }
+    return Results.of(results.getColumns(), cells);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "IncrementalCalculationRunner[grid={}x{}]", tasks.getTargets().size(), tasks.getColumns().size());
+  }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * Cost model that learns from the execution times of previous tasks.
+ * <p>
+ * The cost is keyed on the type of the calculation function and the set of measures.
+ * The estimated cost is an exponentially weighted moving average of the time per scenario.
+ */
+final class LearningCalculationTaskCostModel implements CalculationTaskCostModel {
+
+  /**
+   * The weight of the most recent time in the moving average.
+   */
+  private static final double WEIGHT = 0.5;
+
+  /**
+   * The learned cost per scenario, keyed by function type and measures.
+   */
+  private final ConcurrentHashMap<Pair<Class<?>, Set<Measure>>, Double> costs = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double estimateCost(CalculationTask task) {
+    return costs.getOrDefault(key(task), 0d);
+  }
+
+  @Override
+  public void recordCost(CalculationTask task, int scenarioCount, long nanos) {
+    double cost = (double) nanos / Math.max(scenarioCount, 1);
+    costs.merge(key(task), cost, (previous, latest) -> previous + WEIGHT * (latest - previous));
+  }
+
+  // the key of the task
+  private static Pair<Class<?>, Set<Measure>> key(CalculationTask task) {
+    return Pair.of(task.getFunction().getClass(), task.getMeasures());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("LearningCalculationTaskCostModel[size={}]", costs.size());
+  }
+
+}
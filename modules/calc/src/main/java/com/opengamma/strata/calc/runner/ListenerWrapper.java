@@ -8,6 +8,7 @@ package com.opengamma.strata.calc.runner;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
@@ -29,6 +30,10 @@ import com.opengamma.strata.collect.ArgChecker;
  * Calculations may be performed in bulk for a given target.
  * The logic in this class unwraps the {@link CalculationResults}, calling the
  * listener with each individual {@link CalculationResult}.
+ * <p>
+ * The number of results queued awaiting delivery is limited by {@link CalculationListener#maxQueuedResults()}.
+ * When the queue is full, threads delivering results block until there is space.
+ * This applies backpressure to the calculations when the listener is slower than the calculations.
  */
 final class ListenerWrapper implements Consumer<CalculationResults> {
 
@@ -43,12 +48,18 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   /** Protects the queue and the executing flag. */
   private final Lock lock = new ReentrantLock();
 
+  /** Signalled when space becomes available in the queue. */
+  private final Condition notFull = lock.newCondition();
+
   /** This lock is never contended; it is used to guarantee the listener state is visible to all threads. */
   private final Lock listenerLock = new ReentrantLock();
 
   /** The total number of tasks to be executed. */
   private final int tasksExpected;
 
+  /** The maximum number of results that may be queued. */
+  private final int maxQueuedResults;
+
   // Mutable state -----------------------------------------------------
 
   /**
@@ -72,6 +83,7 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   ListenerWrapper(CalculationListener listener, int tasksExpected, List<CalculationTarget> targets, List<Column> columns) {
     this.listener = ArgChecker.notNull(listener, "listener");
     this.tasksExpected = ArgChecker.notNegative(tasksExpected, "tasksExpected");
+    this.maxQueuedResults = ArgChecker.notNegativeOrZero(listener.maxQueuedResults(), "maxQueuedResults");
 
     listenerLock.lock();
     try {
@@ -96,6 +108,7 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
    * The other threads do not block while the listener is invoked. They
    * add their results to a queue and return quickly. Their results are
    * delivered by the thread invoking the listener.
+   * If the queue is full, the other threads block until there is space in the queue.
    *
    * @param result the result of a calculation
    */
@@ -112,6 +125,9 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
     // to any thread acquiring the lock.
     lock.lock();
     try {
+      // If another thread is invoking the listener and the queue is full, wait for space in the queue.
+      // This blocks the calculation thread, limiting the memory used by undelivered results.
+      awaitSpace();
       if (executing) {
         // Another thread is already invoking the listener. Add the result to
         // the queue and return. The other thread will ensure the queued results
@@ -170,16 +186,35 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
           // There are no more results to deliver. Unset the executing flag and return.
           // This allows the next calling thread to deliver results.
           executing = false;
+          notFull.signalAll();
           return;
         } else {
           // There are results on the queue. This means another thread called accept(),
           // added a result to the queue and returned while this thread was invoking the listener.
           // This thread must deliver the results from the queue.
           nextResult = queue.remove();
+          notFull.signal();
         }
       } finally {
         lock.unlock();
       }
     }
   }
+
+  // waits until there is space in the queue or no thread is invoking the listener, must be called holding the lock
+  private void awaitSpace() {
+    boolean interrupted = false;
+    while (executing && queue.size() >= maxQueuedResults) {
+      try {
+        notFull.await();
+      } catch (InterruptedException ex) {
+        // the result must not be lost, so continue waiting and restore the interrupt flag afterwards
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * A destination for rows of calculation results, such as a file or a queue.
+ * <p>
+ * A sink receives the results of the calculations for a target as soon as all the
+ * columns for that target have been calculated, see {@link StreamingCalculationListener}.
+ * The rows are not received in any particular order.
+ * <p>
+ * The methods of a sink are invoked by a single thread at any time,
+ * thus implementations are not required to be thread safe.
+ * A sink may block when writing a row, which blocks the thread delivering results.
+ */
+public interface ResultRowSink {
+
+  /**
+   * Invoked when the calculations start, before any rows are written.
+   *
+   * @param targets  the targets for which values are being calculated, one per row
+   * @param columns  the columns for which values are being calculated
+   */
+  public default void start(List<CalculationTarget> targets, List<Column> columns) {
+    // default implementation does nothing
+  }
+
+  /**
+   * Writes a row of results.
+   * <p>
+   * The row contains one result for each column, in column order.
+   *
+   * @param rowIndex  the index of the row
+   * @param target  the calculation target, such as a trade
+   * @param results  the results, one for each column
+   */
+  public abstract void write(int rowIndex, CalculationTarget target, List<Result<?>> results);
+
+  /**
+   * Invoked when all the calculations have completed and all rows have been written.
+   */
+  public default void complete() {
+    // default implementation does nothing
+  }
+
+}
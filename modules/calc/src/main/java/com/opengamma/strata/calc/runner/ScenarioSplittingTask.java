@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Fork-join task that executes a batch of calculation tasks, splitting the scenarios into ranges.
+ * <p>
+ * If the range of scenarios is larger than the chunk size, it is split in two and each half is
+ * processed separately, allowing idle threads in the pool to steal the work.
+ * The results of each half are then merged, concatenating the scenario arrays.
+ * A result that is not a {@link ScenarioArray} cannot be merged and is reported as a failure.
+ * <p>
+ * This task must be invoked from a thread of a {@link java.util.concurrent.ForkJoinPool},
+ * otherwise the ranges are forked to the common pool.
+ */
+final class ScenarioSplittingTask extends RecursiveTask<List<CalculationResults>> {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+
+  /** The batch of tasks to execute. */
+  private final transient List<CalculationTask> tasks;
+  /** The market data for all scenarios. */
+  private final transient ScenarioMarketData marketData;
+  /** The reference data. */
+  private final transient ReferenceData refData;
+  /** The index of the first scenario, inclusive. */
+  private final int startIndex;
+  /** The index of the last scenario, exclusive. */
+  private final int endIndex;
+  /** The maximum number of scenarios to calculate without splitting. */
+  private final int chunkSize;
+
+  /**
+   * Creates an instance that will calculate all the scenarios of the batch of tasks.
+   * 
+   * @param tasks  the batch of tasks to execute
+   * @param marketData  the market data for all scenarios
+   * @param refData  the reference data
+   * @param chunkSize  the maximum number of scenarios to calculate without splitting
+   */
+  ScenarioSplittingTask(
+      List<CalculationTask> tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      int chunkSize) {
+
+    this(tasks, marketData, refData, 0, marketData.getScenarioCount(), chunkSize);
+  }
+
+  // creates an instance for a range of scenarios
+  private ScenarioSplittingTask(
+      List<CalculationTask> tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      int startIndex,
+      int endIndex,
+      int chunkSize) {
+
+    this.tasks = tasks;
+    this.marketData = marketData;
+    this.refData = refData;
+    this.startIndex = startIndex;
+    this.endIndex = endIndex;
+    this.chunkSize = chunkSize;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  protected List<CalculationResults> compute() {
+    int count = endIndex - startIndex;
+    if (count <= chunkSize) {
+      if (count == marketData.getScenarioCount()) {
+        return CalculationTask.executeBatch(tasks, marketData, refData);
+      }
+      ScenarioMarketData subset = ScenarioSubsetMarketData.of(marketData, startIndex, endIndex);
+      return CalculationTask.executeBatch(tasks, subset, refData);
+    }
+    int midIndex = startIndex + count / 2;
+    ScenarioSplittingTask first =
+        new ScenarioSplittingTask(tasks, marketData, refData, startIndex, midIndex, chunkSize);
+    ScenarioSplittingTask second =
+        new ScenarioSplittingTask(tasks, marketData, refData, midIndex, endIndex, chunkSize);
+    first.fork();
+    List<CalculationResults> secondResults = second.compute();
+    List<CalculationResults> firstResults = first.join();
+    ImmutableList.Builder<CalculationResults> builder = ImmutableList.builder();
+    for (int i = 0; i < firstResults.size(); i++) {
+      builder.add(merge(firstResults.get(i), secondResults.get(i)));
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Merges the results of two consecutive ranges of scenarios.
+   * 
+   * @param first  the results of the first range
+   * @param second  the results of the second range
+   * @return the merged results
+   */
+  static CalculationResults merge(CalculationResults first, CalculationResults second) {
+    List<CalculationResult> firstCells = first.getCells();
+    List<CalculationResult> secondCells = second.getCells();
+    ImmutableList.Builder<CalculationResult> builder = ImmutableList.builder();
+    for (int i = 0; i < firstCells.size(); i++) {
+      CalculationResult firstCell = firstCells.get(i);
+      builder.add(firstCell.withResult(merge(firstCell.getResult(), secondCells.get(i).getResult())));
+    }
+    return CalculationResults.of(first.getTarget(), builder.build());
+  }
+
+  // merges two results, the first failure is returned if either fails
+  // a result that is not a scenario array has no scenarios to concatenate, thus it is a failure
+  private static Result<?> merge(Result<?> first, Result<?> second) {
+    if (first.isFailure()) {
+      return first;
+    }
+    if (second.isFailure()) {
+      return second;
+    }
+    Object firstValue = first.getValue();
+    Object secondValue = second.getValue();
+    if (firstValue instanceof ScenarioArray && secondValue instanceof ScenarioArray) {
+      return Result.success(concat((ScenarioArray<?>) firstValue, (ScenarioArray<?>) secondValue));
+    }
+    return Result.failure(
+        FailureReason.CALCULATION_FAILED,
+        "Unable to split scenarios, result must be a ScenarioArray but was {}",
+        (firstValue instanceof ScenarioArray ? secondValue : firstValue).getClass().getSimpleName());
+  }
+
+  // concatenates two arrays, retaining the specialized array types where possible
+  private static ScenarioArray<?> concat(ScenarioArray<?> first, ScenarioArray<?> second) {
+    if (first instanceof DoubleScenarioArray && second instanceof DoubleScenarioArray) {
+      return DoubleScenarioArray.of(
+          ((DoubleScenarioArray) first).getValues().concat(((DoubleScenarioArray) second).getValues()));
+    }
+    if (first instanceof CurrencyScenarioArray && second instanceof CurrencyScenarioArray) {
+      CurrencyScenarioArray firstArray = (CurrencyScenarioArray) first;
+      CurrencyScenarioArray secondArray = (CurrencyScenarioArray) second;
+      if (firstArray.getCurrency().equals(secondArray.getCurrency())) {
+        return CurrencyScenarioArray.of(
+            firstArray.getCurrency(),
+            firstArray.getAmounts().getValues().concat(secondArray.getAmounts().getValues()));
+      }
+    }
+    if (first instanceof MultiCurrencyScenarioArray && second instanceof MultiCurrencyScenarioArray) {
+      MultiCurrencyScenarioArray firstArray = (MultiCurrencyScenarioArray) first;
+      MultiCurrencyScenarioArray secondArray = (MultiCurrencyScenarioArray) second;
+      int firstSize = firstArray.getScenarioCount();
+      return MultiCurrencyScenarioArray.of(
+          firstSize + secondArray.getScenarioCount(),
+          i -> i < firstSize ? firstArray.get(i) : secondArray.get(i - firstSize));
+    }
+    int firstSize = first.getScenarioCount();
+    return ScenarioArray.of(
+        firstSize + second.getScenarioCount(),
+        i -> i < firstSize ? first.get(i) : second.get(i - firstSize));
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A view of a contiguous range of scenarios from an underlying set of scenario market data.
+ * <p>
+ * This is used when the scenarios of a single task are split across multiple threads.
+ * Single values are returned unchanged, scenario values are restricted to the range.
+ */
+final class ScenarioSubsetMarketData implements ScenarioMarketData {
+
+  /**
+   * The underlying market data.
+   */
+  private final ScenarioMarketData underlying;
+  /**
+   * The index of the first scenario, inclusive.
+   */
+  private final int startIndex;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance viewing a range of scenarios.
+   * 
+   * @param underlying  the underlying market data
+   * @param startIndex  the index of the first scenario, inclusive
+   * @param endIndex  the index of the last scenario, exclusive
+   * @return the market data for the range of scenarios
+   */
+  static ScenarioSubsetMarketData of(ScenarioMarketData underlying, int startIndex, int endIndex) {
+    ArgChecker.inOrderNotEqual(startIndex, endIndex, "startIndex", "endIndex");
+    ArgChecker.inRangeInclusive(endIndex, 1, underlying.getScenarioCount(), "endIndex");
+    return new ScenarioSubsetMarketData(underlying, startIndex, endIndex - startIndex);
+  }
+
+  // restricted constructor
+  private ScenarioSubsetMarketData(ScenarioMarketData underlying, int startIndex, int scenarioCount) {
+    this.underlying = ArgChecker.notNull(underlying, "underlying");
+    this.startIndex = ArgChecker.notNegative(startIndex, "startIndex");
+    this.scenarioCount = scenarioCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return subset(underlying.getValuationDate());
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return underlying.containsValue(id);
+  }
+
+  @Override
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    return subset(underlying.getValue(id));
+  }
+
+  @Override
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    return underlying.findValue(id).map(this::subset);
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return underlying.getIds();
+  }
+
+  @Override
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return underlying.findIds(name);
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return underlying.getTimeSeriesIds();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return underlying.getTimeSeries(id);
+  }
+
+  // restricts a box to the range of scenarios
+  private <T> MarketDataBox<T> subset(MarketDataBox<T> box) {
+    if (box.isSingleValue()) {
+      return box;
+    }
+    ScenarioArray<T> array = box.getScenarioValue();
+    return MarketDataBox.ofScenarioValue(ScenarioArray.of(scenarioCount, i -> array.get(startIndex + i)));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "ScenarioSubsetMarketData[{}-{} of {}]", startIndex, startIndex + scenarioCount, underlying);
+  }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * Calculation listener that passes each row of results to a sink as soon as the row is complete.
+ * <p>
+ * Unlike {@link ResultsListener}, this listener does not build a set of {@link Results} holding every result.
+ * The results for a target are held only until all the columns for the target have been calculated,
+ * at which point they are passed to the {@link ResultRowSink} and released.
+ * <p>
+ * The number of results awaiting delivery to this listener is bounded.
+ * If the sink is slower than the calculations, the calculation threads block until the sink catches up.
+ * As such, the memory used by results is bounded regardless of the number of targets.
+ * <p>
+ * The aggregate result is the number of rows written to the sink.
+ */
+public final class StreamingCalculationListener extends AggregatingCalculationListener<Integer> {
+
+  /**
+   * The default maximum number of results queued awaiting delivery.
+   */
+  private static final int DEFAULT_MAX_QUEUED_RESULTS = 256;
+
+  /** The sink receiving the rows. */
+  private final ResultRowSink sink;
+  /** The maximum number of results queued awaiting delivery. */
+  private final int maxQueuedResults;
+  /** The rows that have received some, but not all, of their results, keyed by row index. */
+  private final Map<Integer, Result<?>[]> pendingRows = new HashMap<>();
+  /** The number of results received for each pending row, keyed by row index. */
+  private final Map<Integer, Integer> pendingCounts = new HashMap<>();
+  /** The number of columns. */
+  private int columnCount;
+  /** The number of rows written. */
+  private int rowsWritten;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that writes rows to the specified sink.
+   * <p>
+   * A default limit is applied to the number of results queued awaiting delivery.
+   *
+   * @param sink  the sink that receives the rows
+   * @return the listener
+   */
+  public static StreamingCalculationListener of(ResultRowSink sink) {
+    return new StreamingCalculationListener(sink, DEFAULT_MAX_QUEUED_RESULTS);
+  }
+
+  /**
+   * Obtains an instance that writes rows to the specified sink, specifying the queue limit.
+   * <p>
+   * The limit is the maximum number of task results that may be queued awaiting delivery to the sink.
+   * When the limit is reached, the calculation threads block until space is available.
+   *
+   * @param sink  the sink that receives the rows
+   * @param maxQueuedResults  the maximum number of results queued awaiting delivery
+   * @return the listener
+   */
+  public static StreamingCalculationListener of(ResultRowSink sink, int maxQueuedResults) {
+    return new StreamingCalculationListener(sink, maxQueuedResults);
+  }
+
+  // restricted constructor
+  private StreamingCalculationListener(ResultRowSink sink, int maxQueuedResults) {
+    this.sink = ArgChecker.notNull(sink, "sink");
+    this.maxQueuedResults = ArgChecker.notNegativeOrZero(maxQueuedResults, "maxQueuedResults");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int maxQueuedResults() {
+    return maxQueuedResults;
+  }
+
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    columnCount = columns.size();
+    sink.start(targets, columns);
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    Integer rowIndex = result.getRowIndex();
+    Result<?>[] row = pendingRows.computeIfAbsent(rowIndex, k -> new Result<?>[columnCount]);
+    row[result.getColumnIndex()] = result.getResult();
+    int count = pendingCounts.merge(rowIndex, 1, Integer::sum);
+    if (count == columnCount) {
+      pendingRows.remove(rowIndex);
+      pendingCounts.remove(rowIndex);
+      sink.write(rowIndex, target, Arrays.asList(row));
+      rowsWritten++;
+    }
+  }
+
+  @Override
+  protected Integer createAggregateResult() {
+    sink.complete();
+    return rowsWritten;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("StreamingCalculationListener[sink={}, pendingRows={}]", sink, pendingRows.size());
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Provides the CPU time and allocated memory of the current thread.
+ * <p>
+ * The allocated memory is only available on JVMs providing {@code com.sun.management.ThreadMXBean},
+ * which is accessed by reflection as it is not part of the standard API.
+ * Where a value is not available, a negative value is returned.
+ */
+final class ThreadResourceUsage {
+
+  /**
+   * The thread bean.
+   */
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+  /**
+   * Whether CPU time is available.
+   */
+  private static final boolean CPU_TIME_AVAILABLE = cpuTimeAvailable();
+  /**
+   * The method providing the allocated bytes, null if not available.
+   */
+  private static final Method ALLOCATED_BYTES_METHOD = allocatedBytesMethod();
+
+  // checks whether CPU time is available
+  private static boolean cpuTimeAvailable() {
+    try {
+      return THREAD_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_BEAN.isThreadCpuTimeEnabled();
+    } catch (RuntimeException ex) {
+      return false;
+    }
+  }
+
+  // finds the method providing the allocated bytes
+  private static Method allocatedBytesMethod() {
+    try {
+      Class<?> cls = Class.forName("com.sun.management.ThreadMXBean");
+      if (!cls.isInstance(THREAD_BEAN)) {
+        return null;
+      }
+      Method method = cls.getMethod("getThreadAllocatedBytes", long.class);
+      long bytes = (Long) method.invoke(THREAD_BEAN, Thread.currentThread().getId());
+      return bytes < 0 ? null : method;
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      return null;
+    }
+  }
+
+  // restricted constructor
+  private ThreadResourceUsage() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the CPU time of the current thread.
+   *
+   * @return the CPU time in nanoseconds, negative if not available
+   */
+  static long cpuTimeNanos() {
+    return CPU_TIME_AVAILABLE ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+  }
+
+  /**
+   * Gets the total bytes allocated by the current thread.
+   *
+   * @return the allocated bytes, negative if not available
+   */
+  static long allocatedBytes() {
+    if (ALLOCATED_BYTES_METHOD == null) {
+      return -1;
+    }
+    try {
+      return (Long) ALLOCATED_BYTES_METHOD.invoke(THREAD_BEAN, Thread.currentThread().getId());
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      return -1;
+    }
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.lang.invoke.MethodHandles;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.calc.Results;
+
+/**
+ * The results of a calculation run, together with the summary of the time taken by the tasks.
+ * <p>
+ * This is returned by the timed methods of {@link CalculationTaskRunner}.
+ * The summary is held separately from the results, as the time taken does not form part of the results.
+ */
+@BeanDefinition(style = "light")
+public final class TimedResults
+    implements ImmutableBean {
+
+  /**
+   * The results of the calculations.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Results results;
+  /**
+   * The summary of the time taken by the tasks.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CalculationTimingSummary timingSummary;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the results and the timing summary.
+   *
+   * @param results  the results of the calculations
+   * @param timingSummary  the summary of the time taken by the tasks
+   * @return the timed results
+   */
+  public static TimedResults of(Results results, CalculationTimingSummary timingSummary) {
+    return new TimedResults(results, timingSummary);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code TimedResults}.
+   */
+  private static final TypedMetaBean<TimedResults> META_BEAN =
+      LightMetaBean.of(
+          TimedResults.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "results",
+              "timingSummary"},
+          new Object[0]);
+
+  /**
+   * The meta-bean for {@code TimedResults}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<TimedResults> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  private TimedResults(
+      Results results,
+      CalculationTimingSummary timingSummary) {
+    JodaBeanUtils.notNull(results, "results");
+    JodaBeanUtils.notNull(timingSummary, "timingSummary");
+    this.results = results;
+    this.timingSummary = timingSummary;
+  }
+
+  @Override
+  public TypedMetaBean<TimedResults> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the results of the calculations.
+   * @return the value of the property, not null
+   */
+  public Results getResults() {
+    return results;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the summary of the time taken by the tasks.
+   * @return the value of the property, not null
+   */
+  public CalculationTimingSummary getTimingSummary() {
+    return timingSummary;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      TimedResults other = (TimedResults) obj;
+      return JodaBeanUtils.equal(results, other.results) &&
+          JodaBeanUtils.equal(timingSummary, other.timingSummary);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(results);
+    hash = hash * 31 + JodaBeanUtils.hashCode(timingSummary);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(96);
+    buf.append("TimedResults{");
+    buf.append("results").append('=').append(results).append(',').append(' ');
+    buf.append("timingSummary").append('=').append(JodaBeanUtils.toString(timingSummary));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
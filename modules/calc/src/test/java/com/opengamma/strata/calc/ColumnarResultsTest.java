@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.calc.runner.ColumnarResultsListener;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Test {@link ColumnarResults}.
+ */
+@Test
+public class ColumnarResultsTest {
+
+  private static final ColumnHeader HEADER1 = ColumnHeader.of(ColumnName.of("A"), TestingMeasures.PRESENT_VALUE);
+  private static final ColumnHeader HEADER2 = ColumnHeader.of(ColumnName.of("B"), TestingMeasures.PAR_RATE);
+  private static final ColumnHeader HEADER3 = ColumnHeader.of(ColumnName.of("C"), TestingMeasures.PRESENT_VALUE);
+  private static final List<ColumnHeader> HEADERS = ImmutableList.of(HEADER1, HEADER2, HEADER3);
+  private static final Result<?> FAILURE = Result.failure(FailureReason.CALCULATION_FAILED, "Failed");
+
+  //-------------------------------------------------------------------------
+  public void test_scenarioArrays() {
+    Results results = Results.of(HEADERS, ImmutableList.of(
+        Result.success(CurrencyScenarioArray.of(USD, DoubleArray.of(1, 2, 3))),
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(0.1, 0.2, 0.3))),
+        Result.success(MultiCurrencyScenarioArray.of(
+            MultiCurrencyAmount.of(CurrencyAmount.of(USD, 1), CurrencyAmount.of(GBP, 2)),
+            MultiCurrencyAmount.of(CurrencyAmount.of(USD, 3), CurrencyAmount.of(GBP, 4)),
+            MultiCurrencyAmount.of(CurrencyAmount.of(USD, 5), CurrencyAmount.of(GBP, 6)))),
+        Result.success(CurrencyScenarioArray.of(EUR, DoubleArray.of(10, 20, 30))),
+        FAILURE,
+        Result.success(MultiCurrencyScenarioArray.of(
+            MultiCurrencyAmount.of(CurrencyAmount.of(USD, 10)),
+            MultiCurrencyAmount.of(CurrencyAmount.of(USD, 30)),
+            MultiCurrencyAmount.of(CurrencyAmount.of(USD, 50)))),
+        Result.success(CurrencyScenarioArray.of(USD, DoubleArray.of(4, 5, 6))),
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(1, 2, 3))),
+        FAILURE));
+
+    ColumnarResults test = ColumnarResults.of(results);
+    assertThat(test.getColumns()).isEqualTo(HEADERS);
+    assertThat(test.getRowCount()).isEqualTo(3);
+    assertThat(test.getColumnCount()).isEqualTo(3);
+    assertThat(test.getOtherCellCount()).isEqualTo(2);
+    for (int row = 0; row < 3; row++) {
+      for (int column = 0; column < 3; column++) {
+        assertThat(test.get(row, column)).isEqualTo(results.get(row, column));
+      }
+    }
+    assertThat(test.get(0, 0, CurrencyScenarioArray.class).getValue().getAmounts().getValues())
+        .isEqualTo(DoubleArray.of(1, 2, 3));
+    assertThat(test.toResults()).isEqualTo(results);
+
+    assertThat(test.totalCurrencyAmounts(0)).isEqualTo(MultiCurrencyScenarioArray.of(
+        MultiCurrencyAmount.of(CurrencyAmount.of(USD, 5), CurrencyAmount.of(EUR, 10)),
+        MultiCurrencyAmount.of(CurrencyAmount.of(USD, 7), CurrencyAmount.of(EUR, 20)),
+        MultiCurrencyAmount.of(CurrencyAmount.of(USD, 9), CurrencyAmount.of(EUR, 30))));
+    assertThat(test.totalDoubles(1).toArray()).containsExactly(new double[] {1.1, 2.2, 3.3}, within(1e-12));
+    assertThat(test.totalCurrencyAmounts(2)).isEqualTo(MultiCurrencyScenarioArray.of(
+        MultiCurrencyAmount.of(CurrencyAmount.of(USD, 11), CurrencyAmount.of(GBP, 2)),
+        MultiCurrencyAmount.of(CurrencyAmount.of(USD, 33), CurrencyAmount.of(GBP, 4)),
+        MultiCurrencyAmount.of(CurrencyAmount.of(USD, 55), CurrencyAmount.of(GBP, 6))));
+    assertThrowsIllegalArg(() -> test.totalDoubles(0), "Column 0 does not contain doubles.*");
+    assertThrowsIllegalArg(() -> test.totalCurrencyAmounts(1), "Column 1 does not contain currency amounts.*");
+  }
+
+  public void test_singleValues() {
+    Results results = Results.of(ImmutableList.of(HEADER1, HEADER2), ImmutableList.of(
+        Result.success(CurrencyAmount.of(USD, 1)),
+        Result.success(0.5d),
+        Result.success(CurrencyAmount.of(USD, 2)),
+        Result.success(0.25d)));
+
+    ColumnarResults test = ColumnarResults.of(results);
+    assertThat(test.toResults()).isEqualTo(results);
+    assertThat(test.getOtherCellCount()).isEqualTo(0);
+    assertThat(test.totalCurrencyAmounts(0)).isEqualTo(MultiCurrencyScenarioArray.of(MultiCurrencyAmount.of(USD, 3)));
+    assertThat(test.totalDoubles(1)).isEqualTo(DoubleArray.of(0.75));
+  }
+
+  public void test_otherValues() {
+    // values of other types, or with a different number of scenarios, are held as they are
+    Results results = Results.of(ImmutableList.of(HEADER1, HEADER2), ImmutableList.of(
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(1, 2))),
+        Result.success("A"),
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(1, 2, 3))),
+        Result.success(ScenarioArray.of("B", "C")),
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(3, 4))),
+        FAILURE));
+
+    ColumnarResults test = ColumnarResults.of(results);
+    assertThat(test.toResults()).isEqualTo(results);
+    assertThat(test.getOtherCellCount()).isEqualTo(4);
+    assertThat(test.totalDoubles(0)).isEqualTo(DoubleArray.of(4, 6));
+    assertThat(test.totalDoubles(1)).isEqualTo(DoubleArray.EMPTY);
+    assertThrows(
+        () -> test.get(0, 1, Integer.class),
+        ClassCastException.class,
+        "Result queried with type 'java.lang.Integer' but was 'java.lang.String'");
+    assertThat(test.get(0, 1, String.class)).isEqualTo(results.get(0, 1));
+  }
+
+  public void test_empty() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1), 1)
+        .add(0, 0, FAILURE)
+        .build();
+    assertThat(test.get(0, 0)).isEqualTo(FAILURE);
+    assertThat(test.totalDoubles(0)).isEqualTo(DoubleArray.EMPTY);
+    assertThat(test.totalCurrencyAmounts(0).getCurrencies()).isEmpty();
+    assertThrowsIllegalArg(() -> test.get(1, 0));
+    assertThrowsIllegalArg(() -> test.get(0, 1));
+    assertThat(test.toString()).contains("rowCount=1");
+  }
+
+  public void test_builder() {
+    ColumnarResults.Builder builder = ColumnarResults.builder(ImmutableList.of(HEADER1), 3)
+        .add(2, 0, Result.success(CurrencyAmount.of(USD, 3)))
+        .add(0, 0, Result.success(CurrencyAmount.of(GBP, 1)));
+    assertThrowsIllegalArg(() -> builder.add(0, 0, Result.success(CurrencyAmount.of(GBP, 1))));
+    assertThrowsIllegalArg(() -> builder.add(3, 0, FAILURE));
+    ColumnarResults test = builder.build();
+    assertThat(test.get(0, 0)).isEqualTo(Result.success(CurrencyAmount.of(GBP, 1)));
+    assertThat(test.get(1, 0).getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+    assertThat(test.get(2, 0)).isEqualTo(Result.success(CurrencyAmount.of(USD, 3)));
+  }
+
+  public void test_listener() {
+    CalculationTarget target = new CalculationTarget() {};
+    List<Column> columns = ImmutableList.of(
+        Column.of(TestingMeasures.PRESENT_VALUE), Column.of(TestingMeasures.PAR_RATE));
+    ColumnarResultsListener listener = new ColumnarResultsListener();
+    listener.calculationsStarted(ImmutableList.of(target, target), columns);
+    listener.resultReceived(target, CalculationResult.of(1, 1, Result.success(2d)));
+    listener.resultReceived(target, CalculationResult.of(0, 0, Result.success(CurrencyAmount.of(USD, 1))));
+    listener.resultReceived(target, CalculationResult.of(1, 0, Result.success(CurrencyAmount.of(USD, 2))));
+    listener.resultReceived(target, CalculationResult.of(0, 1, Result.success(1d)));
+    listener.calculationsComplete();
+
+    ColumnarResults test = listener.result();
+    assertThat(test.getColumns()).containsExactly(columns.get(0).toHeader(), columns.get(1).toHeader());
+    assertThat(test.get(1, 1)).isEqualTo(Result.success(2d));
+    assertThat(test.totalCurrencyAmounts(0)).isEqualTo(MultiCurrencyScenarioArray.of(MultiCurrencyAmount.of(USD, 3)));
+    assertThat(test.totalDoubles(1)).isEqualTo(DoubleArray.of(3));
+  }
+
+}
@@ -32,6 +32,9 @@ public class DefaultCalculationRunnerTest {
     try (CalculationRunner test = CalculationRunner.ofMultiThreaded()) {
       assertThat(test.getTaskRunner()).isNotNull();
     }
+    try (CalculationRunner test = CalculationRunner.ofVirtualThreads()) {
+      assertThat(test.getTaskRunner()).isNotNull();
+    }
   }
 
   //-------------------------------------------------------------------------
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Test {@link BatchingObservableDataProvider} and {@link ObservableDataProvider#batched}.
+ */
+@Test
+public class BatchingObservableDataProviderTest {
+
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3 = TestObservableId.of("3");
+  private static final TestObservableId ID4 = TestObservableId.of("4");
+  private static final Map<ObservableId, Double> VALUES = ImmutableMap.of(ID1, 1d, ID2, 2d, ID3, 3d);
+  private static final Set<ObservableId> IDS = ImmutableSet.of(ID1, ID2, ID3, ID4);
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @AfterClass
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_provideObservableDataAsync() {
+    InMemoryObservableDataProvider underlying = new InMemoryObservableDataProvider(VALUES, Duration.ofMillis(10));
+    ObservableDataProvider test = ObservableDataProvider.batched(underlying, 3, TIMEOUT, executor);
+    Map<ObservableId, CompletableFuture<Result<Double>>> futures = test.provideObservableDataAsync(IDS);
+    assertThat(futures.keySet()).isEqualTo(IDS);
+    assertThat(futures.get(ID1).join()).isEqualTo(Result.success(1d));
+    assertThat(futures.get(ID3).join()).isEqualTo(Result.success(3d));
+    assertThat(futures.get(ID4).join().isFailure()).isTrue();
+    assertThat(underlying.getRequests()).hasSize(2);
+    assertThat(underlying.getRequests()).allMatch(ids -> ids.size() <= 3);
+  }
+
+  public void test_provideObservableData() {
+    InMemoryObservableDataProvider underlying = new InMemoryObservableDataProvider(VALUES, Duration.ZERO);
+    ObservableDataProvider test = ObservableDataProvider.batched(underlying, 1, TIMEOUT, executor);
+    Map<ObservableId, Result<Double>> results = test.provideObservableData(IDS);
+    assertThat(results.keySet()).isEqualTo(IDS);
+    assertThat(results.get(ID2)).isEqualTo(Result.success(2d));
+    assertThat(results.get(ID4).getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+    assertThat(underlying.getRequests()).hasSize(4);
+  }
+
+  public void test_timeout() {
+    InMemoryObservableDataProvider underlying = new InMemoryObservableDataProvider(VALUES, Duration.ofSeconds(5));
+    ObservableDataProvider test = ObservableDataProvider.batched(underlying, 2, Duration.ofMillis(20), executor);
+    Map<ObservableId, Result<Double>> results = test.provideObservableData(ImmutableSet.of(ID1, ID2));
+    assertThat(results.get(ID1).getFailure().getMessage()).startsWith("Timed out after PT0.02S");
+    assertThat(results.get(ID2).getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+  }
+
+  public void test_exception() {
+    ObservableDataProvider underlying = ids -> {
+      throw new IllegalStateException("Connection lost");
+    };
+    ObservableDataProvider test =
+        ObservableDataProvider.batched(underlying, 2, TIMEOUT, MoreExecutors.directExecutor());
+    Map<ObservableId, Result<Double>> results = test.provideObservableData(ImmutableSet.of(ID1, ID2, ID3));
+    assertThat(results).containsOnlyKeys(ID1, ID2, ID3);
+    assertThat(results.get(ID3).getFailure().getMessage()).contains("Connection lost");
+  }
+
+  public void test_missingResult() {
+    ObservableDataProvider underlying = ids -> ImmutableMap.of(ID1, Result.success(1d));
+    ObservableDataProvider test =
+        ObservableDataProvider.batched(underlying, 2, TIMEOUT, MoreExecutors.directExecutor());
+    Map<ObservableId, Result<Double>> results = test.provideObservableData(ImmutableSet.of(ID1, ID2));
+    assertThat(results.get(ID1)).isEqualTo(Result.success(1d));
+    assertThat(results.get(ID2).getFailure().getMessage())
+        .isEqualTo("No observable market data provided for '" + ID2 + "'");
+  }
+
+  public void test_defaultAsync() {
+    InMemoryObservableDataProvider inMemory = new InMemoryObservableDataProvider(VALUES, Duration.ZERO);
+    ObservableDataProvider test = inMemory::provideObservableData;
+    Map<ObservableId, CompletableFuture<Result<Double>>> futures = test.provideObservableDataAsync(IDS);
+    assertThat(futures.keySet()).isEqualTo(IDS);
+    assertThat(futures.values()).allMatch(CompletableFuture::isDone);
+    assertThat(futures.get(ID1).join()).isEqualTo(Result.success(1d));
+  }
+
+  public void test_batched_invalid() {
+    ObservableDataProvider underlying = ObservableDataProvider.none();
+    assertThrowsIllegalArg(() -> ObservableDataProvider.batched(null, 1, TIMEOUT, executor));
+    assertThrowsIllegalArg(() -> ObservableDataProvider.batched(underlying, 0, TIMEOUT, executor));
+    assertThrowsIllegalArg(() -> ObservableDataProvider.batched(underlying, 1, Duration.ZERO, executor));
+    assertThrowsIllegalArg(() -> ObservableDataProvider.batched(underlying, 1, TIMEOUT, null));
+  }
+
+  public void test_toString() {
+    ObservableDataProvider test = ObservableDataProvider.batched(ObservableDataProvider.none(), 5, TIMEOUT, executor);
+    assertThat(test.toString()).contains("chunkSize=5", "timeout=PT10S");
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.BinaryTimeSeriesFile;
+
+/**
+ * Test {@link BinaryFileTimeSeriesProvider}.
+ */
+@Test
+public class BinaryFileTimeSeriesProviderTest {
+
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final LocalDateDoubleTimeSeries SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2015, 1, 5), 1d)
+      .put(date(2015, 1, 6), 2d)
+      .build();
+
+  public void test_provideTimeSeries() throws IOException {
+    Path file = Files.createTempFile("strata-timeseries", ".bin");
+    try {
+      BinaryTimeSeriesFile.write(file, ImmutableMap.of(ID1, SERIES));
+      TimeSeriesProvider test = TimeSeriesProvider.of(BinaryTimeSeriesFile.of(file));
+      Result<LocalDateDoubleTimeSeries> result = test.provideTimeSeries(ID1);
+      assertThat(result.isSuccess()).isTrue();
+      assertThat(result.getValue().toBuilder().build()).isEqualTo(SERIES);
+      Result<LocalDateDoubleTimeSeries> missing = test.provideTimeSeries(ID2);
+      assertThat(missing.isFailure()).isTrue();
+      assertThat(missing.getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+      assertThat(test.toString()).contains(file.toString());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  public void test_of_null() {
+    assertThrowsIllegalArg(() -> TimeSeriesProvider.of(null));
+  }
+
+}
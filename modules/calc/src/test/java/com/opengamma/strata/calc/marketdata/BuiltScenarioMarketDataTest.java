@@ -5,12 +5,16 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import static com.opengamma.strata.basics.currency.Currency.EUR;
 import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.testng.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.util.Optional;
 
@@ -67,6 +71,19 @@ public class BuiltScenarioMarketDataTest {
     assertThrows(() -> test.getValue(ID), MarketDataNotFoundException.class);
   }
 
+  public void test_snapshot() {
+    BuiltScenarioMarketData marketData = BuiltScenarioMarketData.builder(MarketDataBox.ofSingleValue(VAL_DATE))
+        .addValue(FxRateId.of(GBP, USD), FxRate.of(GBP, USD, 1.4))
+        .addResult(FxRateId.of(EUR, USD), Result.failure(FailureReason.ERROR, "Something went wrong"))
+        .build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    marketData.writeSnapshot(out);
+    BuiltScenarioMarketData test = BuiltScenarioMarketData.readSnapshot(new ByteArrayInputStream(out.toByteArray()));
+
+    assertEquals(test, marketData);
+    assertThrows(() -> test.getValue(FxRateId.of(EUR, USD)), FailureException.class, "Something went wrong");
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     coverImmutableBean(BuiltScenarioMarketData.empty());
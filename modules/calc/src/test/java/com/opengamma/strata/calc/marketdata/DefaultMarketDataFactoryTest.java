@@ -10,15 +10,23 @@ import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.result.FailureReason;
@@ -830,6 +838,368 @@ public class DefaultMarketDataFactoryTest {
   /**
    * Tests ObservableDataProvider.none(), which is never normally be invoked.
    */
+  /**
+   * Tests the market data affected by a change is found by walking the dependency tree.
+   */
+  public void affectedIds() {
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        new TestTimeSeriesProvider(ImmutableMap.of()),
+        new TestMarketDataFunctionB(),
+        new TestMarketDataFunctionC());
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+    ScenarioMarketData suppliedData = ScenarioMarketData.empty();
+
+    Set<MarketDataId<?>> affected1 =
+        factory.affectedIds(requirements, MARKET_DATA_CONFIG, suppliedData, ImmutableSet.of(new TestIdC("1")));
+    assertThat(affected1).containsOnly(new TestIdC("1"), new TestIdB("1"));
+
+    Set<MarketDataId<?>> affected2 =
+        factory.affectedIds(requirements, MARKET_DATA_CONFIG, suppliedData, ImmutableSet.of(new TestIdA("2")));
+    assertThat(affected2).containsOnly(new TestIdA("2"), new TestIdC("2"), new TestIdB("2"));
+
+    Set<MarketDataId<?>> affected3 =
+        factory.affectedIds(requirements, MARKET_DATA_CONFIG, suppliedData, ImmutableSet.of(new TestIdA("3")));
+    assertThat(affected3).containsOnly(new TestIdA("3"));
+  }
+
+  /**
+   * Tests only the market data affected by a changed value is rebuilt.
+   */
+  public void rebuildMultiScenario() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+    TimeSeriesProvider timeSeriesProvider = new TestTimeSeriesProvider(ImmutableMap.of(
+        new TestIdA("1"), LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1),
+        new TestIdA("2"), LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 2)));
+    PerturbationMapping<Double> mapping = PerturbationMapping.of(
+        new ExactIdFilter<>(new TestIdA("2")),
+        new AbsoluteDoubleShift(1, 2));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(mapping);
+    ScenarioMarketData suppliedData = ScenarioMarketData.of(1, MarketData.empty(date(2011, 3, 8)));
+    Map<TestIdA, Double> changedValues = ImmutableMap.of(new TestIdA("2"), 5d, new TestIdA("3"), 6d);
+
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        timeSeriesProvider,
+        new TestMarketDataFunctionB(),
+        new TestMarketDataFunctionC());
+    BuiltScenarioMarketData previous = factory.createMultiScenario(
+        requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, scenarioDefinition);
+    BuiltScenarioMarketData marketData = factory.rebuildMultiScenario(
+        previous, changedValues, requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, scenarioDefinition);
+
+    // the default implementation builds all the data using the changed values
+    MarketDataFactory defaultFactory = new MarketDataFactory() {
+      @Override
+      public BuiltMarketData create(
+          MarketDataRequirements requirements,
+          MarketDataConfig marketDataConfig,
+          MarketData suppliedData,
+          ReferenceData refData) {
+        return factory.create(requirements, marketDataConfig, suppliedData, refData);
+      }
+
+      @Override
+      public BuiltScenarioMarketData createMultiScenario(
+          MarketDataRequirements requirements,
+          MarketDataConfig marketDataConfig,
+          MarketData suppliedData,
+          ReferenceData refData,
+          ScenarioDefinition scenarioDefinition) {
+        return factory.createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+      }
+
+      @Override
+      public BuiltScenarioMarketData createMultiScenario(
+          MarketDataRequirements requirements,
+          MarketDataConfig marketDataConfig,
+          ScenarioMarketData suppliedData,
+          ReferenceData refData,
+          ScenarioDefinition scenarioDefinition) {
+        return factory.createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+      }
+
+      @Override
+      public Set<MarketDataId<?>> affectedIds(
+          MarketDataRequirements requirements,
+          MarketDataConfig marketDataConfig,
+          ScenarioMarketData suppliedData,
+          Set<? extends MarketDataId<?>> changedIds) {
+        return factory.affectedIds(requirements, marketDataConfig, suppliedData, changedIds);
+      }
+    };
+    BuiltScenarioMarketData expected = defaultFactory.rebuildMultiScenario(
+        previous, changedValues, requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, scenarioDefinition);
+
+    assertThat(marketData.getValueFailures()).isEmpty();
+    assertThat(marketData.getValue(new TestIdA("2"))).isEqualTo(MarketDataBox.ofScenarioValues(6d, 7d));
+    assertThat(marketData.getValue(new TestIdB("2")).getValue(1).value).isEqualTo(7d);
+    assertThat(marketData.containsValue(new TestIdA("3"))).isFalse();
+    assertThat(marketData.getValue(new TestIdB("1"))).isSameAs(previous.getValue(new TestIdB("1")));
+    assertThat(marketData.getValue(new TestIdC("1"))).isSameAs(previous.getValue(new TestIdC("1")));
+    assertThat(marketData.getIds()).isEqualTo(expected.getIds());
+    for (MarketDataId<?> id : expected.getIds()) {
+      assertThat(marketData.getValue(id)).isEqualTo(expected.getValue(id));
+    }
+    assertThat(marketData.getTimeSeries(new TestIdA("1"))).isEqualTo(expected.getTimeSeries(new TestIdA("1")));
+  }
+
+  /**
+   * Tests rebuilding replaces the failures of the affected market data.
+   */
+  public void rebuildMultiScenarioFailures() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "x"));
+    TestObservableId id2 = TestObservableId.of(StandardId.of("reqs", "y"));
+    NonObservableId id3 = new NonObservableId("x");
+    NonObservableId id4 = new NonObservableId("y");
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(id3, id4)
+        .build();
+    ObservableDataProvider observableDataProvider =
+        ids -> ids.stream().collect(toImmutableMap(id -> id, id -> Result.failure(FailureReason.MISSING_DATA, "No")));
+    ScenarioMarketData suppliedData = ScenarioMarketData.of(1, MarketData.empty(date(2011, 3, 8)));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          observableDataProvider,
+          new TestTimeSeriesProvider(ImmutableMap.of()),
+          executor,
+          ImmutableList.of(new NonObservableMarketDataFunction()));
+      BuiltScenarioMarketData previous = factory.createMultiScenario(
+          requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, ScenarioDefinition.empty());
+      assertThat(previous.getValueFailures()).containsOnlyKeys(id1, id2, id3, id4);
+
+      BuiltScenarioMarketData marketData = factory.rebuildMultiScenario(
+          previous, ImmutableMap.of(id1, 1.5), requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA,
+          ScenarioDefinition.empty());
+      assertThat(marketData.getValueFailures()).containsOnlyKeys(id2, id4);
+      assertThat(marketData.getValue(id1)).isEqualTo(MarketDataBox.ofSingleValue(1.5));
+      assertThat(marketData.getValue(id3)).isEqualTo(MarketDataBox.ofSingleValue("1.5"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Tests building values from other values using an executor gives the same data as building sequentially.
+   */
+  public void buildConcurrently() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+    LocalDateDoubleTimeSeries timeSeries1 = LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1);
+    LocalDateDoubleTimeSeries timeSeries2 = LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 2);
+    TimeSeriesProvider timeSeriesProvider = new TestTimeSeriesProvider(ImmutableMap.of(
+        new TestIdA("1"), timeSeries1,
+        new TestIdA("2"), timeSeries2));
+    PerturbationMapping<TestMarketDataC> mapping = PerturbationMapping.of(
+        new ExactIdFilter<>(new TestIdC("1")),
+        new TestCPerturbation(1.1, 1.2));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(mapping);
+    MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+
+    List<MarketDataFunction<?, ?>> functions =
+        ImmutableList.of(new TestMarketDataFunctionB(), new TestMarketDataFunctionC());
+    MarketDataFactory sequentialFactory =
+        MarketDataFactory.of(new TestObservableDataProvider(), timeSeriesProvider, functions);
+    BuiltScenarioMarketData expected = sequentialFactory.createMultiScenario(
+        requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, scenarioDefinition);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MarketDataFactory factory =
+          MarketDataFactory.of(new TestObservableDataProvider(), timeSeriesProvider, executor, functions);
+      BuiltScenarioMarketData marketData = factory.createMultiScenario(
+          requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, scenarioDefinition);
+      assertThat(marketData).isEqualTo(expected);
+      assertThat(marketData.getValueFailures()).isEmpty();
+      assertThat(marketData.getScenarioCount()).isEqualTo(2);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests the factory can be invoked from the only thread of the executor it uses without deadlocking.
+   */
+  @Test(timeOut = 10_000)
+  public void buildConcurrentlyFromExecutorThread() throws Exception {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+    TimeSeriesProvider timeSeriesProvider = new TestTimeSeriesProvider(ImmutableMap.of(
+        new TestIdA("1"), LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1),
+        new TestIdA("2"), LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 2)));
+    MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+    List<MarketDataFunction<?, ?>> functions =
+        ImmutableList.of(new TestMarketDataFunctionB(), new TestMarketDataFunctionC());
+    MarketDataFactory sequentialFactory =
+        MarketDataFactory.of(new TestObservableDataProvider(), timeSeriesProvider, functions);
+    BuiltMarketData expected = sequentialFactory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      MarketDataFactory factory =
+          MarketDataFactory.of(new TestObservableDataProvider(), timeSeriesProvider, executor, functions);
+      BuiltMarketData marketData = executor
+          .submit(() -> factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA))
+          .get();
+      assertThat(marketData).isEqualTo(expected);
+      assertThat(marketData.getValueFailures()).isEmpty();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests independent values are built at the same time when using an executor.
+   */
+  public void buildIndependentValuesConcurrently() {
+    CountDownLatch latch = new CountDownLatch(2);
+    MarketDataFunction<String, NonObservableId> function = new LatchedMarketDataFunction(latch);
+    NonObservableId id1 = new NonObservableId("a");
+    NonObservableId id2 = new NonObservableId("b");
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id1, id2).build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          new TestObservableDataProvider(),
+          new TestTimeSeriesProvider(ImmutableMap.of()),
+          executor,
+          ImmutableList.of(function));
+      BuiltMarketData marketData =
+          factory.create(requirements, MARKET_DATA_CONFIG, MarketData.empty(date(2011, 3, 8)), REF_DATA);
+      // each value is only built once both functions have started
+      assertThat(marketData.getValueFailures()).isEmpty();
+      assertThat(marketData.getValue(id1)).isEqualTo("1.0");
+      assertThat(marketData.getValue(id2)).isEqualTo("2.0");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests values are built as soon as the observable data they depend on is received when using an executor.
+   */
+  @Test(timeOut = 10_000)
+  public void buildObservablesAsync() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "x"));
+    TestObservableId id2 = TestObservableId.of(StandardId.of("reqs", "y"));
+    NonObservableId id3 = new NonObservableId("x");
+    NonObservableId id4 = new NonObservableId("y");
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id3, id4).build();
+
+    // the second value is only received once the value built from the first has been built
+    CompletableFuture<Result<Double>> future2 = new CompletableFuture<>();
+    ObservableDataProvider observableDataProvider = new ObservableDataProvider() {
+      @Override
+      public Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> identifiers) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Map<ObservableId, CompletableFuture<Result<Double>>> provideObservableDataAsync(
+          Set<? extends ObservableId> identifiers) {
+
+        assertThat(identifiers).containsOnly(id1, id2);
+        return ImmutableMap.of(id1, CompletableFuture.completedFuture(Result.success(1.5)), id2, future2);
+      }
+    };
+    MarketDataFunction<String, NonObservableId> function = new NonObservableMarketDataFunction() {
+      @Override
+      public MarketDataBox<String> build(
+          NonObservableId id,
+          MarketDataConfig marketDataConfig,
+          ScenarioMarketData marketData,
+          ReferenceData refData) {
+
+        MarketDataBox<String> value = super.build(id, marketDataConfig, marketData, refData);
+        if (id == id3) {
+          future2.complete(Result.success(2.5));
+        }
+        return value;
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          observableDataProvider,
+          new TestTimeSeriesProvider(ImmutableMap.of()),
+          executor,
+          ImmutableList.of(function));
+      BuiltMarketData marketData =
+          factory.create(requirements, MARKET_DATA_CONFIG, MarketData.empty(date(2011, 3, 8)), REF_DATA);
+      assertThat(marketData.getValueFailures()).isEmpty();
+      assertThat(marketData.getValue(id1)).isEqualTo(1.5);
+      assertThat(marketData.getValue(id3)).isEqualTo("1.5");
+      assertThat(marketData.getValue(id4)).isEqualTo("2.5");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests observable data that is not received is a failure when using an executor.
+   */
+  public void buildObservablesAsyncFailure() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "x"));
+    NonObservableId id3 = new NonObservableId("x");
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id3).build();
+    CompletableFuture<Result<Double>> future = new CompletableFuture<>();
+    future.completeExceptionally(new IllegalStateException("Connection lost"));
+    ObservableDataProvider observableDataProvider = new ObservableDataProvider() {
+      @Override
+      public Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> identifiers) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Map<ObservableId, CompletableFuture<Result<Double>>> provideObservableDataAsync(
+          Set<? extends ObservableId> identifiers) {
+
+        return ImmutableMap.of(id1, future);
+      }
+    };
+    MarketDataFactory factory = MarketDataFactory.of(
+        observableDataProvider,
+        new TestTimeSeriesProvider(ImmutableMap.of()),
+        MoreExecutors.directExecutor(),
+        ImmutableList.of(new NonObservableMarketDataFunction()));
+    BuiltMarketData marketData =
+        factory.create(requirements, MARKET_DATA_CONFIG, MarketData.empty(date(2011, 3, 8)), REF_DATA);
+    assertThat(marketData.getValueFailures()).containsOnlyKeys(id1, id3);
+    assertThat(marketData.getValueFailures().get(id1).getMessage()).contains("Connection lost");
+  }
+
+  /**
+   * Tests an exception is thrown when there is no builder for an ID type when using an executor.
+   */
+  public void noMarketDataBuilderAvailableConcurrently() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        new TestTimeSeriesProvider(ImmutableMap.of()),
+        MoreExecutors.directExecutor(),
+        ImmutableList.of(new TestMarketDataFunctionB()));
+
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    assertThrows(
+        () -> factory.createMultiScenario(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, ScenarioDefinition.empty()),
+        IllegalStateException.class,
+        "No market data function available for market data ID of type.*");
+  }
+
+  //-------------------------------------------------------------------------
   public void coverage_ObservableDataProvider_none() {
     TestObservableId id = TestObservableId.of(StandardId.of("reqs", "a"));
     ObservableDataProvider test = ObservableDataProvider.none();
@@ -1256,7 +1626,7 @@ public class DefaultMarketDataFactoryTest {
   /**
    * Market data function that builds a piece of non-observable market data (a string).
    */
-  private static final class NonObservableMarketDataFunction implements MarketDataFunction<String, NonObservableId> {
+  private static class NonObservableMarketDataFunction implements MarketDataFunction<String, NonObservableId> {
 
     @Override
     public MarketDataRequirements requirements(NonObservableId id, MarketDataConfig marketDataConfig) {
@@ -1282,6 +1652,43 @@ public class DefaultMarketDataFactoryTest {
     }
   }
 
+  /**
+   * Market data function that builds a string once the latch has been released by all the calls to build.
+   */
+  private static final class LatchedMarketDataFunction implements MarketDataFunction<String, NonObservableId> {
+
+    private final NonObservableMarketDataFunction delegate = new NonObservableMarketDataFunction();
+    private final CountDownLatch latch;
+
+    private LatchedMarketDataFunction(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public MarketDataRequirements requirements(NonObservableId id, MarketDataConfig marketDataConfig) {
+      return delegate.requirements(id, marketDataConfig);
+    }
+
+    @Override
+    public MarketDataBox<String> build(
+        NonObservableId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      latch.countDown();
+      if (!Uninterruptibles.awaitUninterruptibly(latch, 10, TimeUnit.SECONDS)) {
+        throw new IllegalStateException("Market data not built concurrently");
+      }
+      return delegate.build(id, marketDataConfig, marketData, refData);
+    }
+
+    @Override
+    public Class<NonObservableId> getMarketDataIdType() {
+      return NonObservableId.class;
+    }
+  }
+
   /**
    * A perturbation which perturbs a string by appending another string to it.
    */
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * An observable data provider used in tests, providing values held in memory after a delay.
+ * <p>
+ * This stands in for a remote source of market data. Each request is recorded, and the values
+ * are provided once the latency has elapsed. Identifiers without a value are failures.
+ */
+public final class InMemoryObservableDataProvider implements ObservableDataProvider {
+
+  /** The scheduler used to complete the asynchronous requests. */
+  private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "InMemoryObservableDataProvider");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ImmutableMap<ObservableId, Double> values;
+  private final Duration latency;
+  private final List<Set<ObservableId>> requests = new ArrayList<>();
+
+  public InMemoryObservableDataProvider(Map<? extends ObservableId, Double> values, Duration latency) {
+    this.values = ImmutableMap.copyOf(values);
+    this.latency = latency;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Map<ObservableId, Result<Double>> provideObservableData(Set<? extends ObservableId> identifiers) {
+    record(identifiers);
+    Uninterruptibles.sleepUninterruptibly(latency.toNanos(), TimeUnit.NANOSECONDS);
+    Map<ObservableId, Result<Double>> results = new HashMap<>();
+    identifiers.forEach(id -> results.put(id, result(id)));
+    return results;
+  }
+
+  @Override
+  public Map<ObservableId, CompletableFuture<Result<Double>>> provideObservableDataAsync(
+      Set<? extends ObservableId> identifiers) {
+
+    record(identifiers);
+    Map<ObservableId, CompletableFuture<Result<Double>>> futures = new HashMap<>();
+    for (ObservableId id : identifiers) {
+      CompletableFuture<Result<Double>> future = new CompletableFuture<>();
+      SCHEDULER.schedule(() -> future.complete(result(id)), latency.toNanos(), TimeUnit.NANOSECONDS);
+      futures.put(id, future);
+    }
+    return futures;
+  }
+
+  /**
+   * Returns the identifiers in each request, in the order the requests were made.
+   *
+   * @return the requests
+   */
+  public synchronized List<Set<ObservableId>> getRequests() {
+    return ImmutableList.copyOf(requests);
+  }
+
+  private synchronized void record(Set<? extends ObservableId> identifiers) {
+    requests.add(ImmutableSet.copyOf(identifiers));
+  }
+
+  private Result<Double> result(ObservableId id) {
+    Double value = values.get(id);
+    return value != null ?
+        Result.success(value) :
+        Result.failure(FailureReason.MISSING_DATA, "No value for '{}'", id);
+  }
+
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.BinaryTimeSeriesFile;
+import com.opengamma.strata.data.FieldName;
+import com.opengamma.strata.data.FxMatrixId;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.ObservableSource;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link MarketDataCache} and {@link MarketDataFunction#cached}.
+ */
+@Test
+public class MarketDataCacheTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.empty();
+  private static final MarketDataConfig CONFIG = MarketDataConfig.empty();
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final FxRateId ID = FxRateId.of(GBP, USD);
+  private static final BiFunction<FxRateId, MarketDataConfig, Object> CONFIG_FN = (id, config) -> "A";
+
+  //-------------------------------------------------------------------------
+  public void test_cached() {
+    MarketDataCache cache = MarketDataCache.of(10);
+    CountingFxRateFunction function = new CountingFxRateFunction();
+    MarketDataFunction<FxRate, FxRateId> test = MarketDataFunction.cached(function, cache, CONFIG_FN);
+    assertThat(test.getMarketDataIdType()).isEqualTo(FxRateId.class);
+    assertThat(test.requirements(ID, CONFIG)).isEqualTo(function.requirements(ID, CONFIG));
+
+    MarketDataBox<FxRate> value1 = test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    MarketDataBox<FxRate> value2 = test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    assertThat(value1).isEqualTo(MarketDataBox.ofSingleValue(FxRate.of(GBP, USD, 1.6)));
+    assertThat(value2).isSameAs(value1);
+    assertThat(function.buildCount).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+
+    // a change to the inputs or the configuration means the value is built again
+    MarketDataBox<FxRate> value3 = test.build(ID, CONFIG, marketData(1.7), REF_DATA);
+    assertThat(value3).isEqualTo(MarketDataBox.ofSingleValue(FxRate.of(GBP, USD, 1.7)));
+    MarketDataFunction<FxRate, FxRateId> test2 =
+        MarketDataFunction.cached(function, cache, (id, config) -> ImmutableList.of("A", "B"));
+    test2.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    assertThat(function.buildCount).isEqualTo(3);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(3);
+    assertThat(cache.getDiskHitCount()).isEqualTo(0);
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.toString()).contains("hits=1", "misses=3");
+
+    cache.clear();
+    test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    assertThat(function.buildCount).isEqualTo(4);
+  }
+
+  public void test_cached_eviction() {
+    MarketDataCache cache = MarketDataCache.of(1);
+    CountingFxRateFunction function = new CountingFxRateFunction();
+    MarketDataFunction<FxRate, FxRateId> test = MarketDataFunction.cached(function, cache, CONFIG_FN);
+    test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    test.build(ID, CONFIG, marketData(1.7), REF_DATA);
+    test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    assertThat(function.buildCount).isEqualTo(3);
+    assertThat(cache.getEvictionCount()).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getMaxSize()).isEqualTo(1);
+    assertThat(cache.getMaxWeight()).isEqualTo(Long.MAX_VALUE);
+    assertThat(cache.weight()).isEqualTo(1);
+    assertThat(cache.getDirectory()).isEmpty();
+  }
+
+  public void test_cached_maxWeight() {
+    // the weight of each value is the FX rate rounded up, so 1.6 and 1.7 weigh 2 and 2.5 weighs 3
+    MarketDataCache cache = MarketDataCache.ofMaxWeight(
+        4, value -> (long) Math.ceil(((FxRate) value.getSingleValue()).fxRate(GBP, USD)));
+    CountingFxRateFunction function = new CountingFxRateFunction();
+    MarketDataFunction<FxRate, FxRateId> test = MarketDataFunction.cached(function, cache, CONFIG_FN);
+    test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    test.build(ID, CONFIG, marketData(1.7), REF_DATA);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.weight()).isEqualTo(4);
+    assertThat(cache.getEvictionCount()).isEqualTo(0);
+
+    // both values are discarded to make room for the heavier value
+    test.build(ID, CONFIG, marketData(2.5), REF_DATA);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.weight()).isEqualTo(3);
+    assertThat(cache.getEvictionCount()).isEqualTo(2);
+    test.build(ID, CONFIG, marketData(2.5), REF_DATA);
+    assertThat(function.buildCount).isEqualTo(3);
+    assertThat(cache.getMaxWeight()).isEqualTo(4);
+    assertThat(cache.getMaxSize()).isEqualTo(Integer.MAX_VALUE);
+
+    cache.clear();
+    assertThat(cache.weight()).isEqualTo(0);
+  }
+
+  public void test_cached_disk() throws IOException {
+    Path directory = Files.createTempDirectory("strata-cache");
+    try {
+      CountingFxRateFunction function = new CountingFxRateFunction();
+      MarketDataCache cache1 = MarketDataCache.of(10, directory);
+      MarketDataBox<FxRate> value1 =
+          MarketDataFunction.cached(function, cache1, CONFIG_FN).build(ID, CONFIG, marketData(1.6), REF_DATA);
+      assertThat(cache1.getDirectory()).hasValue(directory);
+
+      // a new cache, as used by a restarted process, reads the value from disk
+      MarketDataCache cache2 = MarketDataCache.of(10, directory);
+      MarketDataFunction<FxRate, FxRateId> test = MarketDataFunction.cached(function, cache2, CONFIG_FN);
+      MarketDataBox<FxRate> value2 = test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+      MarketDataBox<FxRate> value3 = test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+      assertThat(value2).isEqualTo(value1);
+      assertThat(value3).isSameAs(value2);
+      assertThat(function.buildCount).isEqualTo(1);
+      assertThat(cache2.getDiskHitCount()).isEqualTo(1);
+      assertThat(cache2.getHitCount()).isEqualTo(1);
+      assertThat(cache2.getMissCount()).isEqualTo(0);
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
+  public void test_cached_mappedTimeSeries() throws IOException {
+    ConvertibleObservableId timeSeriesId = ConvertibleObservableId.of("1");
+    LocalDateDoubleTimeSeries series = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 7), 1d)
+        .put(date(2011, 3, 8), 2d)
+        .build();
+    Path file = Files.createTempFile("strata-timeseries", ".bin");
+    try {
+      BinaryTimeSeriesFile.write(file, ImmutableMap.of(timeSeriesId, series));
+      TimeSeriesProvider provider = TimeSeriesProvider.of(BinaryTimeSeriesFile.of(file));
+      LocalDateDoubleTimeSeries mappedSeries = provider.provideTimeSeries(timeSeriesId).getValue();
+
+      // the time-series read from the file are part of the key, thus the cache is used
+      MarketDataCache cache = MarketDataCache.of(10);
+      CountingFxRateFunction function = new CountingFxRateFunction();
+      MarketDataFunction<FxRate, FxRateId> test = MarketDataFunction.cached(function, cache, CONFIG_FN);
+      test.build(ID, CONFIG, marketData(1.6, timeSeriesId, mappedSeries), REF_DATA);
+      test.build(ID, CONFIG, marketData(1.6, timeSeriesId, mappedSeries), REF_DATA);
+      assertThat(function.buildCount).isEqualTo(1);
+      assertThat(cache.getHitCount()).isEqualTo(1);
+
+      // the key is the same for a standard time-series with the same points
+      test.build(ID, CONFIG, marketData(1.6, timeSeriesId, series), REF_DATA);
+      assertThat(function.buildCount).isEqualTo(1);
+      assertThat(cache.getHitCount()).isEqualTo(2);
+
+      // a change to the points means the value is built again
+      test.build(ID, CONFIG, marketData(1.6, timeSeriesId, series.mapValues(value -> value + 1)), REF_DATA);
+      assertThat(function.buildCount).isEqualTo(2);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  public void test_cached_keyNotAvailable() {
+    // the configuration cannot be digested, so the value is always built
+    MarketDataCache cache = MarketDataCache.of(10);
+    CountingFxRateFunction function = new CountingFxRateFunction();
+    MarketDataFunction<FxRate, FxRateId> test =
+        MarketDataFunction.cached(function, cache, (id, config) -> new Object());
+    test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    test.build(ID, CONFIG, marketData(1.6), REF_DATA);
+    assertThat(function.buildCount).isEqualTo(2);
+    assertThat(cache.getMissCount()).isEqualTo(0);
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> MarketDataCache.of(0));
+    assertThrowsIllegalArg(() -> MarketDataCache.ofMaxWeight(0, value -> 1));
+    assertThrowsIllegalArg(() -> MarketDataCache.ofMaxWeight(10, null));
+    assertThrowsIllegalArg(() -> MarketDataFunction.cached(new CountingFxRateFunction(), null, CONFIG_FN));
+  }
+
+  //-------------------------------------------------------------------------
+  private static ScenarioMarketData marketData(double rate) {
+    FxMatrix fxMatrix = FxMatrix.builder().addRate(GBP, USD, rate).build();
+    return ScenarioMarketData.of(
+        1, ImmutableMarketData.builder(VAL_DATE).addValue(FxMatrixId.standard(), fxMatrix).build());
+  }
+
+  private static ScenarioMarketData marketData(
+      double rate,
+      ObservableId timeSeriesId,
+      LocalDateDoubleTimeSeries timeSeries) {
+
+    FxMatrix fxMatrix = FxMatrix.builder().addRate(GBP, USD, rate).build();
+    return ScenarioMarketData.of(
+        1,
+        ImmutableMarketData.builder(VAL_DATE)
+            .addValue(FxMatrixId.standard(), fxMatrix)
+            .addTimeSeries(timeSeriesId, timeSeries)
+            .build());
+  }
+
+  /**
+   * Builds FX rates from an FX matrix, counting the number of values built.
+   */
+  /**
+   * An observable ID that can be converted to a string, thus can be part of the cache key.
+   */
+  public static final class ConvertibleObservableId implements ObservableId {
+
+    private final StandardId id;
+
+    @FromString
+    public static ConvertibleObservableId of(String id) {
+      return new ConvertibleObservableId(StandardId.of("test", id));
+    }
+
+    private ConvertibleObservableId(StandardId id) {
+      this.id = id;
+    }
+
+    @Override
+    public StandardId getStandardId() {
+      return id;
+    }
+
+    @Override
+    public FieldName getFieldName() {
+      return FieldName.MARKET_VALUE;
+    }
+
+    @Override
+    public ObservableSource getObservableSource() {
+      return ObservableSource.NONE;
+    }
+
+    @Override
+    public ObservableId withObservableSource(ObservableSource obsSource) {
+      return this;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ConvertibleObservableId && id.equals(((ConvertibleObservableId) obj).id);
+    }
+
+    @Override
+    public int hashCode() {
+      return id.hashCode();
+    }
+
+    @ToString
+    @Override
+    public String toString() {
+      return id.getValue();
+    }
+  }
+
+  private static final class CountingFxRateFunction implements MarketDataFunction<FxRate, FxRateId> {
+
+    private int buildCount;
+
+    @Override
+    public MarketDataRequirements requirements(FxRateId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.builder().addValues(FxMatrixId.standard()).build();
+    }
+
+    @Override
+    public MarketDataBox<FxRate> build(
+        FxRateId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      buildCount++;
+      return marketData.getValue(FxMatrixId.standard())
+          .map(fxMatrix -> FxRate.of(id.getPair(), fxMatrix.fxRate(id.getPair())));
+    }
+
+    @Override
+    public Class<FxRateId> getMarketDataIdType() {
+      return FxRateId.class;
+    }
+  }
+
+}
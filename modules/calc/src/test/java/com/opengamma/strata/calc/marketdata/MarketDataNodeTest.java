@@ -9,12 +9,15 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.tuple.Pair;
@@ -157,6 +160,34 @@ public class MarketDataNodeTest {
     assertThat(root).isEqualTo(expected);
   }
 
+  /**
+   * Tests finding the market data affected by a change.
+   */
+  public void findAffected() {
+    MarketDataNode root =
+        rootNode(
+            observableNode(new TestIdA("1")),
+            valueNode(
+                new TestIdB("2"),
+                valueNode(
+                    new TestIdB("4"),
+                    observableNode(new TestIdA("5"))),
+                timeSeriesNode(new TestIdA("3"))),
+            timeSeriesNode(new TestIdA("6")));
+
+    Set<MarketDataId<?>> affected1 = new HashSet<>();
+    assertThat(root.findAffected(ImmutableSet.of(new TestIdA("5")), affected1)).isTrue();
+    assertThat(affected1).containsOnly(new TestIdA("5"), new TestIdB("4"), new TestIdB("2"));
+
+    Set<MarketDataId<?>> affected2 = new HashSet<>();
+    assertThat(root.findAffected(ImmutableSet.of(new TestIdA("3"), new TestIdA("1")), affected2)).isTrue();
+    assertThat(affected2).containsOnly(new TestIdA("1"), new TestIdA("3"), new TestIdB("2"));
+
+    Set<MarketDataId<?>> affected3 = new HashSet<>();
+    assertThat(root.findAffected(ImmutableSet.of(new TestIdA("7")), affected3)).isFalse();
+    assertThat(affected3).isEmpty();
+  }
+
   /**
    * Tests that supplied data is in a leaf node and the functions aren't asked for dependencies for supplied data.
    */
@@ -17,6 +17,7 @@ import org.testng.annotations.Test;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableSource;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioPerturbation;
 
@@ -111,6 +112,29 @@ public class ScenarioDefinitionTest {
     assertThrows(() -> ScenarioDefinition.ofMappings(mappings2, names2), IllegalArgumentException.class, msg2);
   }
 
+  /**
+   * Tests the first matching mapping is found, whether or not the mapping is indexed.
+   */
+  public void findMapping() {
+    List<PerturbationMapping<Object>> mappings = ImmutableList.of(
+        MAPPING_A,
+        PerturbationMapping.of(MarketDataFilter.ofId(new TestId("b")), PERTURBATION_A1),
+        PerturbationMapping.of(MarketDataFilter.ofIdType(TestId.class), PERTURBATION_A1),
+        PerturbationMapping.of(MarketDataFilter.ofId(new TestId("a")), PERTURBATION_A1),
+        PerturbationMapping.of(MarketDataFilter.ofName(new TestingName("n")), PERTURBATION_A1),
+        PerturbationMapping.of(MarketDataFilter.ofIdType(TestingNamedId.class), PERTURBATION_A1));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(mappings);
+    MarketDataBox<String> value = MarketDataBox.ofSingleValue("x");
+    ReferenceData refData = ReferenceData.empty();
+
+    assertThat(scenarioDefinition.findMapping(new TestId("a"), value, refData)).hasValue(mappings.get(2));
+    assertThat(scenarioDefinition.findMapping(new TestId("b"), value, refData)).hasValue(mappings.get(1));
+    assertThat(scenarioDefinition.findMapping(new TestingNamedId("n"), value, refData)).hasValue(mappings.get(4));
+    assertThat(scenarioDefinition.findMapping(new TestingNamedId("m"), value, refData)).hasValue(mappings.get(5));
+    assertThat(scenarioDefinition.findMapping(new TestSimpleId("a", ObservableSource.NONE), value, refData)).isEmpty();
+    assertThat(ScenarioDefinition.empty().findMapping(new TestId("a"), value, refData)).isEmpty();
+  }
+
   //-------------------------------------------------------------------------
   private static final class TestPerturbation implements ScenarioPerturbation<Object> {
 
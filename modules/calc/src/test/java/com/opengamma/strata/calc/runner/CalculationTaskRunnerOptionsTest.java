@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Predicate;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link CalculationTaskRunnerOptions}.
+ */
+@Test
+public class CalculationTaskRunnerOptionsTest {
+
+  private static final CalculationTaskCostModel COST_MODEL = CalculationTaskCostModel.learning();
+  private static final Predicate<CalculationTask> BLOCKING = task -> true;
+  private static final CalculationInstrumentation INSTRUMENTATION = timing -> {};
+
+  //-------------------------------------------------------------------------
+  public void test_standard() {
+    CalculationTaskRunnerOptions test = CalculationTaskRunnerOptions.standard();
+    assertThat(test.getCostModel()).isEmpty();
+    assertThat(test.getMaxBatchSize()).isEqualTo(1);
+    assertThat(test.getScenarioChunkSize()).isEqualTo(Integer.MAX_VALUE);
+    assertThat(test.getBlockingTasks()).isEmpty();
+    assertThat(test.getMaxBlockingThreads()).isEqualTo(Runtime.getRuntime().availableProcessors() * 4);
+    assertThat(test.getInstrumentation()).isEmpty();
+    assertThat(CalculationTaskRunnerOptions.builder().build()).isEqualTo(test);
+  }
+
+  public void test_builder() {
+    CalculationTaskRunnerOptions test = CalculationTaskRunnerOptions.builder()
+        .costModel(COST_MODEL)
+        .maxBatchSize(10)
+        .scenarioChunkSize(5)
+        .blockingTasks(BLOCKING)
+        .maxBlockingThreads(3)
+        .instrumentation(INSTRUMENTATION)
+        .build();
+    assertThat(test.getCostModel()).hasValue(COST_MODEL);
+    assertThat(test.getMaxBatchSize()).isEqualTo(10);
+    assertThat(test.getScenarioChunkSize()).isEqualTo(5);
+    assertThat(test.getBlockingTasks()).hasValue(BLOCKING);
+    assertThat(test.getMaxBlockingThreads()).isEqualTo(3);
+    assertThat(test.getInstrumentation()).hasValue(INSTRUMENTATION);
+  }
+
+  public void test_builder_invalid() {
+    assertThrowsIllegalArg(() -> CalculationTaskRunnerOptions.builder().maxBatchSize(0).build());
+    assertThrowsIllegalArg(() -> CalculationTaskRunnerOptions.builder().scenarioChunkSize(-1).build());
+    assertThrowsIllegalArg(() -> CalculationTaskRunnerOptions.builder().maxBlockingThreads(0).build());
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    CalculationTaskRunnerOptions test = CalculationTaskRunnerOptions.standard();
+    coverImmutableBean(test);
+    CalculationTaskRunnerOptions test2 = CalculationTaskRunnerOptions.builder()
+        .costModel(COST_MODEL)
+        .maxBatchSize(10)
+        .scenarioChunkSize(5)
+        .blockingTasks(BLOCKING)
+        .maxBlockingThreads(3)
+        .instrumentation(INSTRUMENTATION)
+        .build();
+    coverBeanEquals(test, test2);
+  }
+
+}
@@ -10,6 +10,7 @@ import static com.opengamma.strata.basics.currency.Currency.GBP;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
@@ -421,6 +422,79 @@ public class CalculationTaskTest {
     assertThat(result).isFailure(FailureReason.NOT_APPLICABLE).hasFailureMessageMatching("bar");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Tests that executing a batch invokes the function once for all the targets.
+   */
+  public void executeBatch() {
+    BatchFunction fn = new BatchFunction(false);
+    CalculationTask task1 = CalculationTask.of(
+        new TestTarget(), fn, CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    CalculationTask task2 = CalculationTask.of(
+        new TestTarget(), fn, CalculationTaskCell.of(1, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(date(2011, 3, 8)).build();
+
+    List<CalculationResults> results = CalculationTask.executeBatch(ImmutableList.of(task1, task2), marketData, REF_DATA);
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).getTarget()).isSameAs(task1.getTarget());
+    assertThat(results.get(0).getCells().get(0).getResult()).hasValue(ScenarioArray.of("batch0"));
+    assertThat(results.get(1).getTarget()).isSameAs(task2.getTarget());
+    assertThat(results.get(1).getCells().get(0).getRowIndex()).isEqualTo(1);
+    assertThat(results.get(1).getCells().get(0).getResult()).hasValue(ScenarioArray.of("batch1"));
+  }
+
+  /**
+   * Tests that executing a batch falls back to executing each task if the batch fails.
+   */
+  public void executeBatch_batchException() {
+    BatchFunction fn = new BatchFunction(true);
+    CalculationTask task1 = CalculationTask.of(
+        TARGET, fn, CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    CalculationTask task2 = CalculationTask.of(
+        TARGET, fn, CalculationTaskCell.of(1, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(date(2011, 3, 8)).build();
+
+    List<CalculationResults> results = CalculationTask.executeBatch(ImmutableList.of(task1, task2), marketData, REF_DATA);
+    assertThat(results.get(0).getCells().get(0).getResult()).hasValue(ScenarioArray.of("single"));
+    assertThat(results.get(1).getCells().get(0).getResult()).hasValue(ScenarioArray.of("single"));
+  }
+
+  /**
+   * Tests that executing a batch handles missing measures.
+   */
+  public void executeBatch_missingMeasure() {
+    MeasureCheckFunction fn = new MeasureCheckFunction(ImmutableSet.of(TestingMeasures.PRESENT_VALUE), Optional.of("123"));
+    List<CalculationTask> tasks = ImmutableList.of(0, 1).stream()
+        .map(row -> CalculationTask.of(
+            TARGET,
+            fn,
+            CalculationTaskCell.of(row, 0, TestingMeasures.PRESENT_VALUE, REPORTING_CURRENCY_USD),
+            CalculationTaskCell.of(row, 1, TestingMeasures.PRESENT_VALUE_MULTI_CCY, REPORTING_CURRENCY_USD)))
+        .collect(toImmutableList());
+    ScenarioMarketData marketData = ScenarioMarketData.empty();
+
+    List<CalculationResults> results = CalculationTask.executeBatch(tasks, marketData, REF_DATA);
+    for (CalculationResults result : results) {
+      assertThat(result.getCells().get(0).getResult()).isSuccess();
+      assertThat(result.getCells().get(1).getResult())
+          .isFailure(FailureReason.CALCULATION_FAILED)
+          .hasFailureMessageMatching(
+              "Function 'MeasureCheckFunction' did not return requested measure 'PresentValueMultiCurrency' for ID '123'");
+    }
+  }
+
+  /**
+   * Tests that a batch of tasks with different functions is rejected.
+   */
+  public void executeBatch_differentFunctions() {
+    CalculationTask task1 = CalculationTask.of(
+        TARGET, new BatchFunction(false), CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    CalculationTask task2 = CalculationTask.of(
+        TARGET, new BatchFunction(false), CalculationTaskCell.of(1, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    assertThrowsIllegalArg(
+        () -> CalculationTask.executeBatch(ImmutableList.of(task1, task2), ScenarioMarketData.empty(), REF_DATA));
+  }
+
   /**
    * Tests that requirements are added for the FX rates needed to convert the results into the reporting currency.
    */
@@ -717,6 +791,73 @@ public class CalculationTaskTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Function that supports batch calculation, optionally failing.
+   */
+  private static final class BatchFunction implements CalculationFunction<TestTarget> {
+
+    private final boolean failBatch;
+
+    private BatchFunction(boolean failBatch) {
+      this.failBatch = failBatch;
+    }
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return MEASURES;
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of("single")));
+    }
+
+    @Override
+    public List<Map<Measure, Result<?>>> calculateBatch(
+        List<? extends TestTarget> targets,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      if (failBatch) {
+        throw new IllegalStateException("batch failed");
+      }
+      ImmutableList.Builder<Map<Measure, Result<?>>> builder = ImmutableList.builder();
+      for (int i = 0; i < targets.size(); i++) {
+        builder.add(ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of("batch" + i))));
+      }
+      return builder.build();
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Function that returns requirements containing output currencies.
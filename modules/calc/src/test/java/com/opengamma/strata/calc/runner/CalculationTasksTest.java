@@ -6,10 +6,12 @@
 package com.opengamma.strata.calc.runner;
 
 import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertNotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -21,6 +23,7 @@ import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.CalculationRules;
 import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ReportingCurrency;
 import com.opengamma.strata.calc.TestingMeasures;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.TestId;
@@ -102,6 +105,33 @@ public class CalculationTasksTest {
     assertThat(timeSeries.iterator().next()).isEqualTo(timeSeriesId);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_getBatches() {
+    TestFunction fn1 = new TestFunction();
+    TestFunction fn2 = new TestFunction();
+    List<CalculationTask> tasks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, ReportingCurrency.NATURAL);
+      tasks.add(CalculationTask.of(new TestTarget(), i % 2 == 0 ? fn1 : fn2, cell));
+    }
+    CalculationTasks test = CalculationTasks.of(tasks, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+
+    assertThat(test.getBatches(1)).containsExactly(
+        ImmutableList.of(tasks.get(0)),
+        ImmutableList.of(tasks.get(1)),
+        ImmutableList.of(tasks.get(2)),
+        ImmutableList.of(tasks.get(3)),
+        ImmutableList.of(tasks.get(4)));
+    assertThat(test.getBatches(2)).containsExactly(
+        ImmutableList.of(tasks.get(0), tasks.get(2)),
+        ImmutableList.of(tasks.get(4)),
+        ImmutableList.of(tasks.get(1), tasks.get(3)));
+    assertThat(test.getBatches(10)).containsExactly(
+        ImmutableList.of(tasks.get(0), tasks.get(2), tasks.get(4)),
+        ImmutableList.of(tasks.get(1), tasks.get(3)));
+    assertThrowsIllegalArg(() -> test.getBatches(0));
+  }
+
   //-------------------------------------------------------------------------
   public void testToString() {
     List<TestTarget> targets = ImmutableList.of(TARGET1, TARGET1);
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.runner.CalculationTaskTest.TestFunction;
+import com.opengamma.strata.calc.runner.CalculationTaskTest.TestTarget;
+import com.opengamma.strata.collect.result.FailureReason;
+
+/**
+ * Test {@link CalculationTimingRecorder}, {@link CalculationTimingSummary} and {@link CalculationTaskTiming}.
+ */
+@Test
+public class CalculationTimingRecorderTest {
+
+  private static final TestTarget TARGET = new TestTarget();
+  private static final Set<Measure> MEASURES = ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+
+  //-------------------------------------------------------------------------
+  public void test_summary() {
+    CalculationTimingRecorder test = CalculationTimingRecorder.create(2);
+    CalculationTaskTiming timing1 = timing(0, String.class, 1000, null);
+    CalculationTaskTiming timing2 = timing(1, String.class, 3000, FailureReason.ERROR);
+    CalculationTaskTiming timing3 = timing(2, Integer.class, 1500, null);
+    CalculationTaskTiming timing4 = timing(3, Integer.class, 0, null);
+    test.taskCompleted(timing1);
+    test.taskCompleted(timing2);
+    test.taskCompleted(timing3);
+    test.taskCompleted(timing4);
+
+    CalculationTimingSummary summary = test.summary();
+    assertThat(summary.getTaskCount()).isEqualTo(4);
+    assertThat(summary.getFailureCount()).isEqualTo(1);
+    assertThat(summary.getTotalWallTimeNanos()).isEqualTo(5500);
+    assertThat(summary.getTotalCpuTimeNanos()).isEqualTo(2750);
+    assertThat(summary.getTotalAllocatedBytes()).isEqualTo(0);
+    // each bucket is keyed by its exclusive upper bound, a power of two
+    assertThat(summary.getWallTimeHistogram()).containsExactly(
+        entry(1L, 1), entry(1024L, 1), entry(2048L, 1), entry(4096L, 1));
+    assertThat(summary.getFunctionWallTimeNanos()).containsOnly(
+        entry(String.class, 4000L), entry(Integer.class, 1500L));
+    assertThat(summary.getSlowestTasks()).containsExactly(timing2, timing3);
+    assertThat(summary.wallTimeNanosAtFraction(0.5)).isEqualTo(1024);
+    assertThat(summary.wallTimeNanosAtFraction(1)).isEqualTo(4096);
+    assertThrowsIllegalArg(() -> summary.wallTimeNanosAtFraction(1.5));
+    assertThat(test.toString()).contains("taskCount=4");
+  }
+
+  public void test_empty() {
+    CalculationTimingSummary summary = CalculationTimingRecorder.create().summary();
+    assertThat(summary.getTaskCount()).isEqualTo(0);
+    assertThat(summary.getWallTimeHistogram()).isEmpty();
+    assertThat(summary.getSlowestTasks()).isEmpty();
+    assertThat(summary.wallTimeNanosAtFraction(0.9)).isEqualTo(0);
+  }
+
+  public void test_combinedWith() {
+    CalculationTimingRecorder recorder1 = CalculationTimingRecorder.create();
+    CalculationTimingRecorder recorder2 = CalculationTimingRecorder.create();
+    CalculationInstrumentation test = recorder1.combinedWith(recorder2).combinedWith(CalculationInstrumentation.none());
+    test.taskCompleted(timing(0, String.class, 1000, null));
+    assertThat(recorder1.summary().getTaskCount()).isEqualTo(1);
+    assertThat(recorder2.summary().getTaskCount()).isEqualTo(1);
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    CalculationTaskTiming timing = timing(0, TestFunction.class, 1000, null);
+    coverImmutableBean(timing);
+    coverBeanEquals(timing, timing(1, String.class, 2000, FailureReason.ERROR));
+    CalculationTimingRecorder recorder = CalculationTimingRecorder.create();
+    recorder.taskCompleted(timing);
+    coverImmutableBean(recorder.summary());
+    coverBeanEquals(recorder.summary(), CalculationTimingRecorder.create().summary());
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationTaskTiming timing(int row, Class<?> type, long wallTime, FailureReason reason) {
+    return CalculationTaskTiming.of(TARGET, row, type, MEASURES, 1, wallTime, wallTime / 2, -1, reason);
+  }
+
+}
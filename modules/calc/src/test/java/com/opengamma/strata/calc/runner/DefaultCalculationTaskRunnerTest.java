@@ -8,19 +8,27 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
 import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.testng.annotations.Test;
@@ -28,7 +36,9 @@ import org.testng.annotations.Test;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ForwardingExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.Currency;
@@ -37,9 +47,12 @@ import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.Results;
 import com.opengamma.strata.calc.TestingMeasures;
 import com.opengamma.strata.calc.runner.CalculationTaskTest.TestTarget;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -154,6 +167,336 @@ public class DefaultCalculationTaskRunnerTest {
     assertThat(results.getColumns().get(0).getMeasure()).isEqualTo(TestingMeasures.PRESENT_VALUE);
   }
 
+  //-------------------------------------------------------------------------
+  // Test that splitting by scenario produces the same results as an unsplit calculation.
+  public void forkJoinSplitsScenarios() {
+    ScenarioMarketData marketData = scenarioMarketData(10);
+    CalculationTasks tasks = scenarioDependentTasks();
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultiScenario(tasks, marketData, REF_DATA);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int chunkSize = 1; chunkSize <= 11; chunkSize++) {
+        CalculationTaskRunnerOptions options =
+            CalculationTaskRunnerOptions.builder().scenarioChunkSize(chunkSize).build();
+        CalculationTaskRunner test = CalculationTaskRunner.of(pool, options);
+        Results results = test.calculateMultiScenario(tasks, marketData, REF_DATA);
+        assertThat(results.get(0, 0)).hasValue(DoubleScenarioArray.of(DoubleArray.of(10, i -> 8 + i)));
+        assertThat(results.get(0, 1)).hasValue(ScenarioArray.of(10, i -> VAL_DATE.plusDays(i)));
+        if (chunkSize < 10) {
+          // a result that is not a scenario array cannot be split
+          assertThat(results.get(0, 2)).isFailure(FailureReason.CALCULATION_FAILED);
+        } else {
+          assertEquals(results, expected);
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  public void scenarioChunkSizeRequiresForkJoinPool() {
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().scenarioChunkSize(2).build();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThrowsIllegalArg(() -> CalculationTaskRunner.of(executor, options), ".*ForkJoinPool.*");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public void forkJoinSingleScenario() {
+    CalculationTasks tasks = scenarioDependentTasks();
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().scenarioChunkSize(1).build();
+    try (CalculationTaskRunner test = CalculationTaskRunner.of(new ForkJoinPool(2), options)) {
+      Results results = test.calculate(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+      assertThat(results.get(0, 0)).hasValue(8d);
+      assertThat(results.get(0, 1)).hasValue(VAL_DATE);
+      assertThat(results.get(0, 2)).hasValue("shared");
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // Test that the most expensive tasks are submitted first.
+  public void costModelOrdersTasks() {
+    ScenarioResultFunction fn = new ScenarioResultFunction(TestingMeasures.PRESENT_VALUE, ScenarioArray.of("foo"));
+    List<CalculationTask> taskList = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      taskList.add(CalculationTask.of(new TestTarget(), fn, cell));
+    }
+    Column column = Column.of(TestingMeasures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(column));
+    List<Integer> recorded = new ArrayList<>();
+    CalculationTaskCostModel costModel = new CalculationTaskCostModel() {
+      @Override
+      public double estimateCost(CalculationTask task) {
+        return task.getRowIndex() % 2 == 0 ? 1 : 2;
+      }
+
+      @Override
+      public void recordCost(CalculationTask task, int scenarioCount, long nanos) {
+        assertThat(scenarioCount).isEqualTo(1);
+        assertThat(nanos).isGreaterThanOrEqualTo(0);
+        recorded.add(task.getRowIndex());
+      }
+    };
+
+    // using the direct executor means the tasks are executed in the order they are submitted
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().costModel(costModel).build();
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), options);
+    List<Integer> received = new ArrayList<>();
+    test.calculateAsync(tasks, MarketData.empty(VAL_DATE), REF_DATA, new CalculationListener() {
+      @Override
+      public void resultReceived(CalculationTarget target, CalculationResult result) {
+        received.add(result.getRowIndex());
+      }
+
+      @Override
+      public void calculationsComplete() {
+        // do nothing
+      }
+    });
+    assertThat(received).containsExactly(1, 3, 0, 2);
+    assertThat(recorded).containsExactly(1, 3, 0, 2);
+  }
+
+  public void costModelLearning() {
+    CalculationTasks tasks = scenarioDependentTasks();
+    CalculationTaskCostModel costModel = CalculationTaskCostModel.learning();
+    CalculationTask task = tasks.getTasks().get(0);
+    assertThat(costModel.estimateCost(task)).isEqualTo(0d);
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().costModel(costModel).build();
+    try (CalculationTaskRunner test = CalculationTaskRunner.of(Executors.newFixedThreadPool(2), options)) {
+      Results results = test.calculate(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+      assertThat(results.get(0, 0)).hasValue(8d);
+    }
+    assertThat(costModel.estimateCost(task)).isGreaterThan(0d);
+  }
+
+  //-------------------------------------------------------------------------
+  // Test that batches produce the same results as individual tasks.
+  public void batched() {
+    ScenarioDependentFunction fn = new ScenarioDependentFunction();
+    List<CalculationTask> taskList = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      taskList.add(CalculationTask.of(
+          new TestTarget(), fn, CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL)));
+    }
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+    ScenarioMarketData marketData = scenarioMarketData(4);
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultiScenario(tasks, marketData, REF_DATA);
+
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().maxBatchSize(2).build();
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), options);
+    Results results = test.calculateMultiScenario(tasks, marketData, REF_DATA);
+    assertEquals(results, expected);
+    assertThat(results.get(4, 0)).hasValue(DoubleScenarioArray.of(DoubleArray.of(8, 9, 10, 11)));
+    CalculationTaskRunnerOptions options2 = CalculationTaskRunnerOptions.builder().maxBatchSize(3).build();
+    try (CalculationTaskRunner test2 = CalculationTaskRunner.of(Executors.newFixedThreadPool(2), options2)) {
+      assertEquals(test2.calculateMultiScenario(tasks, marketData, REF_DATA), expected);
+    }
+  }
+
+  // Test that the options can be combined.
+  public void combinedOptions() {
+    ScenarioDependentFunction fn = new ScenarioDependentFunction();
+    List<CalculationTask> taskList = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      taskList.add(CalculationTask.of(
+          new TestTarget(), fn, CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL)));
+    }
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+    ScenarioMarketData marketData = scenarioMarketData(4);
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultiScenario(tasks, marketData, REF_DATA);
+    CalculationTaskCostModel costModel = CalculationTaskCostModel.learning();
+    List<CalculationTaskTiming> timings = new ArrayList<>();
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder()
+        .costModel(costModel)
+        .maxBatchSize(2)
+        .scenarioChunkSize(3)
+        .instrumentation(timings::add)
+        .build();
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try (CalculationTaskRunner test = CalculationTaskRunner.of(pool, options)) {
+      TimedResults results = test.calculateMultiScenarioTimed(tasks, marketData, REF_DATA);
+      assertEquals(results.getResults(), expected);
+      assertThat(results.getTimingSummary().getTaskCount()).isEqualTo(5);
+    }
+    assertThat(timings).hasSize(5);
+    assertThat(costModel.estimateCost(taskList.get(0))).isGreaterThanOrEqualTo(0d);
+  }
+
+  public void virtualThreads() {
+    CalculationTasks tasks = scenarioDependentTasks();
+    ScenarioMarketData marketData = scenarioMarketData(3);
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultiScenario(tasks, marketData, REF_DATA);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofVirtualThreads()) {
+      assertEquals(test.calculateMultiScenario(tasks, marketData, REF_DATA), expected);
+    }
+  }
+
+  public void blockingTasks() {
+    CalculationTasks tasks = scenarioDependentTasks();
+    ScenarioMarketData marketData = scenarioMarketData(3);
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultiScenario(tasks, marketData, REF_DATA);
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().blockingTasks(task -> true).build();
+    try (CalculationTaskRunner test = CalculationTaskRunner.of(Executors.newFixedThreadPool(2), options)) {
+      assertEquals(test.calculateMultiScenario(tasks, marketData, REF_DATA), expected);
+    }
+  }
+
+  public void instrumented() {
+    CalculationTasks tasks = scenarioDependentTasks();
+    ScenarioMarketData marketData = scenarioMarketData(3);
+    Results expected = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())
+        .calculateMultiScenario(tasks, marketData, REF_DATA);
+    List<CalculationTaskTiming> timings = new ArrayList<>();
+
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().instrumentation(timings::add).build();
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), options);
+    TimedResults timedResults = test.calculateMultiScenarioTimed(tasks, marketData, REF_DATA);
+    assertEquals(timedResults.getResults(), expected);
+    assertThat(timings).hasSize(tasks.getTasks().size());
+    CalculationTaskTiming timing = timings.get(0);
+    assertThat(timing.getFunctionType()).isEqualTo(ScenarioDependentFunction.class);
+    assertThat(timing.getScenarioCount()).isEqualTo(3);
+    assertThat(timing.getMeasures()).isEqualTo(tasks.getTasks().get(0).getMeasures());
+    assertThat(timing.getWallTimeNanos()).isGreaterThanOrEqualTo(0);
+    assertThat(timing.getFailureReason()).isEmpty();
+    CalculationTimingSummary summary = timedResults.getTimingSummary();
+    assertThat(summary.getTaskCount()).isEqualTo(tasks.getTasks().size());
+    assertThat(summary.getFunctionWallTimeNanos()).containsOnlyKeys(ScenarioDependentFunction.class);
+
+    // the results of the untimed methods are the same, and the timings are still passed to the instrumentation
+    assertEquals(test.calculateMultiScenario(tasks, marketData, REF_DATA), expected);
+    assertThat(timings).hasSize(tasks.getTasks().size() * 2);
+
+    // single scenario results are unwrapped
+    TimedResults singleResults = test.calculateTimed(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+    assertEquals(singleResults.getResults(), test.calculate(tasks, MarketData.empty(VAL_DATE), REF_DATA));
+    assertThat(singleResults.getTimingSummary().getTaskCount()).isEqualTo(tasks.getTasks().size());
+  }
+
+  public void timedWithoutInstrumentation() {
+    CalculationTasks tasks = scenarioDependentTasks();
+    ScenarioMarketData marketData = scenarioMarketData(3);
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    TimedResults results = test.calculateMultiScenarioTimed(tasks, marketData, REF_DATA);
+    assertEquals(results.getResults(), test.calculateMultiScenario(tasks, marketData, REF_DATA));
+    assertThat(results.getTimingSummary().getTaskCount()).isEqualTo(tasks.getTasks().size());
+  }
+
+  public void instrumentedFailure() {
+    // the function does not support par rate
+    CalculationTaskCell cell = CalculationTaskCell.of(0, 0, TestingMeasures.PAR_RATE, NATURAL);
+    CalculationTask task = CalculationTask.of(TARGET, new CalculationTaskTest.TestFunction(), cell);
+    Column column = Column.of(TestingMeasures.PAR_RATE);
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(column));
+    CalculationTimingRecorder recorder = CalculationTimingRecorder.create();
+
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder().instrumentation(recorder).build();
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), options);
+    TimedResults results = test.calculateTimed(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+    assertThat(results.getResults().get(0, 0).isFailure()).isTrue();
+    CalculationTimingSummary summary = recorder.summary();
+    assertThat(summary.getFailureCount()).isEqualTo(1);
+    assertThat(summary.getSlowestTasks().get(0).getFailureReason()).isPresent();
+    assertEquals(results.getTimingSummary(), summary);
+  }
+
+  // Test that blocking tasks load their data using the blocking executor and are priced by the main executor.
+  public void blockingExecutor() {
+    ThreadRecordingFunction fn = new ThreadRecordingFunction();
+    List<CalculationTask> taskList = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      taskList.add(CalculationTask.of(
+          new TestTarget(), fn, CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL)));
+    }
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+    AtomicInteger count = new AtomicInteger();
+    ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+    ExecutorService executor = new ForwardingExecutorService() {
+      @Override
+      protected ExecutorService delegate() {
+        return singleThreadExecutor;
+      }
+
+      @Override
+      public void execute(Runnable command) {
+        count.incrementAndGet();
+        super.execute(command);
+      }
+    };
+
+    // the data of the blocking tasks is loaded using an executor created by the runner
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder()
+        .blockingTasks(task -> task.getRowIndex() % 2 == 0)
+        .build();
+    try (CalculationTaskRunner test = CalculationTaskRunner.of(executor, options)) {
+      Results results = test.calculateMultiScenario(tasks, scenarioMarketData(2), REF_DATA);
+      assertThat(results.get(4, 0)).hasValue(DoubleScenarioArray.of(DoubleArray.of(1, 1)));
+    }
+    assertThat(count.get()).isEqualTo(5);
+    assertThat(fn.requirementsThreads).hasSize(3);
+    assertThat(fn.calculateThreads).hasSize(5);
+    assertThat(ImmutableSet.copyOf(fn.calculateThreads)).hasSize(1);
+    assertThat(fn.requirementsThreads).doesNotContainAnyElementsOf(fn.calculateThreads);
+  }
+
+  // Test that the number of platform threads loading the data of blocking tasks is bounded.
+  public void blockingExecutorBounded() {
+    ThreadRecordingFunction fn = new ThreadRecordingFunction();
+    List<CalculationTask> taskList = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      taskList.add(CalculationTask.of(
+          new TestTarget(), fn, CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL)));
+    }
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+    CalculationTaskRunnerOptions options = CalculationTaskRunnerOptions.builder()
+        .blockingTasks(task -> true)
+        .maxBlockingThreads(2)
+        .build();
+    try (CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), options)) {
+      Results results = test.calculateMultiScenario(tasks, scenarioMarketData(2), REF_DATA);
+      assertThat(results.get(49, 0)).hasValue(DoubleScenarioArray.of(DoubleArray.of(1, 1)));
+    }
+    Set<Thread> threads = ImmutableSet.copyOf(fn.requirementsThreads);
+    assertThat(threads).doesNotContain(Thread.currentThread());
+    // virtual threads are not bounded, as they are only available from Java 21
+    if (threads.stream().allMatch(thread -> thread.getName().startsWith("CalculationTaskRunner-blocking-pool-"))) {
+      assertThat(threads.size()).isBetween(1, 2);
+    }
+  }
+
+  private static ScenarioMarketData scenarioMarketData(int scenarioCount) {
+    MarketDataBox<LocalDate> valuationDates = MarketDataBox.ofScenarioValue(
+        ScenarioArray.of(scenarioCount, i -> VAL_DATE.plusDays(i)));
+    return ScenarioMarketData.of(scenarioCount, valuationDates, ImmutableMap.of(), ImmutableMap.of());
+  }
+
+  private static CalculationTasks scenarioDependentTasks() {
+    ScenarioDependentFunction fn = new ScenarioDependentFunction();
+    CalculationTask task = CalculationTask.of(
+        TARGET,
+        fn,
+        CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL),
+        CalculationTaskCell.of(0, 1, TestingMeasures.PAR_RATE, NATURAL),
+        CalculationTaskCell.of(0, 2, TestingMeasures.PRESENT_VALUE_MULTI_CCY, NATURAL));
+    return CalculationTasks.of(
+        ImmutableList.of(task),
+        ImmutableList.of(
+            Column.of(TestingMeasures.PRESENT_VALUE),
+            Column.of(TestingMeasures.PAR_RATE),
+            Column.of(TestingMeasures.PRESENT_VALUE_MULTI_CCY)));
+  }
+
   //-------------------------------------------------------------------------
   private static final class ScenarioResultFunction implements CalculationFunction<TestTarget> {
 
@@ -202,6 +545,155 @@ public class DefaultCalculationTaskRunnerTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  // returns values derived from the valuation date of each scenario
+  private static final class ScenarioDependentFunction implements CalculationFunction<TestTarget> {
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(
+          TestingMeasures.PRESENT_VALUE, TestingMeasures.PAR_RATE, TestingMeasures.PRESENT_VALUE_MULTI_CCY);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      MarketDataBox<LocalDate> valuationDates = marketData.getValuationDate();
+      int scenarioCount = marketData.getScenarioCount();
+      return ImmutableMap.of(
+          TestingMeasures.PRESENT_VALUE,
+          Result.success(DoubleScenarioArray.of(scenarioCount, i -> valuationDates.getValue(i).getDayOfMonth())),
+          TestingMeasures.PAR_RATE,
+          Result.success(ScenarioArray.of(scenarioCount, i -> valuationDates.getValue(i))),
+          TestingMeasures.PRESENT_VALUE_MULTI_CCY,
+          Result.success("shared"));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // function that records the threads that determine its requirements and perform its calculations
+  private static final class ThreadRecordingFunction implements CalculationFunction<TestTarget> {
+
+    private final List<Thread> requirementsThreads = new CopyOnWriteArrayList<>();
+    private final List<Thread> calculateThreads = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      requirementsThreads.add(Thread.currentThread());
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      calculateThreads.add(Thread.currentThread());
+      return ImmutableMap.of(
+          TestingMeasures.PRESENT_VALUE,
+          Result.success(DoubleScenarioArray.of(marketData.getScenarioCount(), i -> 1d)));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // runner that does not override the methods taking a deadline
+  private static final class DelegatingTaskRunner implements CalculationTaskRunner {
+
+    private final CalculationTaskRunner delegate;
+
+    private DelegatingTaskRunner(CalculationTaskRunner delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Results calculate(CalculationTasks tasks, MarketData marketData, ReferenceData refData) {
+      return delegate.calculate(tasks, marketData, refData);
+    }
+
+    @Override
+    public CalculationHandle calculateAsync(
+        CalculationTasks tasks,
+        MarketData marketData,
+        ReferenceData refData,
+        CalculationListener listener) {
+
+      return delegate.calculateAsync(tasks, marketData, refData, listener);
+    }
+
+    @Override
+    public Results calculateMultiScenario(
+        CalculationTasks tasks,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+
+      return delegate.calculateMultiScenario(tasks, marketData, refData);
+    }
+
+    @Override
+    public CalculationHandle calculateMultiScenarioAsync(
+        CalculationTasks tasks,
+        ScenarioMarketData marketData,
+        ReferenceData refData,
+        CalculationListener listener) {
+
+      return delegate.calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+
   //-------------------------------------------------------------------------
   private static final class Listener implements CalculationListener {
 
@@ -218,6 +710,136 @@ public class DefaultCalculationTaskRunnerTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  @Test(timeOut = 5000)
+  public void cancel() throws InterruptedException {
+    LatchFunction fn = new LatchFunction();
+    CalculationTasks tasks = latchTasks(fn, 3);
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+    try {
+      CalculationTaskRunner test = CalculationTaskRunner.of(executor);
+      ResultsListener listener = new ResultsListener();
+      CalculationHandle handle = test.calculateAsync(tasks, MarketData.empty(VAL_DATE), REF_DATA, listener);
+      assertThat(handle.getDeadline()).isEmpty();
+      fn.started.await();
+      assertThat(executor.getQueue()).hasSize(2);
+
+      // the tasks that have not started are removed from the executor and reported as failures
+      assertThat(handle.cancel()).isTrue();
+      assertThat(handle.cancel()).isFalse();
+      assertThat(handle.isCancelled()).isTrue();
+      assertThat(handle.isTimedOut()).isFalse();
+      assertThat(executor.getQueue()).isEmpty();
+      assertThat(handle.isDone()).isFalse();
+
+      // the task that had started runs to completion
+      fn.release.countDown();
+      Results results = listener.result();
+      assertThat(handle.isDone()).isTrue();
+      assertThat(results.get(0, 0)).hasValue("done");
+      assertThat(results.get(1, 0)).isFailure(FailureReason.CANCELLED);
+      assertThat(results.get(2, 0)).isFailure(FailureReason.CANCELLED);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(timeOut = 5000)
+  public void deadline() throws InterruptedException {
+    LatchFunction fn = new LatchFunction();
+    fn.release.countDown();
+    CalculationTasks tasks = latchTasks(fn, 3);
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+    try {
+      // the only thread of the executor is busy until released, thus the tasks do not start before the deadline
+      CountDownLatch release = new CountDownLatch(1);
+      executor.execute(() -> Uninterruptibles.awaitUninterruptibly(release));
+      CalculationTaskRunner test = CalculationTaskRunner.of(executor);
+      ResultsListener listener = new ResultsListener();
+      Instant deadline = Instant.now().plusMillis(20);
+      ScenarioMarketData marketData = ScenarioMarketData.of(1, MarketData.empty(VAL_DATE));
+      CalculationHandle handle = test.calculateMultiScenarioAsync(tasks, marketData, REF_DATA, listener, deadline);
+      assertThat(handle.getDeadline()).hasValue(deadline);
+      while (!handle.isDone()) {
+        Thread.sleep(5);
+      }
+      assertThat(handle.isTimedOut()).isTrue();
+      assertThat(handle.isCancelled()).isFalse();
+      assertThat(handle.cancel()).isFalse();
+      assertThat(executor.getQueue()).isEmpty();
+
+      Results results = listener.result();
+      assertThat(results.get(0, 0)).isFailure(FailureReason.TIMEOUT);
+      assertThat(results.get(1, 0)).isFailure(FailureReason.TIMEOUT);
+      assertThat(results.get(2, 0)).isFailure(FailureReason.TIMEOUT);
+      release.countDown();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public void deadlineNotReached() {
+    LatchFunction fn = new LatchFunction();
+    fn.release.countDown();
+    CalculationTasks tasks = latchTasks(fn, 2);
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    ResultsListener listener = new ResultsListener();
+
+    CalculationHandle handle = test.calculateAsync(tasks, MarketData.empty(VAL_DATE), REF_DATA, listener, Instant.MAX);
+    assertThat(handle.isDone()).isTrue();
+    assertThat(handle.isTimedOut()).isFalse();
+    assertThat(handle.cancel()).isFalse();
+    assertThat(handle.isCancelled()).isFalse();
+    Results results = listener.result();
+    assertThat(results.get(0, 0)).hasValue("done");
+    assertThat(results.get(1, 0)).hasValue("done");
+    assertThat(handle.toString()).contains("remainingTasks=0");
+
+    // a null deadline means there is no deadline
+    ResultsListener listener2 = new ResultsListener();
+    CalculationHandle handle2 = test.calculateAsync(tasks, MarketData.empty(VAL_DATE), REF_DATA, listener2, null);
+    assertThat(handle2.getDeadline()).isEmpty();
+    assertThat(listener2.result().get(0, 0)).hasValue("done");
+  }
+
+  // Test the default methods used by implementations that do not support deadlines or timing.
+  public void deadlineNotSupported() {
+    LatchFunction fn = new LatchFunction();
+    fn.release.countDown();
+    CalculationTasks tasks = latchTasks(fn, 1);
+    CalculationTaskRunner underlying = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    CalculationTaskRunner test = new DelegatingTaskRunner(underlying);
+    MarketData marketData = MarketData.empty(VAL_DATE);
+    ScenarioMarketData scenarioMarketData = ScenarioMarketData.of(1, marketData);
+
+    ResultsListener listener = new ResultsListener();
+    test.calculateAsync(tasks, marketData, REF_DATA, listener, null);
+    assertThat(listener.result().get(0, 0)).hasValue("done");
+    ResultsListener listener2 = new ResultsListener();
+    test.calculateMultiScenarioAsync(tasks, scenarioMarketData, REF_DATA, listener2, null);
+    assertThat(listener2.result().get(0, 0)).hasValue("done");
+    assertThrows(
+        () -> test.calculateAsync(tasks, marketData, REF_DATA, new ResultsListener(), Instant.MAX),
+        UnsupportedOperationException.class);
+    assertThrows(
+        () -> test.calculateMultiScenarioAsync(tasks, scenarioMarketData, REF_DATA, new ResultsListener(), Instant.MAX),
+        UnsupportedOperationException.class);
+    assertThrows(() -> test.calculateTimed(tasks, marketData, REF_DATA), UnsupportedOperationException.class);
+    assertThrows(
+        () -> test.calculateMultiScenarioTimed(tasks, scenarioMarketData, REF_DATA),
+        UnsupportedOperationException.class);
+  }
+
+  // creates tasks that wait for the latch of the function
+  private static CalculationTasks latchTasks(LatchFunction fn, int count) {
+    List<CalculationTask> taskList = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      taskList.add(CalculationTask.of(TARGET, fn, cell));
+    }
+    return CalculationTasks.of(taskList, ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+  }
+
   //-------------------------------------------------------------------------
   @Test(timeOut = 5000)
   public void interruptHangingCalculate() throws InterruptedException {
@@ -303,6 +925,57 @@ public class DefaultCalculationTaskRunnerTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  // waits until released before returning a value
+  private static final class LatchFunction implements CalculationFunction<TestTarget> {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return MEASURES;
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(ex);
+      }
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success("done"));
+    }
+  }
+
   //-------------------------------------------------------------------------
   public static final class HangingFunction implements CalculationFunction<TestTarget> {
 
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
+import com.opengamma.strata.calc.marketdata.TestId;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link IncrementalCalculationRunner}.
+ */
+@Test
+public class IncrementalCalculationRunnerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final List<Column> COLUMNS = ImmutableList.of(
+      Column.of(TestingMeasures.PRESENT_VALUE),
+      Column.of(TestingMeasures.PAR_RATE));
+  private static final TestObservableId QUOTE_B = TestObservableId.of("B");
+
+  //-------------------------------------------------------------------------
+  public void test_affectedRows() {
+    IncrementalCalculationRunner test = runner(new TargetFunction());
+    assertThat(test.affectedRows(ImmutableSet.of(TestId.of("B")))).containsExactly(1, 3);
+    assertThat(test.affectedRows(ImmutableSet.of(TestId.of("C"), TestId.of("A")))).containsExactly(0, 2);
+    assertThat(test.affectedRows(ImmutableSet.of(TestId.of("X")))).isEmpty();
+    assertThat(test.getRequirements().getNonObservables())
+        .containsOnly(TestId.of("A"), TestId.of("B"), TestId.of("C"));
+    assertThat(test.getTasks().getTargets()).hasSize(4);
+  }
+
+  public void test_recalculate() {
+    TargetFunction fn = new TargetFunction();
+    IncrementalCalculationRunner test = runner(fn);
+
+    MarketData marketData1 = marketData("a1", "b1", "c1");
+    Results results1 = test.calculate(marketData1);
+    assertThat(fn.calculated).containsExactly("A", "B", "C", "B");
+    assertThat(results1.get(1, 0)).hasValue("b1");
+
+    // only the rows requiring B are recalculated
+    fn.calculated.clear();
+    MarketData marketData2 = marketData("a1", "b2", "c1");
+    Results results2 = test.recalculate(marketData2, ImmutableSet.of(TestId.of("B")));
+    assertThat(fn.calculated).containsExactly("B", "B");
+    assertThat(results2.get(0, 0)).hasValue("a1");
+    assertThat(results2.get(1, 0)).hasValue("b2");
+    assertThat(results2.get(1, 1)).hasValue("b2");
+    assertThat(results2.get(2, 0)).hasValue("c1");
+    assertThat(results2.get(3, 1)).hasValue("b2");
+    assertThat(results2).isEqualTo(runner(new TargetFunction()).calculate(marketData2));
+
+    // unrelated changes do not cause a recalculation
+    fn.calculated.clear();
+    Results results3 = test.recalculate(marketData2, ImmutableSet.of(TestId.of("X")));
+    assertThat(fn.calculated).isEmpty();
+    assertThat(results3).isEqualTo(results2);
+  }
+
+  public void test_recalculate_derived() {
+    TargetFunction fn = new TargetFunction();
+    IncrementalCalculationRunner test = runner(fn);
+    MarketData marketData1 = marketData("a1", "b1", "c1");
+    test.calculate(marketData1);
+
+    // the changed quote is expanded to the market data derived from it, thus the rows requiring B are recalculated
+    assertThat(test.affectedRows(ImmutableSet.of(QUOTE_B))).containsExactly(1, 3);
+    fn.calculated.clear();
+    MarketData marketData2 = marketData("a1", "b2", "c1");
+    Results results2 = test.recalculate(marketData2, ImmutableSet.of(QUOTE_B));
+    assertThat(fn.calculated).containsExactly("B", "B");
+    assertThat(results2).isEqualTo(runner(new TargetFunction()).calculate(marketData2));
+  }
+
+  public void test_recalculate_noPreviousResults() {
+    TargetFunction fn = new TargetFunction();
+    IncrementalCalculationRunner test = runner(fn);
+    Results results = test.recalculate(marketData("a1", "b1", "c1"), ImmutableSet.of(TestId.of("X")));
+    assertThat(fn.calculated).containsExactly("A", "B", "C", "B");
+    assertThat(results.get(3, 0)).hasValue("b1");
+  }
+
+  public void test_recalculateMultiScenario() {
+    TargetFunction fn = new TargetFunction();
+    IncrementalCalculationRunner test = runner(fn);
+
+    ScenarioMarketData marketData1 = scenarioMarketData("a1", "c1");
+    Results results1 = test.calculateMultiScenario(marketData1);
+    assertThat(fn.calculated).containsExactly("A", "B", "C", "B");
+    assertThat(results1.get(2, 0)).hasValue(ScenarioArray.of("c1", "c1"));
+
+    fn.calculated.clear();
+    ScenarioMarketData marketData2 = scenarioMarketData("a1", "c2");
+    Results results2 = test.recalculateMultiScenario(marketData2, ImmutableSet.of(TestId.of("C")));
+    assertThat(fn.calculated).containsExactly("C");
+    assertThat(results2.get(2, 1)).hasValue(ScenarioArray.of("c2", "c2"));
+    assertThat(results2).isEqualTo(runner(new TargetFunction()).calculateMultiScenario(marketData2));
+  }
+
+  //-------------------------------------------------------------------------
+  // four rows requiring A, B, C and B
+  private static IncrementalCalculationRunner runner(TargetFunction fn) {
+    List<CalculationTask> tasks = new ArrayList<>();
+    List<String> ids = ImmutableList.of("A", "B", "C", "B");
+    for (int row = 0; row < ids.size(); row++) {
+      tasks.add(CalculationTask.of(
+          new IdTarget(ids.get(row)),
+          fn,
+          CalculationTaskCell.of(row, 0, TestingMeasures.PRESENT_VALUE, NATURAL),
+          CalculationTaskCell.of(row, 1, TestingMeasures.PAR_RATE, NATURAL)));
+    }
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationTaskRunner taskRunner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    MarketDataFactory marketDataFactory =
+        MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), new DerivedFunction());
+    return IncrementalCalculationRunner.of(
+        taskRunner, CalculationTasks.of(tasks, COLUMNS), REF_DATA, marketDataFactory, MarketDataConfig.empty());
+  }
+
+  private static MarketData marketData(String a, String b, String c) {
+    return ImmutableMarketData.builder(VAL_DATE)
+        .addValue(TestId.of("A"), a)
+        .addValue(TestId.of("B"), b)
+        .addValue(TestId.of("C"), c)
+        .build();
+  }
+
+  private static ScenarioMarketData scenarioMarketData(String a, String c) {
+    return ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addBox(TestId.of("A"), MarketDataBox.ofScenarioValues(a, a))
+        .addBox(TestId.of("B"), MarketDataBox.ofScenarioValues("b1", "b1"))
+        .addBox(TestId.of("C"), MarketDataBox.ofScenarioValues(c, c))
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class IdTarget implements CalculationTarget {
+
+    private final String id;
+
+    private IdTarget(String id) {
+      this.id = id;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // market data function deriving the value B from a quote
+  private static final class DerivedFunction implements MarketDataFunction<String, TestId> {
+
+    @Override
+    public MarketDataRequirements requirements(TestId id, MarketDataConfig marketDataConfig) {
+      return id.equals(TestId.of("B")) ?
+          MarketDataRequirements.builder().addValues(QUOTE_B).build() :
+          MarketDataRequirements.empty();
+    }
+
+    @Override
+    public MarketDataBox<String> build(
+        TestId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      throw new UnsupportedOperationException("build not implemented");
+    }
+
+    @Override
+    public Class<TestId> getMarketDataIdType() {
+      return TestId.class;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // returns the market data value identified by the target
+  private static final class TargetFunction implements CalculationFunction<IdTarget> {
+
+    private final List<String> calculated = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public Class<IdTarget> targetType() {
+      return IdTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE, TestingMeasures.PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(IdTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        IdTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.builder()
+          .valueRequirements(ImmutableSet.of(TestId.of(target.id)))
+          .build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        IdTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      calculated.add(target.id);
+      MarketDataBox<String> box = marketData.getValue(TestId.of(target.id));
+      ScenarioArray<String> result = ScenarioArray.of(marketData.getScenarioCount(), box::getValue);
+      return ImmutableMap.of(
+          TestingMeasures.PRESENT_VALUE, Result.success(result),
+          TestingMeasures.PAR_RATE, Result.success(result));
+    }
+  }
+
+}
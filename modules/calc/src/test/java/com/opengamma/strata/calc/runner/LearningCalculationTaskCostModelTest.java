@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.runner.CalculationTaskTest.TestFunction;
+import com.opengamma.strata.calc.runner.CalculationTaskTest.TestTarget;
+
+/**
+ * Test {@link LearningCalculationTaskCostModel}.
+ */
+@Test
+public class LearningCalculationTaskCostModelTest {
+
+  private static final TestTarget TARGET = new TestTarget();
+  private static final CalculationTask TASK1 = CalculationTask.of(
+      TARGET, new TestFunction(), CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+  private static final CalculationTask TASK2 = CalculationTask.of(
+      TARGET, new TestFunction(), CalculationTaskCell.of(1, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+  private static final CalculationTask TASK3 = CalculationTask.of(
+      TARGET, new TestFunction(), CalculationTaskCell.of(0, 1, TestingMeasures.PAR_RATE, NATURAL));
+
+  //-------------------------------------------------------------------------
+  public void test_learning() {
+    CalculationTaskCostModel test = CalculationTaskCostModel.learning();
+    assertThat(test.estimateCost(TASK1)).isEqualTo(0d);
+    test.recordCost(TASK1, 2, 400);
+    assertThat(test.estimateCost(TASK1)).isEqualTo(200d);
+    // the same function type and measures share the cost
+    assertThat(test.estimateCost(TASK2)).isEqualTo(200d);
+    // different measures do not
+    assertThat(test.estimateCost(TASK3)).isEqualTo(0d);
+    // moving average of the cost per scenario
+    test.recordCost(TASK2, 1, 100);
+    assertThat(test.estimateCost(TASK1)).isEqualTo(150d);
+    test.recordCost(TASK3, 0, 50);
+    assertThat(test.estimateCost(TASK3)).isEqualTo(50d);
+  }
+
+  public void coverage() {
+    assertThat(CalculationTaskCostModel.learning().toString()).contains("size=0");
+  }
+
+}
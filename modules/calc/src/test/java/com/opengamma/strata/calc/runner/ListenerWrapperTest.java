@@ -6,6 +6,7 @@
 package com.opengamma.strata.calc.runner;
 
 import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
 import java.util.Queue;
@@ -13,6 +14,9 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
@@ -52,6 +56,72 @@ public class ListenerWrapperTest {
     }
   }
 
+  // Tests that threads delivering results block when the queue is full.
+  public void boundedQueue() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BlockingListener listener = new BlockingListener(started, release);
+    Consumer<CalculationResults> wrapper = new ListenerWrapper(listener, 3, ImmutableList.of(), ImmutableList.of());
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    CalculationTarget target = new CalculationTarget() {};
+    CalculationResults results = CalculationResults.of(target, ImmutableList.of(result));
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      // the first result is delivered, blocking in the listener
+      Future<?> future1 = executor.submit(() -> wrapper.accept(results));
+      started.await();
+      // the second result is queued
+      executor.submit(() -> wrapper.accept(results)).get(10, TimeUnit.SECONDS);
+      // the third result blocks as the queue is full
+      Future<?> future3 = executor.submit(() -> wrapper.accept(results));
+      Thread.sleep(50);
+      assertThat(future3.isDone()).isFalse();
+
+      release.countDown();
+      future1.get(10, TimeUnit.SECONDS);
+      future3.get(10, TimeUnit.SECONDS);
+      assertThat(listener.received.get()).isEqualTo(3);
+      assertThat(listener.complete).isTrue();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class BlockingListener implements CalculationListener {
+
+    private final CountDownLatch started;
+    private final CountDownLatch release;
+    private final AtomicInteger received = new AtomicInteger();
+    private volatile boolean complete;
+
+    private BlockingListener(CountDownLatch started, CountDownLatch release) {
+      this.started = started;
+      this.release = release;
+    }
+
+    @Override
+    public int maxQueuedResults() {
+      return 1;
+    }
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      received.incrementAndGet();
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void calculationsComplete() {
+      complete = true;
+    }
+  }
+
   public static final class Listener implements CalculationListener {
 
     /**
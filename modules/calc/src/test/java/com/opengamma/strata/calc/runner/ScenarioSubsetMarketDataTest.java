@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.calc.marketdata.TestId;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link ScenarioSubsetMarketData}.
+ */
+@Test
+public class ScenarioSubsetMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final TestId ID1 = TestId.of("1");
+  private static final TestId ID2 = TestId.of("2");
+  private static final TestObservableId OBS_ID = TestObservableId.of("3");
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.of(VAL_DATE, 1d);
+  private static final ScenarioMarketData UNDERLYING = ScenarioMarketData.of(
+      4,
+      MarketDataBox.ofScenarioValues(VAL_DATE, VAL_DATE.plusDays(1), VAL_DATE.plusDays(2), VAL_DATE.plusDays(3)),
+      ImmutableMap.of(
+          ID1, MarketDataBox.ofScenarioValues("a", "b", "c", "d"),
+          ID2, MarketDataBox.ofSingleValue("x")),
+      ImmutableMap.of(OBS_ID, TIME_SERIES));
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    ScenarioSubsetMarketData test = ScenarioSubsetMarketData.of(UNDERLYING, 1, 3);
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.getValuationDate())
+        .isEqualTo(MarketDataBox.ofScenarioValues(VAL_DATE.plusDays(1), VAL_DATE.plusDays(2)));
+    assertThat(test.containsValue(ID1)).isTrue();
+    assertThat(test.getValue(ID1)).isEqualTo(MarketDataBox.ofScenarioValues("b", "c"));
+    assertThat(test.getValue(ID2)).isEqualTo(MarketDataBox.ofSingleValue("x"));
+    assertThat(test.findValue(ID1)).isEqualTo(Optional.of(MarketDataBox.ofScenarioValues("b", "c")));
+    assertThat(test.findValue(TestId.of("4"))).isEmpty();
+    assertThat(test.getIds()).isEqualTo(ImmutableSet.of(ID1, ID2));
+    assertThat(test.getTimeSeriesIds()).isEqualTo(ImmutableSet.of(OBS_ID));
+    assertThat(test.getTimeSeries(OBS_ID)).isEqualTo(TIME_SERIES);
+    assertThat(test.scenario(1).getValue(ID1)).isEqualTo("c");
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> ScenarioSubsetMarketData.of(UNDERLYING, -1, 2));
+    assertThrowsIllegalArg(() -> ScenarioSubsetMarketData.of(UNDERLYING, 2, 2));
+    assertThrowsIllegalArg(() -> ScenarioSubsetMarketData.of(UNDERLYING, 3, 2));
+    assertThrowsIllegalArg(() -> ScenarioSubsetMarketData.of(UNDERLYING, 0, 5));
+  }
+
+  public void coverage() {
+    assertThat(ScenarioSubsetMarketData.of(UNDERLYING, 0, 2).toString()).contains("0");
+  }
+
+}
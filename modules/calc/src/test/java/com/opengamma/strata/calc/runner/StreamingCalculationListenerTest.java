@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link StreamingCalculationListener}.
+ */
+@Test
+public class StreamingCalculationListenerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final CalculationTarget TARGET = new CalculationTarget() {};
+
+  //-------------------------------------------------------------------------
+  public void test_rowsWrittenWhenComplete() {
+    CollectingSink sink = new CollectingSink();
+    StreamingCalculationListener test = StreamingCalculationListener.of(sink);
+    List<Column> columns = ImmutableList.of(
+        Column.of(TestingMeasures.PRESENT_VALUE),
+        Column.of(TestingMeasures.PAR_RATE));
+    test.calculationsStarted(ImmutableList.of(TARGET, TARGET), columns);
+    assertThat(sink.started).isTrue();
+    assertThat(test.maxQueuedResults()).isGreaterThan(0);
+
+    test.resultReceived(TARGET, CalculationResult.of(1, 1, Result.success("1-1")));
+    test.resultReceived(TARGET, CalculationResult.of(0, 0, Result.success("0-0")));
+    assertThat(sink.rows).isEmpty();
+    test.resultReceived(TARGET, CalculationResult.of(1, 0, Result.success("1-0")));
+    assertThat(sink.rows).containsOnlyKeys(1);
+    assertThat(sink.rows.get(1)).containsExactly(Result.success("1-0"), Result.success("1-1"));
+    test.resultReceived(TARGET, CalculationResult.of(0, 1, Result.success("0-1")));
+    assertThat(sink.rows).containsOnlyKeys(0, 1);
+    assertThat(sink.rows.get(0)).containsExactly(Result.success("0-0"), Result.success("0-1"));
+
+    assertThat(sink.complete).isFalse();
+    test.calculationsComplete();
+    assertThat(sink.complete).isTrue();
+    assertThat(test.result()).isEqualTo(2);
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> StreamingCalculationListener.of(new CollectingSink(), 0));
+  }
+
+  // the results for a row are calculated by two tasks using different functions
+  public void test_runner() {
+    int rowCount = 100;
+    List<CalculationTask> tasks = new ArrayList<>();
+    for (int row = 0; row < rowCount; row++) {
+      tasks.add(CalculationTask.of(
+          TARGET, new RowFunction(TestingMeasures.PRESENT_VALUE),
+          CalculationTaskCell.of(row, 0, TestingMeasures.PRESENT_VALUE, NATURAL)));
+      tasks.add(CalculationTask.of(
+          TARGET, new RowFunction(TestingMeasures.PAR_RATE),
+          CalculationTaskCell.of(row, 1, TestingMeasures.PAR_RATE, NATURAL)));
+    }
+    List<Column> columns = ImmutableList.of(
+        Column.of(TestingMeasures.PRESENT_VALUE),
+        Column.of(TestingMeasures.PAR_RATE));
+    CalculationTasks calcTasks = CalculationTasks.of(tasks, columns);
+
+    CollectingSink sink = new CollectingSink();
+    StreamingCalculationListener listener = StreamingCalculationListener.of(sink, 2);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try (CalculationTaskRunner runner = CalculationTaskRunner.of(executor)) {
+      runner.calculateAsync(calcTasks, MarketData.empty(date(2011, 3, 8)), REF_DATA, listener);
+      assertThat(listener.result()).isEqualTo(rowCount);
+    }
+    assertThat(sink.complete).isTrue();
+    assertThat(sink.rows).hasSize(rowCount);
+    assertThat(sink.rows.get(7)).containsExactly(Result.success("PresentValue"), Result.success("ParRate"));
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class CollectingSink implements ResultRowSink {
+
+    private final Map<Integer, List<Result<?>>> rows = new TreeMap<>();
+    private boolean started;
+    private boolean complete;
+
+    @Override
+    public void start(List<CalculationTarget> targets, List<Column> columns) {
+      started = true;
+    }
+
+    @Override
+    public void write(int rowIndex, CalculationTarget target, List<Result<?>> results) {
+      rows.put(rowIndex, ImmutableList.copyOf(results));
+    }
+
+    @Override
+    public void complete() {
+      complete = true;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // returns the name of the measure
+  private static final class RowFunction implements CalculationFunction<CalculationTarget> {
+
+    private final Measure measure;
+
+    private RowFunction(Measure measure) {
+      this.measure = measure;
+    }
+
+    @Override
+    public Class<CalculationTarget> targetType() {
+      return CalculationTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(measure);
+    }
+
+    @Override
+    public Currency naturalCurrency(CalculationTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        CalculationTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        CalculationTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      return ImmutableMap.of(measure, Result.success(ScenarioArray.of(measure.getName())));
+    }
+  }
+
+}
@@ -78,6 +78,18 @@ public enum FailureReason implements NamedEnum {
    * This is used to indicate that a calculation failed.
    */
   CALCULATION_FAILED,
+  /**
+   * The operation was not performed because it was cancelled.
+   * <p>
+   * This is used to indicate that a calculation was skipped because the caller cancelled it.
+   */
+  CANCELLED,
+  /**
+   * The operation was not performed because a deadline passed.
+   * <p>
+   * This is used to indicate that a calculation was skipped because it had not started before its deadline.
+   */
+  TIMEOUT,
   /**
    * Failure occurred for some other reason.
    * <p>
@@ -27,6 +27,7 @@ public class FailureReasonTest {
   public static Object[][] data_name() {
     return new Object[][] {
         {FailureReason.CALCULATION_FAILED, "CALCULATION_FAILED"},
+        {FailureReason.CANCELLED, "CANCELLED"},
         {FailureReason.CURRENCY_CONVERSION, "CURRENCY_CONVERSION"},
         {FailureReason.ERROR, "ERROR"},
         {FailureReason.INVALID, "INVALID"},
@@ -35,6 +36,7 @@ public class FailureReasonTest {
         {FailureReason.NOT_APPLICABLE, "NOT_APPLICABLE"},
         {FailureReason.OTHER, "OTHER"},
         {FailureReason.PARSING, "PARSING"},
+        {FailureReason.TIMEOUT, "TIMEOUT"},
         {FailureReason.UNSUPPORTED, "UNSUPPORTED"},
     };
   }
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+
+/**
+ * An append-only binary file of time-series, read using a memory-mapped buffer.
+ * <p>
+ * The file contains a header followed by a sequence of blocks. Each block contains the key
+ * of an {@link ObservableId}, the number of points, and the points themselves, each held as
+ * the epoch-day of the date and the value. New blocks can be added to the end of the file using
+ * {@link #append(Path, Map)} without rewriting the existing blocks.
+ * <p>
+ * When the file is opened it is mapped into memory and the blocks are indexed.
+ * The time-series returned by {@link #findTimeSeries(ObservableId)} read the points directly
+ * from the mapped buffer, without copying. If the file contains more than one block for an
+ * identifier, the blocks are merged into a copy, with the points in later blocks replacing those
+ * in earlier blocks. Blocks appended after the file is opened are not seen by this instance.
+ * <p>
+ * Identifiers are matched using their type, standard identifier, field name and observable source.
+ * The file must be less than 2GB in size.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class BinaryTimeSeriesFile {
+
+  /** The marker at the start of the file. */
+  private static final int MAGIC = 0x4F475453;
+  /** The version of the file format. */
+  private static final int VERSION = 1;
+  /** The size of the header. */
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+  /** The file. */
+  private final Path file;
+  /** The time-series in the file, keyed by the identifier key, in the order of the blocks. */
+  private final ImmutableListMultimap<String, MappedLocalDateDoubleTimeSeries> timeSeries;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Opens a time-series file, mapping it into memory.
+   *
+   * @param file  the file
+   * @return the time-series file
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the file is not a valid time-series file
+   */
+  public static BinaryTimeSeriesFile of(Path file) {
+    ArgChecker.notNull(file, "file");
+    MappedByteBuffer buffer = Unchecked.wrap(() -> map(file));
+    return new BinaryTimeSeriesFile(file, index(file, buffer));
+  }
+
+  // maps the whole file into memory, the mapping remains valid after the channel is closed
+  private static MappedByteBuffer map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(Messages.format("Time-series file is too large to map: {}", file));
+      }
+      return channel.map(MapMode.READ_ONLY, 0, size);
+    }
+  }
+
+  // finds the blocks in the file
+  private static ImmutableListMultimap<String, MappedLocalDateDoubleTimeSeries> index(Path file, ByteBuffer buffer) {
+    int limit = buffer.limit();
+    if (limit < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+      throw new IllegalArgumentException(Messages.format("File is not a valid time-series file: {}", file));
+    }
+    ImmutableListMultimap.Builder<String, MappedLocalDateDoubleTimeSeries> builder = ImmutableListMultimap.builder();
+    int position = HEADER_SIZE;
+    while (position < limit) {
+      checkAvailable(file, limit, position, Integer.BYTES);
+      int keyLength = buffer.getInt(position);
+      position += Integer.BYTES;
+      checkAvailable(file, limit, position, (long) keyLength + Integer.BYTES);
+      byte[] keyBytes = new byte[keyLength];
+      ByteBuffer keyBuffer = buffer.duplicate();
+      keyBuffer.position(position);
+      keyBuffer.get(keyBytes);
+      position += keyLength;
+      int size = buffer.getInt(position);
+      position += Integer.BYTES;
+      checkAvailable(file, limit, position, (long) size * MappedLocalDateDoubleTimeSeries.POINT_SIZE);
+      builder.put(new String(keyBytes, UTF_8), MappedLocalDateDoubleTimeSeries.of(buffer, position, size));
+      position += size * MappedLocalDateDoubleTimeSeries.POINT_SIZE;
+    }
+    return builder.build();
+  }
+
+  // checks that the file contains the expected number of bytes
+  private static void checkAvailable(Path file, int limit, int position, long length) {
+    if (length < 0 || position + length > limit) {
+      throw new IllegalArgumentException(Messages.format("Time-series file is truncated or corrupt: {}", file));
+    }
+  }
+
+  // restricted constructor
+  private BinaryTimeSeriesFile(Path file, ImmutableListMultimap<String, MappedLocalDateDoubleTimeSeries> timeSeries) {
+    this.file = file;
+    this.timeSeries = timeSeries;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a time-series file, replacing any existing file.
+   *
+   * @param file  the file
+   * @param timeSeries  the time-series to write, keyed by identifier
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   */
+  public static void write(Path file, Map<? extends ObservableId, ? extends LocalDateDoubleTimeSeries> timeSeries) {
+    ArgChecker.notNull(file, "file");
+    ArgChecker.notNull(timeSeries, "timeSeries");
+    Unchecked.wrap(() -> {
+      try (FileChannel channel = FileChannel.open(
+          file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        writeHeader(channel);
+        writeBlocks(channel, timeSeries);
+      }
+    });
+  }
+
+  /**
+   * Appends time-series to a time-series file, creating the file if it does not exist.
+   * <p>
+   * The existing contents of the file are not altered.
+   * If the file already contains a time-series for an identifier, the points of the appended
+   * time-series replace the existing points with the same date when the file is opened.
+   *
+   * @param file  the file
+   * @param timeSeries  the time-series to append, keyed by identifier
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the existing file is not a valid time-series file
+   */
+  public static void append(Path file, Map<? extends ObservableId, ? extends LocalDateDoubleTimeSeries> timeSeries) {
+    ArgChecker.notNull(file, "file");
+    ArgChecker.notNull(timeSeries, "timeSeries");
+    Unchecked.wrap(() -> {
+      try (FileChannel channel = FileChannel.open(
+          file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        long size = channel.size();
+        if (size == 0) {
+          writeHeader(channel);
+        } else {
+          ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+          if (size < HEADER_SIZE ||
+              channel.read(header, 0) < HEADER_SIZE ||
+              header.getInt(0) != MAGIC ||
+              header.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException(Messages.format("File is not a valid time-series file: {}", file));
+          }
+          channel.position(size);
+        }
+        writeBlocks(channel, timeSeries);
+      }
+    });
+  }
+
+  // writes the header
+  private static void writeHeader(FileChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION).flip();
+    writeFully(channel, header);
+  }
+
+  // writes a block for each time-series
+  private static void writeBlocks(
+      FileChannel channel,
+      Map<? extends ObservableId, ? extends LocalDateDoubleTimeSeries> timeSeries) throws IOException {
+
+    for (Map.Entry<? extends ObservableId, ? extends LocalDateDoubleTimeSeries> entry : timeSeries.entrySet()) {
+      byte[] key = key(entry.getKey()).getBytes(UTF_8);
+      LocalDateDoubleTimeSeries series = entry.getValue();
+      ByteBuffer block = ByteBuffer.allocate(
+          Integer.BYTES + key.length + Integer.BYTES + series.size() * MappedLocalDateDoubleTimeSeries.POINT_SIZE);
+      block.putInt(key.length).put(key).putInt(series.size());
+      series.forEach((date, value) -> block.putLong(date.toEpochDay()).putDouble(value));
+      block.flip();
+      writeFully(channel, block);
+    }
+  }
+
+  // writes the whole buffer
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  // the key used to match an identifier
+  private static String key(ObservableId id) {
+    return id.getClass().getName() + '|' + id.getStandardId() + '|' + id.getFieldName() + '|' +
+        id.getObservableSource();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the file.
+   *
+   * @return the file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Checks if the file contains a time-series for the identifier.
+   *
+   * @param id  the identifier
+   * @return true if the file contains a time-series for the identifier
+   */
+  public boolean containsTimeSeries(ObservableId id) {
+    ArgChecker.notNull(id, "id");
+    return timeSeries.containsKey(key(id));
+  }
+
+  /**
+   * Finds the time-series for the identifier.
+   * <p>
+   * If the file contains a single block for the identifier, the result reads the points directly
+   * from the mapped file. Otherwise the blocks are merged into a new time-series.
+   *
+   * @param id  the identifier
+   * @return the time-series, empty if the file does not contain a time-series for the identifier
+   */
+  public Optional<LocalDateDoubleTimeSeries> findTimeSeries(ObservableId id) {
+    ArgChecker.notNull(id, "id");
+    ImmutableList<MappedLocalDateDoubleTimeSeries> blocks = timeSeries.get(key(id));
+    switch (blocks.size()) {
+      case 0:
+        return Optional.empty();
+      case 1:
+        return Optional.of(blocks.get(0));
+      default:
+        LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+        blocks.forEach(block -> block.forEach(builder::put));
+        return Optional.of(builder.build());
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("BinaryTimeSeriesFile[file={}, timeSeries={}]", file, timeSeries.keySet().size());
+  }
+
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.function.ObjDoublePredicate;
+import com.opengamma.strata.collect.timeseries.LocalDateDoublePoint;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+
+/**
+ * A time-series that reads its points directly from a buffer, typically a memory-mapped file.
+ * <p>
+ * Each point is held as the epoch-day of the date followed by the value, using 16 bytes.
+ * The points must be in ascending date order with no duplicate dates.
+ * No data is copied when the time-series is created, and the sub-series returned by
+ * {@link #subSeries(LocalDate, LocalDate)}, {@link #headSeries(int)} and {@link #tailSeries(int)}
+ * are views over the same buffer. The other methods that return a time-series create a copy.
+ * <p>
+ * Two time-series of this type are equal if they contain the same points.
+ * Use {@code toBuilder().build()} to compare to another type of time-series.
+ * <p>
+ * When serialized, the points are copied into a standard time-series, which is dense if the dates allow.
+ * <p>
+ * This class is thread-safe as the buffer is only accessed using absolute reads.
+ */
+final class MappedLocalDateDoubleTimeSeries implements LocalDateDoubleTimeSeries, Serializable {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+  /** The number of bytes used by each point. */
+  static final int POINT_SIZE = 16;
+
+  /** The buffer containing the points, transient as the points are copied when serialized. */
+  private final transient ByteBuffer buffer;
+  /** The position in the buffer of the first point. */
+  private final int offset;
+  /** The number of points. */
+  private final int size;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a time-series reading the points from a buffer.
+   * <p>
+   * The buffer must not be altered after the time-series is created.
+   *
+   * @param buffer  the buffer containing the points
+   * @param offset  the position in the buffer of the first point
+   * @param size  the number of points
+   * @return the time-series
+   */
+  static MappedLocalDateDoubleTimeSeries of(ByteBuffer buffer, int offset, int size) {
+    ArgChecker.notNull(buffer, "buffer");
+    ArgChecker.notNegative(offset, "offset");
+    ArgChecker.notNegative(size, "size");
+    ArgChecker.isTrue(
+        (long) offset + (long) size * POINT_SIZE <= buffer.limit(),
+        "Buffer of size {} is too small for {} points at position {}",
+        buffer.limit(),
+        size,
+        offset);
+    return new MappedLocalDateDoubleTimeSeries(buffer, offset, size);
+  }
+
+  // restricted constructor
+  private MappedLocalDateDoubleTimeSeries(ByteBuffer buffer, int offset, int size) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.size = size;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsDate(LocalDate date) {
+    return findDatePosition(date) >= 0;
+  }
+
+  @Override
+  public OptionalDouble get(LocalDate date) {
+    int position = findDatePosition(date);
+    return position >= 0 ? OptionalDouble.of(value(position)) : OptionalDouble.empty();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LocalDate getEarliestDate() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Unable to return earliest date, time-series is empty");
+    }
+    return date(0);
+  }
+
+  @Override
+  public double getEarliestValue() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Unable to return earliest value, time-series is empty");
+    }
+    return value(0);
+  }
+
+  @Override
+  public LocalDate getLatestDate() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Unable to return latest, time-series is empty");
+    }
+    return date(size - 1);
+  }
+
+  @Override
+  public double getLatestValue() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Unable to return latest, time-series is empty");
+    }
+    return value(size - 1);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LocalDateDoubleTimeSeries subSeries(LocalDate startInclusive, LocalDate endExclusive) {
+    ArgChecker.notNull(startInclusive, "startInclusive");
+    ArgChecker.notNull(endExclusive, "endExclusive");
+    if (endExclusive.isBefore(startInclusive)) {
+      throw new IllegalArgumentException(
+          "Invalid sub series, end before start: " + startInclusive + " to " + endExclusive);
+    }
+    // where in the buffer would start/end be (whether or not it's actually in the series)
+    int startPos = findDatePosition(startInclusive);
+    startPos = startPos >= 0 ? startPos : -startPos - 1;
+    int endPos = findDatePosition(endExclusive);
+    endPos = endPos >= 0 ? endPos : -endPos - 1;
+    return slice(startPos, endPos);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries headSeries(int numPoints) {
+    ArgChecker.notNegative(numPoints, "numPoints");
+    return slice(0, Math.min(numPoints, size));
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries tailSeries(int numPoints) {
+    ArgChecker.notNegative(numPoints, "numPoints");
+    return slice(size - Math.min(numPoints, size), size);
+  }
+
+  // a view of the points from the start index inclusive to the end index exclusive
+  private LocalDateDoubleTimeSeries slice(int startPos, int endPos) {
+    if (startPos >= endPos) {
+      return LocalDateDoubleTimeSeries.empty();
+    }
+    if (startPos == 0 && endPos == size) {
+      return this;
+    }
+    return new MappedLocalDateDoubleTimeSeries(buffer, offset + startPos * POINT_SIZE, endPos - startPos);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Stream<LocalDateDoublePoint> stream() {
+    return IntStream.range(0, size).mapToObj(i -> LocalDateDoublePoint.of(date(i), value(i)));
+  }
+
+  @Override
+  public Stream<LocalDate> dates() {
+    return IntStream.range(0, size).mapToObj(this::date);
+  }
+
+  @Override
+  public DoubleStream values() {
+    return IntStream.range(0, size).mapToDouble(this::value);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void forEach(ObjDoubleConsumer<LocalDate> action) {
+    ArgChecker.notNull(action, "action");
+    for (int i = 0; i < size; i++) {
+      action.accept(date(i), value(i));
+    }
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries mapDates(Function<? super LocalDate, ? extends LocalDate> mapper) {
+    ArgChecker.notNull(mapper, "mapper");
+    LocalDateDoubleTimeSeries copy = toBuilder().build();
+    return copy.mapDates(mapper);
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries mapValues(DoubleUnaryOperator mapper) {
+    ArgChecker.notNull(mapper, "mapper");
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    forEach((date, value) -> builder.put(date, mapper.applyAsDouble(value)));
+    return builder.build();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries filter(ObjDoublePredicate<LocalDate> predicate) {
+    ArgChecker.notNull(predicate, "predicate");
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    forEach((date, value) -> {
+      if (predicate.test(date, value)) {
+        builder.put(date, value);
+      }
+    });
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public LocalDateDoubleTimeSeriesBuilder toBuilder() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    forEach(builder::put);
+    return builder;
+  }
+
+  /**
+   * Replaces this time-series with a standard time-series when serialized.
+   * <p>
+   * The buffer cannot be serialized, thus the points are copied.
+   *
+   * @return the standard time-series
+   */
+  private Object writeReplace() {
+    return toBuilder().build();
+  }
+
+  //-------------------------------------------------------------------------
+  // the date of the point at the index
+  private LocalDate date(int index) {
+    return LocalDate.ofEpochDay(epochDay(index));
+  }
+
+  // the epoch-day of the point at the index
+  private long epochDay(int index) {
+    return buffer.getLong(offset + index * POINT_SIZE);
+  }
+
+  // the value of the point at the index
+  private double value(int index) {
+    return buffer.getDouble(offset + index * POINT_SIZE + Long.BYTES);
+  }
+
+  // binary search for the date, with the same result as Arrays.binarySearch
+  private int findDatePosition(LocalDate date) {
+    long epochDay = date.toEpochDay();
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long midEpochDay = epochDay(mid);
+      if (midEpochDay < epochDay) {
+        low = mid + 1;
+      } else if (midEpochDay > epochDay) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof MappedLocalDateDoubleTimeSeries) {
+      MappedLocalDateDoubleTimeSeries other = (MappedLocalDateDoubleTimeSeries) obj;
+      if (size != other.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (epochDay(i) != other.epochDay(i) ||
+            Double.doubleToLongBits(value(i)) != Double.doubleToLongBits(other.value(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = 0; i < size; i++) {
+      hash = 31 * hash + Long.hashCode(epochDay(i));
+      hash = 31 * hash + Double.hashCode(value(i));
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return stream()
+        .map(LocalDateDoublePoint::toString)
+        .collect(Collectors.joining(", ", "[", "]"));
+  }
+
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ser.JodaBeanSer;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * Reads and writes market data using a compact, versioned binary format.
+ * <p>
+ * The snapshot is intended to allow a process to be restarted without building the market data again.
+ * Values are written in blocks by type:
+ * <ul>
+ *   <li>values of type {@code Double} and {@link DoubleScenarioArray} are written as primitive doubles
+ *   <li>values of type {@link FxRate} and {@link FxRateScenarioArray} are written as a currency pair
+ *     and primitive doubles
+ *   <li>time-series are written as primitive epoch-day and value pairs
+ *   <li>all other values, such as curves, are written together using the Joda-Beans binary format
+ * </ul>
+ * The identifiers are written using the Joda-Beans binary format and must be Joda-Beans.
+ * All values not written as primitives must be Joda-Beans or be convertible to a string using Joda-Convert.
+ * <p>
+ * The snapshot is read using a single sequential pass. The streams are neither buffered nor closed
+ * by the methods of this class, so callers should typically pass buffered streams. The stream is
+ * only read up to the end of the snapshot, thus other data may follow the snapshot in the stream.
+ */
+public final class BinaryMarketDataSnapshot {
+
+  /** The marker at the start of the snapshot. */
+  private static final int MAGIC = 0x4F474D44;
+  /** The version of the snapshot format. */
+  private static final int VERSION = 1;
+  /** The type of snapshot containing {@code ImmutableMarketData}. */
+  private static final byte MARKET_DATA = 1;
+  /** The type of snapshot containing {@code ImmutableScenarioMarketData}. */
+  private static final byte SCENARIO_MARKET_DATA = 2;
+  /** The count written in place of the number of scenarios when a box contains a single value. */
+  private static final int SINGLE_VALUE = -1;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a snapshot of the market data.
+   *
+   * @param marketData  the market data
+   * @param out  the stream to write to
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if an identifier or value cannot be written
+   */
+  public static void write(ImmutableMarketData marketData, OutputStream out) {
+    ArgChecker.notNull(marketData, "marketData");
+    ArgChecker.notNull(out, "out");
+    Map<MarketDataId<?>, MarketDataBox<?>> values = MapStream.of(marketData.getValues())
+        .<MarketDataBox<?>>mapValues(MarketDataBox::ofSingleValue)
+        .toMap();
+    Unchecked.wrap(() -> write(
+        new DataOutputStream(out),
+        MARKET_DATA,
+        1,
+        MarketDataBox.ofSingleValue(marketData.getValuationDate()),
+        values,
+        marketData.getTimeSeries()));
+  }
+
+  /**
+   * Writes a snapshot of the scenario market data.
+   *
+   * @param marketData  the market data
+   * @param out  the stream to write to
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if an identifier or value cannot be written
+   */
+  public static void write(ImmutableScenarioMarketData marketData, OutputStream out) {
+    ArgChecker.notNull(marketData, "marketData");
+    ArgChecker.notNull(out, "out");
+    Unchecked.wrap(() -> write(
+        new DataOutputStream(out),
+        SCENARIO_MARKET_DATA,
+        marketData.getScenarioCount(),
+        marketData.getValuationDate(),
+        marketData.getValues(),
+        marketData.getTimeSeries()));
+  }
+
+  /**
+   * Reads a snapshot of market data written by {@link #write(ImmutableMarketData, OutputStream)}.
+   *
+   * @param in  the stream to read from
+   * @return the market data
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the stream does not contain a valid snapshot of market data
+   */
+  public static ImmutableMarketData readMarketData(InputStream in) {
+    ArgChecker.notNull(in, "in");
+    ImmutableScenarioMarketData marketData = Unchecked.wrap(() -> read(new DataInputStream(in), MARKET_DATA));
+    Map<MarketDataId<?>, Object> values = MapStream.of(marketData.getValues())
+        .<Object>mapValues(MarketDataBox::getSingleValue)
+        .toMap();
+    return ImmutableMarketData.builder(marketData.getValuationDate().getSingleValue())
+        .values(values)
+        .timeSeries(marketData.getTimeSeries())
+        .build();
+  }
+
+  /**
+   * Reads a snapshot of scenario market data written by {@link #write(ImmutableScenarioMarketData, OutputStream)}.
+   *
+   * @param in  the stream to read from
+   * @return the market data
+   * @throws java.io.UncheckedIOException if an IO error occurs
+   * @throws IllegalArgumentException if the stream does not contain a valid snapshot of scenario market data
+   */
+  public static ImmutableScenarioMarketData readScenarioMarketData(InputStream in) {
+    ArgChecker.notNull(in, "in");
+    return Unchecked.wrap(() -> read(new DataInputStream(in), SCENARIO_MARKET_DATA));
+  }
+
+  //-------------------------------------------------------------------------
+  // writes the snapshot
+  private static void write(
+      DataOutputStream out,
+      byte type,
+      int scenarioCount,
+      MarketDataBox<LocalDate> valuationDate,
+      Map<? extends MarketDataId<?>, ? extends MarketDataBox<?>> values,
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) throws IOException {
+
+    // split the values into blocks by type
+    Map<MarketDataId<?>, MarketDataBox<?>> doubles = new LinkedHashMap<>();
+    Map<MarketDataId<?>, MarketDataBox<?>> fxRates = new LinkedHashMap<>();
+    Map<MarketDataId<?>, MarketDataBox<?>> others = new LinkedHashMap<>();
+    for (Map.Entry<? extends MarketDataId<?>, ? extends MarketDataBox<?>> entry : values.entrySet()) {
+      MarketDataBox<?> box = entry.getValue();
+      Object value = box.isSingleValue() ? box.getSingleValue() : box.getScenarioValue();
+      if (value instanceof Double || value instanceof DoubleScenarioArray) {
+        doubles.put(entry.getKey(), box);
+      } else if (value instanceof FxRate || value instanceof FxRateScenarioArray) {
+        fxRates.put(entry.getKey(), box);
+      } else if (box instanceof Bean) {
+        others.put(entry.getKey(), box);
+      } else {
+        others.put(entry.getKey(), MarketDataBox.ofScenarioValue(box.getScenarioValue()));
+      }
+    }
+
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeByte(type);
+    out.writeInt(scenarioCount);
+    writeDates(out, valuationDate);
+    writeDoubles(out, doubles);
+    writeFxRates(out, fxRates);
+    writeTimeSeries(out, timeSeries);
+    writeBlock(out, JodaBeanSer.COMPACT.binWriter().write(
+        ImmutableScenarioMarketData.of(scenarioCount, valuationDate, others, ImmutableMap.of())));
+    out.flush();
+  }
+
+  // writes the valuation dates
+  private static void writeDates(DataOutputStream out, MarketDataBox<LocalDate> dates) throws IOException {
+    if (dates.isSingleValue()) {
+      out.writeInt(SINGLE_VALUE);
+      out.writeLong(dates.getSingleValue().toEpochDay());
+    } else {
+      out.writeInt(dates.getScenarioCount());
+      for (int i = 0; i < dates.getScenarioCount(); i++) {
+        out.writeLong(dates.getValue(i).toEpochDay());
+      }
+    }
+  }
+
+  // writes the values that are doubles
+  private static void writeDoubles(
+      DataOutputStream out,
+      Map<MarketDataId<?>, MarketDataBox<?>> values) throws IOException {
+
+    out.writeInt(values.size());
+    for (Map.Entry<MarketDataId<?>, MarketDataBox<?>> entry : values.entrySet()) {
+      writeId(out, entry.getKey());
+      MarketDataBox<?> box = entry.getValue();
+      if (box.isSingleValue()) {
+        out.writeInt(SINGLE_VALUE);
+        out.writeDouble((Double) box.getSingleValue());
+      } else {
+        DoubleArray array = ((DoubleScenarioArray) box.getScenarioValue()).getValues();
+        out.writeInt(array.size());
+        for (int i = 0; i < array.size(); i++) {
+          out.writeDouble(array.get(i));
+        }
+      }
+    }
+  }
+
+  // writes the values that are FX rates
+  private static void writeFxRates(
+      DataOutputStream out,
+      Map<MarketDataId<?>, MarketDataBox<?>> values) throws IOException {
+
+    out.writeInt(values.size());
+    for (Map.Entry<MarketDataId<?>, MarketDataBox<?>> entry : values.entrySet()) {
+      writeId(out, entry.getKey());
+      MarketDataBox<?> box = entry.getValue();
+      if (box.isSingleValue()) {
+        FxRate rate = (FxRate) box.getSingleValue();
+        out.writeInt(SINGLE_VALUE);
+        writeCurrencyPair(out, rate.getPair());
+        out.writeDouble(rate.fxRate(rate.getPair()));
+      } else {
+        FxRateScenarioArray rates = (FxRateScenarioArray) box.getScenarioValue();
+        out.writeInt(rates.getScenarioCount());
+        writeCurrencyPair(out, rates.getPair());
+        for (int i = 0; i < rates.getScenarioCount(); i++) {
+          out.writeDouble(rates.fxRate(rates.getPair().getBase(), rates.getPair().getCounter(), i));
+        }
+      }
+    }
+  }
+
+  // writes the currency pair
+  private static void writeCurrencyPair(DataOutputStream out, CurrencyPair pair) throws IOException {
+    out.writeUTF(pair.getBase().getCode());
+    out.writeUTF(pair.getCounter().getCode());
+  }
+
+  // writes the time-series
+  private static void writeTimeSeries(
+      DataOutputStream out,
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) throws IOException {
+
+    out.writeInt(timeSeries.size());
+    for (Map.Entry<? extends ObservableId, LocalDateDoubleTimeSeries> entry : timeSeries.entrySet()) {
+      writeId(out, entry.getKey());
+      LocalDateDoubleTimeSeries series = entry.getValue();
+      out.writeInt(series.size());
+      for (LocalDate date : (Iterable<LocalDate>) series.dates()::iterator) {
+        out.writeLong(date.toEpochDay());
+      }
+      for (double value : (Iterable<Double>) series.values()::iterator) {
+        out.writeDouble(value);
+      }
+    }
+  }
+
+  // writes an identifier
+  private static void writeId(DataOutputStream out, MarketDataId<?> id) throws IOException {
+    if (!(id instanceof Bean)) {
+      throw new IllegalArgumentException(
+          Messages.format("Unable to write market data identifier '{}', identifiers must be Joda-Beans", id));
+    }
+    writeBlock(out, JodaBeanSer.COMPACT.binWriter().write((Bean) id));
+  }
+
+  // writes a block of bytes preceded by its length
+  private static void writeBlock(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  //-------------------------------------------------------------------------
+  // reads the snapshot
+  private static ImmutableScenarioMarketData read(DataInputStream in, byte expectedType) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IllegalArgumentException("Stream does not contain a market data snapshot");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException(Messages.format("Unsupported market data snapshot version: {}", version));
+    }
+    byte type = in.readByte();
+    if (type != expectedType) {
+      throw new IllegalArgumentException(Messages.format(
+          "Market data snapshot contains {}",
+          type == MARKET_DATA ? "ImmutableMarketData" : "ImmutableScenarioMarketData"));
+    }
+    int scenarioCount = in.readInt();
+    MarketDataBox<LocalDate> valuationDate = readDates(in);
+    Map<MarketDataId<?>, MarketDataBox<?>> values = new HashMap<>();
+    readDoubles(in, values);
+    readFxRates(in, values);
+    Map<ObservableId, LocalDateDoubleTimeSeries> timeSeries = readTimeSeries(in);
+    ImmutableScenarioMarketData others =
+        JodaBeanSer.COMPACT.binReader().read(readBlock(in), ImmutableScenarioMarketData.class);
+    values.putAll(others.getValues());
+    return ImmutableScenarioMarketData.of(scenarioCount, valuationDate, values, timeSeries);
+  }
+
+  // reads the valuation dates
+  private static MarketDataBox<LocalDate> readDates(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    if (count == SINGLE_VALUE) {
+      return MarketDataBox.ofSingleValue(LocalDate.ofEpochDay(in.readLong()));
+    }
+    List<LocalDate> dates = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      dates.add(LocalDate.ofEpochDay(in.readLong()));
+    }
+    return MarketDataBox.ofScenarioValues(dates);
+  }
+
+  // reads the values that are doubles
+  private static void readDoubles(
+      DataInputStream in,
+      Map<MarketDataId<?>, MarketDataBox<?>> values) throws IOException {
+
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      MarketDataId<?> id = readId(in);
+      int count = in.readInt();
+      if (count == SINGLE_VALUE) {
+        values.put(id, MarketDataBox.ofSingleValue(in.readDouble()));
+      } else {
+        values.put(id, MarketDataBox.ofScenarioValue(DoubleScenarioArray.of(readArray(in, count))));
+      }
+    }
+  }
+
+  // reads the values that are FX rates
+  private static void readFxRates(
+      DataInputStream in,
+      Map<MarketDataId<?>, MarketDataBox<?>> values) throws IOException {
+
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      MarketDataId<?> id = readId(in);
+      int count = in.readInt();
+      CurrencyPair pair = CurrencyPair.of(Currency.of(in.readUTF()), Currency.of(in.readUTF()));
+      if (count == SINGLE_VALUE) {
+        values.put(id, MarketDataBox.ofSingleValue(FxRate.of(pair, in.readDouble())));
+      } else {
+        values.put(id, MarketDataBox.ofScenarioValue(FxRateScenarioArray.of(pair, readArray(in, count))));
+      }
+    }
+  }
+
+  // reads the time-series
+  private static Map<ObservableId, LocalDateDoubleTimeSeries> readTimeSeries(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Map<ObservableId, LocalDateDoubleTimeSeries> timeSeries = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      MarketDataId<?> id = readId(in);
+      if (!(id instanceof ObservableId)) {
+        throw new IllegalArgumentException(
+            Messages.format("Market data snapshot contains time-series for invalid identifier '{}'", id));
+      }
+      int count = in.readInt();
+      List<LocalDate> dates = new ArrayList<>(count);
+      for (int j = 0; j < count; j++) {
+        dates.add(LocalDate.ofEpochDay(in.readLong()));
+      }
+      double[] values = new double[count];
+      for (int j = 0; j < count; j++) {
+        values[j] = in.readDouble();
+      }
+      timeSeries.put((ObservableId) id, LocalDateDoubleTimeSeries.builder().putAll(dates, values).build());
+    }
+    return timeSeries;
+  }
+
+  // reads an array of doubles
+  private static DoubleArray readArray(DataInputStream in, int count) throws IOException {
+    double[] array = new double[count];
+    for (int i = 0; i < count; i++) {
+      array[i] = in.readDouble();
+    }
+    return DoubleArray.ofUnsafe(array);
+  }
+
+  // reads an identifier
+  private static MarketDataId<?> readId(DataInputStream in) throws IOException {
+    return JodaBeanSer.COMPACT.binReader().read(readBlock(in), MarketDataId.class);
+  }
+
+  // reads a block of bytes preceded by its length
+  private static byte[] readBlock(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IllegalArgumentException("Market data snapshot is corrupt");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor.
+   */
+  private BinaryMarketDataSnapshot() {
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+
+/**
+ * A market data box containing values for multiple scenarios, where each value is created when it is requested.
+ * <p>
+ * The value for a scenario is created by a function, for example by applying a perturbation
+ * to a base value. This allows a large number of scenarios to be used without holding the values
+ * for every scenario in memory.
+ * <p>
+ * The most recently requested values are held in a small cache, avoiding creating the same value repeatedly.
+ * The size of the cache is typically the number of threads performing calculations.
+ * A cache size of zero means each value is created every time it is requested.
+ * <p>
+ * The boxes returned by the {@code map}, {@code mapWithIndex} and {@code combineWith} methods
+ * also create their values when requested. The {@link #getScenarioValue()} method creates
+ * the values for every scenario.
+ * <p>
+ * Two boxes are only equal if they are the same instance.
+ *
+ * @param <T>  the type of data held in the box
+ */
+final class LazyMarketDataBox<T> implements MarketDataBox<T> {
+
+  /** The number of scenarios. */
+  private final int scenarioCount;
+  /** The function that creates the value for a scenario. */
+  private final IntFunction<T> valueFunction;
+  /** The maximum number of values held in the cache. */
+  private final int cacheSize;
+  /** The most recently requested values, keyed by scenario index, guarded by this object. */
+  private final Map<Integer, T> cache;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that creates the value for each scenario using a function.
+   *
+   * @param <T> the type of the market data value
+   * @param scenarioCount  the number of scenarios
+   * @param valueFunction  the function that creates the value for a scenario from the scenario index
+   * @param cacheSize  the maximum number of values held in the cache, zero for no cache
+   * @return a box creating the value for each scenario when it is requested
+   */
+  static <T> LazyMarketDataBox<T> of(int scenarioCount, IntFunction<T> valueFunction, int cacheSize) {
+    return new LazyMarketDataBox<>(scenarioCount, valueFunction, cacheSize);
+  }
+
+  // restricted constructor
+  private LazyMarketDataBox(int scenarioCount, IntFunction<T> valueFunction, int cacheSize) {
+    this.scenarioCount = ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+    this.valueFunction = ArgChecker.notNull(valueFunction, "valueFunction");
+    this.cacheSize = ArgChecker.notNegative(cacheSize, "cacheSize");
+    this.cache = new LinkedHashMap<Integer, T>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+        return size() > LazyMarketDataBox.this.cacheSize;
+      }
+    };
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public T getSingleValue() {
+    throw new IllegalStateException("This box does not contain a single value");
+  }
+
+  @Override
+  public ScenarioArray<T> getScenarioValue() {
+    return ScenarioArray.of(scenarioCount, this::getValue);
+  }
+
+  @Override
+  public T getValue(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    if (cacheSize == 0) {
+      return valueFunction.apply(scenarioIndex);
+    }
+    synchronized (cache) {
+      T cached = cache.get(scenarioIndex);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    // the value is created outside the lock, so other scenarios can be requested at the same time
+    T value = valueFunction.apply(scenarioIndex);
+    synchronized (cache) {
+      cache.put(scenarioIndex, value);
+    }
+    return value;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return false;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public Class<?> getMarketDataType() {
+    return getValue(0).getClass();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public <R> MarketDataBox<R> map(Function<T, R> fn) {
+    return new LazyMarketDataBox<>(scenarioCount, i -> fn.apply(getValue(i)), cacheSize);
+  }
+
+  @Override
+  public <R> MarketDataBox<R> mapWithIndex(int scenarioCount, ObjIntFunction<T, R> fn) {
+    if (scenarioCount != this.scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario count {} does not equal the scenario count of the value {}",
+              scenarioCount,
+              this.scenarioCount));
+    }
+    return new LazyMarketDataBox<>(scenarioCount, i -> fn.apply(getValue(i), i), cacheSize);
+  }
+
+  @Override
+  public <U, R> MarketDataBox<R> combineWith(MarketDataBox<U> other, BiFunction<T, U, R> fn) {
+    if (other.isScenarioValue() && other.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario values must have the same number of scenarios. {} has {} scenarios, {} has {}",
+              this,
+              scenarioCount,
+              other,
+              other.getScenarioCount()));
+    }
+    return new LazyMarketDataBox<>(scenarioCount, i -> fn.apply(getValue(i), other.getValue(i)), cacheSize);
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return IntStream.range(0, scenarioCount).mapToObj(this::getValue);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("LazyMarketDataBox[scenarioCount={}, cacheSize={}]", scenarioCount, cacheSize);
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.lang.invoke.MethodHandles;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * A scenario perturbation that creates the perturbed market data for each scenario when it is requested.
+ * <p>
+ * The box returned by this perturbation holds the market data and the underlying perturbation.
+ * The perturbed data for a scenario is created when it is requested from the box.
+ *
+ * @param <T>  the type of the market data handled by the perturbation
+ */
+@BeanDefinition(style = "light", constructorScope = "package")
+final class LazyScenarioPerturbation<T>
+    implements ScenarioPerturbation<T>, ImmutableBean {
+
+  /**
+   * The underlying perturbation.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ScenarioPerturbation<T> underlying;
+  /**
+   * The maximum number of perturbed values held by each box, zero for no cache.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int cacheSize;
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<T> applyTo(MarketDataBox<T> marketData, ReferenceData refData) {
+    int scenarioCount = underlying.getScenarioCount();
+    if (marketData.isScenarioValue() && marketData.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario count {} does not equal the scenario count of the value {}",
+              scenarioCount,
+              marketData.getScenarioCount()));
+    }
+    return LazyMarketDataBox.of(
+        scenarioCount, scenarioIndex -> underlying.applyToScenario(marketData, scenarioIndex, refData), cacheSize);
+  }
+
+  @Override
+  public T applyToScenario(MarketDataBox<T> marketData, int scenarioIndex, ReferenceData refData) {
+    return underlying.applyToScenario(marketData, scenarioIndex, refData);
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return underlying.getScenarioCount();
+  }
+
+  @Override
+  public Class<T> getMarketDataType() {
+    return underlying.getMarketDataType();
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code LazyScenarioPerturbation}.
+   */
+  private static final MetaBean META_BEAN =
+      LightMetaBean.of(
+          LazyScenarioPerturbation.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "underlying",
+              "cacheSize"},
+          new Object[0]);
+
+  /**
+   * The meta-bean for {@code LazyScenarioPerturbation}.
+   * @return the meta-bean, not null
+   */
+  public static MetaBean meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * Creates an instance.
+   * @param underlying  the value of the property, not null
+   * @param cacheSize  the value of the property
+   */
+  LazyScenarioPerturbation(
+      ScenarioPerturbation<T> underlying,
+      int cacheSize) {
+    JodaBeanUtils.notNull(underlying, "underlying");
+    ArgChecker.notNegative(cacheSize, "cacheSize");
+    this.underlying = underlying;
+    this.cacheSize = cacheSize;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public TypedMetaBean<LazyScenarioPerturbation<T>> metaBean() {
+    return (TypedMetaBean<LazyScenarioPerturbation<T>>) META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the underlying perturbation.
+   * @return the value of the property, not null
+   */
+  public ScenarioPerturbation<T> getUnderlying() {
+    return underlying;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum number of perturbed values held by each box, zero for no cache.
+   * @return the value of the property
+   */
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      LazyScenarioPerturbation<?> other = (LazyScenarioPerturbation<?>) obj;
+      return JodaBeanUtils.equal(underlying, other.underlying) &&
+          (cacheSize == other.cacheSize);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(underlying);
+    hash = hash * 31 + JodaBeanUtils.hashCode(cacheSize);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(96);
+    buf.append("LazyScenarioPerturbation{");
+    buf.append("underlying").append('=').append(underlying).append(',').append(' ');
+    buf.append("cacheSize").append('=').append(JodaBeanUtils.toString(cacheSize));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -34,6 +34,11 @@ final class NoOpScenarioPerturbation<T>
     return marketData;
   }
 
+  @Override
+  public T applyToScenario(MarketDataBox<T> marketData, int scenarioIndex, ReferenceData refData) {
+    return marketData.getValue(scenarioIndex);
+  }
+
   @Override
   public int getScenarioCount() {
     // A box with one scenario can be used for any number of scenarios
@@ -0,0 +1,713 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.NamedMarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * A set of observable quotes across multiple scenarios, held as a matrix of primitive values.
+ * <p>
+ * The quotes are held in a {@link DoubleMatrix} with one row for each scenario and one column
+ * for each observable identifier. This avoids creating an object for every quote in every scenario,
+ * which matters when there are many scenarios, for example when each scenario is a historical date.
+ * <p>
+ * Quotes for all scenarios are returned as a {@link DoubleScenarioArray}.
+ * Other market data, such as curves, can be added by combining this with another set of market data
+ * using {@link #combinedWith(ScenarioMarketData)}.
+ * <p>
+ * Historical quotes, such as those returned by {@code QuotesCsvLoader.loadAllDates}, can be converted
+ * using {@link #ofHistoricalQuotes(LocalDate, Map)}.
+ */
+@BeanDefinition(builderScope = "private", constructorScope = "package")
+public final class QuoteScenarioMarketData
+    implements ScenarioMarketData, ImmutableBean, Serializable {
+
+  /**
+   * The number of scenarios.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegativeOrZero", overrideGet = true)
+  private final int scenarioCount;
+  /**
+   * The valuation date associated with each scenario.
+   */
+  @PropertyDefinition(validate = "notNull", overrideGet = true)
+  private final MarketDataBox<LocalDate> valuationDate;
+  /**
+   * The identifiers of the quotes, one for each column of the matrix.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<ObservableId> quoteIds;
+  /**
+   * The quotes, with one row for each scenario and one column for each identifier.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleMatrix quotes;
+  /**
+   * The time-series of market data values.
+   * <p>
+   * If a request is made for a time-series that is not in the map, an empty series will be returned.
+   */
+  @PropertyDefinition(validate = "notNull", builderType = "Map<? extends ObservableId, LocalDateDoubleTimeSeries>")
+  private final ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> timeSeries;
+  /**
+   * The index of the column of each quote, keyed by identifier.
+   */
+  private final transient ImmutableMap<ObservableId, Integer> columns;  // not a property
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a valuation date, the identifiers of the quotes and the matrix of quotes.
+   * <p>
+   * The matrix has one row for each scenario and one column for each identifier.
+   *
+   * @param valuationDate  the valuation date associated with all scenarios
+   * @param quoteIds  the identifiers of the quotes, one for each column of the matrix
+   * @param quotes  the quotes, with one row for each scenario and one column for each identifier
+   * @return the market data
+   */
+  public static QuoteScenarioMarketData of(
+      LocalDate valuationDate,
+      List<? extends ObservableId> quoteIds,
+      DoubleMatrix quotes) {
+
+    return of(MarketDataBox.ofSingleValue(valuationDate), quoteIds, quotes, ImmutableMap.of());
+  }
+
+  /**
+   * Obtains an instance from the valuation dates, the identifiers of the quotes, the matrix of quotes
+   * and time-series.
+   * <p>
+   * The matrix has one row for each scenario and one column for each identifier.
+   *
+   * @param valuationDate  the valuation dates associated with the market data, one for each scenario
+   * @param quoteIds  the identifiers of the quotes, one for each column of the matrix
+   * @param quotes  the quotes, with one row for each scenario and one column for each identifier
+   * @param timeSeries  the time-series
+   * @return the market data
+   */
+  public static QuoteScenarioMarketData of(
+      MarketDataBox<LocalDate> valuationDate,
+      List<? extends ObservableId> quoteIds,
+      DoubleMatrix quotes,
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) {
+
+    ArgChecker.notNull(quotes, "quotes");
+    return new QuoteScenarioMarketData(quotes.rowCount(), valuationDate, quoteIds, quotes, timeSeries);
+  }
+
+  /**
+   * Obtains an instance from historical quotes, with one scenario for each date.
+   * <p>
+   * The scenarios are in chronological order of the historical dates, and each has the specified valuation date.
+   * The quotes are copied into the matrix as the map is read, so the map can be discarded afterwards.
+   * When loading quotes from CSV files, {@code QuotesCsvLoader.loadScenarioMarketData} should be used instead,
+   * as it adds each quote to the matrix as it is read, avoiding the map of boxed quotes.
+   * <p>
+   * Every date must have a quote for every identifier that appears on any date.
+   *
+   * @param valuationDate  the valuation date associated with all scenarios
+   * @param historicalQuotes  the quotes, keyed by historical date
+   * @return the market data
+   * @throws IllegalArgumentException if a date is missing a quote
+   */
+  public static QuoteScenarioMarketData ofHistoricalQuotes(
+      LocalDate valuationDate,
+      Map<LocalDate, ? extends Map<? extends ObservableId, Double>> historicalQuotes) {
+
+    ArgChecker.notEmpty(historicalQuotes, "historicalQuotes");
+    List<LocalDate> dates = historicalQuotes.keySet().stream().sorted().collect(toImmutableList());
+    Map<ObservableId, Integer> columns = new LinkedHashMap<>();
+    for (LocalDate date : dates) {
+      for (ObservableId id : historicalQuotes.get(date).keySet()) {
+        columns.putIfAbsent(id, columns.size());
+      }
+    }
+    double[][] quotes = new double[dates.size()][];
+    for (int row = 0; row < dates.size(); row++) {
+      LocalDate date = dates.get(row);
+      Map<? extends ObservableId, Double> dateQuotes = historicalQuotes.get(date);
+      if (dateQuotes.size() != columns.size()) {
+        ObservableId missingId = columns.keySet().stream()
+            .filter(id -> !dateQuotes.containsKey(id))
+            .findFirst()
+            .get();
+        throw new IllegalArgumentException(
+            Messages.format("No quote found for identifier '{}' on date {}", missingId, date));
+      }
+      double[] rowQuotes = new double[columns.size()];
+      for (Map.Entry<? extends ObservableId, Double> entry : dateQuotes.entrySet()) {
+        rowQuotes[columns.get(entry.getKey())] = entry.getValue();
+      }
+      quotes[row] = rowQuotes;
+    }
+    return of(
+        MarketDataBox.ofSingleValue(valuationDate),
+        ImmutableList.copyOf(columns.keySet()),
+        DoubleMatrix.ofUnsafe(quotes),
+        ImmutableMap.of());
+  }
+
+  @ImmutableConstructor
+  QuoteScenarioMarketData(
+      int scenarioCount,
+      MarketDataBox<LocalDate> valuationDate,
+      List<? extends ObservableId> quoteIds,
+      DoubleMatrix quotes,
+      Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries) {
+
+    ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+    JodaBeanUtils.notNull(valuationDate, "valuationDate");
+    JodaBeanUtils.notNull(quoteIds, "quoteIds");
+    JodaBeanUtils.notNull(quotes, "quotes");
+    JodaBeanUtils.notNull(timeSeries, "timeSeries");
+    if (quotes.columnCount() != quoteIds.size() || (!quoteIds.isEmpty() && quotes.rowCount() != scenarioCount)) {
+      throw new IllegalArgumentException(Messages.format(
+          "Quote matrix should have {} rows and {} columns but had {} rows and {} columns",
+          scenarioCount, quoteIds.size(), quotes.rowCount(), quotes.columnCount()));
+    }
+    if (valuationDate.isScenarioValue() && valuationDate.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Valuation date should have {} scenarios but had {}", scenarioCount, valuationDate.getScenarioCount()));
+    }
+    this.scenarioCount = scenarioCount;
+    this.valuationDate = valuationDate;
+    this.quoteIds = ImmutableList.copyOf(quoteIds);
+    this.quotes = quotes;
+    this.timeSeries = ImmutableMap.copyOf(timeSeries);
+    Map<ObservableId, Integer> columns = new HashMap<>();
+    for (int i = 0; i < this.quoteIds.size(); i++) {
+      if (columns.put(this.quoteIds.get(i), i) != null) {
+        throw new IllegalArgumentException(
+            Messages.format("Quote identifiers must be unique but found duplicate '{}'", this.quoteIds.get(i)));
+      }
+    }
+    this.columns = ImmutableMap.copyOf(columns);
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new QuoteScenarioMarketData(scenarioCount, valuationDate, quoteIds, quotes, timeSeries);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the quote for an identifier in a scenario.
+   *
+   * @param id  the identifier of the quote
+   * @param scenarioIndex  the index of the scenario
+   * @return the quote
+   * @throws MarketDataNotFoundException if the identifier is not found
+   * @throws IllegalArgumentException if the scenario index is invalid
+   */
+  public double getQuote(ObservableId id, int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    return quotes.get(scenarioIndex, column(id));
+  }
+
+  /**
+   * Gets the quotes for an identifier in all scenarios.
+   *
+   * @param id  the identifier of the quote
+   * @return the quotes, one for each scenario
+   * @throws MarketDataNotFoundException if the identifier is not found
+   */
+  public DoubleScenarioArray getQuotes(ObservableId id) {
+    return DoubleScenarioArray.of(quotes.column(column(id)));
+  }
+
+  // finds the column of the identifier
+  private int column(MarketDataId<?> id) {
+    Integer column = columns.get(id);
+    if (column == null) {
+      throw new MarketDataNotFoundException(Messages.format(
+          "Market data not found for identifier '{}' of type '{}'", id, id.getClass().getSimpleName()));
+    }
+    return column;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns market data for a single scenario.
+   * <p>
+   * This returns a copy of the quotes in the scenario, avoiding the cost of finding the quotes for
+   * all scenarios when a single scenario is queried.
+   *
+   * @param scenarioIndex  the scenario index
+   * @return the market data of the specified scenario
+   * @throws IllegalArgumentException if the scenario index is invalid
+   */
+  @Override
+  public MarketData scenario(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    Map<ObservableId, Double> values = new HashMap<>();
+    if (!quoteIds.isEmpty()) {
+      double[] row = quotes.rowArray(scenarioIndex);
+      for (int i = 0; i < row.length; i++) {
+        values.put(quoteIds.get(i), row[i]);
+      }
+    }
+    return ImmutableMarketData.builder(valuationDate.getValue(scenarioIndex))
+        .values(values)
+        .timeSeries(timeSeries)
+        .build();
+  }
+
+  @Override
+  public Stream<MarketData> scenarios() {
+    return IntStream.range(0, scenarioCount).mapToObj(this::scenario);
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    // overridden for performance
+    return columns.containsKey(id);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    // overridden for performance
+    return (MarketDataBox<T>) MarketDataBox.ofScenarioValue(DoubleScenarioArray.of(quotes.column(column(id))));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    Integer column = columns.get(id);
+    if (column == null) {
+      return Optional.empty();
+    }
+    return Optional.of((MarketDataBox<T>) MarketDataBox.ofScenarioValue(DoubleScenarioArray.of(quotes.column(column))));
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return Collections.unmodifiableSet(columns.keySet());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return quoteIds.stream()
+        .filter(id -> id instanceof NamedMarketDataId)
+        .filter(id -> ((NamedMarketDataId<?>) id).getMarketDataName().equals(name))
+        .map(id -> (MarketDataId<T>) id)
+        .collect(toImmutableSet());
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return timeSeries.keySet();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    LocalDateDoubleTimeSeries found = timeSeries.get(id);
+    return found == null ? LocalDateDoubleTimeSeries.empty() : found;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code QuoteScenarioMarketData}.
+   * @return the meta-bean, not null
+   */
+  public static QuoteScenarioMarketData.Meta meta() {
+    return QuoteScenarioMarketData.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(QuoteScenarioMarketData.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  public QuoteScenarioMarketData.Meta metaBean() {
+    return QuoteScenarioMarketData.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of scenarios.
+   * @return the value of the property
+   */
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the valuation date associated with each scenario.
+   * @return the value of the property, not null
+   */
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return valuationDate;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the identifiers of the quotes, one for each column of the matrix.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<ObservableId> getQuoteIds() {
+    return quoteIds;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the quotes, with one row for each scenario and one column for each identifier.
+   * @return the value of the property, not null
+   */
+  public DoubleMatrix getQuotes() {
+    return quotes;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the time-series of market data values.
+   * <p>
+   * If a request is made for a time-series that is not in the map, an empty series will be returned.
+   * @return the value of the property, not null
+   */
+  public ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> getTimeSeries() {
+    return timeSeries;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      QuoteScenarioMarketData other = (QuoteScenarioMarketData) obj;
+      return (scenarioCount == other.scenarioCount) &&
+          JodaBeanUtils.equal(valuationDate, other.valuationDate) &&
+          JodaBeanUtils.equal(quoteIds, other.quoteIds) &&
+          JodaBeanUtils.equal(quotes, other.quotes) &&
+          JodaBeanUtils.equal(timeSeries, other.timeSeries);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(scenarioCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(valuationDate);
+    hash = hash * 31 + JodaBeanUtils.hashCode(quoteIds);
+    hash = hash * 31 + JodaBeanUtils.hashCode(quotes);
+    hash = hash * 31 + JodaBeanUtils.hashCode(timeSeries);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(192);
+    buf.append("QuoteScenarioMarketData{");
+    buf.append("scenarioCount").append('=').append(scenarioCount).append(',').append(' ');
+    buf.append("valuationDate").append('=').append(valuationDate).append(',').append(' ');
+    buf.append("quoteIds").append('=').append(quoteIds).append(',').append(' ');
+    buf.append("quotes").append('=').append(quotes).append(',').append(' ');
+    buf.append("timeSeries").append('=').append(JodaBeanUtils.toString(timeSeries));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code QuoteScenarioMarketData}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code scenarioCount} property.
+     */
+    private final MetaProperty<Integer> scenarioCount = DirectMetaProperty.ofImmutable(
+        this, "scenarioCount", QuoteScenarioMarketData.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code valuationDate} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<MarketDataBox<LocalDate>> valuationDate = DirectMetaProperty.ofImmutable(
+        this, "valuationDate", QuoteScenarioMarketData.class, (Class) MarketDataBox.class);
+    /**
+     * The meta-property for the {@code quoteIds} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableList<ObservableId>> quoteIds = DirectMetaProperty.ofImmutable(
+        this, "quoteIds", QuoteScenarioMarketData.class, (Class) ImmutableList.class);
+    /**
+     * The meta-property for the {@code quotes} property.
+     */
+    private final MetaProperty<DoubleMatrix> quotes = DirectMetaProperty.ofImmutable(
+        this, "quotes", QuoteScenarioMarketData.class, DoubleMatrix.class);
+    /**
+     * The meta-property for the {@code timeSeries} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableMap<ObservableId, LocalDateDoubleTimeSeries>> timeSeries = DirectMetaProperty.ofImmutable(
+        this, "timeSeries", QuoteScenarioMarketData.class, (Class) ImmutableMap.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "scenarioCount",
+        "valuationDate",
+        "quoteIds",
+        "quotes",
+        "timeSeries");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -1203198113:  // scenarioCount
+          return scenarioCount;
+        case 113107279:  // valuationDate
+          return valuationDate;
+        case -879133028:  // quoteIds
+          return quoteIds;
+        case -948399753:  // quotes
+          return quotes;
+        case 779431844:  // timeSeries
+          return timeSeries;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends QuoteScenarioMarketData> builder() {
+      return new QuoteScenarioMarketData.Builder();
+    }
+
+    @Override
+    public Class<? extends QuoteScenarioMarketData> beanType() {
+      return QuoteScenarioMarketData.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code scenarioCount} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> scenarioCount() {
+      return scenarioCount;
+    }
+
+    /**
+     * The meta-property for the {@code valuationDate} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<MarketDataBox<LocalDate>> valuationDate() {
+      return valuationDate;
+    }
+
+    /**
+     * The meta-property for the {@code quoteIds} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableList<ObservableId>> quoteIds() {
+      return quoteIds;
+    }
+
+    /**
+     * The meta-property for the {@code quotes} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleMatrix> quotes() {
+      return quotes;
+    }
+
+    /**
+     * The meta-property for the {@code timeSeries} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableMap<ObservableId, LocalDateDoubleTimeSeries>> timeSeries() {
+      return timeSeries;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case -1203198113:  // scenarioCount
+          return ((QuoteScenarioMarketData) bean).getScenarioCount();
+        case 113107279:  // valuationDate
+          return ((QuoteScenarioMarketData) bean).getValuationDate();
+        case -879133028:  // quoteIds
+          return ((QuoteScenarioMarketData) bean).getQuoteIds();
+        case -948399753:  // quotes
+          return ((QuoteScenarioMarketData) bean).getQuotes();
+        case 779431844:  // timeSeries
+          return ((QuoteScenarioMarketData) bean).getTimeSeries();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code QuoteScenarioMarketData}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<QuoteScenarioMarketData> {
+
+    private int scenarioCount;
+    private MarketDataBox<LocalDate> valuationDate;
+    private List<ObservableId> quoteIds = ImmutableList.of();
+    private DoubleMatrix quotes;
+    private Map<? extends ObservableId, LocalDateDoubleTimeSeries> timeSeries = ImmutableMap.of();
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -1203198113:  // scenarioCount
+          return scenarioCount;
+        case 113107279:  // valuationDate
+          return valuationDate;
+        case -879133028:  // quoteIds
+          return quoteIds;
+        case -948399753:  // quotes
+          return quotes;
+        case 779431844:  // timeSeries
+          return timeSeries;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case -1203198113:  // scenarioCount
+          this.scenarioCount = (Integer) newValue;
+          break;
+        case 113107279:  // valuationDate
+          this.valuationDate = (MarketDataBox<LocalDate>) newValue;
+          break;
+        case -879133028:  // quoteIds
+          this.quoteIds = (List<ObservableId>) newValue;
+          break;
+        case -948399753:  // quotes
+          this.quotes = (DoubleMatrix) newValue;
+          break;
+        case 779431844:  // timeSeries
+          this.timeSeries = (Map<? extends ObservableId, LocalDateDoubleTimeSeries>) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public QuoteScenarioMarketData build() {
+      return new QuoteScenarioMarketData(
+          scenarioCount,
+          valuationDate,
+          quoteIds,
+          quotes,
+          timeSeries);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(192);
+      buf.append("QuoteScenarioMarketData.Builder{");
+      buf.append("scenarioCount").append('=').append(JodaBeanUtils.toString(scenarioCount)).append(',').append(' ');
+      buf.append("valuationDate").append('=').append(JodaBeanUtils.toString(valuationDate)).append(',').append(' ');
+      buf.append("quoteIds").append('=').append(JodaBeanUtils.toString(quoteIds)).append(',').append(' ');
+      buf.append("quotes").append('=').append(JodaBeanUtils.toString(quotes)).append(',').append(' ');
+      buf.append("timeSeries").append('=').append(JodaBeanUtils.toString(timeSeries));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
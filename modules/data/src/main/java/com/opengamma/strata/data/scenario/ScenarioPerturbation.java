@@ -35,6 +35,27 @@ public interface ScenarioPerturbation<T> {
     return (ScenarioPerturbation<T>) NoOpScenarioPerturbation.INSTANCE;
   }
 
+  /**
+   * Returns an instance that creates the perturbed market data for each scenario when it is requested.
+   * <p>
+   * The box returned by {@link #applyTo(MarketDataBox, ReferenceData)} holds the market data and
+   * the underlying perturbation, rather than the perturbed market data for every scenario.
+   * The perturbed data for a scenario is created using {@link #applyToScenario(MarketDataBox, int, ReferenceData)}
+   * when it is requested, and the most recently requested data is held in a cache of the specified size.
+   * <p>
+   * This is useful when there are a large number of scenarios, as the memory used depends on the
+   * size of the cache rather than the number of scenarios. The cache size is typically the number
+   * of threads performing calculations.
+   *
+   * @param <T>  the type of the market data handled by the perturbation
+   * @param perturbation  the underlying perturbation
+   * @param cacheSize  the maximum number of perturbed values held by each box, zero for no cache
+   * @return a perturbation that creates the perturbed market data when it is requested
+   */
+  public static <T> ScenarioPerturbation<T> lazy(ScenarioPerturbation<T> perturbation, int cacheSize) {
+    return new LazyScenarioPerturbation<>(perturbation, cacheSize);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Applies this perturbation to the market data in a box, returning a box containing new, modified data.
@@ -49,6 +70,24 @@ public interface ScenarioPerturbation<T> {
    */
   public abstract MarketDataBox<T> applyTo(MarketDataBox<T> marketData, ReferenceData refData);
 
+  /**
+   * Applies this perturbation to the market data in a box, returning the modified data for a single scenario.
+   * <p>
+   * The result is the same as the value for the scenario in the box returned by
+   * {@link #applyTo(MarketDataBox, ReferenceData)}.
+   * The default implementation invokes that method, implementations should override this method
+   * to only perturb the data for the specified scenario.
+   *
+   * @param marketData  the market data to perturb
+   * @param scenarioIndex  the index of the scenario
+   * @param refData  the reference data
+   * @return new market data for the scenario derived by applying the perturbation to the input data
+   * @throws RuntimeException if unable to perform the perturbation
+   */
+  public default T applyToScenario(MarketDataBox<T> marketData, int scenarioIndex, ReferenceData refData) {
+    return applyTo(marketData, refData).getValue(scenarioIndex);
+  }
+
   /**
    * Returns the number of scenarios for which this perturbation generates data.
    *
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Test {@link BinaryTimeSeriesFile}.
+ */
+@Test
+public class BinaryTimeSeriesFileTest {
+
+  private static final TestingObservableId ID1 = new TestingObservableId("1");
+  private static final TestingObservableId ID2 = new TestingObservableId("2");
+  private static final TestingObservableId ID3 = new TestingObservableId("3");
+  private static final LocalDateDoubleTimeSeries SERIES1 = LocalDateDoubleTimeSeries.builder()
+      .put(date(2015, 1, 5), 1d)
+      .put(date(2015, 1, 6), 2d)
+      .put(date(2015, 1, 7), 3d)
+      .build();
+  private static final LocalDateDoubleTimeSeries SERIES2 = LocalDateDoubleTimeSeries.builder()
+      .put(date(2015, 1, 5), 10d)
+      .put(date(2015, 1, 9), 20d)
+      .build();
+
+  private Path file;
+
+  @BeforeMethod
+  public void createFile() throws IOException {
+    file = Files.createTempFile("strata-timeseries", ".bin");
+  }
+
+  @AfterMethod
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_write_of() {
+    BinaryTimeSeriesFile.write(
+        file, ImmutableMap.of(ID1, SERIES1, ID2, SERIES2, ID3, LocalDateDoubleTimeSeries.empty()));
+    BinaryTimeSeriesFile test = BinaryTimeSeriesFile.of(file);
+    assertThat(test.getFile()).isEqualTo(file);
+    assertThat(test.containsTimeSeries(ID1)).isTrue();
+    assertThat(test.containsTimeSeries(new TestingObservableId("4"))).isFalse();
+    assertThat(test.findTimeSeries(ID1).get()).isInstanceOf(MappedLocalDateDoubleTimeSeries.class);
+    assertThat(test.findTimeSeries(ID1).get().toBuilder().build()).isEqualTo(SERIES1);
+    assertThat(test.findTimeSeries(ID2).get().toBuilder().build()).isEqualTo(SERIES2);
+    assertThat(test.findTimeSeries(ID3).get().isEmpty()).isTrue();
+    assertThat(test.findTimeSeries(new TestingObservableId("4"))).isEqualTo(Optional.empty());
+    assertThat(test.toString()).contains("timeSeries=3");
+  }
+
+  public void test_write_replacesFile() {
+    BinaryTimeSeriesFile.write(file, ImmutableMap.of(ID1, SERIES1));
+    BinaryTimeSeriesFile.write(file, ImmutableMap.of(ID2, SERIES2));
+    BinaryTimeSeriesFile test = BinaryTimeSeriesFile.of(file);
+    assertThat(test.containsTimeSeries(ID1)).isFalse();
+    assertThat(test.findTimeSeries(ID2).get().toBuilder().build()).isEqualTo(SERIES2);
+  }
+
+  public void test_append() throws IOException {
+    Files.delete(file);
+    BinaryTimeSeriesFile.append(file, ImmutableMap.of(ID1, SERIES1));
+    BinaryTimeSeriesFile before = BinaryTimeSeriesFile.of(file);
+    BinaryTimeSeriesFile.append(file, ImmutableMap.of(ID1, SERIES2, ID2, SERIES2));
+    BinaryTimeSeriesFile test = BinaryTimeSeriesFile.of(file);
+
+    // the blocks for an identifier are merged, with the later points replacing the earlier points
+    LocalDateDoubleTimeSeries expected = SERIES1.toBuilder()
+        .put(date(2015, 1, 5), 10d)
+        .put(date(2015, 1, 9), 20d)
+        .build();
+    assertThat(test.findTimeSeries(ID1)).hasValue(expected);
+    assertThat(test.findTimeSeries(ID2).get().toBuilder().build()).isEqualTo(SERIES2);
+    // the file opened before the append is not affected
+    assertThat(before.findTimeSeries(ID1).get().toBuilder().build()).isEqualTo(SERIES1);
+    assertThat(before.containsTimeSeries(ID2)).isFalse();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of_invalid() throws IOException {
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(() -> BinaryTimeSeriesFile.of(file), IllegalArgumentException.class, "File is not a valid.*");
+    assertThrows(
+        () -> BinaryTimeSeriesFile.append(file, ImmutableMap.of(ID1, SERIES1)),
+        IllegalArgumentException.class,
+        "File is not a valid.*");
+  }
+
+  public void test_of_truncated() throws IOException {
+    BinaryTimeSeriesFile.write(file, ImmutableMap.of(ID1, SERIES1));
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+    assertThrows(() -> BinaryTimeSeriesFile.of(file), IllegalArgumentException.class, ".*truncated or corrupt.*");
+  }
+
+  public void test_of_missingFile() throws IOException {
+    Files.delete(file);
+    assertThrows(() -> BinaryTimeSeriesFile.of(file), UncheckedIOException.class);
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.timeseries.LocalDateDoublePoint;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Test {@link MappedLocalDateDoubleTimeSeries}.
+ */
+@Test
+public class MappedLocalDateDoubleTimeSeriesTest {
+
+  private static final LocalDate DATE_2015_01_05 = date(2015, 1, 5);
+  private static final LocalDate DATE_2015_02_06 = date(2015, 2, 6);
+  private static final LocalDate DATE_2015_04_08 = date(2015, 4, 8);
+  private static final LocalDate DATE_2015_07_09 = date(2015, 7, 9);
+  private static final LocalDateDoubleTimeSeries EXPECTED = LocalDateDoubleTimeSeries.builder()
+      .put(DATE_2015_01_05, 1d)
+      .put(DATE_2015_02_06, 2d)
+      .put(DATE_2015_04_08, 3d)
+      .put(DATE_2015_07_09, 4d)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    assertThat(test.size()).isEqualTo(4);
+    assertThat(test.isEmpty()).isFalse();
+    assertThat(points(test)).isEqualTo(points(EXPECTED));
+    assertThat(test.dates().collect(Collectors.toList())).isEqualTo(EXPECTED.dates().collect(Collectors.toList()));
+    assertThat(test.values().toArray()).isEqualTo(EXPECTED.values().toArray());
+    assertThat(test.toString()).isEqualTo(EXPECTED.toString());
+  }
+
+  public void test_of_bufferTooSmall() {
+    assertThrowsIllegalArg(() -> MappedLocalDateDoubleTimeSeries.of(ByteBuffer.allocate(40), 0, 3));
+  }
+
+  public void test_get() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    assertThat(test.get(DATE_2015_02_06)).isEqualTo(OptionalDouble.of(2d));
+    assertThat(test.get(date(2015, 3, 7))).isEqualTo(OptionalDouble.empty());
+    assertThat(test.get(date(2015, 1, 1))).isEqualTo(OptionalDouble.empty());
+    assertThat(test.get(date(2015, 8, 10))).isEqualTo(OptionalDouble.empty());
+    assertThat(test.containsDate(DATE_2015_07_09)).isTrue();
+    assertThat(test.containsDate(date(2015, 3, 7))).isFalse();
+    assertThat(test.getEarliestDate()).isEqualTo(DATE_2015_01_05);
+    assertThat(test.getEarliestValue()).isEqualTo(1d);
+    assertThat(test.getLatestDate()).isEqualTo(DATE_2015_07_09);
+    assertThat(test.getLatestValue()).isEqualTo(4d);
+  }
+
+  public void test_empty() {
+    MappedLocalDateDoubleTimeSeries test = series(LocalDateDoubleTimeSeries.empty());
+    assertThat(test.isEmpty()).isTrue();
+    assertThat(test.get(DATE_2015_01_05)).isEqualTo(OptionalDouble.empty());
+    assertThrows(() -> test.getEarliestDate(), NoSuchElementException.class);
+    assertThrows(() -> test.getEarliestValue(), NoSuchElementException.class);
+    assertThrows(() -> test.getLatestDate(), NoSuchElementException.class);
+    assertThrows(() -> test.getLatestValue(), NoSuchElementException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_subSeries() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    assertThat(points(test.subSeries(DATE_2015_02_06, DATE_2015_07_09)))
+        .isEqualTo(points(EXPECTED.subSeries(DATE_2015_02_06, DATE_2015_07_09)));
+    assertThat(points(test.subSeries(date(2015, 3, 7), date(2015, 8, 12))))
+        .isEqualTo(points(EXPECTED.subSeries(date(2015, 3, 7), date(2015, 8, 12))));
+    assertThat(test.subSeries(date(2015, 1, 1), date(2015, 8, 12))).isSameAs(test);
+    assertThat(test.subSeries(DATE_2015_02_06, DATE_2015_02_06).isEmpty()).isTrue();
+    assertThrowsIllegalArg(() -> test.subSeries(DATE_2015_07_09, DATE_2015_02_06));
+  }
+
+  public void test_headSeries_tailSeries() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    assertThat(points(test.headSeries(2))).isEqualTo(points(EXPECTED.headSeries(2)));
+    assertThat(points(test.tailSeries(3))).isEqualTo(points(EXPECTED.tailSeries(3)));
+    assertThat(test.headSeries(0).isEmpty()).isTrue();
+    assertThat(test.tailSeries(0).isEmpty()).isTrue();
+    assertThat(test.headSeries(5)).isSameAs(test);
+    assertThat(test.tailSeries(5)).isSameAs(test);
+    assertThat(points(test.tailSeries(3).headSeries(1)))
+        .isEqualTo(points(LocalDateDoubleTimeSeries.of(DATE_2015_02_06, 2d)));
+    assertThrowsIllegalArg(() -> test.headSeries(-1));
+    assertThrowsIllegalArg(() -> test.tailSeries(-1));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_mapDates_mapValues_filter() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    assertThat(test.mapDates(d -> d.plusDays(1))).isEqualTo(EXPECTED.mapDates(d -> d.plusDays(1)));
+    assertThat(test.mapValues(v -> v * 2)).isEqualTo(EXPECTED.mapValues(v -> v * 2));
+    assertThat(test.filter((d, v) -> v > 2)).isEqualTo(EXPECTED.filter((d, v) -> v > 2));
+    assertThrowsIllegalArg(() -> test.mapDates(d -> DATE_2015_01_05));
+  }
+
+  public void test_forEach() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    StringBuilder buf = new StringBuilder();
+    test.forEach((date, value) -> buf.append(LocalDateDoublePoint.of(date, value)));
+    assertThat(buf.toString()).isEqualTo(EXPECTED.stream().map(Object::toString).collect(Collectors.joining()));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_equalsHashCode() {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    MappedLocalDateDoubleTimeSeries test2 = series(EXPECTED);
+    MappedLocalDateDoubleTimeSeries test3 = series(EXPECTED.mapValues(v -> v + 1));
+    assertThat(test).isEqualTo(test);
+    assertThat(test).isEqualTo(test2);
+    assertThat(test.hashCode()).isEqualTo(test2.hashCode());
+    assertThat(test).isNotEqualTo(test3);
+    assertThat(test).isNotEqualTo(test.headSeries(2));
+    assertThat(test).isNotEqualTo(EXPECTED);
+    assertThat(test).isNotEqualTo(null);
+  }
+
+  public void test_serialization() throws Exception {
+    MappedLocalDateDoubleTimeSeries test = series(EXPECTED);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(baos)) {
+      out.writeObject(test);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+      // the points are copied into a standard time-series
+      assertThat(in.readObject()).isEqualTo(EXPECTED);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the points of the time-series, allowing different types of time-series to be compared
+  private static List<LocalDateDoublePoint> points(LocalDateDoubleTimeSeries series) {
+    return series.stream().collect(Collectors.toList());
+  }
+
+  // writes the time-series to a buffer, with some leading bytes, and creates a view of it
+  private static MappedLocalDateDoubleTimeSeries series(LocalDateDoubleTimeSeries series) {
+    int offset = 5;
+    ByteBuffer buffer = ByteBuffer.allocate(offset + series.size() * MappedLocalDateDoubleTimeSeries.POINT_SIZE);
+    buffer.position(offset);
+    series.forEach((date, value) -> buffer.putLong(date.toEpochDay()).putDouble(value));
+    return MappedLocalDateDoubleTimeSeries.of(buffer, offset, series.size());
+  }
+
+}
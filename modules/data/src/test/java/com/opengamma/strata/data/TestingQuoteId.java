@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.TypedMetaBean;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.opengamma.strata.basics.StandardId;
+
+/**
+ * Observable identifier used in tests, which is a Joda-Bean.
+ */
+@BeanDefinition(style = "light")
+public final class TestingQuoteId
+    implements ObservableId, ImmutableBean, Serializable {
+
+  /**
+   * The identifier.
+   */
+  @PropertyDefinition(validate = "notNull", overrideGet = true)
+  private final StandardId standardId;
+
+  //-------------------------------------------------------------------------
+  public static TestingQuoteId of(String id) {
+    return new TestingQuoteId(StandardId.of("Test", id));
+  }
+
+  @Override
+  public FieldName getFieldName() {
+    return FieldName.MARKET_VALUE;
+  }
+
+  @Override
+  public ObservableSource getObservableSource() {
+    return ObservableSource.NONE;
+  }
+
+  @Override
+  public ObservableId withObservableSource(ObservableSource obsSource) {
+    return this;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code TestingQuoteId}.
+   */
+  private static final TypedMetaBean<TestingQuoteId> META_BEAN =
+      LightMetaBean.of(
+          TestingQuoteId.class,
+          MethodHandles.lookup(),
+          new String[] {
+              "standardId"},
+          new Object[0]);
+
+  /**
+   * The meta-bean for {@code TestingQuoteId}.
+   * @return the meta-bean, not null
+   */
+  public static TypedMetaBean<TestingQuoteId> meta() {
+    return META_BEAN;
+  }
+
+  static {
+    MetaBean.register(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private TestingQuoteId(
+      StandardId standardId) {
+    JodaBeanUtils.notNull(standardId, "standardId");
+    this.standardId = standardId;
+  }
+
+  @Override
+  public TypedMetaBean<TestingQuoteId> metaBean() {
+    return META_BEAN;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the identifier.
+   * @return the value of the property, not null
+   */
+  @Override
+  public StandardId getStandardId() {
+    return standardId;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      TestingQuoteId other = (TestingQuoteId) obj;
+      return JodaBeanUtils.equal(standardId, other.standardId);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(standardId);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(64);
+    buf.append("TestingQuoteId{");
+    buf.append("standardId").append('=').append(JodaBeanUtils.toString(standardId));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
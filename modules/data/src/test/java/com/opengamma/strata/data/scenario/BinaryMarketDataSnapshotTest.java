@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.FxMatrixId;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.TestingObservableId;
+import com.opengamma.strata.data.TestingQuoteId;
+
+/**
+ * Test {@link BinaryMarketDataSnapshot}.
+ */
+@Test
+public class BinaryMarketDataSnapshotTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final TestingQuoteId QUOTE_ID1 = TestingQuoteId.of("1");
+  private static final TestingQuoteId QUOTE_ID2 = TestingQuoteId.of("2");
+  private static final TestingQuoteId QUOTE_ID3 = TestingQuoteId.of("3");
+  private static final FxRateId FX_ID = FxRateId.of(GBP, USD);
+  private static final FxMatrix FX_MATRIX = FxMatrix.builder()
+      .addRate(GBP, USD, 1.4)
+      .addRate(EUR, USD, 1.1)
+      .build();
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2015, 6, 26), 1.1)
+      .put(date(2015, 6, 29), 1.2)
+      .put(date(2015, 6, 30), 1.3)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_marketData() {
+    ImmutableMarketData marketData = ImmutableMarketData.builder(VAL_DATE)
+        .addValue(QUOTE_ID1, 1.5)
+        .addValue(FX_ID, FxRate.of(GBP, USD, 1.4))
+        .addValue(FxMatrixId.standard(), FX_MATRIX)
+        .addTimeSeries(QUOTE_ID1, TIME_SERIES)
+        .addTimeSeries(QUOTE_ID2, LocalDateDoubleTimeSeries.empty())
+        .build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMarketDataSnapshot.write(marketData, out);
+    ImmutableMarketData test = BinaryMarketDataSnapshot.readMarketData(new ByteArrayInputStream(out.toByteArray()));
+    assertThat(test).isEqualTo(marketData);
+  }
+
+  public void test_scenarioMarketData() {
+    MarketDataBox<LocalDate> valuationDates = MarketDataBox.ofScenarioValues(VAL_DATE, VAL_DATE.plusDays(1));
+    ImmutableScenarioMarketData marketData = ImmutableScenarioMarketData.builder(valuationDates)
+        .addBox(QUOTE_ID1, MarketDataBox.ofSingleValue(1.5))
+        .addBox(QUOTE_ID2, MarketDataBox.ofScenarioValue(DoubleScenarioArray.of(DoubleArray.of(1.5, 1.6))))
+        .addBox(QUOTE_ID3, MarketDataBox.ofScenarioValues(1.5, 1.6))
+        .addBox(FX_ID, MarketDataBox.ofScenarioValue(FxRateScenarioArray.of(GBP, USD, DoubleArray.of(1.4, 1.5))))
+        .addBox(FxRateId.of(EUR, USD), MarketDataBox.ofSingleValue(FxRate.of(EUR, USD, 1.1)))
+        .addBox(FxMatrixId.standard(), MarketDataBox.ofSingleValue(FX_MATRIX))
+        .addTimeSeries(QUOTE_ID1, TIME_SERIES)
+        .build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMarketDataSnapshot.write(marketData, out);
+    ImmutableScenarioMarketData test =
+        BinaryMarketDataSnapshot.readScenarioMarketData(new ByteArrayInputStream(out.toByteArray()));
+    assertThat(test).isEqualTo(marketData);
+  }
+
+  public void test_scenarioMarketData_lazyBox() {
+    MarketDataBox<FxMatrix> box = LazyMarketDataBox.of(2, i -> FX_MATRIX, 0);
+    ImmutableScenarioMarketData marketData = ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addBox(FxMatrixId.standard(), box)
+        .build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMarketDataSnapshot.write(marketData, out);
+    ImmutableScenarioMarketData test =
+        BinaryMarketDataSnapshot.readScenarioMarketData(new ByteArrayInputStream(out.toByteArray()));
+    assertThat(test.getValue(FxMatrixId.standard())).isEqualTo(MarketDataBox.ofScenarioValues(FX_MATRIX, FX_MATRIX));
+  }
+
+  public void test_followedByOtherData() {
+    ImmutableMarketData marketData1 = ImmutableMarketData.of(VAL_DATE, ImmutableMap.of(QUOTE_ID1, 1.5));
+    ImmutableMarketData marketData2 = ImmutableMarketData.of(VAL_DATE, ImmutableMap.of(QUOTE_ID1, 1.6));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMarketDataSnapshot.write(marketData1, out);
+    BinaryMarketDataSnapshot.write(marketData2, out);
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    assertThat(BinaryMarketDataSnapshot.readMarketData(in)).isEqualTo(marketData1);
+    assertThat(BinaryMarketDataSnapshot.readMarketData(in)).isEqualTo(marketData2);
+    assertThat(in.available()).isEqualTo(0);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_write_idNotBean() {
+    ImmutableMarketData marketData =
+        ImmutableMarketData.of(VAL_DATE, ImmutableMap.of(new TestingObservableId("1"), 1.5));
+    assertThrows(
+        () -> BinaryMarketDataSnapshot.write(marketData, new ByteArrayOutputStream()),
+        IllegalArgumentException.class,
+        ".*identifiers must be Joda-Beans");
+  }
+
+  public void test_read_invalid() {
+    assertThrowsIllegalArg(() -> BinaryMarketDataSnapshot.readMarketData(new ByteArrayInputStream(new byte[8])));
+    assertThrows(
+        () -> BinaryMarketDataSnapshot.readMarketData(new ByteArrayInputStream(new byte[2])),
+        UncheckedIOException.class);
+  }
+
+  public void test_read_wrongType() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryMarketDataSnapshot.write(ImmutableMarketData.of(VAL_DATE, ImmutableMap.of()), out);
+    assertThrows(
+        () -> BinaryMarketDataSnapshot.readScenarioMarketData(new ByteArrayInputStream(out.toByteArray())),
+        IllegalArgumentException.class,
+        "Market data snapshot contains ImmutableMarketData");
+  }
+
+  public void coverage() {
+    coverPrivateConstructor(BinaryMarketDataSnapshot.class);
+  }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link LazyMarketDataBox}.
+ */
+@Test
+public class LazyMarketDataBoxTest {
+
+  public void getValue() {
+    CountingFunction function = new CountingFunction();
+    LazyMarketDataBox<Integer> box = LazyMarketDataBox.of(3, function, 1);
+    assertThat(box.isSingleValue()).isFalse();
+    assertThat(box.isScenarioValue()).isTrue();
+    assertThat(box.getScenarioCount()).isEqualTo(3);
+    assertThat(function.count.get()).isEqualTo(0);
+    assertThat(box.getValue(1)).isEqualTo(11);
+    assertThat(box.getValue(1)).isEqualTo(11);
+    assertThat(function.count.get()).isEqualTo(1);
+    assertThat(box.getValue(2)).isEqualTo(12);
+    assertThat(box.getValue(1)).isEqualTo(11);
+    assertThat(function.count.get()).isEqualTo(3);
+    assertThrows(() -> box.getValue(3), IllegalArgumentException.class, "Expected 0 <= 'scenarioIndex' < 3, but found 3");
+    assertThrows(box::getSingleValue, IllegalStateException.class, "This box does not contain a single value");
+  }
+
+  public void getValue_noCache() {
+    CountingFunction function = new CountingFunction();
+    LazyMarketDataBox<Integer> box = LazyMarketDataBox.of(3, function, 0);
+    assertThat(box.getValue(0)).isEqualTo(10);
+    assertThat(box.getValue(0)).isEqualTo(10);
+    assertThat(function.count.get()).isEqualTo(2);
+  }
+
+  public void getScenarioValue() {
+    LazyMarketDataBox<Integer> box = LazyMarketDataBox.of(3, new CountingFunction(), 1);
+    assertThat(box.getScenarioValue()).isEqualTo(ScenarioArray.of(10, 11, 12));
+    assertThat(box.stream().collect(toList())).containsExactly(10, 11, 12);
+    assertThat(box.getMarketDataType()).isEqualTo(Integer.class);
+  }
+
+  public void map() {
+    CountingFunction function = new CountingFunction();
+    MarketDataBox<Integer> box = LazyMarketDataBox.of(3, function, 1).map(v -> v * 2);
+    assertThat(function.count.get()).isEqualTo(0);
+    assertThat(box.getScenarioValue()).isEqualTo(ScenarioArray.of(20, 22, 24));
+  }
+
+  public void mapWithIndex() {
+    MarketDataBox<Integer> box = LazyMarketDataBox.of(3, new CountingFunction(), 1).mapWithIndex(3, (v, i) -> v + i);
+    assertThat(box.getScenarioValue()).isEqualTo(ScenarioArray.of(10, 12, 14));
+    assertThrowsIllegalArg(() -> LazyMarketDataBox.of(3, new CountingFunction(), 1).mapWithIndex(2, (v, i) -> v));
+  }
+
+  public void combineWith() {
+    LazyMarketDataBox<Integer> box = LazyMarketDataBox.of(3, new CountingFunction(), 1);
+    MarketDataBox<Integer> single = box.combineWith(MarketDataBox.ofSingleValue(5), (v1, v2) -> v1 + v2);
+    assertThat(single.getScenarioValue()).isEqualTo(ScenarioArray.of(15, 16, 17));
+    MarketDataBox<Integer> scenario = box.combineWith(MarketDataBox.ofScenarioValues(1, 2, 3), (v1, v2) -> v1 * v2);
+    assertThat(scenario.getScenarioValue()).isEqualTo(ScenarioArray.of(10, 22, 36));
+    assertThrowsIllegalArg(() -> box.combineWith(MarketDataBox.ofScenarioValues(1, 2), (v1, v2) -> v1));
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> LazyMarketDataBox.of(0, new CountingFunction(), 1));
+    assertThrowsIllegalArg(() -> LazyMarketDataBox.of(3, null, 1));
+    assertThrowsIllegalArg(() -> LazyMarketDataBox.of(3, new CountingFunction(), -1));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the scenario index plus ten, counting the number of values created.
+   */
+  private static final class CountingFunction implements IntFunction<Integer> {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Integer apply(int scenarioIndex) {
+      count.incrementAndGet();
+      return scenarioIndex + 10;
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.TestingName;
+
+/**
+ * Test {@link QuoteScenarioMarketData}.
+ */
+@Test
+public class QuoteScenarioMarketDataTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 30);
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3 = TestObservableId.of("3");
+  private static final List<TestObservableId> IDS = ImmutableList.of(ID1, ID2);
+  private static final DoubleMatrix QUOTES = DoubleMatrix.of(3, 2, 1d, 10d, 2d, 20d, 3d, 30d);
+  private static final LocalDateDoubleTimeSeries TIME_SERIES = LocalDateDoubleTimeSeries.builder()
+      .put(date(2015, 6, 29), 1.5d)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    QuoteScenarioMarketData test = QuoteScenarioMarketData.of(VAL_DATE, IDS, QUOTES);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    assertThat(test.getValuationDate()).isEqualTo(MarketDataBox.ofSingleValue(VAL_DATE));
+    assertThat(test.getQuoteIds()).containsExactly(ID1, ID2);
+    assertThat(test.getQuotes()).isEqualTo(QUOTES);
+    assertThat(test.getIds()).containsOnly(ID1, ID2);
+    assertThat(test.containsValue(ID1)).isTrue();
+    assertThat(test.containsValue(ID3)).isFalse();
+    assertThat(test.getValue(ID2)).isEqualTo(scenarioBox(10d, 20d, 30d));
+    assertThat(test.findValue(ID1)).hasValue(scenarioBox(1d, 2d, 3d));
+    assertThat(test.findValue(ID3)).isEmpty();
+    assertThat(test.findIds(new TestingName("1"))).isEmpty();
+    assertThat(test.getQuote(ID2, 1)).isEqualTo(20d);
+    assertThat(test.getQuotes(ID1)).isEqualTo(DoubleScenarioArray.of(DoubleArray.of(1d, 2d, 3d)));
+    assertThat(test.getTimeSeriesIds()).isEmpty();
+    assertThat(test.getTimeSeries(ID1)).isEqualTo(LocalDateDoubleTimeSeries.empty());
+    assertThrows(() -> test.getValue(ID3), MarketDataNotFoundException.class);
+    assertThrows(() -> test.getQuote(ID3, 0), MarketDataNotFoundException.class);
+    assertThrowsIllegalArg(() -> test.getQuote(ID1, 3));
+  }
+
+  public void test_of_timeSeries() {
+    MarketDataBox<LocalDate> valDates =
+        MarketDataBox.ofScenarioValues(VAL_DATE, VAL_DATE.plusDays(1), VAL_DATE.plusDays(2));
+    QuoteScenarioMarketData test = QuoteScenarioMarketData.of(valDates, IDS, QUOTES, ImmutableMap.of(ID3, TIME_SERIES));
+    assertThat(test.getValuationDate()).isEqualTo(valDates);
+    assertThat(test.getTimeSeriesIds()).containsOnly(ID3);
+    assertThat(test.getTimeSeries(ID3)).isEqualTo(TIME_SERIES);
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> QuoteScenarioMarketData.of(VAL_DATE, ImmutableList.of(ID1), QUOTES));
+    assertThrowsIllegalArg(() -> QuoteScenarioMarketData.of(VAL_DATE, ImmutableList.of(ID1, ID1), QUOTES));
+    assertThrowsIllegalArg(() -> QuoteScenarioMarketData.of(VAL_DATE, ImmutableList.of(), DoubleMatrix.EMPTY));
+    assertThrowsIllegalArg(() -> QuoteScenarioMarketData.of(
+        MarketDataBox.ofScenarioValues(VAL_DATE, VAL_DATE), IDS, QUOTES, ImmutableMap.of()));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_scenario() {
+    QuoteScenarioMarketData test = QuoteScenarioMarketData.of(
+        MarketDataBox.ofSingleValue(VAL_DATE), IDS, QUOTES, ImmutableMap.of(ID3, TIME_SERIES));
+    MarketData scenario = test.scenario(2);
+    assertThat(scenario.getValuationDate()).isEqualTo(VAL_DATE);
+    assertThat(scenario.getValue(ID1)).isEqualTo(3d);
+    assertThat(scenario.getValue(ID2)).isEqualTo(30d);
+    assertThat(scenario.getTimeSeries(ID3)).isEqualTo(TIME_SERIES);
+    assertThat(test.scenarios().map(md -> md.getValue(ID2)).collect(toList())).containsExactly(10d, 20d, 30d);
+    assertThrowsIllegalArg(() -> test.scenario(3));
+  }
+
+  public void test_combinedWith() {
+    QuoteScenarioMarketData quotes = QuoteScenarioMarketData.of(VAL_DATE, IDS, QUOTES);
+    ImmutableScenarioMarketData other = ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addBox(ID3, MarketDataBox.ofSingleValue(5d))
+        .build();
+    ScenarioMarketData test = quotes.combinedWith(other);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    assertThat(test.getValue(ID1).getValue(1)).isEqualTo(2d);
+    assertThat(test.getValue(ID3).getValue(1)).isEqualTo(5d);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_ofHistoricalQuotes() {
+    LocalDate date1 = date(2015, 6, 1);
+    LocalDate date2 = date(2015, 6, 2);
+    QuoteScenarioMarketData test = QuoteScenarioMarketData.ofHistoricalQuotes(
+        VAL_DATE,
+        ImmutableMap.of(
+            date2, ImmutableMap.of(ID2, 20d, ID1, 2d),
+            date1, ImmutableMap.of(ID1, 1d, ID2, 10d)));
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.getValuationDate()).isEqualTo(MarketDataBox.ofSingleValue(VAL_DATE));
+    assertThat(test.getQuoteIds()).containsExactly(ID1, ID2);
+    assertThat(test.getQuotes()).isEqualTo(DoubleMatrix.of(2, 2, 1d, 10d, 2d, 20d));
+    assertThat(test.getQuotes(ID2).getValues()).isEqualTo(DoubleArray.of(10d, 20d));
+  }
+
+  public void test_ofHistoricalQuotes_missingQuote() {
+    assertThrows(
+        () -> QuoteScenarioMarketData.ofHistoricalQuotes(
+            VAL_DATE,
+            ImmutableMap.of(
+                date(2015, 6, 1), ImmutableMap.of(ID1, 1d, ID2, 10d),
+                date(2015, 6, 2), ImmutableMap.of(ID1, 2d))),
+        IllegalArgumentException.class,
+        "No quote found for identifier '.*2.*' on date 2015-06-02");
+    assertThrowsIllegalArg(() -> QuoteScenarioMarketData.ofHistoricalQuotes(VAL_DATE, ImmutableMap.of()));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    QuoteScenarioMarketData test = QuoteScenarioMarketData.of(VAL_DATE, IDS, QUOTES);
+    coverImmutableBean(test);
+    QuoteScenarioMarketData test2 = QuoteScenarioMarketData.of(
+        MarketDataBox.ofSingleValue(VAL_DATE.plusDays(1)),
+        ImmutableList.of(ID3),
+        DoubleMatrix.of(1, 1, 4d),
+        ImmutableMap.of(ID3, TIME_SERIES));
+    coverBeanEquals(test, test2);
+  }
+
+  public void serialization() {
+    QuoteScenarioMarketData test = QuoteScenarioMarketData.of(VAL_DATE, IDS, QUOTES);
+    assertSerialization(test);
+  }
+
+  //-------------------------------------------------------------------------
+  private static MarketDataBox<Double> scenarioBox(double... values) {
+    return MarketDataBox.ofScenarioValue(DoubleScenarioArray.of(DoubleArray.copyOf(values)));
+  }
+
+}
@@ -5,7 +5,9 @@
  */
 package com.opengamma.strata.data.scenario;
 
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
 
 import org.joda.beans.ImmutableBean;
@@ -39,9 +41,70 @@ public class ScenarioPerturbationTest {
 //    assertEquals(perturbed, box);
 //  }
 
+  public void test_applyToScenario() {
+    ScenarioPerturbation<Double> test = new AddIndex(3);
+    MarketDataBox<Double> box = MarketDataBox.ofSingleValue(1d);
+    assertEquals(test.applyToScenario(box, 2, REF_DATA), 3d);
+    assertEquals(ScenarioPerturbation.<Double>none().applyToScenario(box, 0, REF_DATA), 1d);
+  }
+
+  public void test_lazy() {
+    AddIndex underlying = new AddIndex(3);
+    ScenarioPerturbation<Double> test = ScenarioPerturbation.lazy(underlying, 1);
+    assertEquals(test.getScenarioCount(), 3);
+    assertEquals(test.getMarketDataType(), Double.class);
+    MarketDataBox<Double> box = MarketDataBox.ofScenarioValues(1d, 2d, 3d);
+    MarketDataBox<Double> perturbed = test.applyTo(box, REF_DATA);
+    assertThat(perturbed.getScenarioCount()).isEqualTo(3);
+    assertThat(underlying.count).isEqualTo(0);
+    assertThat(perturbed.getValue(2)).isEqualTo(5d);
+    assertThat(perturbed.getValue(2)).isEqualTo(5d);
+    assertThat(underlying.count).isEqualTo(1);
+    assertThat(perturbed.getScenarioValue()).isEqualTo(underlying.applyTo(box, REF_DATA).getScenarioValue());
+    assertEquals(test.applyToScenario(box, 1, REF_DATA), 3d);
+    assertThrowsIllegalArg(() -> test.applyTo(MarketDataBox.ofScenarioValues(1d, 2d), REF_DATA));
+    assertThrowsIllegalArg(() -> ScenarioPerturbation.lazy(underlying, -1));
+  }
+
   public void coverage() {
     ScenarioPerturbation<Double> test = ScenarioPerturbation.none();
     coverImmutableBean((ImmutableBean) test);
+    coverImmutableBean((ImmutableBean) ScenarioPerturbation.lazy(test, 2));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the scenario index to the value, counting the number of values created by applyToScenario.
+   */
+  private static final class AddIndex implements ScenarioPerturbation<Double> {
+
+    private final int scenarioCount;
+    private int count;
+
+    private AddIndex(int scenarioCount) {
+      this.scenarioCount = scenarioCount;
+    }
+
+    @Override
+    public MarketDataBox<Double> applyTo(MarketDataBox<Double> marketData, ReferenceData refData) {
+      return marketData.mapWithIndex(scenarioCount, (value, scenarioIndex) -> value + scenarioIndex);
+    }
+
+    @Override
+    public Double applyToScenario(MarketDataBox<Double> marketData, int scenarioIndex, ReferenceData refData) {
+      count++;
+      return marketData.getValue(scenarioIndex) + scenarioIndex;
+    }
+
+    @Override
+    public int getScenarioCount() {
+      return scenarioCount;
+    }
+
+    @Override
+    public Class<Double> getMarketDataType() {
+      return Double.class;
+    }
   }
 
 }
@@ -7,6 +7,7 @@ package com.opengamma.strata.loader.csv;
 
 import static java.util.stream.Collectors.toList;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.Arrays;
@@ -26,6 +27,7 @@ import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.io.UnicodeBom;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.data.BinaryTimeSeriesFile;
 import com.opengamma.strata.data.ObservableId;
 import com.opengamma.strata.loader.LoaderUtils;
 import com.opengamma.strata.market.observable.IndexQuoteId;
@@ -110,6 +112,23 @@ public final class FixingSeriesCsvLoader {
     return builder.build();
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Converts one or more CSV format fixing series files to a binary time-series file.
+   * <p>
+   * The binary file can be read using {@link BinaryTimeSeriesFile}, which memory-maps the file
+   * rather than parsing it. Any existing file is replaced.
+   * If the files contain a duplicate entry an exception will be thrown.
+   *
+   * @param file  the binary file to write
+   * @param resources  the fixing series CSV resources
+   * @throws IllegalArgumentException if the files contain a duplicate entry
+   * @throws java.io.UncheckedIOException if an IO error occurs writing the file
+   */
+  public static void convertToBinaryFile(Path file, Collection<ResourceLocator> resources) {
+    BinaryTimeSeriesFile.write(file, load(resources));
+  }
+
   //-------------------------------------------------------------------------
   // loads a single fixing series CSV file
   private static ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> parseSingle(CharSource resource) {
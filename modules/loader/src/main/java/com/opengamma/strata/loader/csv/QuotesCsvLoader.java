@@ -9,23 +9,31 @@ import static java.util.stream.Collectors.toList;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.io.CharSource;
 import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.io.CsvFile;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.io.UnicodeBom;
 import com.opengamma.strata.data.FieldName;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.QuoteScenarioMarketData;
 import com.opengamma.strata.loader.LoaderUtils;
 import com.opengamma.strata.market.observable.QuoteId;
 
@@ -175,6 +183,66 @@ public final class QuotesCsvLoader {
     return parse(d -> true, charSources);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Loads one or more CSV format quote files as historical scenarios, with one scenario for each date.
+   * <p>
+   * All dates that are found are loaded. The scenarios are in chronological order of the dates,
+   * and each has the specified valuation date.
+   * <p>
+   * The quotes are added to the matrix of quotes as each row is read, thus the quotes
+   * are not boxed, and no map of quotes is held for each date.
+   * The result contains the same quotes as {@link QuoteScenarioMarketData#ofHistoricalQuotes(LocalDate, Map)}
+   * applied to the quotes returned by {@link #loadAllDates(ResourceLocator...)}.
+   * <p>
+   * Every date must have a quote for every identifier that appears on any date.
+   * If the files contain a duplicate entry an exception will be thrown.
+   *
+   * @param valuationDate  the valuation date associated with all scenarios
+   * @param resources  the CSV resources
+   * @return the market data, with one scenario for each date
+   * @throws IllegalArgumentException if the files contain a duplicate entry, a date is missing a quote,
+   *   or the files contain no quotes
+   */
+  public static QuoteScenarioMarketData loadScenarioMarketData(
+      LocalDate valuationDate,
+      ResourceLocator... resources) {
+
+    return loadScenarioMarketData(valuationDate, Arrays.asList(resources));
+  }
+
+  /**
+   * Loads one or more CSV format quote files as historical scenarios, with one scenario for each date.
+   * <p>
+   * All dates that are found are loaded. The scenarios are in chronological order of the dates,
+   * and each has the specified valuation date.
+   * <p>
+   * The quotes are added to the matrix of quotes as each row is read, thus the quotes
+   * are not boxed, and no map of quotes is held for each date.
+   * The result contains the same quotes as {@link QuoteScenarioMarketData#ofHistoricalQuotes(LocalDate, Map)}
+   * applied to the quotes returned by {@link #loadAllDates(Collection)}.
+   * <p>
+   * Every date must have a quote for every identifier that appears on any date.
+   * If the files contain a duplicate entry an exception will be thrown.
+   *
+   * @param valuationDate  the valuation date associated with all scenarios
+   * @param resources  the CSV resources
+   * @return the market data, with one scenario for each date
+   * @throws IllegalArgumentException if the files contain a duplicate entry, a date is missing a quote,
+   *   or the files contain no quotes
+   */
+  public static QuoteScenarioMarketData loadScenarioMarketData(
+      LocalDate valuationDate,
+      Collection<ResourceLocator> resources) {
+
+    ArgChecker.notNull(valuationDate, "valuationDate");
+    ScenarioQuotes quotes = new ScenarioQuotes();
+    for (ResourceLocator resource : resources) {
+      parseSingle(d -> true, resource.getCharSource(), quotes::add);
+    }
+    return quotes.build(valuationDate);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Parses one or more CSV format quote files.
@@ -196,7 +264,10 @@ public final class QuotesCsvLoader {
     // builder ensures keys can only be seen once
     Map<LocalDate, ImmutableMap.Builder<QuoteId, Double>> mutableMap = new HashMap<>();
     for (CharSource charSource : charSources) {
-      parseSingle(datePredicate, charSource, mutableMap);
+      parseSingle(
+          datePredicate,
+          charSource,
+          (date, id, value) -> mutableMap.computeIfAbsent(date, k -> ImmutableMap.builder()).put(id, value));
     }
     ImmutableMap.Builder<LocalDate, ImmutableMap<QuoteId, Double>> builder = ImmutableMap.builder();
     for (Entry<LocalDate, Builder<QuoteId, Double>> entry : mutableMap.entrySet()) {
@@ -205,11 +276,11 @@ public final class QuotesCsvLoader {
     return builder.build();
   }
 
-  // loads a single CSV file, filtering by date
+  // loads a single CSV file, filtering by date, passing each quote to the consumer
   private static void parseSingle(
       Predicate<LocalDate> datePredicate,
       CharSource resource,
-      Map<LocalDate, ImmutableMap.Builder<QuoteId, Double>> mutableMap) {
+      QuoteConsumer consumer) {
 
     try {
       CsvFile csv = CsvFile.of(resource, true);
@@ -222,12 +293,11 @@ public final class QuotesCsvLoader {
           String fieldNameStr = row.getField(FIELD_NAME_FIELD);
           String valueStr = row.getField(VALUE_FIELD);
 
-          double value = Double.valueOf(valueStr);
+          double value = Double.parseDouble(valueStr);
           StandardId id = StandardId.of(symbologyStr, tickerStr);
           FieldName fieldName = fieldNameStr.isEmpty() ? FieldName.MARKET_VALUE : FieldName.of(fieldNameStr);
 
-          ImmutableMap.Builder<QuoteId, Double> builderForDate = mutableMap.computeIfAbsent(date, k -> ImmutableMap.builder());
-          builderForDate.put(QuoteId.of(id, fieldName), value);
+          consumer.accept(date, QuoteId.of(id, fieldName), value);
         }
       }
     } catch (RuntimeException ex) {
@@ -243,4 +313,75 @@ public final class QuotesCsvLoader {
   private QuotesCsvLoader() {
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Receives the quotes parsed from a CSV file.
+   */
+  private interface QuoteConsumer {
+
+    /**
+     * Receives a quote.
+     *
+     * @param date  the date of the quote
+     * @param id  the identifier of the quote
+     * @param value  the value of the quote
+     */
+    void accept(LocalDate date, QuoteId id, double value);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Mutable builder of the matrix of quotes for historical scenarios.
+   * <p>
+   * Each date has a row of quotes, and each identifier has a column, in the order first seen.
+   * The rows grow as new identifiers are seen.
+   */
+  private static final class ScenarioQuotes {
+
+    /** The column of each identifier. */
+    private final Map<QuoteId, Integer> columns = new LinkedHashMap<>();
+    /** The row of quotes for each date, which may be longer than the number of columns. */
+    private final Map<LocalDate, double[]> rows = new HashMap<>();
+    /** The columns that have a quote for each date. */
+    private final Map<LocalDate, BitSet> present = new HashMap<>();
+
+    // adds a quote to the row of the date
+    private void add(LocalDate date, QuoteId id, double value) {
+      int column = columns.computeIfAbsent(id, k -> columns.size());
+      double[] row = rows.computeIfAbsent(date, k -> new double[Math.max(columns.size(), 16)]);
+      if (column >= row.length) {
+        row = Arrays.copyOf(row, Math.max(column + 1, row.length * 2));
+        rows.put(date, row);
+      }
+      BitSet dateColumns = present.computeIfAbsent(date, k -> new BitSet());
+      if (dateColumns.get(column)) {
+        throw new IllegalArgumentException(
+            Messages.format("Multiple quotes found for identifier '{}' on date {}", id, date));
+      }
+      dateColumns.set(column);
+      row[column] = value;
+    }
+
+    // builds the market data, with the dates in chronological order
+    private QuoteScenarioMarketData build(LocalDate valuationDate) {
+      ArgChecker.isFalse(rows.isEmpty(), "No quotes found");
+      List<LocalDate> dates = rows.keySet().stream().sorted().collect(toList());
+      List<QuoteId> ids = ImmutableList.copyOf(columns.keySet());
+      double[][] quotes = new double[dates.size()][];
+      for (int i = 0; i < dates.size(); i++) {
+        LocalDate date = dates.get(i);
+        BitSet dateColumns = present.get(date);
+        int missingColumn = dateColumns.nextClearBit(0);
+        if (missingColumn < ids.size()) {
+          throw new IllegalArgumentException(
+              Messages.format("No quote found for identifier '{}' on date {}", ids.get(missingColumn), date));
+        }
+        double[] row = rows.get(date);
+        quotes[i] = row.length == ids.size() ? row : Arrays.copyOf(row, ids.size());
+      }
+      return QuoteScenarioMarketData.of(
+          MarketDataBox.ofSingleValue(valuationDate), ids, DoubleMatrix.ofUnsafe(quotes), ImmutableMap.of());
+    }
+  }
+
 }
@@ -11,8 +11,12 @@ import static com.opengamma.strata.collect.TestHelper.coverPrivateConstructor;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.Map;
+import java.util.Optional;
 
 import org.testng.annotations.Test;
 
@@ -21,6 +25,7 @@ import com.opengamma.strata.basics.index.IborIndices;
 import com.opengamma.strata.basics.index.PriceIndices;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.BinaryTimeSeriesFile;
 import com.opengamma.strata.data.ObservableId;
 import com.opengamma.strata.market.observable.IndexQuoteId;
 
@@ -103,6 +108,19 @@ public class FixingSeriesCsvLoaderTest {
         "Error processing resource as CSV file: .*");
   }
 
+  public void test_convertToBinaryFile() throws IOException {
+    Path file = Files.createTempFile("strata-fixings", ".bin");
+    try {
+      FixingSeriesCsvLoader.convertToBinaryFile(file, ImmutableList.of(FIXING_SERIES_1, FIXING_SERIES_PRICE1));
+      BinaryTimeSeriesFile test = BinaryTimeSeriesFile.of(file);
+      assertLibor3mSeries(test.findTimeSeries(ID_USD_LIBOR_3M).get().toBuilder().build());
+      assertPriceIndexSeries(test.findTimeSeries(ID_GB_RPI).get().toBuilder().build());
+      assertEquals(test.findTimeSeries(ID_USD_LIBOR_6M), Optional.empty());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   //-------------------------------------------------------------------------
   private void assertLibor3m6mSeries(Map<ObservableId, LocalDateDoubleTimeSeries> ts) {
     assertEquals(ts.size(), 2);
@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.data.scenario.QuoteScenarioMarketData;
 import com.opengamma.strata.market.observable.QuoteId;
 
 /**
@@ -102,6 +103,40 @@ public class QuotesCsvLoaderTest {
     assertFile1Date2(map.get(DATE2));
   }
 
+  public void test_load_allDates_scenarioMarketData() {
+    QuoteScenarioMarketData test =
+        QuoteScenarioMarketData.ofHistoricalQuotes(DATE2, QuotesCsvLoader.loadAllDates(QUOTES_1));
+    assertEquals(test.getScenarioCount(), 2);
+    assertEquals(test.getQuote(FGBL_MAR14, 0), 150.43, 1e-6);
+    assertEquals(test.getQuote(ED_MAR14, 0), 99.62, 1e-6);
+    assertEquals(test.getQuote(FGBL_MAR14, 1), 150.50, 1e-6);
+    assertEquals(test.getQuote(ED_MAR14, 1), 99.63, 1e-6);
+  }
+
+  public void test_loadScenarioMarketData() {
+    QuoteScenarioMarketData test = QuotesCsvLoader.loadScenarioMarketData(DATE2, QUOTES_1);
+    assertEquals(test, QuoteScenarioMarketData.ofHistoricalQuotes(DATE2, QuotesCsvLoader.loadAllDates(QUOTES_1)));
+    assertEquals(test.getScenarioCount(), 2);
+    assertEquals(test.getValuationDate().getSingleValue(), DATE2);
+    assertEquals(test.getQuote(FGBL_MAR14, 0), 150.43, 1e-6);
+    assertEquals(test.getQuote(ED_MAR14, 0), 99.62, 1e-6);
+    assertEquals(test.getQuote(FGBL_MAR14, 1), 150.50, 1e-6);
+    assertEquals(test.getQuote(ED_MAR14, 1), 99.63, 1e-6);
+  }
+
+  public void test_loadScenarioMarketData_missingQuote() {
+    // file 2 only has a quote on the first date
+    assertThrowsIllegalArg(
+        () -> QuotesCsvLoader.loadScenarioMarketData(DATE2, ImmutableList.of(QUOTES_1, QUOTES_2)),
+        "No quote found for identifier .* on date 2014-01-23");
+  }
+
+  public void test_loadScenarioMarketData_invalid() {
+    assertThrowsIllegalArg(() -> QuotesCsvLoader.loadScenarioMarketData(DATE1, QUOTES_INVALID_DUPLICATE));
+    assertThrowsIllegalArg(() -> QuotesCsvLoader.loadScenarioMarketData(DATE1, QUOTES_1, QUOTES_1));
+    assertThrowsIllegalArg(() -> QuotesCsvLoader.loadScenarioMarketData(DATE1));
+  }
+
   //-------------------------------------------------------------------------
   private void assertFile1Date1(Map<QuoteId, Double> map) {
     assertTrue(map.containsKey(FGBL_MAR14));
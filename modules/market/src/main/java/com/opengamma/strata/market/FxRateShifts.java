@@ -92,6 +92,12 @@ public final class FxRateShifts
             shiftType.applyShift(fxRate.fxRate(currencyPair), shiftAmount.get(scenarioIndex))));
   }
 
+  @Override
+  public FxRate applyToScenario(MarketDataBox<FxRate> marketData, int scenarioIndex, ReferenceData refData) {
+    FxRate fxRate = marketData.getValue(scenarioIndex);
+    return FxRate.of(currencyPair, shiftType.applyShift(fxRate.fxRate(currencyPair), shiftAmount.get(scenarioIndex)));
+  }
+
   @Override
   public int getScenarioCount() {
     return shiftAmount.size();
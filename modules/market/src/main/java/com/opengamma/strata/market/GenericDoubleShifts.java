@@ -92,6 +92,12 @@ public final class GenericDoubleShifts
         (value, scenarioIndex) -> shiftType.applyShift(value + spread, shiftAmount.get(scenarioIndex)) - spread);
   }
 
+  @Override
+  public Double applyToScenario(MarketDataBox<Double> marketData, int scenarioIndex, ReferenceData refData) {
+    double value = marketData.getValue(scenarioIndex);
+    return shiftType.applyShift(value + spread, shiftAmount.get(scenarioIndex)) - spread;
+  }
+
   @Override
   public int getScenarioCount() {
     return shiftAmount.size();
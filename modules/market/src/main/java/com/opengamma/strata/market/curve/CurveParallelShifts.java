@@ -89,6 +89,11 @@ public final class CurveParallelShifts
     return curve.mapWithIndex(getScenarioCount(), this::applyShift);
   }
 
+  @Override
+  public Curve applyToScenario(MarketDataBox<Curve> curve, int scenarioIndex, ReferenceData refData) {
+    return applyShift(curve.getValue(scenarioIndex), scenarioIndex);
+  }
+
   private Curve applyShift(Curve curve, int scenarioIndex) {
     double shiftAmount = shiftAmounts.get(scenarioIndex);
     log.debug("Applying {} parallel shift of {} to curve '{}'", shiftType, shiftAmount, curve.getName());
@@ -7,6 +7,7 @@ package com.opengamma.strata.market.curve.interpolator;
 
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 
 /**
  * Abstract interpolator implementation.
@@ -27,6 +28,10 @@ public abstract class AbstractBoundCurveInterpolator
    * The right extrapolator.
    */
   private final BoundCurveExtrapolator extrapolatorRight;
+  /**
+   * The x-values of the nodes.
+   */
+  private final double[] xValues;
   /**
    * The x-value of the first node.
    */
@@ -54,6 +59,7 @@ public abstract class AbstractBoundCurveInterpolator
     ArgChecker.isTrue(size > 1, "Curve node arrays must have at least two nodes");
     this.extrapolatorLeft = ExceptionCurveExtrapolator.INSTANCE;
     this.extrapolatorRight = ExceptionCurveExtrapolator.INSTANCE;
+    this.xValues = xValues.toArrayUnsafe();
     this.firstXValue = xValues.get(0);
     this.lastXValue = xValues.get(size - 1);
     this.lastYValue = yValues.get(size - 1);
@@ -73,6 +79,7 @@ public abstract class AbstractBoundCurveInterpolator
 
     this.extrapolatorLeft = ArgChecker.notNull(extrapolatorLeft, "extrapolatorLeft");
     this.extrapolatorRight = ArgChecker.notNull(extrapolatorRight, "extrapolatorRight");
+    this.xValues = base.xValues;
     this.firstXValue = base.firstXValue;
     this.lastXValue = base.lastXValue;
     this.lastYValue = base.lastYValue;
@@ -101,6 +108,25 @@ public abstract class AbstractBoundCurveInterpolator
    */
   protected abstract double doInterpolate(double xValue);
 
+  /**
+   * Method for subclasses to calculate the interpolated value, given the index of the lower node.
+   * <p>
+   * This is used when interpolating an array of x-values, where the index of the lower node is
+   * found by searching forward from the previous x-value, rather than by a binary search.
+   * Subclasses that search for the lower node should override this method to use the index.
+   * The default implementation ignores the index and calls {@link #doInterpolate(double)}.
+   * <p>
+   * Callers can assume that {@code xValue} is less than the x-value of the last node.
+   * 
+   * @param xValue  the x-value
+   * @param lowerIndex  the index of the last node with an x-value less than or equal to the x-value,
+   *   as returned by {@link #lowerBoundIndex(double, double[])}
+   * @return the interpolated y-value
+   */
+  protected double doInterpolate(double xValue, int lowerIndex) {
+    return doInterpolate(xValue);
+  }
+
   /**
    * Method for {@code InterpolatorCurveExtrapolator} to calculate the interpolated value.
    * <p>
@@ -152,6 +178,81 @@ public abstract class AbstractBoundCurveInterpolator
    */
   protected abstract DoubleArray doParameterSensitivity(double xValue);
 
+  /**
+   * Method for subclasses to calculate parameter sensitivity, given the index of the lower node.
+   * <p>
+   * This is used when calculating the sensitivity for an array of x-values, see {@link #doInterpolate(double, int)}.
+   * The default implementation ignores the index and calls {@link #doParameterSensitivity(double)}.
+   * 
+   * @param xValue  the x-value
+   * @param lowerIndex  the index of the last node with an x-value less than or equal to the x-value,
+   *   as returned by {@link #lowerBoundIndex(double, double[])}
+   * @return the parameter sensitivity
+   */
+  protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
+    return doParameterSensitivity(xValue);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public final void interpolate(double[] xValues, double[] result) {
+    ArgChecker.notNull(xValues, "xValues");
+    ArgChecker.notNull(result, "result");
+    ArgChecker.isTrue(
+        xValues.length == result.length, "Arrays must have the same length: {} and {}", xValues.length, result.length);
+    int lowerIndex = 0;
+    double previousXValue = firstXValue;
+    for (int i = 0; i < xValues.length; i++) {
+      double xValue = xValues[i];
+      if (xValue < firstXValue) {
+        result[i] = extrapolatorLeft.leftExtrapolate(xValue);
+      } else if (xValue > lastXValue) {
+        result[i] = extrapolatorRight.rightExtrapolate(xValue);
+      } else if (xValue == lastXValue) {
+        result[i] = lastYValue;
+      } else {
+        lowerIndex = lowerBoundIndex(xValue, previousXValue, lowerIndex);
+        previousXValue = xValue;
+        result[i] = doInterpolate(xValue, lowerIndex);
+      }
+    }
+  }
+
+  @Override
+  public final DoubleMatrix parameterSensitivity(double[] xValues) {
+    ArgChecker.notNull(xValues, "xValues");
+    DoubleArray[] rows = new DoubleArray[xValues.length];
+    int lowerIndex = 0;
+    double previousXValue = firstXValue;
+    for (int i = 0; i < xValues.length; i++) {
+      double xValue = xValues[i];
+      if (xValue < firstXValue) {
+        rows[i] = extrapolatorLeft.leftExtrapolateParameterSensitivity(xValue);
+      } else if (xValue > lastXValue) {
+        rows[i] = extrapolatorRight.rightExtrapolateParameterSensitivity(xValue);
+      } else {
+        lowerIndex = lowerBoundIndex(xValue, previousXValue, lowerIndex);
+        previousXValue = xValue;
+        rows[i] = doParameterSensitivity(xValue, lowerIndex);
+      }
+    }
+    return DoubleMatrix.ofArrayObjects(rows.length, rows.length == 0 ? 0 : rows[0].size(), i -> rows[i]);
+  }
+
+  // finds the lower bound index, searching forward from the previous index if the x-values are ascending
+  // this merges the x-values with the nodes, avoiding a binary search for each x-value
+  private int lowerBoundIndex(double xValue, double previousXValue, int previousIndex) {
+    if (!(xValue >= previousXValue)) {
+      return lowerBoundIndex(xValue, xValues);
+    }
+    int index = previousIndex;
+    int lastIndex = xValues.length - 1;
+    while (index < lastIndex && xValues[index + 1] <= xValue) {
+      index++;
+    }
+    return index;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Returns the index of the last value in the input array which is lower than the specified value.
@@ -5,7 +5,9 @@
  */
 package com.opengamma.strata.market.curve.interpolator;
 
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 
 /**
  * A curve interpolator that has been bound to a specific curve.
@@ -52,6 +54,50 @@ public interface BoundCurveInterpolator {
    */
   public abstract DoubleArray parameterSensitivity(double x);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the y-values for the specified x-values by interpolation.
+   * <p>
+   * This is equivalent to calling {@link #interpolate(double)} for each x-value, storing the
+   * y-value in the result array at the same index. Implementations may be more efficient when
+   * the x-values are sorted in ascending order, however any order is accepted.
+   * 
+   * @param xValues  the x-values to find the y-values for
+   * @param result  the array to populate with the y-values, which must have the same length as the x-values
+   * @throws IllegalArgumentException if the arrays have different lengths
+   * @throws RuntimeException if a y-value cannot be calculated
+   */
+  public default void interpolate(double[] xValues, double[] result) {
+    ArgChecker.notNull(xValues, "xValues");
+    ArgChecker.notNull(result, "result");
+    ArgChecker.isTrue(
+        xValues.length == result.length, "Arrays must have the same length: {} and {}", xValues.length, result.length);
+    for (int i = 0; i < xValues.length; i++) {
+      result[i] = interpolate(xValues[i]);
+    }
+  }
+
+  /**
+   * Computes the sensitivity of the y-values with respect to the curve parameters for the specified x-values.
+   * <p>
+   * This is equivalent to calling {@link #parameterSensitivity(double)} for each x-value.
+   * The matrix has one row for each x-value and one column for each parameter of the curve.
+   * Implementations may be more efficient when the x-values are sorted in ascending order,
+   * however any order is accepted.
+   * 
+   * @param xValues  the x-values at which the parameter sensitivity is computed
+   * @return the sensitivity matrix
+   * @throws RuntimeException if the sensitivity cannot be calculated
+   */
+  public default DoubleMatrix parameterSensitivity(double[] xValues) {
+    ArgChecker.notNull(xValues, "xValues");
+    DoubleArray[] rows = new DoubleArray[xValues.length];
+    for (int i = 0; i < xValues.length; i++) {
+      rows[i] = parameterSensitivity(xValues[i]);
+    }
+    return DoubleMatrix.ofArrayObjects(rows.length, rows.length == 0 ? 0 : rows[0].size(), i -> rows[i]);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Binds this interpolator to the specified extrapolators.
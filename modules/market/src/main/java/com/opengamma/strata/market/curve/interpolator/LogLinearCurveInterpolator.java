@@ -89,8 +89,12 @@ final class LogLinearCurveInterpolator
     //-------------------------------------------------------------------------
     @Override
     protected double doInterpolate(double xValue) {
+      return doInterpolate(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected double doInterpolate(double xValue, int lowerIndex) {
       // x-value is less than the x-value of the last node (lowerIndex < intervalCount)
-      int lowerIndex = lowerBoundIndex(xValue, xValues);
       double x1 = xValues[lowerIndex];
       double x2 = xValues[lowerIndex + 1];
       double y1 = yValues[lowerIndex];
@@ -136,8 +140,12 @@ final class LogLinearCurveInterpolator
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
+      return doParameterSensitivity(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
       double[] result = new double[yValues.length];
-      int lowerIndex = lowerBoundIndex(xValue, xValues);
       // check if x-value is at the last node
       if (lowerIndex == intervalCount) {
         // sensitivity is entirely to the last node
@@ -225,8 +225,12 @@ final class NaturalCubicSplineCurveInterpolator implements CurveInterpolator, Se
     //-------------------------------------------------------------------------
     @Override
     protected double doInterpolate(double xValue) {
+      return doInterpolate(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected double doInterpolate(double xValue, int low) {
       // x-value is less than the x-value of the last node (lowerIndex < intervalCount)
-      int low = lowerBoundIndex(xValue, xValues);
       int high = low + 1;
       int n = dataSize - 1;
       if (low == n) {
@@ -264,8 +268,12 @@ final class NaturalCubicSplineCurveInterpolator implements CurveInterpolator, Se
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
+      return doParameterSensitivity(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected DoubleArray doParameterSensitivity(double xValue, int low) {
       // x-value is less than the x-value of the last node (lowerIndex < intervalCount)
-      int low = lowerBoundIndex(xValue, xValues);
       double[] result = new double[dataSize];
       if (low == dataSize - 1) {
         result[dataSize - 1] = 1.0;
@@ -86,8 +86,12 @@ final class SquareLinearCurveInterpolator implements CurveInterpolator, Serializ
     //-------------------------------------------------------------------------
     @Override
     protected double doInterpolate(double xValue) {
+      return doInterpolate(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected double doInterpolate(double xValue, int lowerIndex) {
       // x-value is less than the x-value of the last node (lowerIndex < intervalCount)
-      int lowerIndex = lowerBoundIndex(xValue, xValues);
       double x1 = xValues[lowerIndex];
       double y1 = yValues[lowerIndex];
 
@@ -161,9 +165,13 @@ final class SquareLinearCurveInterpolator implements CurveInterpolator, Serializ
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
+      return doParameterSensitivity(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
       double[] result = new double[dataSize];
 
-      int lowerIndex = lowerBoundIndex(xValue, xValues);
       double x1 = xValues[lowerIndex];
       double y1 = yValues[lowerIndex];
       // check if x-value is at the last node
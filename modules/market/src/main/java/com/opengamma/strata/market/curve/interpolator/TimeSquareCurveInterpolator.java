@@ -89,9 +89,13 @@ final class TimeSquareCurveInterpolator implements CurveInterpolator, Serializab
     //-------------------------------------------------------------------------
     @Override
     protected double doInterpolate(double xValue) {
+      return doInterpolate(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected double doInterpolate(double xValue, int lowerIndex) {
       ArgChecker.isTrue(xValue > 0, "Value should be stricly positive");
       // x-value is less than the x-value of the last node (lowerIndex < intervalCount)
-      int lowerIndex = lowerBoundIndex(xValue, xValues);
       double x1 = xValues[lowerIndex];
       double y1 = yValues[lowerIndex];
       if (lowerIndex == dataSize - 1) {
@@ -138,8 +142,12 @@ final class TimeSquareCurveInterpolator implements CurveInterpolator, Serializab
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
+      return doParameterSensitivity(xValue, lowerBoundIndex(xValue, xValues));
+    }
+
+    @Override
+    protected DoubleArray doParameterSensitivity(double xValue, int lowerIndex) {
       double[] resultSensitivity = new double[dataSize];
-      int lowerIndex = lowerBoundIndex(xValue, xValues);
       double x1 = xValues[lowerIndex];
       double y1 = yValues[lowerIndex];
       // check if x-value is at the last node
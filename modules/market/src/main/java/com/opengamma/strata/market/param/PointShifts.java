@@ -128,6 +128,15 @@ public final class PointShifts
         (prams, scenarioIndex) -> applyShifts(scenarioIndex, prams));
   }
 
+  @Override
+  public ParameterizedData applyToScenario(
+      MarketDataBox<ParameterizedData> marketData,
+      int scenarioIndex,
+      ReferenceData refData) {
+
+    return applyShifts(scenarioIndex, marketData.getValue(scenarioIndex));
+  }
+
   private ParameterizedData applyShifts(int scenarioIndex, ParameterizedData prams) {
     return prams.withPerturbation((index, value, meta) -> {
       Double shiftAmount = shiftForNode(scenarioIndex, meta);
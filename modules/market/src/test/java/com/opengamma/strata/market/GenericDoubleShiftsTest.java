@@ -68,6 +68,15 @@ public class GenericDoubleShiftsTest {
     assertEquals(computedAbsolute, expectedAbsolute);
   }
 
+  public void test_applyToScenario() {
+    MarketDataBox<Double> marketData = MarketDataBox.ofSingleValue(3d);
+    GenericDoubleShifts test = GenericDoubleShifts.of(ShiftType.SCALED, SHIFT_AMOUNT, SPREAD);
+    MarketDataBox<Double> expected = test.applyTo(marketData, REF_DATA);
+    for (int i = 0; i < SHIFT_AMOUNT.size(); i++) {
+      assertEquals(test.applyToScenario(marketData, i, REF_DATA), expected.getValue(i));
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     GenericDoubleShifts test1 = GenericDoubleShifts.of(ShiftType.ABSOLUTE, SHIFT_AMOUNT);
@@ -12,6 +12,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import org.testng.annotations.Test;
 
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.param.ParameterMetadata;
 
 /**
@@ -80,6 +81,12 @@ public class ConstantCurveTest {
     assertThat(test.firstDerivative(100d)).isEqualTo(0d);
   }
 
+  public void test_yValues() {
+    ConstantCurve test = ConstantCurve.of(CURVE_NAME, VALUE);
+    assertThat(test.yValues(DoubleArray.of(0d, -10d, 100d))).isEqualTo(DoubleArray.filled(3, VALUE));
+    assertThat(test.yValues(DoubleArray.EMPTY)).isEqualTo(DoubleArray.EMPTY);
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     ConstantCurve test = ConstantCurve.of(CURVE_NAME, VALUE);
@@ -15,6 +15,7 @@ import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.date.DayCounts;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioPerturbation;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
 
 /**
@@ -57,6 +58,22 @@ public class CurveParallelShiftsTest {
     assertEquals(shiftedCurveBox.getValue(2), ParallelShiftedCurve.relative(baseCurve, 0.4d));
   }
 
+  public void test_applyToScenario() {
+    CurveParallelShifts test = CurveParallelShifts.absolute(1d, 2d, 4d);
+
+    Curve baseCurve = InterpolatedNodalCurve.of(
+        Curves.zeroRates("curve", DayCounts.ACT_365F),
+        DoubleArray.of(1, 2, 3),
+        DoubleArray.of(5, 6, 7),
+        CurveInterpolators.LOG_LINEAR);
+
+    MarketDataBox<Curve> baseCurveBox = MarketDataBox.ofSingleValue(baseCurve);
+    assertEquals(test.applyToScenario(baseCurveBox, 1, REF_DATA), ParallelShiftedCurve.absolute(baseCurve, 2d));
+    assertEquals(
+        ScenarioPerturbation.lazy(test, 1).applyTo(baseCurveBox, REF_DATA).getScenarioValue(),
+        test.applyTo(baseCurveBox, REF_DATA).getScenarioValue());
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     CurveParallelShifts test = CurveParallelShifts.absolute(1d, 2d, 4d);
@@ -125,6 +125,13 @@ public class InterpolatedNodalCurveTest {
     assertThat(test.firstDerivative(10d)).isEqualTo(interp.firstDerivative(10d));
   }
 
+  public void test_yValues() {
+    InterpolatedNodalCurve test = InterpolatedNodalCurve.of(METADATA, XVALUES, YVALUES, INTERPOLATOR);
+    DoubleArray x = DoubleArray.of(0.5d, 1d, 1.5d, 2.5d, 3d, 10d, 2d);
+    assertThat(test.yValues(x)).isEqualTo(x.map(test::yValue));
+    assertThat(test.yValues(DoubleArray.EMPTY)).isEqualTo(DoubleArray.EMPTY);
+  }
+
   //-------------------------------------------------------------------------
   public void test_withMetadata() {
     InterpolatedNodalCurve base = InterpolatedNodalCurve.of(METADATA, XVALUES, YVALUES, INTERPOLATOR);
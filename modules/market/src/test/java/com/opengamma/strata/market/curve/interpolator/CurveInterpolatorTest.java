@@ -30,6 +30,7 @@ import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 
 /**
  * Test {@link CurveInterpolator}.
@@ -38,6 +39,9 @@ import com.opengamma.strata.collect.array.DoubleArray;
 public class CurveInterpolatorTest {
 
   private static final Object ANOTHER_TYPE = "";
+  private static final DoubleArray X_VALUES = DoubleArray.of(0.5, 1, 2, 3.5, 5);
+  private static final DoubleArray Y_VALUES = DoubleArray.of(0.99, 0.98, 0.95, 0.9, 0.85);
+  private static final double[] X_SAMPLES = {0.2, 0.5, 0.7, 1, 1, 1.5, 2.9, 5, 6, 3, 0.8, 4.9, 2};
 
   //-------------------------------------------------------------------------
   @DataProvider(name = "name")
@@ -108,6 +112,31 @@ public class CurveInterpolatorTest {
     assertNotNull(bound.toString());
   }
 
+  @Test(dataProvider = "name")
+  public void test_bind_batch(CurveInterpolator interpolator, String name) {
+    BoundCurveInterpolator bound =
+        interpolator.bind(X_VALUES, Y_VALUES, CurveExtrapolators.FLAT, CurveExtrapolators.FLAT);
+    double[] result = new double[X_SAMPLES.length];
+    bound.interpolate(X_SAMPLES, result);
+    DoubleMatrix sensitivity = bound.parameterSensitivity(X_SAMPLES);
+    assertEquals(sensitivity.rowCount(), X_SAMPLES.length);
+    for (int i = 0; i < X_SAMPLES.length; i++) {
+      assertEquals(result[i], bound.interpolate(X_SAMPLES[i]), 0d);
+      assertEquals(sensitivity.row(i), bound.parameterSensitivity(X_SAMPLES[i]));
+    }
+  }
+
+  public void test_bind_batch_empty() {
+    BoundCurveInterpolator bound = LINEAR.bind(X_VALUES, Y_VALUES, CurveExtrapolators.FLAT, CurveExtrapolators.FLAT);
+    bound.interpolate(new double[0], new double[0]);
+    assertEquals(bound.parameterSensitivity(new double[0]), DoubleMatrix.EMPTY);
+  }
+
+  public void test_bind_batch_wrongLength() {
+    BoundCurveInterpolator bound = LINEAR.bind(X_VALUES, Y_VALUES, CurveExtrapolators.FLAT, CurveExtrapolators.FLAT);
+    assertThrowsIllegalArg(() -> bound.interpolate(X_SAMPLES, new double[1]));
+  }
+
   public void test_lowerBound() {
     // bad input, but still produces good output
     assertEquals(AbstractBoundCurveInterpolator.lowerBoundIndex(0.0d, new double[] {1, 2, 3}), 0);
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.math.impl.rootfinding.newton;
 
+import java.util.function.DoubleConsumer;
 import java.util.function.Function;
 
 import org.slf4j.Logger;
@@ -33,6 +34,7 @@ public class BaseNewtonVectorRootFinder
   private static final double ALPHA = 1e-4;
   private static final double BETA = 1.5;
   private static final int FULL_RECALC_FREQ = 20;
+  private static final DoubleConsumer NO_LISTENER = residualNorm -> { };
   private final double _absoluteTol, _relativeTol;
   private final int _maxSteps;
   private final NewtonRootFinderDirectionFunction _directionFunction;
@@ -77,6 +79,45 @@ public class BaseNewtonVectorRootFinder
       Function<DoubleArray, DoubleMatrix> jacobianFunction,
       DoubleArray startPosition) {
 
+    return findRoot(function, jacobianFunction, startPosition, jacobianFunction, NO_LISTENER);
+  }
+
+  @Override
+  public DoubleArray findRoot(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition,
+      DoubleMatrix initialJacobian) {
+
+    return findRoot(function, jacobianFunction, startPosition, initialJacobian, NO_LISTENER);
+  }
+
+  @Override
+  public DoubleArray findRoot(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition,
+      DoubleMatrix initialJacobian,
+      DoubleConsumer residualNormListener) {
+
+    ArgChecker.notNull(startPosition, "startPosition");
+    ArgChecker.notNull(initialJacobian, "initialJacobian");
+    ArgChecker.notNull(residualNormListener, "residualNormListener");
+    ArgChecker.isTrue(
+        initialJacobian.rowCount() == startPosition.size() && initialJacobian.columnCount() == startPosition.size(),
+        "Initial Jacobian must be a square matrix of size {}", startPosition.size());
+    return findRoot(function, jacobianFunction, startPosition, x -> initialJacobian, residualNormListener);
+  }
+
+  // finds the root, using the initial Jacobian function only to initialize the first estimate
+  // the residual norm is passed to the listener at the start position and after each iteration
+  private DoubleArray findRoot(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition,
+      Function<DoubleArray, DoubleMatrix> initialJacobianFunction,
+      DoubleConsumer residualNormListener) {
+
     checkInputs(function, startPosition);
 
     DataBundle data = new DataBundle();
@@ -84,7 +125,8 @@ public class BaseNewtonVectorRootFinder
     data.setX(startPosition);
     data.setY(y);
     data.setG0(_algebra.getInnerProduct(y, y));
-    DoubleMatrix estimate = _initializationFunction.getInitializedMatrix(jacobianFunction, startPosition);
+    residualNormListener.accept(Math.sqrt(data.getG0()));
+    DoubleMatrix estimate = _initializationFunction.getInitializedMatrix(initialJacobianFunction, startPosition);
 
     if (!getNextPosition(function, estimate, data)) {
       if (isConverged(data)) {
@@ -92,6 +134,7 @@ public class BaseNewtonVectorRootFinder
       }
       throw new MathException("Cannot work with this starting position. Please choose another point");
     }
+    residualNormListener.accept(Math.sqrt(data.getG0()));
 
     int count = 0;
     int jacReconCount = 1;
@@ -121,6 +164,7 @@ public class BaseNewtonVectorRootFinder
           throw new MathException(msg);
         }
       }
+      residualNormListener.accept(Math.sqrt(data.getG0()));
       count++;
       if (count > _maxSteps) {
         throw new MathException("Failed to converge - maximum iterations of " + _maxSteps + " reached." +
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.math.rootfind;
 
+import java.util.function.DoubleConsumer;
 import java.util.function.Function;
 
 import com.opengamma.strata.collect.array.DoubleArray;
@@ -95,4 +96,59 @@ public interface NewtonVectorRootFinder {
       Function<DoubleArray, DoubleMatrix> jacobianFunction,
       DoubleArray startPosition);
 
+  /**
+   * Finds the root from the specified start position, using a known estimate of the Jacobian.
+   * <p>
+   * This applies the specified function and Jacobian function to find the root.
+   * The initial Jacobian is used in place of calculating the Jacobian at the start position,
+   * for example where it is known from a previous root finding on similar inputs.
+   * The Jacobian function is still used whenever the root finder recalculates the Jacobian.
+   * Note if multiple roots exist which one is found will depend on the start position.
+   * <p>
+   * The default implementation ignores the initial Jacobian.
+   * 
+   * @param function   the vector function
+   * @param jacobianFunction  the function to calculate the Jacobian
+   * @param startPosition  the start position of the root finder for
+   * @param initialJacobian  the estimate of the Jacobian at the start position
+   * @return the vector root of the collection of functions
+   * @throws MathException if unable to find the root, such as if unable to converge
+   */
+  public default DoubleArray findRoot(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition,
+      DoubleMatrix initialJacobian) {
+
+    return findRoot(function, jacobianFunction, startPosition);
+  }
+
+  /**
+   * Finds the root from the specified start position, reporting the residual norm at each iteration.
+   * <p>
+   * This is the same as {@link #findRoot(Function, Function, DoubleArray, DoubleMatrix)},
+   * but also passes the residual norm, the Euclidean norm of the function value, to the listener.
+   * The listener is invoked at the start position and after each iteration, thus the number of
+   * iterations is one less than the number of times the listener is invoked.
+   * <p>
+   * The default implementation ignores the listener.
+   * 
+   * @param function   the vector function
+   * @param jacobianFunction  the function to calculate the Jacobian
+   * @param startPosition  the start position of the root finder for
+   * @param initialJacobian  the estimate of the Jacobian at the start position
+   * @param residualNormListener  the listener to receive the residual norms
+   * @return the vector root of the collection of functions
+   * @throws MathException if unable to find the root, such as if unable to converge
+   */
+  public default DoubleArray findRoot(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition,
+      DoubleMatrix initialJacobian,
+      DoubleConsumer residualNormListener) {
+
+    return findRoot(function, jacobianFunction, startPosition, initialJacobian);
+  }
+
 }
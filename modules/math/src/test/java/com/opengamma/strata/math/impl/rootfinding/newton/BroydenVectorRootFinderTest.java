@@ -5,8 +5,18 @@
  */
 package com.opengamma.strata.math.impl.rootfinding.newton;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 import org.testng.annotations.Test;
 
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.math.impl.linearalgebra.SVDecompositionCommons;
 
 /**
@@ -43,4 +53,38 @@ public class BroydenVectorRootFinderTest extends VectorRootFinderTest {
     assertFunction3D(SV_JACOBIAN_3D, EPS);
     assertYieldCurveBootstrap(DEFAULT, EPS);
   }
+
+  @Test
+  public void testInitialJacobian() {
+    DoubleArray x0 = DoubleArray.of(0.8, 0.2, -0.7);
+    AtomicInteger count = new AtomicInteger();
+    Function<DoubleArray, DoubleMatrix> jacobian = x -> {
+      count.incrementAndGet();
+      return JACOBIAN3D.apply(x);
+    };
+    DoubleArray expected = DEFAULT.findRoot(FUNCTION3D, jacobian, x0);
+    int expectedCount = count.getAndSet(0);
+    DoubleArray test = DEFAULT.findRoot(FUNCTION3D, jacobian, x0, JACOBIAN3D.apply(x0));
+    assertEquals(test, expected);
+    assertEquals(count.get(), expectedCount - 1);
+  }
+
+  @Test
+  public void testResidualNormListener() {
+    DoubleArray x0 = DoubleArray.of(0.8, 0.2, -0.7);
+    List<Double> residualNorms = new ArrayList<>();
+    DoubleArray expected = DEFAULT.findRoot(FUNCTION3D, JACOBIAN3D, x0);
+    DoubleArray test = DEFAULT.findRoot(FUNCTION3D, JACOBIAN3D, x0, JACOBIAN3D.apply(x0), residualNorms::add);
+    assertEquals(test, expected);
+    assertTrue(residualNorms.size() > 1);
+    // the residual norm is reported at the start position and after each iteration
+    DoubleArray y0 = FUNCTION3D.apply(x0);
+    assertEquals(residualNorms.get(0), Math.sqrt(y0.reduce(0d, (sum, value) -> sum + value * value)), 0d);
+    assertEquals(residualNorms.get(residualNorms.size() - 1), 0d, TOLERANCE);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInitialJacobianWrongSize() {
+    DEFAULT.findRoot(FUNCTION3D, JACOBIAN3D, DoubleArray.of(0.8, 0.2, -0.7), DoubleMatrix.identity(2));
+  }
 }
@@ -0,0 +1,427 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.curve;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableDefaults;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Configuration for calibrating curves when there are multiple scenarios.
+ * <p>
+ * When the market data contains values for multiple scenarios, a set of curves is calibrated for each scenario.
+ * This configuration controls how many scenarios are calibrated at the same time,
+ * and whether each scenario is calibrated starting from the curves of the base scenario.
+ * <p>
+ * The base scenario is the first scenario. When warm starting is enabled, the base scenario
+ * is calibrated first, using the initial guesses of the curve definitions. The parameters of the
+ * calibrated curves are then used as the initial guesses for every other scenario.
+ * As the scenarios are typically small perturbations of the base scenario, this reduces the
+ * number of iterations needed by the root finder.
+ * <p>
+ * This is used as a default configuration object, thus at most one instance may be present
+ * in {@code MarketDataConfig}. If none is present, the {@linkplain #standard() standard} configuration is used.
+ */
+@BeanDefinition
+public final class ScenarioCalibrationConfig implements ImmutableBean, Serializable {
+
+  /** The standard configuration, calibrating scenarios sequentially without warm starting. */
+  private static final ScenarioCalibrationConfig STANDARD = new ScenarioCalibrationConfig(1, false);
+
+  /**
+   * The maximum number of scenarios that are calibrated at the same time.
+   * <p>
+   * A value of one calibrates the scenarios sequentially in the calling thread.
+   * Otherwise, up to this number of scenarios are calibrated at the same time, by the calling thread
+   * and tasks run by the executor of the market data function.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegativeOrZero")
+  private final int parallelism;
+  /**
+   * Whether each scenario is calibrated starting from the calibrated curves of the base scenario.
+   * <p>
+   * If false, each scenario is calibrated starting from the initial guesses of the curve definitions.
+   */
+  @PropertyDefinition
+  private final boolean warmStart;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the standard configuration, calibrating scenarios sequentially without warm starting.
+   * <p>
+   * This is used when there is no configuration in {@code MarketDataConfig}.
+   *
+   * @return the standard configuration
+   */
+  public static ScenarioCalibrationConfig standard() {
+    return STANDARD;
+  }
+
+  /**
+   * Returns configuration that calibrates scenarios in parallel, using one thread per available processor.
+   * <p>
+   * Each scenario is calibrated starting from the calibrated curves of the base scenario.
+   *
+   * @return the parallel configuration
+   */
+  public static ScenarioCalibrationConfig parallel() {
+    return parallel(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Returns configuration that calibrates scenarios in parallel, using the specified number of threads.
+   * <p>
+   * Each scenario is calibrated starting from the calibrated curves of the base scenario.
+   *
+   * @param parallelism  the maximum number of scenarios that are calibrated at the same time
+   * @return the parallel configuration
+   */
+  public static ScenarioCalibrationConfig parallel(int parallelism) {
+    return new ScenarioCalibrationConfig(parallelism, true);
+  }
+
+  @ImmutableDefaults
+  private static void applyDefaults(Builder builder) {
+    builder.parallelism(1);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the scenarios are calibrated in parallel.
+   *
+   * @return true if more than one scenario may be calibrated at the same time
+   */
+  public boolean isParallel() {
+    return parallelism > 1;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code ScenarioCalibrationConfig}.
+   * @return the meta-bean, not null
+   */
+  public static ScenarioCalibrationConfig.Meta meta() {
+    return ScenarioCalibrationConfig.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(ScenarioCalibrationConfig.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Returns a builder used to create an instance of the bean.
+   * @return the builder, not null
+   */
+  public static ScenarioCalibrationConfig.Builder builder() {
+    return new ScenarioCalibrationConfig.Builder();
+  }
+
+  private ScenarioCalibrationConfig(
+      int parallelism,
+      boolean warmStart) {
+    ArgChecker.notNegativeOrZero(parallelism, "parallelism");
+    this.parallelism = parallelism;
+    this.warmStart = warmStart;
+  }
+
+  @Override
+  public ScenarioCalibrationConfig.Meta metaBean() {
+    return ScenarioCalibrationConfig.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum number of scenarios that are calibrated at the same time.
+   * <p>
+   * A value of one calibrates the scenarios sequentially in the calling thread.
+   * Otherwise, up to this number of scenarios are calibrated at the same time, by the calling thread
+   * and tasks run by the executor of the market data function.
+   * @return the value of the property
+   */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets whether each scenario is calibrated starting from the calibrated curves of the base scenario.
+   * <p>
+   * If false, each scenario is calibrated starting from the initial guesses of the curve definitions.
+   * @return the value of the property
+   */
+  public boolean isWarmStart() {
+    return warmStart;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Returns a builder that allows this bean to be mutated.
+   * @return the mutable builder, not null
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ScenarioCalibrationConfig other = (ScenarioCalibrationConfig) obj;
+      return (parallelism == other.parallelism) &&
+          (warmStart == other.warmStart);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(parallelism);
+    hash = hash * 31 + JodaBeanUtils.hashCode(warmStart);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(96);
+    buf.append("ScenarioCalibrationConfig{");
+    buf.append("parallelism").append('=').append(parallelism).append(',').append(' ');
+    buf.append("warmStart").append('=').append(JodaBeanUtils.toString(warmStart));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code ScenarioCalibrationConfig}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code parallelism} property.
+     */
+    private final MetaProperty<Integer> parallelism = DirectMetaProperty.ofImmutable(
+        this, "parallelism", ScenarioCalibrationConfig.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code warmStart} property.
+     */
+    private final MetaProperty<Boolean> warmStart = DirectMetaProperty.ofImmutable(
+        this, "warmStart", ScenarioCalibrationConfig.class, Boolean.TYPE);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "parallelism",
+        "warmStart");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 635164956:  // parallelism
+          return parallelism;
+        case -1787818787:  // warmStart
+          return warmStart;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public ScenarioCalibrationConfig.Builder builder() {
+      return new ScenarioCalibrationConfig.Builder();
+    }
+
+    @Override
+    public Class<? extends ScenarioCalibrationConfig> beanType() {
+      return ScenarioCalibrationConfig.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code parallelism} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> parallelism() {
+      return parallelism;
+    }
+
+    /**
+     * The meta-property for the {@code warmStart} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Boolean> warmStart() {
+      return warmStart;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 635164956:  // parallelism
+          return ((ScenarioCalibrationConfig) bean).getParallelism();
+        case -1787818787:  // warmStart
+          return ((ScenarioCalibrationConfig) bean).isWarmStart();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code ScenarioCalibrationConfig}.
+   */
+  public static final class Builder extends DirectFieldsBeanBuilder<ScenarioCalibrationConfig> {
+
+    private int parallelism;
+    private boolean warmStart;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+      applyDefaults(this);
+    }
+
+    /**
+     * Restricted copy constructor.
+     * @param beanToCopy  the bean to copy from, not null
+     */
+    private Builder(ScenarioCalibrationConfig beanToCopy) {
+      this.parallelism = beanToCopy.getParallelism();
+      this.warmStart = beanToCopy.isWarmStart();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 635164956:  // parallelism
+          return parallelism;
+        case -1787818787:  // warmStart
+          return warmStart;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 635164956:  // parallelism
+          this.parallelism = (Integer) newValue;
+          break;
+        case -1787818787:  // warmStart
+          this.warmStart = (Boolean) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public Builder set(MetaProperty<?> property, Object value) {
+      super.set(property, value);
+      return this;
+    }
+
+    @Override
+    public ScenarioCalibrationConfig build() {
+      return new ScenarioCalibrationConfig(
+          parallelism,
+          warmStart);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sets the maximum number of scenarios that are calibrated at the same time.
+     * <p>
+     * A value of one calibrates the scenarios sequentially in the calling thread.
+     * Otherwise, up to this number of scenarios are calibrated at the same time, by the calling thread
+     * and tasks run by the executor of the market data function.
+     * @param parallelism  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder parallelism(int parallelism) {
+      ArgChecker.notNegativeOrZero(parallelism, "parallelism");
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Sets whether each scenario is calibrated starting from the calibrated curves of the base scenario.
+     * <p>
+     * If false, each scenario is calibrated starting from the initial guesses of the curve definitions.
+     * @param warmStart  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder warmStart(boolean warmStart) {
+      this.warmStart = warmStart;
+      return this;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(96);
+      buf.append("ScenarioCalibrationConfig.Builder{");
+      buf.append("parallelism").append('=').append(JodaBeanUtils.toString(parallelism)).append(',').append(' ');
+      buf.append("warmStart").append('=').append(JodaBeanUtils.toString(warmStart));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
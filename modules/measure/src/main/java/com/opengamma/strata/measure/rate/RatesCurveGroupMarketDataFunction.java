@@ -11,7 +11,16 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.marketdata.MarketDataConfig;
@@ -36,6 +45,7 @@ import com.opengamma.strata.market.curve.RatesCurveInputs;
 import com.opengamma.strata.market.curve.RatesCurveInputsId;
 import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.measure.curve.RootFinderConfig;
+import com.opengamma.strata.measure.curve.ScenarioCalibrationConfig;
 import com.opengamma.strata.pricer.curve.CalibrationMeasures;
 import com.opengamma.strata.pricer.curve.CurveCalibrator;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
@@ -51,6 +61,10 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * The default analytics object that performs the curve calibration.
    */
   private final CalibrationMeasures calibrationMeasures;
+  /**
+   * The executor used to calibrate the curves of multiple scenarios in parallel.
+   */
+  private final Executor executor;
 
   //-------------------------------------------------------------------------
   /**
@@ -58,7 +72,8 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * <p>
    * This will use the standard {@linkplain CalibrationMeasures#PAR_SPREAD par spread} measures
    * for calibration. The {@link MarketDataConfig} may contain a {@link RootFinderConfig}
-   * to define the tolerances.
+   * to define the tolerances, and a {@link ScenarioCalibrationConfig} to define how the curves
+   * of multiple scenarios are calibrated.
    */
   public RatesCurveGroupMarketDataFunction() {
     this(CalibrationMeasures.PAR_SPREAD);
@@ -68,12 +83,37 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * Creates a new function for building curve groups.
    * <p>
    * The default calibrator is specified. The {@link MarketDataConfig} may contain a
-   * {@link RootFinderConfig} that alters the tolerances used in calibration.
+   * {@link RootFinderConfig} that alters the tolerances used in calibration, and a
+   * {@link ScenarioCalibrationConfig} that defines how the curves of multiple scenarios are calibrated.
+   *
+   * <p>
+   * When scenarios are calibrated in parallel, the {@linkplain ForkJoinPool#commonPool() common pool} is used.
    *
    * @param calibrationMeasures  the calibration measures to be used in the calibrator
    */
   public RatesCurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures) {
+    this(calibrationMeasures, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a new function for building curve groups, specifying the executor for parallel calibration.
+   * <p>
+   * The default calibrator is specified. The {@link MarketDataConfig} may contain a
+   * {@link RootFinderConfig} that alters the tolerances used in calibration, and a
+   * {@link ScenarioCalibrationConfig} that defines how the curves of multiple scenarios are calibrated.
+   * <p>
+   * When scenarios are calibrated in parallel, the calling thread and tasks run by the executor calibrate
+   * the scenarios. This allows the executor to be shared with the code building the market data,
+   * avoiding the creation of threads for each curve group. The calling thread does not wait for
+   * tasks that have not started, thus the executor may be bounded and may be the executor
+   * that calls this function. It is the callers responsibility to manage the life-cycle of the executor.
+   *
+   * @param calibrationMeasures  the calibration measures to be used in the calibrator
+   * @param executor  the executor used to calibrate the curves of multiple scenarios in parallel
+   */
+  public RatesCurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures, Executor executor) {
     this.calibrationMeasures = ArgChecker.notNull(calibrationMeasures, "calibrationMeasures");
+    this.executor = ArgChecker.notNull(executor, "executor");
   }
 
   //-------------------------------------------------------------------------
@@ -111,10 +151,13 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     CurveCalibrator calibrator = CurveCalibrator.of(
         rfc.getAbsoluteTolerance(), rfc.getRelativeTolerance(), rfc.getMaximumSteps(), calibrationMeasures);
 
+    ScenarioCalibrationConfig scenarioConfig =
+        marketDataConfig.find(ScenarioCalibrationConfig.class).orElse(ScenarioCalibrationConfig.standard());
+
     // calibrate
     CurveGroupName groupName = id.getCurveGroupName();
     RatesCurveGroupDefinition configuredDefn = marketDataConfig.get(RatesCurveGroupDefinition.class, groupName);
-    return buildCurveGroup(configuredDefn, calibrator, marketData, refData, id.getObservableSource());
+    return buildCurveGroup(configuredDefn, calibrator, scenarioConfig, marketData, refData, id.getObservableSource());
   }
 
   @Override
@@ -123,11 +166,56 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
   }
 
   //-------------------------------------------------------------------------
+  /**
+   * Returns the configuration used to build the curve group identified by the ID.
+   * <p>
+   * This returns every item in the {@link MarketDataConfig} that affects the calibrated curve group,
+   * the curve group definition, the {@link RootFinderConfig} and the {@link ScenarioCalibrationConfig}.
+   * The standard configuration is returned if the root finder or scenario configuration is not present.
+   * It is intended to be used as the configuration function when caching the curve groups:
+   * <pre>
+   *  MarketDataFunction.cached(function, cache, RatesCurveGroupMarketDataFunction::configuration);
+   * </pre>
+   *
+   * @param id  the ID of the curve group
+   * @param marketDataConfig  the configuration specifying how market data values should be built
+   * @return the configuration used to build the curve group
+   */
+  public static List<Object> configuration(RatesCurveGroupId id, MarketDataConfig marketDataConfig) {
+    return ImmutableList.of(
+        marketDataConfig.get(RatesCurveGroupDefinition.class, id.getCurveGroupName()),
+        marketDataConfig.find(RootFinderConfig.class).orElse(RootFinderConfig.standard()),
+        marketDataConfig.find(ScenarioCalibrationConfig.class).orElse(ScenarioCalibrationConfig.standard()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builds a curve group given the configuration for the group and a set of market data.
+   *
+   * @param configuredGroup  the definition of the curve group
+   * @param calibrator  the calibrator
+   * @param marketData  the market data containing any values required to build the curve group
+   * @param refData  the reference data, used for resolving trades
+   * @param obsSource  the source of observable market data
+   * @return a result containing the curve group or details of why it couldn't be built
+   */
+  MarketDataBox<RatesCurveGroup> buildCurveGroup(
+      RatesCurveGroupDefinition configuredGroup,
+      CurveCalibrator calibrator,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      ObservableSource obsSource) {
+
+    return buildCurveGroup(
+        configuredGroup, calibrator, ScenarioCalibrationConfig.standard(), marketData, refData, obsSource);
+  }
+
   /**
    * Builds a curve group given the configuration for the group and a set of market data.
    *
    * @param configuredGroup  the definition of the curve group
    * @param calibrator  the calibrator
+   * @param scenarioConfig  the configuration defining how the curves of multiple scenarios are calibrated
    * @param marketData  the market data containing any values required to build the curve group
    * @param refData  the reference data, used for resolving trades
    * @param obsSource  the source of observable market data
@@ -136,6 +224,7 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
   MarketDataBox<RatesCurveGroup> buildCurveGroup(
       RatesCurveGroupDefinition configuredGroup,
       CurveCalibrator calibrator,
+      ScenarioCalibrationConfig scenarioConfig,
       ScenarioMarketData marketData,
       ReferenceData refData,
       ObservableSource obsSource) {
@@ -154,7 +243,8 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     Map<ObservableId, LocalDateDoubleTimeSeries> fixings = extractFixings(marketData);
 
     return multipleValues || multipleValuationDates ?
-        buildMultipleCurveGroups(configuredGroup, calibrator, valuationDates, inputBoxes, fixings, refData) :
+        buildMultipleCurveGroups(
+            configuredGroup, calibrator, scenarioConfig, valuationDates, inputBoxes, fixings, refData) :
         buildSingleCurveGroup(configuredGroup, calibrator, valuationDates.getSingleValue(), inputBoxes, fixings, refData);
   }
 
@@ -171,23 +261,87 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
   private MarketDataBox<RatesCurveGroup> buildMultipleCurveGroups(
       RatesCurveGroupDefinition configuredGroup,
       CurveCalibrator calibrator,
+      ScenarioCalibrationConfig scenarioConfig,
       MarketDataBox<LocalDate> valuationDateBox,
       List<MarketDataBox<RatesCurveInputs>> inputBoxes,
       Map<ObservableId, LocalDateDoubleTimeSeries> fixings,
       ReferenceData refData) {
 
     int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
-    ImmutableList.Builder<RatesCurveGroup> builder = ImmutableList.builder();
+    // when warm starting, the base scenario is calibrated first and the other scenarios start from its curves
+    RatesCurveGroup baseGroup = scenarioConfig.isWarmStart() ?
+        buildScenarioGroup(configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, 0, null) :
+        null;
+    IntFunction<RatesCurveGroup> scenarioFn = i -> i == 0 && baseGroup != null ?
+        baseGroup :
+        buildScenarioGroup(configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, i, baseGroup);
+
+    List<RatesCurveGroup> curveGroups = scenarioConfig.isParallel() && scenarioCount > 1 ?
+        buildInParallel(scenarioFn, scenarioCount, scenarioConfig.getParallelism()) :
+        IntStream.range(0, scenarioCount).mapToObj(scenarioFn).collect(toImmutableList());
+    return MarketDataBox.ofScenarioValues(curveGroups);
+  }
+
+  // calibrates the group for a single scenario, starting from the starting group if not null
+  private RatesCurveGroup buildScenarioGroup(
+      RatesCurveGroupDefinition configuredGroup,
+      CurveCalibrator calibrator,
+      MarketDataBox<LocalDate> valuationDateBox,
+      List<MarketDataBox<RatesCurveInputs>> inputBoxes,
+      Map<ObservableId, LocalDateDoubleTimeSeries> fixings,
+      ReferenceData refData,
+      int scenarioIndex,
+      RatesCurveGroup startingGroup) {
+
+    LocalDate valuationDate = valuationDateBox.getValue(scenarioIndex);
+    RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
+    List<RatesCurveInputs> curveInputsList = inputsForScenario(inputBoxes, scenarioIndex);
+    MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
+    return buildGroup(filteredGroup, calibrator, inputs, refData, startingGroup);
+  }
 
-    for (int i = 0; i < scenarioCount; i++) {
-      LocalDate valuationDate = valuationDateBox.getValue(i);
-      RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
-      List<RatesCurveInputs> curveInputsList = inputsForScenario(inputBoxes, i);
-      MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
-      builder.add(buildGroup(filteredGroup, calibrator, inputs, refData));
+  // calibrates the scenarios using the executor, with the calling thread also calibrating scenarios
+  // the scenarios are claimed in order by the calling thread and up to (parallelism - 1) tasks on the executor
+  // the calling thread only waits for scenarios that have been claimed by running tasks, thus a bounded
+  // executor cannot deadlock, even if this method is called from one of its threads
+  // the curve groups are returned in scenario order, and the first failure in scenario order is thrown
+  private List<RatesCurveGroup> buildInParallel(
+      IntFunction<RatesCurveGroup> scenarioFn,
+      int scenarioCount,
+      int parallelism) {
+
+    List<CompletableFuture<RatesCurveGroup>> results = IntStream.range(0, scenarioCount)
+        .mapToObj(i -> new CompletableFuture<RatesCurveGroup>())
+        .collect(toImmutableList());
+    AtomicInteger nextScenario = new AtomicInteger();
+    Runnable worker = () -> {
+      for (int i = nextScenario.getAndIncrement(); i < scenarioCount; i = nextScenario.getAndIncrement()) {
+        try {
+          results.get(i).complete(scenarioFn.apply(i));
+        } catch (RuntimeException | Error ex) {
+          results.get(i).completeExceptionally(ex);
+        }
+      }
+    };
+    int helperCount = Math.min(parallelism, scenarioCount) - 1;
+    for (int i = 0; i < helperCount; i++) {
+      try {
+        executor.execute(worker);
+      } catch (RejectedExecutionException ex) {
+        break;  // the calling thread calibrates the remaining scenarios
+      }
     }
-    ImmutableList<RatesCurveGroup> curveGroups = builder.build();
-    return MarketDataBox.ofScenarioValues(curveGroups);
+    worker.run();
+    ImmutableList.Builder<RatesCurveGroup> builder = ImmutableList.builder();
+    for (CompletableFuture<RatesCurveGroup> result : results) {
+      try {
+        builder.add(result.join());
+      } catch (CompletionException ex) {
+        Throwables.throwIfUnchecked(ex.getCause());
+        throw new RuntimeException(ex.getCause());
+      }
+    }
+    return builder.build();
   }
 
   private static List<RatesCurveInputs> inputsForScenario(List<MarketDataBox<RatesCurveInputs>> boxes, int scenarioIndex) {
@@ -208,7 +362,7 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
     List<RatesCurveInputs> inputs = inputBoxes.stream().map(MarketDataBox::getSingleValue).collect(toImmutableList());
     MarketData inputValues = inputsByKey(valuationDate, inputs, fixings);
-    RatesCurveGroup curveGroup = buildGroup(filteredGroup, calibrator, inputValues, refData);
+    RatesCurveGroup curveGroup = buildGroup(filteredGroup, calibrator, inputValues, refData, null);
     return MarketDataBox.ofSingleValue(curveGroup);
   }
 
@@ -249,17 +403,18 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     return ImmutableMarketData.builder(valuationDate).values(marketDataMap).timeSeries(fixings).build();
   }
 
+  // calibrates the group, starting from the starting group if not null
   private RatesCurveGroup buildGroup(
       RatesCurveGroupDefinition groupDefn,
       CurveCalibrator calibrator,
       MarketData marketData,
-      ReferenceData refData) {
+      ReferenceData refData,
+      RatesCurveGroup startingGroup) {
 
     // perform the calibration
-    ImmutableRatesProvider calibratedProvider = calibrator.calibrate(
-        groupDefn,
-        marketData,
-        refData);
+    ImmutableRatesProvider calibratedProvider = startingGroup != null ?
+        calibrator.calibrate(groupDefn, marketData, refData, startingGroup) :
+        calibrator.calibrate(groupDefn, marketData, refData);
 
     return RatesCurveGroup.of(
         groupDefn.getName(),
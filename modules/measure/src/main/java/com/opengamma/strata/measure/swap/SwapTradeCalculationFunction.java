@@ -5,7 +5,9 @@
  */
 package com.opengamma.strata.measure.swap;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -147,9 +149,38 @@ public class SwapTradeCalculationFunction
     RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
 
     // loop around measures, calculating all scenarios for one measure
+    return calculate(measures, resolved, marketData);
+  }
+
+  @Override
+  public List<Map<Measure, Result<?>>> calculateBatch(
+      List<? extends SwapTrade> trades,
+      Set<Measure> measures,
+      CalculationParameters parameters,
+      ScenarioMarketData scenarioMarketData,
+      ReferenceData refData) {
+
+    // use lookup to query market data, sharing the view of each scenario between the trades
+    RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
+    RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
+
+    // loop around trades, resolving the trade once for all measures and all scenarios
+    List<Map<Measure, Result<?>>> results = new ArrayList<>(trades.size());
+    for (SwapTrade trade : trades) {
+      results.add(calculate(measures, trade.resolve(refData), marketData));
+    }
+    return results;
+  }
+
+  // calculate all measures
+  private Map<Measure, Result<?>> calculate(
+      Set<Measure> measures,
+      ResolvedSwapTrade trade,
+      RatesScenarioMarketData marketData) {
+
     Map<Measure, Result<?>> results = new HashMap<>();
     for (Measure measure : measures) {
-      results.put(measure, calculate(measure, resolved, marketData));
+      results.put(measure, calculate(measure, trade, marketData));
     }
     return results;
   }
@@ -12,6 +12,8 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.testng.annotations.Test;
@@ -132,6 +134,20 @@ public class FxSingleTradeCalculationFunctionTest {
             Measures.PV01_CALIBRATED_BUCKETED, Result.success(ScenarioArray.of(ImmutableList.of(expectedBucketedPv01))));
   }
 
+  public void test_calculateBatch() {
+    FxSingleTradeCalculationFunction function = new FxSingleTradeCalculationFunction();
+    ScenarioMarketData md = marketData();
+    FxSingleTrade trade2 = FxSingleTrade.builder()
+        .product(FxSingle.of(CurrencyAmount.of(GBP, -500), CurrencyAmount.of(USD, 820), date(2015, 6, 30)))
+        .build();
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PAR_SPREAD, Measures.PV01_CALIBRATED_SUM);
+    List<Map<Measure, Result<?>>> results =
+        function.calculateBatch(ImmutableList.of(TRADE, trade2), measures, PARAMS, md, REF_DATA);
+    assertThat(results).containsExactly(
+        function.calculate(TRADE, measures, PARAMS, md, REF_DATA),
+        function.calculate(trade2, measures, PARAMS, md, REF_DATA));
+  }
+
   //-------------------------------------------------------------------------
   static ScenarioMarketData marketData() {
     Curve curve1 = ConstantCurve.of(Curves.discountFactors("Test", ACT_360), 0.992);
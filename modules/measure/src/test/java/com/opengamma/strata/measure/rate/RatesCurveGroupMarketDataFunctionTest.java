@@ -12,10 +12,19 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.testng.annotations.Test;
 
@@ -30,8 +39,11 @@ import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.date.Tenor;
 import com.opengamma.strata.basics.index.IborIndices;
 import com.opengamma.strata.basics.index.RateIndex;
+import com.opengamma.strata.calc.marketdata.MarketDataCache;
 import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
@@ -61,7 +73,10 @@ import com.opengamma.strata.market.curve.node.FxSwapCurveNode;
 import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.market.param.ParameterMetadata;
+import com.opengamma.strata.measure.curve.RootFinderConfig;
+import com.opengamma.strata.measure.curve.ScenarioCalibrationConfig;
 import com.opengamma.strata.measure.curve.TestMarketDataMap;
+import com.opengamma.strata.pricer.curve.CalibrationMeasures;
 import com.opengamma.strata.pricer.curve.CurveCalibrator;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -185,6 +200,125 @@ public class RatesCurveGroupMarketDataFunctionTest {
     checkSwapPvIsZero((FixedIborSwapCurveNode) nodes.get(4), ratesProvider, marketData);
   }
 
+  /**
+   * Tests calibration of multiple scenarios, in parallel and starting from the curves of the base scenario.
+   */
+  public void multipleScenarios() throws Exception {
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraSwapCurveDefinition();
+    CurveName curveName = curveDefn.getName();
+    List<CurveNode> nodes = curveDefn.getNodes();
+    RatesCurveGroupDefinition groupDefn = RatesCurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+    double[] rates = {0.0037, 0.0054, 0.005, 0.0087, 0.012};
+    int scenarioCount = 5;
+    List<RatesCurveInputs> scenarioInputs = IntStream.range(0, scenarioCount)
+        .mapToObj(i -> {
+          ImmutableMap.Builder<MarketDataId<?>, Double> inputData = ImmutableMap.builder();
+          for (int j = 0; j < nodes.size(); j++) {
+            inputData.put(CurveTestUtils.key(nodes.get(j)), rates[j] + i * 0.0001);
+          }
+          return RatesCurveInputs.of(inputData.build(), DefaultCurveMetadata.of(curveName));
+        })
+        .collect(toImmutableList());
+    RatesCurveGroupId groupId = RatesCurveGroupId.of(groupName);
+    ScenarioMarketData inputMarketData = ImmutableScenarioMarketData.builder(date(2011, 3, 8))
+        .addBox(RatesCurveInputsId.of(groupName, curveName, ObservableSource.NONE),
+            MarketDataBox.ofScenarioValues(scenarioInputs))
+        .build();
+
+    RatesCurveGroupMarketDataFunction function = new RatesCurveGroupMarketDataFunction();
+    MarketDataConfig sequentialConfig = MarketDataConfig.builder().add(groupName, groupDefn).build();
+    MarketDataConfig parallelConfig = MarketDataConfig.builder()
+        .add(groupName, groupDefn)
+        .addDefault(ScenarioCalibrationConfig.parallel(2))
+        .build();
+    MarketDataBox<RatesCurveGroup> sequential = function.build(groupId, sequentialConfig, inputMarketData, REF_DATA);
+    MarketDataBox<RatesCurveGroup> parallel = function.build(groupId, parallelConfig, inputMarketData, REF_DATA);
+
+    assertThat(parallel.getScenarioCount()).isEqualTo(scenarioCount);
+    for (int i = 0; i < scenarioCount; i++) {
+      Curve expected = sequential.getValue(i).findDiscountCurve(Currency.USD).get();
+      Curve curve = parallel.getValue(i).findDiscountCurve(Currency.USD).get();
+      for (int j = 0; j < curve.getParameterCount(); j++) {
+        assertThat(curve.getParameter(j)).isCloseTo(expected.getParameter(j), offset(1e-10));
+      }
+    }
+
+    // the function can be called by a thread of the bounded executor that it uses
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      RatesCurveGroupMarketDataFunction sharedFunction =
+          new RatesCurveGroupMarketDataFunction(CalibrationMeasures.PAR_SPREAD, executor);
+      MarketDataBox<RatesCurveGroup> shared = executor
+          .submit(() -> sharedFunction.build(groupId, parallelConfig, inputMarketData, REF_DATA))
+          .get(30, TimeUnit.SECONDS);
+      assertThat(shared).isEqualTo(parallel);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public void multipleScenariosFailure() {
+    FxSwapTemplate template1 = FxSwapTemplate.of(Period.ofMonths(1), FxSwapConventions.EUR_USD);
+    FxSwapTemplate template2 = FxSwapTemplate.of(Period.ofMonths(2), FxSwapConventions.EUR_USD);
+    QuoteId pointsKey1 = QuoteId.of(StandardId.of("test", "1"));
+    QuoteId pointsKey2 = QuoteId.of(StandardId.of("test", "2"));
+    CurveName curveName1 = CurveName.of("curve1");
+    CurveName curveName2 = CurveName.of("curve2");
+    CurveGroupName groupName = CurveGroupName.of("group");
+    RatesCurveGroupDefinition groupDefn = RatesCurveGroupDefinition.builder()
+        .name(groupName)
+        .addDiscountCurve(fxSwapCurveDefinition(curveName1, template1, template2, pointsKey1), Currency.EUR)
+        .addDiscountCurve(fxSwapCurveDefinition(curveName2, template1, template2, pointsKey2), Currency.USD)
+        .build();
+    FxRateId fxRateId = FxRateId.of(Currency.EUR, Currency.USD);
+    RatesCurveInputs curveInputs1 = RatesCurveInputs.of(
+        ImmutableMap.of(fxRateId, FxRate.of(Currency.EUR, Currency.USD, 1.01), pointsKey1, 0.1d),
+        DefaultCurveMetadata.of(curveName1));
+    // the second curve has a different FX rate in each scenario, which should fail
+    RatesCurveInputs badCurveInputs2a = RatesCurveInputs.of(
+        ImmutableMap.of(fxRateId, FxRate.of(Currency.EUR, Currency.USD, 1.02), pointsKey2, 0.1d),
+        DefaultCurveMetadata.of(curveName2));
+    RatesCurveInputs badCurveInputs2b = RatesCurveInputs.of(
+        ImmutableMap.of(fxRateId, FxRate.of(Currency.EUR, Currency.USD, 1.03), pointsKey2, 0.1d),
+        DefaultCurveMetadata.of(curveName2));
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(date(2011, 3, 8))
+        .addValue(RatesCurveInputsId.of(groupName, curveName1, ObservableSource.NONE), curveInputs1)
+        .addBox(RatesCurveInputsId.of(groupName, curveName2, ObservableSource.NONE),
+            MarketDataBox.ofScenarioValues(badCurveInputs2a, badCurveInputs2b))
+        .build();
+
+    // the failure is thrown from the thread calibrating the scenario
+    RatesCurveGroupMarketDataFunction fn = new RatesCurveGroupMarketDataFunction();
+    ScenarioCalibrationConfig scenarioConfig = ScenarioCalibrationConfig.builder().parallelism(2).build();
+    String msg = "Multiple unequal values found for identifier .*\\. Values: .* and .*";
+    assertThrowsIllegalArg(
+        () -> fn.buildCurveGroup(groupDefn, CALIBRATOR, scenarioConfig, marketData, REF_DATA, ObservableSource.NONE),
+        msg);
+  }
+
+  private static InterpolatedNodalCurveDefinition fxSwapCurveDefinition(
+      CurveName name,
+      FxSwapTemplate template1,
+      FxSwapTemplate template2,
+      QuoteId pointsKey) {
+
+    return InterpolatedNodalCurveDefinition.builder()
+        .name(name)
+        .nodes(FxSwapCurveNode.of(template1, pointsKey), FxSwapCurveNode.of(template2, pointsKey))
+        .xValueType(ValueType.YEAR_FRACTION)
+        .yValueType(ValueType.ZERO_RATE)
+        .dayCount(ACT_360)
+        .interpolator(CurveInterpolators.LINEAR)
+        .extrapolatorLeft(CurveExtrapolators.FLAT)
+        .extrapolatorRight(CurveExtrapolators.FLAT)
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
   /**
    * Tests that par rates and ibor index are required for curves.
    */
@@ -284,6 +418,72 @@ public class RatesCurveGroupMarketDataFunctionTest {
     assertThat(forwardMetadata).isEqualTo(expectedForwardMetadata);
   }
 
+  /**
+   * Tests a calibrated curve group can be cached in memory and on disk.
+   */
+  public void cached() throws IOException {
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    InterpolatedNodalCurveDefinition fraCurveDefn = CurveTestUtils.fraCurveDefinition();
+    List<CurveNode> fraNodes = fraCurveDefn.getNodes();
+    RatesCurveGroupDefinition groupDefn = RatesCurveGroupDefinition.builder()
+        .name(groupName)
+        .addForwardCurve(fraCurveDefn, IborIndices.USD_LIBOR_3M)
+        .build();
+    MarketDataConfig marketDataConfig = MarketDataConfig.builder().add(groupName, groupDefn).build();
+    RatesCurveGroupId curveGroupId = RatesCurveGroupId.of(groupName);
+
+    ImmutableMap.Builder<MarketDataId<?>, Double> fraInputData = ImmutableMap.builder();
+    for (int i = 0; i < fraNodes.size(); i++) {
+      fraInputData.put(CurveTestUtils.key(fraNodes.get(i)), 0.003 + i * 0.001);
+    }
+    LocalDate valuationDate = date(2011, 3, 8);
+    RatesCurveInputs fraCurveInputs =
+        RatesCurveInputs.of(fraInputData.build(), fraCurveDefn.metadata(valuationDate, REF_DATA));
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(valuationDate)
+        .addValue(RatesCurveInputsId.of(groupName, fraCurveDefn.getName(), ObservableSource.NONE), fraCurveInputs)
+        .build();
+
+    Path directory = Files.createTempDirectory("strata-cache");
+    try {
+      RatesCurveGroupMarketDataFunction function = new RatesCurveGroupMarketDataFunction();
+      MarketDataCache cache1 = MarketDataCache.of(10, directory);
+      MarketDataFunction<RatesCurveGroup, RatesCurveGroupId> cached1 =
+          MarketDataFunction.cached(function, cache1, RatesCurveGroupMarketDataFunction::configuration);
+      MarketDataBox<RatesCurveGroup> curveGroup1 = cached1.build(curveGroupId, marketDataConfig, marketData, REF_DATA);
+      MarketDataBox<RatesCurveGroup> curveGroup2 = cached1.build(curveGroupId, marketDataConfig, marketData, REF_DATA);
+      assertThat(curveGroup2).isSameAs(curveGroup1);
+      assertThat(cache1.getHitCount()).isEqualTo(1);
+      assertThat(cache1.getMissCount()).isEqualTo(1);
+
+      // the curve group is calibrated again if the tolerances or the available fixings change
+      MarketDataConfig rootFinderConfig = MarketDataConfig.builder()
+          .add(groupName, groupDefn)
+          .addDefault(RootFinderConfig.builder().absoluteTolerance(1e-10).build())
+          .build();
+      cached1.build(curveGroupId, rootFinderConfig, marketData, REF_DATA);
+      ScenarioMarketData fixingsData = ImmutableScenarioMarketData.builder(valuationDate)
+          .addValue(RatesCurveInputsId.of(groupName, fraCurveDefn.getName(), ObservableSource.NONE), fraCurveInputs)
+          .addTimeSeries(IndexQuoteId.of(IborIndices.USD_LIBOR_3M), LocalDateDoubleTimeSeries.of(valuationDate, 0.01))
+          .build();
+      cached1.build(curveGroupId, marketDataConfig, fixingsData, REF_DATA);
+      assertThat(cache1.getHitCount()).isEqualTo(1);
+      assertThat(cache1.getMissCount()).isEqualTo(3);
+
+      // a new cache, as used by a restarted process, finds the calibrated curve group on disk
+      MarketDataCache cache2 = MarketDataCache.of(10, directory);
+      MarketDataFunction<RatesCurveGroup, RatesCurveGroupId> cached2 =
+          MarketDataFunction.cached(function, cache2, RatesCurveGroupMarketDataFunction::configuration);
+      MarketDataBox<RatesCurveGroup> curveGroup3 = cached2.build(curveGroupId, marketDataConfig, marketData, REF_DATA);
+      assertThat(curveGroup3).isEqualTo(curveGroup1);
+      assertThat(cache2.getDiskHitCount()).isEqualTo(1);
+      assertThat(cache2.getMissCount()).isEqualTo(0);
+    } finally {
+      try (Stream<Path> files = Files.walk(directory)) {
+        files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void duplicateInputDataKeys() {
     FxSwapTemplate template1 = FxSwapTemplate.of(Period.ofMonths(1), FxSwapConventions.EUR_USD);
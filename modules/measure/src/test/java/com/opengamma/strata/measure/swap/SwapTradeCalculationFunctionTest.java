@@ -10,6 +10,8 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.testng.annotations.Test;
@@ -143,6 +145,19 @@ public class SwapTradeCalculationFunctionTest {
             Measures.PV01_CALIBRATED_BUCKETED, Result.success(ScenarioArray.of(ImmutableList.of(expectedBucketedPv01))));
   }
 
+  public void test_calculateBatch() {
+    SwapTradeCalculationFunction function = new SwapTradeCalculationFunction();
+    ScenarioMarketData md = marketData();
+    SwapTrade trade2 = FixedIborSwapConventions.GBP_FIXED_6M_LIBOR_6M
+        .createTrade(date(2016, 6, 30), Tenor.TENOR_5Y, BuySell.SELL, 2_000_000, 0.02, REF_DATA);
+    Set<Measure> measures = ImmutableSet.of(Measures.PRESENT_VALUE, Measures.PAR_RATE, Measures.PV01_CALIBRATED_SUM);
+    List<Map<Measure, Result<?>>> results =
+        function.calculateBatch(ImmutableList.of(TRADE, trade2), measures, PARAMS, md, REF_DATA);
+    assertThat(results).containsExactly(
+        function.calculate(TRADE, measures, PARAMS, md, REF_DATA),
+        function.calculate(trade2, measures, PARAMS, md, REF_DATA));
+  }
+
   //-------------------------------------------------------------------------
   static ScenarioMarketData marketData() {
     Curve curve = ConstantCurve.of(Curves.discountFactors("Test", ACT_360), 0.99);
@@ -121,6 +121,23 @@ public interface DiscountFactors
    */
   public abstract double discountFactor(double yearFraction);
 
+  /**
+   * Gets the discount factors for the specified year fractions.
+   * <p>
+   * This is equivalent to calling {@link #discountFactor(double)} for each year fraction.
+   * Implementations may be more efficient when the year fractions are sorted in ascending order,
+   * such as those of the payment dates of a swap leg.
+   * <p>
+   * The year fractions must be based on {@code #relativeYearFraction(LocalDate)}.
+   * 
+   * @param yearFractions  the year fractions
+   * @return the discount factors
+   * @throws RuntimeException if the value cannot be obtained
+   */
+  public default DoubleArray discountFactors(DoubleArray yearFractions) {
+    return yearFractions.map(this::discountFactor);
+  }
+
   /**
    * Returns the discount factor derivative with respect to the year fraction or time.
    * <p>
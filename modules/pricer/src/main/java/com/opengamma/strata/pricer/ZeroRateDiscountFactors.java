@@ -165,6 +165,11 @@ public final class ZeroRateDiscountFactors
     return Math.exp(-yearFraction * curve.yValue(yearFraction));
   }
 
+  @Override
+  public DoubleArray discountFactors(DoubleArray yearFractions) {
+    return yearFractions.combine(curve.yValues(yearFractions), (yearFraction, zr) -> Math.exp(-yearFraction * zr));
+  }
+
   @Override
   public double discountFactorTimeDerivative(double yearFraction) {
     double zr = curve.yValue(yearFraction);
@@ -177,6 +177,13 @@ public final class ZeroRatePeriodicDiscountFactors
     return Math.pow(1d + curve.yValue(relativeYearFraction) / frequency, -relativeYearFraction * frequency);
   }
 
+  @Override
+  public DoubleArray discountFactors(DoubleArray relativeYearFractions) {
+    return relativeYearFractions.combine(
+        curve.yValues(relativeYearFractions),
+        (relativeYearFraction, zr) -> Math.pow(1d + zr / frequency, -relativeYearFraction * frequency));
+  }
+
   @Override
   public double discountFactorTimeDerivative(double yearFraction) {
     double zr = curve.yValue(yearFraction);
@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer.curve;
 
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
@@ -41,6 +42,10 @@ class CalibrationDerivative
    * The expected number of parameters for each curve is also provided.
    */
   private final List<CurveParameterSize> curveOrder;
+  /**
+   * Whether the derivative of each trade is calculated in parallel.
+   */
+  private final boolean parallel;
 
   /**
    * Creates an instance.
@@ -56,10 +61,30 @@ class CalibrationDerivative
       RatesProviderGenerator providerGenerator,
       List<CurveParameterSize> curveOrder) {
 
+    this(trades, measures, providerGenerator, curveOrder, false);
+  }
+
+  /**
+   * Creates an instance, specifying whether the derivative of each trade is calculated in parallel.
+   * 
+   * @param trades  the trades
+   * @param measures  the calibration measures
+   * @param providerGenerator  the provider generator, used to create child providers
+   * @param curveOrder  the curve order
+   * @param parallel  whether the derivative of each trade is calculated in parallel
+   */
+  CalibrationDerivative(
+      List<ResolvedTrade> trades,
+      CalibrationMeasures measures,
+      RatesProviderGenerator providerGenerator,
+      List<CurveParameterSize> curveOrder,
+      boolean parallel) {
+
     this.measures = measures;
     this.trades = trades;
     this.providerGenerator = providerGenerator;
     this.curveOrder = curveOrder;
+    this.parallel = parallel;
   }
 
   //-------------------------------------------------------------------------
@@ -69,7 +94,35 @@ class CalibrationDerivative
     ImmutableRatesProvider provider = providerGenerator.generate(x);
     // calculate derivative for each trade using the child provider
     int size = trades.size();
-    return DoubleMatrix.ofArrayObjects(size, size, i -> measures.derivative(trades.get(i), provider, curveOrder));
+    DoubleArray[] rows = derivatives(trades, measures, provider, curveOrder, parallel);
+    return DoubleMatrix.ofArrayObjects(size, size, i -> rows[i]);
+  }
+
+  /**
+   * Calculates the derivative of each trade, optionally in parallel.
+   * <p>
+   * Each derivative is stored at the index of the trade, so the result does not depend
+   * on the order in which the derivatives are calculated.
+   * 
+   * @param trades  the trades
+   * @param measures  the calibration measures
+   * @param provider  the rates provider
+   * @param curveOrder  the curve order
+   * @param parallel  whether the derivative of each trade is calculated in parallel
+   * @return the derivative of each trade
+   */
+  static DoubleArray[] derivatives(
+      List<ResolvedTrade> trades,
+      CalibrationMeasures measures,
+      ImmutableRatesProvider provider,
+      List<CurveParameterSize> curveOrder,
+      boolean parallel) {
+
+    DoubleArray[] rows = new DoubleArray[trades.size()];
+    IntStream range = IntStream.range(0, rows.length);
+    (parallel ? range.parallel() : range)
+        .forEach(i -> rows[i] = measures.derivative(trades.get(i), provider, curveOrder));
+    return rows;
   }
 
 }
@@ -0,0 +1,832 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import org.joda.beans.Bean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableValidator;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectFieldsBeanBuilder;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
+
+/**
+ * The metrics of the calibration of a group of curves.
+ * <p>
+ * This records the work performed when calibrating one group of curves that are solved together,
+ * allowing slow or poorly converging groups to be identified.
+ * The sizes define the matrix of derivatives of the calibration measures with respect to the
+ * curve parameters, with one row for each trade and one column for each parameter.
+ */
+@BeanDefinition
+public final class CalibrationMetrics
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The names of the curves calibrated together.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<CurveName> curveNames;
+  /**
+   * The number of calibration trades.
+   * <p>
+   * This is the number of rows of the derivative matrix.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int tradeCount;
+  /**
+   * The number of curve parameters.
+   * <p>
+   * This is the number of columns of the derivative matrix.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int parameterCount;
+  /**
+   * The number of iterations of the root finder, optional.
+   * <p>
+   * This is only available if the root finder exposes its iterations, which the standard root finders do.
+   */
+  @PropertyDefinition(get = "optional")
+  private final Integer iterations;
+  /**
+   * The norm of the residual at the start position and after each iteration, optional.
+   * <p>
+   * This is only available if the root finder exposes its iterations, which the standard root finders do.
+   * The size of this array is one more than the number of iterations.
+   */
+  @PropertyDefinition(get = "optional")
+  private final DoubleArray residualNorms;
+  /**
+   * The number of evaluations of the calibration measures by the root finder.
+   * <p>
+   * This includes the evaluations performed when backtracking.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int functionEvaluations;
+  /**
+   * The number of evaluations of the derivative matrix by the root finder.
+   * <p>
+   * This excludes the derivatives used to build the calibration Jacobian once the root is found.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final int jacobianEvaluations;
+  /**
+   * The Euclidean norm of the calibration measures of the calibrated curves.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final double residualNorm;
+  /**
+   * The elapsed time taken to calibrate the group.
+   * <p>
+   * This includes finding the root and building the calibration Jacobian and sensitivities.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Duration wallTime;
+
+  //-------------------------------------------------------------------------
+  @ImmutableValidator
+  private void validate() {
+    if (iterations != null) {
+      ArgChecker.notNegative(iterations, "iterations");
+    }
+    if (residualNorms != null) {
+      ArgChecker.isTrue(
+          iterations != null && residualNorms.size() == iterations + 1,
+          "Residual norms must contain one more element than the number of iterations");
+    }
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code CalibrationMetrics}.
+   * @return the meta-bean, not null
+   */
+  public static CalibrationMetrics.Meta meta() {
+    return CalibrationMetrics.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(CalibrationMetrics.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Returns a builder used to create an instance of the bean.
+   * @return the builder, not null
+   */
+  public static CalibrationMetrics.Builder builder() {
+    return new CalibrationMetrics.Builder();
+  }
+
+  private CalibrationMetrics(
+      List<CurveName> curveNames,
+      int tradeCount,
+      int parameterCount,
+      Integer iterations,
+      DoubleArray residualNorms,
+      int functionEvaluations,
+      int jacobianEvaluations,
+      double residualNorm,
+      Duration wallTime) {
+    JodaBeanUtils.notNull(curveNames, "curveNames");
+    ArgChecker.notNegative(tradeCount, "tradeCount");
+    ArgChecker.notNegative(parameterCount, "parameterCount");
+    ArgChecker.notNegative(functionEvaluations, "functionEvaluations");
+    ArgChecker.notNegative(jacobianEvaluations, "jacobianEvaluations");
+    ArgChecker.notNegative(residualNorm, "residualNorm");
+    JodaBeanUtils.notNull(wallTime, "wallTime");
+    this.curveNames = ImmutableList.copyOf(curveNames);
+    this.tradeCount = tradeCount;
+    this.parameterCount = parameterCount;
+    this.iterations = iterations;
+    this.residualNorms = residualNorms;
+    this.functionEvaluations = functionEvaluations;
+    this.jacobianEvaluations = jacobianEvaluations;
+    this.residualNorm = residualNorm;
+    this.wallTime = wallTime;
+    validate();
+  }
+
+  @Override
+  public CalibrationMetrics.Meta metaBean() {
+    return CalibrationMetrics.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the names of the curves calibrated together.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<CurveName> getCurveNames() {
+    return curveNames;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of calibration trades.
+   * <p>
+   * This is the number of rows of the derivative matrix.
+   * @return the value of the property
+   */
+  public int getTradeCount() {
+    return tradeCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of curve parameters.
+   * <p>
+   * This is the number of columns of the derivative matrix.
+   * @return the value of the property
+   */
+  public int getParameterCount() {
+    return parameterCount;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of iterations of the root finder, optional.
+   * <p>
+   * This is only available if the root finder exposes its iterations, which the standard root finders do.
+   * @return the optional value of the property, not null
+   */
+  public OptionalInt getIterations() {
+    return iterations != null ? OptionalInt.of(iterations) : OptionalInt.empty();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the norm of the residual at the start position and after each iteration, optional.
+   * <p>
+   * This is only available if the root finder exposes its iterations, which the standard root finders do.
+   * The size of this array is one more than the number of iterations.
+   * @return the optional value of the property, not null
+   */
+  public Optional<DoubleArray> getResidualNorms() {
+    return Optional.ofNullable(residualNorms);
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of evaluations of the calibration measures by the root finder.
+   * <p>
+   * This includes the evaluations performed when backtracking.
+   * @return the value of the property
+   */
+  public int getFunctionEvaluations() {
+    return functionEvaluations;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of evaluations of the derivative matrix by the root finder.
+   * <p>
+   * This excludes the derivatives used to build the calibration Jacobian once the root is found.
+   * @return the value of the property
+   */
+  public int getJacobianEvaluations() {
+    return jacobianEvaluations;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the Euclidean norm of the calibration measures of the calibrated curves.
+   * @return the value of the property
+   */
+  public double getResidualNorm() {
+    return residualNorm;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the elapsed time taken to calibrate the group.
+   * <p>
+   * This includes finding the root and building the calibration Jacobian and sensitivities.
+   * @return the value of the property, not null
+   */
+  public Duration getWallTime() {
+    return wallTime;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Returns a builder that allows this bean to be mutated.
+   * @return the mutable builder, not null
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      CalibrationMetrics other = (CalibrationMetrics) obj;
+      return JodaBeanUtils.equal(curveNames, other.curveNames) &&
+          (tradeCount == other.tradeCount) &&
+          (parameterCount == other.parameterCount) &&
+          JodaBeanUtils.equal(iterations, other.iterations) &&
+          JodaBeanUtils.equal(residualNorms, other.residualNorms) &&
+          (functionEvaluations == other.functionEvaluations) &&
+          (jacobianEvaluations == other.jacobianEvaluations) &&
+          JodaBeanUtils.equal(residualNorm, other.residualNorm) &&
+          JodaBeanUtils.equal(wallTime, other.wallTime);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(curveNames);
+    hash = hash * 31 + JodaBeanUtils.hashCode(tradeCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(parameterCount);
+    hash = hash * 31 + JodaBeanUtils.hashCode(iterations);
+    hash = hash * 31 + JodaBeanUtils.hashCode(residualNorms);
+    hash = hash * 31 + JodaBeanUtils.hashCode(functionEvaluations);
+    hash = hash * 31 + JodaBeanUtils.hashCode(jacobianEvaluations);
+    hash = hash * 31 + JodaBeanUtils.hashCode(residualNorm);
+    hash = hash * 31 + JodaBeanUtils.hashCode(wallTime);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(320);
+    buf.append("CalibrationMetrics{");
+    buf.append("curveNames").append('=').append(curveNames).append(',').append(' ');
+    buf.append("tradeCount").append('=').append(tradeCount).append(',').append(' ');
+    buf.append("parameterCount").append('=').append(parameterCount).append(',').append(' ');
+    buf.append("iterations").append('=').append(iterations).append(',').append(' ');
+    buf.append("residualNorms").append('=').append(residualNorms).append(',').append(' ');
+    buf.append("functionEvaluations").append('=').append(functionEvaluations).append(',').append(' ');
+    buf.append("jacobianEvaluations").append('=').append(jacobianEvaluations).append(',').append(' ');
+    buf.append("residualNorm").append('=').append(residualNorm).append(',').append(' ');
+    buf.append("wallTime").append('=').append(JodaBeanUtils.toString(wallTime));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code CalibrationMetrics}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code curveNames} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableList<CurveName>> curveNames = DirectMetaProperty.ofImmutable(
+        this, "curveNames", CalibrationMetrics.class, (Class) ImmutableList.class);
+    /**
+     * The meta-property for the {@code tradeCount} property.
+     */
+    private final MetaProperty<Integer> tradeCount = DirectMetaProperty.ofImmutable(
+        this, "tradeCount", CalibrationMetrics.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code parameterCount} property.
+     */
+    private final MetaProperty<Integer> parameterCount = DirectMetaProperty.ofImmutable(
+        this, "parameterCount", CalibrationMetrics.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code iterations} property.
+     */
+    private final MetaProperty<Integer> iterations = DirectMetaProperty.ofImmutable(
+        this, "iterations", CalibrationMetrics.class, Integer.class);
+    /**
+     * The meta-property for the {@code residualNorms} property.
+     */
+    private final MetaProperty<DoubleArray> residualNorms = DirectMetaProperty.ofImmutable(
+        this, "residualNorms", CalibrationMetrics.class, DoubleArray.class);
+    /**
+     * The meta-property for the {@code functionEvaluations} property.
+     */
+    private final MetaProperty<Integer> functionEvaluations = DirectMetaProperty.ofImmutable(
+        this, "functionEvaluations", CalibrationMetrics.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code jacobianEvaluations} property.
+     */
+    private final MetaProperty<Integer> jacobianEvaluations = DirectMetaProperty.ofImmutable(
+        this, "jacobianEvaluations", CalibrationMetrics.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code residualNorm} property.
+     */
+    private final MetaProperty<Double> residualNorm = DirectMetaProperty.ofImmutable(
+        this, "residualNorm", CalibrationMetrics.class, Double.TYPE);
+    /**
+     * The meta-property for the {@code wallTime} property.
+     */
+    private final MetaProperty<Duration> wallTime = DirectMetaProperty.ofImmutable(
+        this, "wallTime", CalibrationMetrics.class, Duration.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "curveNames",
+        "tradeCount",
+        "parameterCount",
+        "iterations",
+        "residualNorms",
+        "functionEvaluations",
+        "jacobianEvaluations",
+        "residualNorm",
+        "wallTime");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -1864031335:  // curveNames
+          return curveNames;
+        case 1849667083:  // tradeCount
+          return tradeCount;
+        case 1107332838:  // parameterCount
+          return parameterCount;
+        case -1751585482:  // iterations
+          return iterations;
+        case -2131303566:  // residualNorms
+          return residualNorms;
+        case 1463598527:  // functionEvaluations
+          return functionEvaluations;
+        case -244145376:  // jacobianEvaluations
+          return jacobianEvaluations;
+        case 623984929:  // residualNorm
+          return residualNorm;
+        case 323838903:  // wallTime
+          return wallTime;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public CalibrationMetrics.Builder builder() {
+      return new CalibrationMetrics.Builder();
+    }
+
+    @Override
+    public Class<? extends CalibrationMetrics> beanType() {
+      return CalibrationMetrics.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code curveNames} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableList<CurveName>> curveNames() {
+      return curveNames;
+    }
+
+    /**
+     * The meta-property for the {@code tradeCount} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> tradeCount() {
+      return tradeCount;
+    }
+
+    /**
+     * The meta-property for the {@code parameterCount} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> parameterCount() {
+      return parameterCount;
+    }
+
+    /**
+     * The meta-property for the {@code iterations} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> iterations() {
+      return iterations;
+    }
+
+    /**
+     * The meta-property for the {@code residualNorms} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleArray> residualNorms() {
+      return residualNorms;
+    }
+
+    /**
+     * The meta-property for the {@code functionEvaluations} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> functionEvaluations() {
+      return functionEvaluations;
+    }
+
+    /**
+     * The meta-property for the {@code jacobianEvaluations} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> jacobianEvaluations() {
+      return jacobianEvaluations;
+    }
+
+    /**
+     * The meta-property for the {@code residualNorm} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Double> residualNorm() {
+      return residualNorm;
+    }
+
+    /**
+     * The meta-property for the {@code wallTime} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Duration> wallTime() {
+      return wallTime;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case -1864031335:  // curveNames
+          return ((CalibrationMetrics) bean).getCurveNames();
+        case 1849667083:  // tradeCount
+          return ((CalibrationMetrics) bean).getTradeCount();
+        case 1107332838:  // parameterCount
+          return ((CalibrationMetrics) bean).getParameterCount();
+        case -1751585482:  // iterations
+          return ((CalibrationMetrics) bean).iterations;
+        case -2131303566:  // residualNorms
+          return ((CalibrationMetrics) bean).residualNorms;
+        case 1463598527:  // functionEvaluations
+          return ((CalibrationMetrics) bean).getFunctionEvaluations();
+        case -244145376:  // jacobianEvaluations
+          return ((CalibrationMetrics) bean).getJacobianEvaluations();
+        case 623984929:  // residualNorm
+          return ((CalibrationMetrics) bean).getResidualNorm();
+        case 323838903:  // wallTime
+          return ((CalibrationMetrics) bean).getWallTime();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code CalibrationMetrics}.
+   */
+  public static final class Builder extends DirectFieldsBeanBuilder<CalibrationMetrics> {
+
+    private List<CurveName> curveNames = ImmutableList.of();
+    private int tradeCount;
+    private int parameterCount;
+    private Integer iterations;
+    private DoubleArray residualNorms;
+    private int functionEvaluations;
+    private int jacobianEvaluations;
+    private double residualNorm;
+    private Duration wallTime;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Restricted copy constructor.
+     * @param beanToCopy  the bean to copy from, not null
+     */
+    private Builder(CalibrationMetrics beanToCopy) {
+      this.curveNames = beanToCopy.getCurveNames();
+      this.tradeCount = beanToCopy.getTradeCount();
+      this.parameterCount = beanToCopy.getParameterCount();
+      this.iterations = beanToCopy.iterations;
+      this.residualNorms = beanToCopy.residualNorms;
+      this.functionEvaluations = beanToCopy.getFunctionEvaluations();
+      this.jacobianEvaluations = beanToCopy.getJacobianEvaluations();
+      this.residualNorm = beanToCopy.getResidualNorm();
+      this.wallTime = beanToCopy.getWallTime();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -1864031335:  // curveNames
+          return curveNames;
+        case 1849667083:  // tradeCount
+          return tradeCount;
+        case 1107332838:  // parameterCount
+          return parameterCount;
+        case -1751585482:  // iterations
+          return iterations;
+        case -2131303566:  // residualNorms
+          return residualNorms;
+        case 1463598527:  // functionEvaluations
+          return functionEvaluations;
+        case -244145376:  // jacobianEvaluations
+          return jacobianEvaluations;
+        case 623984929:  // residualNorm
+          return residualNorm;
+        case 323838903:  // wallTime
+          return wallTime;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case -1864031335:  // curveNames
+          this.curveNames = (List<CurveName>) newValue;
+          break;
+        case 1849667083:  // tradeCount
+          this.tradeCount = (Integer) newValue;
+          break;
+        case 1107332838:  // parameterCount
+          this.parameterCount = (Integer) newValue;
+          break;
+        case -1751585482:  // iterations
+          this.iterations = (Integer) newValue;
+          break;
+        case -2131303566:  // residualNorms
+          this.residualNorms = (DoubleArray) newValue;
+          break;
+        case 1463598527:  // functionEvaluations
+          this.functionEvaluations = (Integer) newValue;
+          break;
+        case -244145376:  // jacobianEvaluations
+          this.jacobianEvaluations = (Integer) newValue;
+          break;
+        case 623984929:  // residualNorm
+          this.residualNorm = (Double) newValue;
+          break;
+        case 323838903:  // wallTime
+          this.wallTime = (Duration) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public Builder set(MetaProperty<?> property, Object value) {
+      super.set(property, value);
+      return this;
+    }
+
+    @Override
+    public CalibrationMetrics build() {
+      return new CalibrationMetrics(
+          curveNames,
+          tradeCount,
+          parameterCount,
+          iterations,
+          residualNorms,
+          functionEvaluations,
+          jacobianEvaluations,
+          residualNorm,
+          wallTime);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Sets the names of the curves calibrated together.
+     * @param curveNames  the new value, not null
+     * @return this, for chaining, not null
+     */
+    public Builder curveNames(List<CurveName> curveNames) {
+      JodaBeanUtils.notNull(curveNames, "curveNames");
+      this.curveNames = curveNames;
+      return this;
+    }
+
+    /**
+     * Sets the {@code curveNames} property in the builder
+     * from an array of objects.
+     * @param curveNames  the new value, not null
+     * @return this, for chaining, not null
+     */
+    public Builder curveNames(CurveName... curveNames) {
+      return curveNames(ImmutableList.copyOf(curveNames));
+    }
+
+    /**
+     * Sets the number of calibration trades.
+     * <p>
+     * This is the number of rows of the derivative matrix.
+     * @param tradeCount  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder tradeCount(int tradeCount) {
+      ArgChecker.notNegative(tradeCount, "tradeCount");
+      this.tradeCount = tradeCount;
+      return this;
+    }
+
+    /**
+     * Sets the number of curve parameters.
+     * <p>
+     * This is the number of columns of the derivative matrix.
+     * @param parameterCount  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder parameterCount(int parameterCount) {
+      ArgChecker.notNegative(parameterCount, "parameterCount");
+      this.parameterCount = parameterCount;
+      return this;
+    }
+
+    /**
+     * Sets the number of iterations of the root finder, optional.
+     * <p>
+     * This is only available if the root finder exposes its iterations,
+     * see {@link CurveCalibrator#ofNewton(double, double, int)}.
+     * @param iterations  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder iterations(Integer iterations) {
+      this.iterations = iterations;
+      return this;
+    }
+
+    /**
+     * Sets the norm of the residual at the start position and after each iteration, optional.
+     * <p>
+     * This is only available if the root finder exposes its iterations,
+     * see {@link CurveCalibrator#ofNewton(double, double, int)}.
+     * The size of this array is one more than the number of iterations.
+     * @param residualNorms  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder residualNorms(DoubleArray residualNorms) {
+      this.residualNorms = residualNorms;
+      return this;
+    }
+
+    /**
+     * Sets the number of evaluations of the calibration measures by the root finder.
+     * <p>
+     * This includes the evaluations performed when backtracking.
+     * @param functionEvaluations  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder functionEvaluations(int functionEvaluations) {
+      ArgChecker.notNegative(functionEvaluations, "functionEvaluations");
+      this.functionEvaluations = functionEvaluations;
+      return this;
+    }
+
+    /**
+     * Sets the number of evaluations of the derivative matrix by the root finder.
+     * <p>
+     * This excludes the derivatives used to build the calibration Jacobian once the root is found.
+     * @param jacobianEvaluations  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder jacobianEvaluations(int jacobianEvaluations) {
+      ArgChecker.notNegative(jacobianEvaluations, "jacobianEvaluations");
+      this.jacobianEvaluations = jacobianEvaluations;
+      return this;
+    }
+
+    /**
+     * Sets the Euclidean norm of the calibration measures of the calibrated curves.
+     * @param residualNorm  the new value
+     * @return this, for chaining, not null
+     */
+    public Builder residualNorm(double residualNorm) {
+      ArgChecker.notNegative(residualNorm, "residualNorm");
+      this.residualNorm = residualNorm;
+      return this;
+    }
+
+    /**
+     * Sets the elapsed time taken to calibrate the group.
+     * <p>
+     * This includes finding the root and building the calibration Jacobian and sensitivities.
+     * @param wallTime  the new value, not null
+     * @return this, for chaining, not null
+     */
+    public Builder wallTime(Duration wallTime) {
+      JodaBeanUtils.notNull(wallTime, "wallTime");
+      this.wallTime = wallTime;
+      return this;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(320);
+      buf.append("CalibrationMetrics.Builder{");
+      buf.append("curveNames").append('=').append(JodaBeanUtils.toString(curveNames)).append(',').append(' ');
+      buf.append("tradeCount").append('=').append(JodaBeanUtils.toString(tradeCount)).append(',').append(' ');
+      buf.append("parameterCount").append('=').append(JodaBeanUtils.toString(parameterCount)).append(',').append(' ');
+      buf.append("iterations").append('=').append(JodaBeanUtils.toString(iterations)).append(',').append(' ');
+      buf.append("residualNorms").append('=').append(JodaBeanUtils.toString(residualNorms)).append(',').append(' ');
+      buf.append("functionEvaluations").append('=').append(JodaBeanUtils.toString(functionEvaluations)).append(',').append(' ');
+      buf.append("jacobianEvaluations").append('=').append(JodaBeanUtils.toString(jacobianEvaluations)).append(',').append(' ');
+      buf.append("residualNorm").append('=').append(JodaBeanUtils.toString(residualNorm)).append(',').append(' ');
+      buf.append("wallTime").append('=').append(JodaBeanUtils.toString(wallTime));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer.curve;
 
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
@@ -34,6 +35,10 @@ class CalibrationValue
    * The provider generator, used to create child providers.
    */
   private final RatesProviderGenerator providerGenerator;
+  /**
+   * Whether the value of each trade is calculated in parallel.
+   */
+  private final boolean parallel;
 
   /**
    * Creates an instance.
@@ -47,9 +52,27 @@ class CalibrationValue
       CalibrationMeasures measures,
       RatesProviderGenerator providerGenerator) {
 
+    this(trades, measures, providerGenerator, false);
+  }
+
+  /**
+   * Creates an instance, specifying whether the value of each trade is calculated in parallel.
+   * 
+   * @param trades  the trades
+   * @param measures  the calibration measures
+   * @param providerGenerator  the provider generator, used to create child providers
+   * @param parallel  whether the value of each trade is calculated in parallel
+   */
+  CalibrationValue(
+      List<ResolvedTrade> trades,
+      CalibrationMeasures measures,
+      RatesProviderGenerator providerGenerator,
+      boolean parallel) {
+
     this.trades = trades;
     this.measures = measures;
     this.providerGenerator = providerGenerator;
+    this.parallel = parallel;
   }
 
   //-------------------------------------------------------------------------
@@ -58,7 +81,11 @@ class CalibrationValue
     // create child provider from matrix
     ImmutableRatesProvider childProvider = providerGenerator.generate(x);
     // calculate value for each trade using the child provider
-    return DoubleArray.of(trades.size(), i -> measures.value(trades.get(i), childProvider));
+    // each value is stored at its own index, so the result does not depend on the order of calculation
+    double[] values = new double[trades.size()];
+    IntStream range = IntStream.range(0, values.length);
+    (parallel ? range.parallel() : range).forEach(i -> values[i] = measures.value(trades.get(i), childProvider));
+    return DoubleArray.ofUnsafe(values);
   }
 
 }
@@ -7,10 +7,19 @@ package com.opengamma.strata.pricer.curve;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -22,16 +31,25 @@ import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveDefinition;
+import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
+import com.opengamma.strata.market.curve.RatesCurveGroup;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+import com.opengamma.strata.math.linearalgebra.DecompositionResult;
 import com.opengamma.strata.math.rootfind.NewtonVectorRootFinder;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -54,6 +72,10 @@ import com.opengamma.strata.product.ResolvedTrade;
  */
 public final class CurveCalibrator {
 
+  /**
+   * The listener used when metrics are not reported.
+   */
+  private static final Consumer<CalibrationMetrics> NO_METRICS_LISTENER = metrics -> { };
   /**
    * The standard curve calibrator.
    */
@@ -78,6 +100,14 @@ public final class CurveCalibrator {
    * This is used to compute the present value sensitivity to market quotes stored in the metadata.
    */
   private final CalibrationMeasures pvMeasures;
+  /**
+   * Whether the calibration trades are evaluated in parallel.
+   */
+  private final boolean parallelRows;
+  /**
+   * The listener receiving the metrics of each calibrated group.
+   */
+  private final Consumer<CalibrationMetrics> metricsListener;
 
   //-------------------------------------------------------------------------
   /**
@@ -153,7 +183,59 @@ public final class CurveCalibrator {
       CalibrationMeasures pvMeasures) {
 
     NewtonVectorRootFinder rootFinder = NewtonVectorRootFinder.broyden(toleranceAbs, toleranceRel, stepMaximum);
-    return new CurveCalibrator(rootFinder, measures, pvMeasures);
+    return new CurveCalibrator(rootFinder, measures, pvMeasures, false, NO_METRICS_LISTENER);
+  }
+
+  /**
+   * Obtains an instance using Newton's method with the exact Jacobian, specifying tolerances to use.
+   * <p>
+   * At each iteration, the derivative of the calibration measures is calculated for every trade
+   * and factorized using an LU decomposition. The factorization at the root is then used to
+   * derive the calibration Jacobian stored in the curve metadata, instead of inverting the
+   * derivative matrix separately.
+   * <p>
+   * Each iteration is more expensive than with the Broyden root finder, but fewer iterations are needed.
+   * The convergence can be observed using {@link #withMetricsListener(Consumer)}, the metrics contain
+   * the number of iterations and the residual norm after each iteration.
+   * The standard {@link CalibrationMeasures#PAR_SPREAD} and {@link CalibrationMeasures#PRESENT_VALUE}
+   * measures are used.
+   *
+   * @param toleranceAbs  the absolute tolerance
+   * @param toleranceRel  the relative tolerance
+   * @param stepMaximum  the maximum steps
+   * @return the curve calibrator
+   */
+  public static CurveCalibrator ofNewton(
+      double toleranceAbs,
+      double toleranceRel,
+      int stepMaximum) {
+
+    return ofNewton(
+        toleranceAbs, toleranceRel, stepMaximum, CalibrationMeasures.PAR_SPREAD, CalibrationMeasures.PRESENT_VALUE);
+  }
+
+  /**
+   * Obtains an instance using Newton's method with the exact Jacobian, specifying tolerances and measures to use.
+   * <p>
+   * See {@link #ofNewton(double, double, int)} for details of the root finder.
+   *
+   * @param toleranceAbs  the absolute tolerance
+   * @param toleranceRel  the relative tolerance
+   * @param stepMaximum  the maximum steps
+   * @param measures  the calibration measures, used to compute the function for which the root is found
+   * @param pvMeasures  the present value measures, used to compute the present value sensitivity to market quotes 
+   *   stored in the metadata
+   * @return the curve calibrator
+   */
+  public static CurveCalibrator ofNewton(
+      double toleranceAbs,
+      double toleranceRel,
+      int stepMaximum,
+      CalibrationMeasures measures,
+      CalibrationMeasures pvMeasures) {
+
+    NewtonVectorRootFinder rootFinder = new NewtonCalibrationRootFinder(toleranceAbs, toleranceRel, stepMaximum);
+    return new CurveCalibrator(rootFinder, measures, pvMeasures, false, NO_METRICS_LISTENER);
   }
 
   /**
@@ -170,7 +252,7 @@ public final class CurveCalibrator {
       CalibrationMeasures measures,
       CalibrationMeasures pvMeasures) {
 
-    return new CurveCalibrator(rootFinder, measures, pvMeasures);
+    return new CurveCalibrator(rootFinder, measures, pvMeasures, false, NO_METRICS_LISTENER);
   }
 
   //-------------------------------------------------------------------------
@@ -178,11 +260,54 @@ public final class CurveCalibrator {
   private CurveCalibrator(
       NewtonVectorRootFinder rootFinder,
       CalibrationMeasures measures,
-      CalibrationMeasures pvMeasures) {
+      CalibrationMeasures pvMeasures,
+      boolean parallelRows,
+      Consumer<CalibrationMetrics> metricsListener) {
 
     this.rootFinder = ArgChecker.notNull(rootFinder, "rootFinder");
     this.measures = ArgChecker.notNull(measures, "measures");
     this.pvMeasures = ArgChecker.notNull(pvMeasures, "pvMeasures");
+    this.parallelRows = parallelRows;
+    this.metricsListener = ArgChecker.notNull(metricsListener, "metricsListener");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this calibrator that evaluates the calibration trades in parallel, or serially.
+   * <p>
+   * When enabled, the value and derivative of each trade, forming the rows of the function and
+   * Jacobian passed to the root finder, are calculated concurrently using the common fork-join pool.
+   * The same applies to the derivatives used to build the calibration Jacobian matrices.
+   * Each row is calculated independently and stored at its own index, thus the calibrated
+   * curves are identical to those of a serial calibration.
+   * <p>
+   * This is beneficial for large curve groups calibrated one at a time.
+   * It is of little benefit when many calibrations are already running concurrently,
+   * such as when calibrating scenarios in parallel.
+   *
+   * @param parallelRows  true to evaluate the calibration trades in parallel
+   * @return the curve calibrator
+   */
+  public CurveCalibrator withParallelRows(boolean parallelRows) {
+    return new CurveCalibrator(rootFinder, measures, pvMeasures, parallelRows, metricsListener);
+  }
+
+  /**
+   * Returns a copy of this calibrator that reports the metrics of each calibrated group to a listener.
+   * <p>
+   * The listener is invoked once for each group of curves that is calibrated, once the curves of
+   * the group have been built. The metrics contain the sizes of the group, the number of evaluations
+   * performed by the root finder, the final residual and the elapsed time, allowing slow or poorly
+   * converging groups to be identified. The number of iterations and the residual norm after each
+   * iteration are also reported, unless a root finder is used that does not expose them.
+   * Groups that are reused without calibration when recalibrating are not reported.
+   * The listener may be invoked concurrently if the calibrator is used from multiple threads.
+   *
+   * @param metricsListener  the listener to receive the metrics of each calibrated group
+   * @return the curve calibrator
+   */
+  public CurveCalibrator withMetricsListener(Consumer<CalibrationMetrics> metricsListener) {
+    return new CurveCalibrator(rootFinder, measures, pvMeasures, parallelRows, metricsListener);
   }
 
   //-------------------------------------------------------------------------
@@ -195,6 +320,15 @@ public final class CurveCalibrator {
     return measures;
   }
 
+  /**
+   * Checks if the calibration trades are evaluated in parallel.
+   * 
+   * @return true if the calibration trades are evaluated in parallel
+   */
+  public boolean isParallelRows() {
+    return parallelRows;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calibrates a single curve group, containing one or more curves.
@@ -215,15 +349,121 @@ public final class CurveCalibrator {
       MarketData marketData,
       ReferenceData refData) {
 
+    return calibrate(
+        ImmutableList.of(curveGroupDefn), knownData(marketData), marketData, refData, name -> Optional.empty(), null);
+  }
+
+  /**
+   * Calibrates a single curve group, starting from previously calibrated curves.
+   * <p>
+   * This is equivalent to {@link #calibrate(RatesCurveGroupDefinition, MarketData, ReferenceData)},
+   * except that the root finder starts from the parameters of the curves in the starting group.
+   * Each curve in the starting group is matched to a curve definition by name.
+   * The definition's initial guess is used if there is no matching curve, or if the number of
+   * parameters differs, for example where nodes have been dropped from the definition.
+   * <p>
+   * When the market data is close to that used to calibrate the starting curves, such as
+   * when calibrating scenarios that perturb a base scenario, fewer iterations are needed.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param marketData  the market data required to build a trade for the instrument, including time-series
+   * @param refData  the reference data, used to resolve the trades
+   * @param startingGroup  the previously calibrated curves used as the starting point
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      RatesCurveGroupDefinition curveGroupDefn,
+      MarketData marketData,
+      ReferenceData refData,
+      RatesCurveGroup startingGroup) {
+
+    ArgChecker.notNull(startingGroup, "startingGroup");
+    return calibrate(
+        ImmutableList.of(curveGroupDefn), knownData(marketData), marketData, refData, startingGroup::findCurve, null);
+  }
+
+  /**
+   * Recalibrates a single curve group, starting from a previous calibration.
+   * <p>
+   * This is intended for frequent recalibration as the market data changes, such as intraday.
+   * The previous rates provider must be the result of calibrating the same curve group definition
+   * using the previous market data.
+   * <p>
+   * If the valuation date, FX rates, time-series and the quotes of every node are unchanged,
+   * the previous curves are used without performing any calibration.
+   * Otherwise, the root finder starts from the parameters of the previous curves, as described
+   * in {@link #calibrate(RatesCurveGroupDefinition, MarketData, ReferenceData, RatesCurveGroup)}.
+   * In addition, if the previous curves contain the calibration Jacobian, the root finder uses
+   * it to derive its initial Jacobian matrix, instead of pricing the trades to calculate it.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param marketData  the market data required to build a trade for the instrument, including time-series
+   * @param refData  the reference data, used to resolve the trades
+   * @param previousProvider  the rates provider resulting from the previous calibration
+   * @param previousMarketData  the market data used in the previous calibration
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider recalibrate(
+      RatesCurveGroupDefinition curveGroupDefn,
+      MarketData marketData,
+      ReferenceData refData,
+      ImmutableRatesProvider previousProvider,
+      MarketData previousMarketData) {
+
+    ArgChecker.notNull(previousProvider, "previousProvider");
+    ArgChecker.notNull(previousMarketData, "previousMarketData");
+    Map<CurveName, Curve> previousCurves = previousProvider.getCurves();
+    return calibrate(
+        ImmutableList.of(curveGroupDefn),
+        knownData(marketData),
+        marketData,
+        refData,
+        name -> Optional.ofNullable(previousCurves.get(name)),
+        previousMarketData);
+  }
+
+  /**
+   * Recalibrates a single curve group, starting from a previously calibrated curve group.
+   * <p>
+   * This is equivalent to
+   * {@link #recalibrate(RatesCurveGroupDefinition, MarketData, ReferenceData, ImmutableRatesProvider, MarketData)},
+   * except that the previous curves are obtained from a curve group.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param marketData  the market data required to build a trade for the instrument, including time-series
+   * @param refData  the reference data, used to resolve the trades
+   * @param previousGroup  the curve group resulting from the previous calibration
+   * @param previousMarketData  the market data used in the previous calibration
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider recalibrate(
+      RatesCurveGroupDefinition curveGroupDefn,
+      MarketData marketData,
+      ReferenceData refData,
+      RatesCurveGroup previousGroup,
+      MarketData previousMarketData) {
+
+    ArgChecker.notNull(previousGroup, "previousGroup");
+    ArgChecker.notNull(previousMarketData, "previousMarketData");
+    return calibrate(
+        ImmutableList.of(curveGroupDefn),
+        knownData(marketData),
+        marketData,
+        refData,
+        previousGroup::findCurve,
+        previousMarketData);
+  }
+
+  // creates the known data from the market data, containing the FX rates and time-series
+  private static ImmutableRatesProvider knownData(MarketData marketData) {
     Map<Index, LocalDateDoubleTimeSeries> timeSeries = marketData.getTimeSeriesIds().stream()
         .filter(IndexQuoteId.class::isInstance)
         .map(IndexQuoteId.class::cast)
         .collect(toImmutableMap(id -> id.getIndex(), id -> marketData.getTimeSeries(id)));
-    ImmutableRatesProvider knownData = ImmutableRatesProvider.builder(marketData.getValuationDate())
+    return ImmutableRatesProvider.builder(marketData.getValuationDate())
         .fxRateProvider(MarketDataFxRateProvider.of(marketData))
         .timeSeries(timeSeries)
         .build();
-    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
   }
 
   /**
@@ -245,6 +485,19 @@ public final class CurveCalibrator {
       ImmutableRatesProvider knownData,
       MarketData marketData,
       ReferenceData refData) {
+
+    return calibrate(allGroupsDefn, knownData, marketData, refData, name -> Optional.empty(), null);
+  }
+
+  // calibrates the groups, starting from the parameters of the starting curves where available
+  // if the previous market data is not null, the starting curves are reused if the inputs are unchanged
+  private ImmutableRatesProvider calibrate(
+      List<RatesCurveGroupDefinition> allGroupsDefn,
+      ImmutableRatesProvider knownData,
+      MarketData marketData,
+      ReferenceData refData,
+      Function<CurveName, Optional<Curve>> startingCurves,
+      MarketData previousMarketData) {
     // this method effectively takes one CurveGroupDefinition
     // the list is a split of the definition, not multiple independent definitions
 
@@ -252,6 +505,8 @@ public final class CurveCalibrator {
       throw new IllegalArgumentException(Messages.format(
           "Valuation dates do not match: {} and {}", knownData.getValuationDate(), marketData.getValuationDate()));
     }
+    // groups can only be reused until the first group that is calibrated, as later groups depend on it
+    boolean reuseGroups = previousMarketData != null && unchangedKnownData(marketData, previousMarketData);
     // perform calibration one group at a time, building up the result by mutating these variables
     ImmutableRatesProvider providerCombined = knownData;
     ImmutableList<CurveParameterSize> orderPrev = ImmutableList.of();
@@ -262,24 +517,52 @@ public final class CurveCalibrator {
       }
       RatesCurveGroupDefinition groupDefnBound =
           groupDefn.bindTimeSeries(knownData.getValuationDate(), knownData.getTimeSeries());
-      // combine all data in the group into flat lists
-      ImmutableList<ResolvedTrade> trades = groupDefnBound.resolvedTrades(marketData, refData);
-      ImmutableList<Double> initialGuesses = groupDefnBound.initialGuesses(marketData);
       ImmutableList<CurveParameterSize> orderGroup = toOrder(groupDefnBound);
       ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
           .addAll(orderPrev)
           .addAll(orderGroup)
           .build();
+      RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(providerCombined, groupDefnBound, refData);
+
+      // reuse the previous curves if the inputs are unchanged
+      if (reuseGroups) {
+        Optional<ImmutableList<Curve>> unchangedCurves =
+            unchangedCurves(groupDefnBound, marketData, previousMarketData, startingCurves);
+        if (unchangedCurves.isPresent()) {
+          ImmutableList<Curve> curves = unchangedCurves.get();
+          if (groupDefnBound.isComputeJacobian()) {
+            jacobians = ImmutableMap.<CurveName, JacobianCalibrationMatrix>builder()
+                .putAll(jacobians)
+                .putAll(curveInfo(curves, CurveInfoType.JACOBIAN))
+                .build();
+          }
+          ImmutableMap<CurveName, DoubleArray> sensitivityToMarketQuote =
+              groupDefnBound.isComputePvSensitivityToMarketQuote() ?
+                  curveInfo(curves, CurveInfoType.PV_SENSITIVITY_TO_MARKET_QUOTE) :
+                  ImmutableMap.of();
+          orderPrev = orderPrevAndGroup;
+          providerCombined = providerGenerator.generate(parameters(curves), jacobians, sensitivityToMarketQuote);
+          continue;
+        }
+        reuseGroups = false;
+      }
+
+      // combine all data in the group into flat lists
+      long start = System.nanoTime();
+      ImmutableList<ResolvedTrade> trades = groupDefnBound.resolvedTrades(marketData, refData);
+      ImmutableList<Double> initialGuesses = initialGuesses(groupDefnBound, marketData, startingCurves);
 
       // calibrate
-      RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(providerCombined, groupDefnBound, refData);
-      DoubleArray calibratedGroupParams = calibrateGroup(providerGenerator, trades, initialGuesses, orderGroup);
+      CalibrationMetrics.Builder metrics = CalibrationMetrics.builder();
+      Pair<DoubleArray, Optional<DecompositionResult>> calibrated =
+          calibrateGroup(providerGenerator, trades, initialGuesses, startingCurves, orderGroup, metrics);
+      DoubleArray calibratedGroupParams = calibrated.getFirst();
       ImmutableRatesProvider calibratedProvider = providerGenerator.generate(calibratedGroupParams);
 
       // use calibration to build Jacobian matrices
       if (groupDefnBound.isComputeJacobian()) {
         jacobians = updateJacobiansForGroup(
-            calibratedProvider, trades, orderGroup, orderPrev, orderPrevAndGroup, jacobians);
+            calibratedProvider, trades, orderGroup, orderPrev, orderPrevAndGroup, jacobians, calibrated.getSecond());
       }
       ImmutableMap<CurveName, DoubleArray> sensitivityToMarketQuote = ImmutableMap.of();
       if (groupDefnBound.isComputePvSensitivityToMarketQuote()) {
@@ -290,54 +573,219 @@ public final class CurveCalibrator {
 
       // use Jacobians to build output curves
       providerCombined = providerGenerator.generate(calibratedGroupParams, jacobians, sensitivityToMarketQuote);
+      metricsListener.accept(metrics.wallTime(Duration.ofNanos(System.nanoTime() - start)).build());
     }
     // return the calibrated provider
     return providerCombined;
   }
 
+  // the initial guesses, using the parameters of the starting curve if it matches the definition
+  private static ImmutableList<Double> initialGuesses(
+      RatesCurveGroupDefinition groupDefn,
+      MarketData marketData,
+      Function<CurveName, Optional<Curve>> startingCurves) {
+
+    ImmutableList.Builder<Double> result = ImmutableList.builder();
+    for (CurveDefinition curveDefn : groupDefn.getCurveDefinitions()) {
+      Optional<Curve> startingCurve = startingCurves.apply(curveDefn.getName())
+          .filter(curve -> curve.getParameterCount() == curveDefn.getParameterCount());
+      if (startingCurve.isPresent()) {
+        Curve curve = startingCurve.get();
+        for (int i = 0; i < curve.getParameterCount(); i++) {
+          result.add(curve.getParameter(i));
+        }
+      } else {
+        result.addAll(curveDefn.initialGuess(marketData));
+      }
+    }
+    return result.build();
+  }
+
+  // the initial Jacobian for the root finder, the inverse of the calibration Jacobian of the starting curves
+  // the calibration Jacobian must be present for all curves in the group, with the same parameter counts
+  private static Optional<DoubleMatrix> initialJacobian(
+      ImmutableList<CurveParameterSize> orderGroup,
+      Function<CurveName, Optional<Curve>> startingCurves) {
+
+    int totalParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
+    double[][] inverse = new double[totalParamsGroup][];
+    int row = 0;
+    for (CurveParameterSize order : orderGroup) {
+      Optional<JacobianCalibrationMatrix> jacobian = startingCurves.apply(order.getName())
+          .filter(curve -> curve.getParameterCount() == order.getParameterCount())
+          .flatMap(curve -> curve.getMetadata().findInfo(CurveInfoType.JACOBIAN));
+      if (!jacobian.isPresent()) {
+        return Optional.empty();
+      }
+      // the columns of the curves in the group, which were calibrated together
+      ImmutableList<CurveParameterSize> jacobianOrder = jacobian.get().getOrder();
+      int groupIndex = Collections.indexOfSubList(jacobianOrder, orderGroup);
+      if (groupIndex < 0) {
+        return Optional.empty();
+      }
+      int column = jacobianOrder.subList(0, groupIndex).stream().mapToInt(e -> e.getParameterCount()).sum();
+      DoubleMatrix matrix = jacobian.get().getJacobianMatrix();
+      for (int i = 0; i < order.getParameterCount(); i++) {
+        inverse[row++] = Arrays.copyOfRange(matrix.rowArray(i), column, column + totalParamsGroup);
+      }
+    }
+    return Optional.of(MATRIX_ALGEBRA.getInverse(DoubleMatrix.ofUnsafe(inverse)));
+  }
+
+  // checks if the valuation date, FX rates and time-series are unchanged
+  private static boolean unchangedKnownData(MarketData marketData, MarketData previousMarketData) {
+    if (!marketData.getValuationDate().equals(previousMarketData.getValuationDate())) {
+      return false;
+    }
+    Set<MarketDataId<?>> fxRateIds = fxRateIds(marketData);
+    if (!fxRateIds.equals(fxRateIds(previousMarketData)) ||
+        !unchangedValues(fxRateIds, marketData, previousMarketData)) {
+      return false;
+    }
+    Set<ObservableId> timeSeriesIds = marketData.getTimeSeriesIds();
+    return timeSeriesIds.equals(previousMarketData.getTimeSeriesIds()) &&
+        timeSeriesIds.stream()
+            .allMatch(id -> marketData.getTimeSeries(id).equals(previousMarketData.getTimeSeries(id)));
+  }
+
+  // the identifiers of the FX rates
+  private static Set<MarketDataId<?>> fxRateIds(MarketData marketData) {
+    return marketData.getIds().stream()
+        .filter(FxRateId.class::isInstance)
+        .collect(toImmutableSet());
+  }
+
+  // checks if the values of the identifiers are unchanged
+  private static boolean unchangedValues(
+      Set<? extends MarketDataId<?>> ids,
+      MarketData marketData,
+      MarketData previousMarketData) {
+
+    return ids.stream().allMatch(id -> marketData.findValue(id).equals(previousMarketData.findValue(id)));
+  }
+
+  // the starting curves of the group, empty if any node quotes have changed or the curves do not match
+  private static Optional<ImmutableList<Curve>> unchangedCurves(
+      RatesCurveGroupDefinition groupDefn,
+      MarketData marketData,
+      MarketData previousMarketData,
+      Function<CurveName, Optional<Curve>> startingCurves) {
+
+    ImmutableList.Builder<Curve> result = ImmutableList.builder();
+    for (CurveDefinition curveDefn : groupDefn.getCurveDefinitions()) {
+      Optional<Curve> startingCurve = startingCurves.apply(curveDefn.getName())
+          .filter(curve -> curve.getParameterCount() == curveDefn.getParameterCount())
+          .filter(curve -> !groupDefn.isComputeJacobian() ||
+              curve.getMetadata().findInfo(CurveInfoType.JACOBIAN).isPresent())
+          .filter(curve -> !groupDefn.isComputePvSensitivityToMarketQuote() ||
+              curve.getMetadata().findInfo(CurveInfoType.PV_SENSITIVITY_TO_MARKET_QUOTE).isPresent());
+      if (!startingCurve.isPresent() ||
+          !curveDefn.getNodes().stream()
+              .allMatch(node -> unchangedValues(node.requirements(), marketData, previousMarketData))) {
+        return Optional.empty();
+      }
+      result.add(startingCurve.get());
+    }
+    return Optional.of(result.build());
+  }
+
+  // the parameters of the curves, in order
+  private static DoubleArray parameters(List<Curve> curves) {
+    return DoubleArray.of(curves.stream()
+        .flatMapToDouble(curve -> IntStream.range(0, curve.getParameterCount()).mapToDouble(curve::getParameter)));
+  }
+
+  // the info of the curves, keyed by curve name
+  private static <T> ImmutableMap<CurveName, T> curveInfo(List<Curve> curves, CurveInfoType<T> type) {
+    return curves.stream()
+        .collect(toImmutableMap(curve -> curve.getName(), curve -> curve.getMetadata().getInfo(type)));
+  }
+
   // converts a definition to the curve order list
   private static ImmutableList<CurveParameterSize> toOrder(RatesCurveGroupDefinition groupDefn) {
     return groupDefn.getCurveDefinitions().stream().map(def -> def.toCurveParameterSize()).collect(toImmutableList());
   }
 
   //-------------------------------------------------------------------------
-  // calibrates a single group
-  private DoubleArray calibrateGroup(
+  // calibrates a single group, returning the parameters and the decomposition of the Jacobian if available
+  // the metrics of the root finder are added to the builder
+  // the starting curves provide the initial Jacobian for root finders that approximate the Jacobian
+  private Pair<DoubleArray, Optional<DecompositionResult>> calibrateGroup(
       RatesProviderGenerator providerGenerator,
       ImmutableList<ResolvedTrade> trades,
       ImmutableList<Double> initialGuesses,
-      ImmutableList<CurveParameterSize> curveOrder) {
+      Function<CurveName, Optional<Curve>> startingCurves,
+      ImmutableList<CurveParameterSize> curveOrder,
+      CalibrationMetrics.Builder metrics) {
 
     // setup for calibration
-    Function<DoubleArray, DoubleArray> valueCalculator = new CalibrationValue(trades, measures, providerGenerator);
-    Function<DoubleArray, DoubleMatrix> derivativeCalculator =
-        new CalibrationDerivative(trades, measures, providerGenerator, curveOrder);
+    EvaluationCounter<DoubleArray> valueCalculator =
+        new EvaluationCounter<>(new CalibrationValue(trades, measures, providerGenerator, parallelRows));
+    EvaluationCounter<DoubleMatrix> derivativeCalculator = new EvaluationCounter<>(
+        new CalibrationDerivative(trades, measures, providerGenerator, curveOrder, parallelRows));
+    List<CurveName> curveNames = curveOrder.stream().map(CurveParameterSize::getName).collect(toImmutableList());
+    metrics.curveNames(curveNames)
+        .tradeCount(trades.size())
+        .parameterCount(initialGuesses.size());
 
     // calibrate
     DoubleArray initGuessMatrix = DoubleArray.copyOf(initialGuesses);
-    return rootFinder.findRoot(valueCalculator, derivativeCalculator, initGuessMatrix);
+    if (rootFinder instanceof NewtonCalibrationRootFinder) {
+      // the exact Jacobian is calculated at the start, thus the initial Jacobian is not needed
+      NewtonCalibrationRootFinder.Result result =
+          ((NewtonCalibrationRootFinder) rootFinder).solve(valueCalculator, derivativeCalculator, initGuessMatrix);
+      DoubleArray residualNorms = result.getResidualNorms();
+      metrics.iterations(residualNorms.size() - 1)
+          .residualNorms(residualNorms)
+          .functionEvaluations(valueCalculator.getCount())
+          .jacobianEvaluations(derivativeCalculator.getCount())
+          .residualNorm(residualNorms.get(residualNorms.size() - 1));
+      return Pair.of(result.getRoot(), Optional.of(result.getDecomposition()));
+    }
+    // the inverse of the starting Jacobian is only calculated when it is used
+    // otherwise the Jacobian at the initial guess is calculated, as the root finder would do
+    DoubleMatrix initialJacobian = initialJacobian(curveOrder, startingCurves)
+        .orElseGet(() -> derivativeCalculator.apply(initGuessMatrix));
+    List<Double> residualNorms = new ArrayList<>();
+    DoubleArray root = rootFinder.findRoot(
+        valueCalculator, derivativeCalculator, initGuessMatrix, initialJacobian, residualNorms::add);
+    metrics.functionEvaluations(valueCalculator.getCount())
+        .jacobianEvaluations(derivativeCalculator.getCount())
+        .residualNorm(NewtonCalibrationRootFinder.norm(valueCalculator.valueAt(root)));
+    if (!residualNorms.isEmpty()) {
+      metrics.iterations(residualNorms.size() - 1)
+          .residualNorms(DoubleArray.copyOf(residualNorms));
+    }
+    return Pair.of(root, Optional.empty());
   }
 
   //-------------------------------------------------------------------------
   // calculates the Jacobian and builds the result, called once per group
   // this uses, but does not alter, data from previous groups
+  // if available, the decomposition of the derivative matrix of the group at the root is used for the direct part
   private ImmutableMap<CurveName, JacobianCalibrationMatrix> updateJacobiansForGroup(
       ImmutableRatesProvider provider,
       ImmutableList<ResolvedTrade> trades,
       ImmutableList<CurveParameterSize> orderGroup,
       ImmutableList<CurveParameterSize> orderPrev,
       ImmutableList<CurveParameterSize> orderAll,
-      ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians) {
+      ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians,
+      Optional<DecompositionResult> decomposition) {
 
-    // sensitivity to all parameters in the stated order
     int totalParamsAll = orderAll.stream().mapToInt(e -> e.getParameterCount()).sum();
-    DoubleMatrix res = derivatives(trades, provider, orderAll, totalParamsAll);
+    int totalParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
+    int totalParamsPrevious = totalParamsAll - totalParamsGroup;
+
+    // sensitivity to all parameters in the stated order, not needed if only the direct part is required
+    DoubleMatrix res = totalParamsPrevious > 0 || !decomposition.isPresent() ?
+        derivatives(trades, provider, orderAll, totalParamsAll) :
+        DoubleMatrix.EMPTY;
 
     // jacobian direct
     int nbTrades = trades.size();
-    int totalParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
-    int totalParamsPrevious = totalParamsAll - totalParamsGroup;
-    DoubleMatrix pDmCurrentMatrix = jacobianDirect(res, nbTrades, totalParamsGroup, totalParamsPrevious);
+    DoubleMatrix pDmCurrentMatrix = decomposition.isPresent() ?
+        decomposition.get().solve(DoubleMatrix.identity(totalParamsGroup)) :
+        jacobianDirect(res, nbTrades, totalParamsGroup, totalParamsPrevious);
 
     // jacobian indirect: when totalParamsPrevious > 0
     DoubleMatrix pDmPrevious = jacobianIndirect(
@@ -395,10 +843,8 @@ public final class CurveCalibrator {
       ImmutableList<CurveParameterSize> orderAll,
       int totalParamsAll) {
 
-    return DoubleMatrix.ofArrayObjects(
-        trades.size(),
-        totalParamsAll,
-        i -> measures.derivative(trades.get(i), provider, orderAll));
+    DoubleArray[] rows = CalibrationDerivative.derivatives(trades, measures, provider, orderAll, parallelRows);
+    return DoubleMatrix.ofArrayObjects(trades.size(), totalParamsAll, i -> rows[i]);
   }
 
   // jacobian direct, for the current group
@@ -471,4 +917,56 @@ public final class CurveCalibrator {
     return Messages.format("CurveCalibrator[{}]", measures);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Function that counts the number of times it is evaluated.
+   * <p>
+   * The last evaluation is retained, as root finders typically evaluate the function at the root last.
+   * 
+   * @param <T>  the type of the result
+   */
+  private static final class EvaluationCounter<T> implements Function<DoubleArray, T> {
+
+    /**
+     * The underlying function.
+     */
+    private final Function<DoubleArray, T> underlying;
+    /**
+     * The number of evaluations.
+     */
+    private int count;
+    /**
+     * The argument of the last evaluation.
+     */
+    private DoubleArray lastArgument;
+    /**
+     * The result of the last evaluation.
+     */
+    private T lastResult;
+
+    // restricted constructor
+    private EvaluationCounter(Function<DoubleArray, T> underlying) {
+      this.underlying = underlying;
+    }
+
+    @Override
+    public T apply(DoubleArray x) {
+      T result = underlying.apply(x);
+      count++;
+      lastArgument = x;
+      lastResult = result;
+      return result;
+    }
+
+    // the number of evaluations
+    private int getCount() {
+      return count;
+    }
+
+    // the value at the specified point, reusing the last evaluation if possible, without counting
+    private T valueAt(DoubleArray x) {
+      return x.equals(lastArgument) ? lastResult : underlying.apply(x);
+    }
+  }
+
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.MathException;
+import com.opengamma.strata.math.impl.differentiation.VectorFieldFirstOrderDifferentiator;
+import com.opengamma.strata.math.impl.linearalgebra.LUDecompositionCommons;
+import com.opengamma.strata.math.linearalgebra.Decomposition;
+import com.opengamma.strata.math.linearalgebra.DecompositionResult;
+import com.opengamma.strata.math.rootfind.NewtonVectorRootFinder;
+
+/**
+ * Root finder for curve calibration using Newton's method with the exact Jacobian.
+ * <p>
+ * At each iteration the Jacobian is calculated using the Jacobian function and factorized
+ * using an LU decomposition, which is used to solve for the Newton step.
+ * If the full step does not reduce the residual, the step is halved until it does.
+ * <p>
+ * The root finder has converged when the norm of the residual is less than the absolute tolerance
+ * and each element of the Newton step is less than the absolute tolerance plus the relative tolerance
+ * times the element of the position. The LU decomposition used for the last step is therefore that of
+ * the Jacobian at the root, and is returned to allow the calibration Jacobian to be derived from it.
+ * <p>
+ * If no Jacobian function is specified, the Jacobian is calculated by finite difference.
+ */
+final class NewtonCalibrationRootFinder implements NewtonVectorRootFinder {
+
+  /**
+   * The decomposition used to solve for each step.
+   */
+  private static final Decomposition<?> DECOMPOSITION = new LUDecompositionCommons();
+  /**
+   * The maximum number of times the step is halved in one iteration.
+   */
+  private static final int MAX_BACKTRACKS = 20;
+
+  /**
+   * The absolute tolerance.
+   */
+  private final double absoluteTol;
+  /**
+   * The relative tolerance.
+   */
+  private final double relativeTol;
+  /**
+   * The maximum number of iterations.
+   */
+  private final int maxSteps;
+
+  /**
+   * Creates an instance.
+   *
+   * @param absoluteTol  the absolute tolerance
+   * @param relativeTol  the relative tolerance
+   * @param maxSteps  the maximum number of iterations
+   */
+  NewtonCalibrationRootFinder(double absoluteTol, double relativeTol, int maxSteps) {
+    this.absoluteTol = ArgChecker.notNegative(absoluteTol, "absoluteTol");
+    this.relativeTol = ArgChecker.notNegative(relativeTol, "relativeTol");
+    this.maxSteps = ArgChecker.notNegative(maxSteps, "maxSteps");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public DoubleArray findRoot(Function<DoubleArray, DoubleArray> function, DoubleArray startPosition) {
+    VectorFieldFirstOrderDifferentiator jac = new VectorFieldFirstOrderDifferentiator();
+    return findRoot(function, jac.differentiate(function), startPosition);
+  }
+
+  @Override
+  public DoubleArray findRoot(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition) {
+
+    return solve(function, jacobianFunction, startPosition).getRoot();
+  }
+
+  /**
+   * Finds the root from the specified start position.
+   *
+   * @param function  the vector function
+   * @param jacobianFunction  the function to calculate the Jacobian
+   * @param startPosition  the start position
+   * @return the result, containing the root, the decomposition of the Jacobian at the root and the residual norms
+   * @throws MathException if unable to find the root, such as if unable to converge
+   */
+  Result solve(
+      Function<DoubleArray, DoubleArray> function,
+      Function<DoubleArray, DoubleMatrix> jacobianFunction,
+      DoubleArray startPosition) {
+
+    ArgChecker.notNull(function, "function");
+    ArgChecker.notNull(jacobianFunction, "jacobianFunction");
+    ArgChecker.notNull(startPosition, "startPosition");
+    DoubleArray x = startPosition;
+    DoubleArray y = function.apply(x);
+    double norm = norm(y);
+    double[] norms = new double[maxSteps + 1];
+    norms[0] = norm;
+    int iterations = 0;
+    while (true) {
+      DecompositionResult decomposition = DECOMPOSITION.apply(jacobianFunction.apply(x));
+      DoubleArray step = decomposition.solve(y).multipliedBy(-1d);
+      if (norm < absoluteTol && isSmall(step, x)) {
+        return new Result(x, decomposition, DoubleArray.copyOf(norms, 0, iterations + 1));
+      }
+      if (iterations == maxSteps) {
+        throw new MathException(Messages.format(
+            "Failed to converge - maximum iterations of {} reached, residual norm {}", maxSteps, norm));
+      }
+      // backtrack until the residual is reduced
+      double lambda = 1d;
+      DoubleArray xNew = x.plus(step);
+      DoubleArray yNew = function.apply(xNew);
+      double normNew = norm(yNew);
+      for (int i = 0; !(normNew < norm); i++) {
+        if (i == MAX_BACKTRACKS) {
+          if (norm < absoluteTol) {
+            // cannot improve on the current position, which is close enough to the root
+            return new Result(x, decomposition, DoubleArray.copyOf(norms, 0, iterations + 1));
+          }
+          throw new MathException(Messages.format(
+              "Failed to converge in backtracking after {} iterations, residual norm {}", iterations, norm));
+        }
+        lambda *= 0.5d;
+        xNew = x.plus(step.multipliedBy(lambda));
+        yNew = function.apply(xNew);
+        normNew = norm(yNew);
+      }
+      x = xNew;
+      y = yNew;
+      norm = normNew;
+      iterations++;
+      norms[iterations] = norm;
+    }
+  }
+
+  // the Euclidean norm of the residual
+  static double norm(DoubleArray y) {
+    return Math.sqrt(y.reduce(0d, (sum, value) -> sum + value * value));
+  }
+
+  // checks if the step is within the tolerance
+  private boolean isSmall(DoubleArray step, DoubleArray x) {
+    for (int i = 0; i < step.size(); i++) {
+      if (Math.abs(step.get(i)) > absoluteTol + Math.abs(x.get(i)) * relativeTol) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "NewtonCalibrationRootFinder[absoluteTol={}, relativeTol={}, maxSteps={}]", absoluteTol, relativeTol, maxSteps);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The result of the root finder.
+   */
+  static final class Result {
+
+    /**
+     * The root.
+     */
+    private final DoubleArray root;
+    /**
+     * The decomposition of the Jacobian at the root.
+     */
+    private final DecompositionResult decomposition;
+    /**
+     * The norm of the residual at the start position and after each iteration.
+     */
+    private final DoubleArray residualNorms;
+
+    // restricted constructor
+    private Result(DoubleArray root, DecompositionResult decomposition, DoubleArray residualNorms) {
+      this.root = root;
+      this.decomposition = decomposition;
+      this.residualNorms = residualNorms;
+    }
+
+    /**
+     * Gets the root.
+     *
+     * @return the root
+     */
+    DoubleArray getRoot() {
+      return root;
+    }
+
+    /**
+     * Gets the decomposition of the Jacobian at the root.
+     *
+     * @return the decomposition
+     */
+    DecompositionResult getDecomposition() {
+      return decomposition;
+    }
+
+    /**
+     * Gets the norm of the residual at the start position and after each iteration.
+     *
+     * @return the residual norms
+     */
+    DoubleArray getResidualNorms() {
+      return residualNorms;
+    }
+  }
+
+}
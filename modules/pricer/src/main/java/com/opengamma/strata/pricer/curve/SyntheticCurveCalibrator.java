@@ -12,6 +12,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
@@ -94,6 +95,20 @@ public final class SyntheticCurveCalibrator {
     this.calibrator = calibrator;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this calibrator that reports the metrics of each calibrated group to a listener.
+   * <p>
+   * The metrics are reported by the underlying curve calibrator once the synthetic quotes have been computed.
+   * See {@link CurveCalibrator#withMetricsListener(Consumer)} for details.
+   *
+   * @param metricsListener  the listener to receive the metrics of each calibrated group
+   * @return the synthetic curve calibrator
+   */
+  public SyntheticCurveCalibrator withMetricsListener(Consumer<CalibrationMetrics> metricsListener) {
+    return new SyntheticCurveCalibrator(calibrator.withMetricsListener(metricsListener), measures);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the market quote measures.
@@ -95,6 +95,12 @@ public class ZeroRateDiscountFactorsTest {
     assertEquals(test.discountFactor(DATE_AFTER), expected);
   }
   
+  public void test_discountFactors() {
+    ZeroRateDiscountFactors test = ZeroRateDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    DoubleArray yearFractions = DoubleArray.of(0.1d, 0.5d, 1.5d, 3d, 10d, 2d);
+    assertEquals(test.discountFactors(yearFractions), yearFractions.map(test::discountFactor));
+  }
+
   public void test_discountFactorTimeDerivative() {
     DiscountFactors test = DiscountFactors.of(GBP, DATE_VAL, CURVE);
     double relativeYearFraction = ACT_365F.relativeYearFraction(DATE_VAL, DATE_AFTER);
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
+
+/**
+ * Tests {@link CalibrationMetrics}.
+ */
+@Test
+public class CalibrationMetricsTest {
+
+  private static final CurveName NAME1 = CurveName.of("Test1");
+  private static final CurveName NAME2 = CurveName.of("Test2");
+
+  //-------------------------------------------------------------------------
+  public void test_builder() {
+    CalibrationMetrics test = sut();
+    assertThat(test.getCurveNames()).containsExactly(NAME1, NAME2);
+    assertThat(test.getTradeCount()).isEqualTo(10);
+    assertThat(test.getParameterCount()).isEqualTo(10);
+    assertThat(test.getIterations()).hasValue(4);
+    assertThat(test.getResidualNorms()).hasValue(DoubleArray.of(1d, 1e-3, 1e-6, 1e-9, 1e-12));
+    assertThat(test.getFunctionEvaluations()).isEqualTo(6);
+    assertThat(test.getJacobianEvaluations()).isEqualTo(5);
+    assertThat(test.getResidualNorm()).isEqualTo(1e-12);
+    assertThat(test.getWallTime()).isEqualTo(Duration.ofMillis(20));
+  }
+
+  public void test_builder_noIterations() {
+    CalibrationMetrics test = sut2();
+    assertThat(test.getIterations()).isEmpty();
+    assertThat(test.getResidualNorms()).isEmpty();
+  }
+
+  public void test_builder_negative() {
+    assertThrowsIllegalArg(() -> sut().toBuilder().iterations(-1).build());
+    assertThrowsIllegalArg(() -> sut().toBuilder().functionEvaluations(-1).build());
+    assertThrowsIllegalArg(() -> sut().toBuilder().residualNorm(-1d).build());
+  }
+
+  public void test_builder_residualNormsSize() {
+    assertThrowsIllegalArg(() -> sut().toBuilder().iterations(3).build());
+    assertThrowsIllegalArg(() -> sut2().toBuilder().residualNorms(DoubleArray.of(1d)).build());
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    coverImmutableBean(sut());
+    coverBeanEquals(sut(), sut2());
+  }
+
+  public void test_serialization() {
+    assertSerialization(sut());
+  }
+
+  //-------------------------------------------------------------------------
+  static CalibrationMetrics sut() {
+    return CalibrationMetrics.builder()
+        .curveNames(NAME1, NAME2)
+        .tradeCount(10)
+        .parameterCount(10)
+        .iterations(4)
+        .residualNorms(DoubleArray.of(1d, 1e-3, 1e-6, 1e-9, 1e-12))
+        .functionEvaluations(6)
+        .jacobianEvaluations(5)
+        .residualNorm(1e-12)
+        .wallTime(Duration.ofMillis(20))
+        .build();
+  }
+
+  static CalibrationMetrics sut2() {
+    return CalibrationMetrics.builder()
+        .curveNames(NAME2)
+        .tradeCount(5)
+        .parameterCount(5)
+        .functionEvaluations(12)
+        .jacobianEvaluations(2)
+        .residualNorm(1e-10)
+        .wallTime(Duration.ofMillis(10))
+        .build();
+  }
+
+}
@@ -19,6 +19,8 @@ import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.US
 import static com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS;
 import static com.opengamma.strata.product.swap.type.XCcyIborIborSwapConventions.EUR_EURIBOR_3M_USD_LIBOR_3M;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.Period;
@@ -38,17 +40,23 @@ import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.collect.DoubleArrayMath;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.ImmutableMarketDataBuilder;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.market.ValueType;
-import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
+import com.opengamma.strata.market.curve.RatesCurveGroup;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
@@ -302,6 +310,9 @@ public class CalibrationZeroRateUsdOisIrsEurFxXCcyIrsTest {
   // Constants
   private static final double TOLERANCE_PV = 1.0E-6;
   private static final double TOLERANCE_PV_DELTA = 1.0E+3;
+  private static final double TOLERANCE_PARAM = 1.0E-8;
+  private static final double TOLERANCE_JACOBIAN = 1.0E-6;
+  private static final double TOLERANCE_RESIDUAL = 1.0E-8;
 
   private static final CurveGroupName CURVE_GROUP_NAME = CurveGroupName.of("USD-DSCON-EUR-DSC");
   private static final InterpolatedNodalCurveDefinition USD_DSC_CURVE_DEFN =
@@ -383,6 +394,143 @@ public class CalibrationZeroRateUsdOisIrsEurFxXCcyIrsTest {
     assertPresentValue(result);
   }
 
+  public void calibration_parallelRows() {
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    ImmutableRatesProvider result =
+        CALIBRATOR.withParallelRows(true).calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    assertEquals(result, expected);
+  }
+
+  public void calibration_newton_oneGroup() {
+    List<CalibrationMetrics> metrics = new ArrayList<>();
+    CurveCalibrator calibrator = CurveCalibrator.ofNewton(1e-9, 1e-9, 100).withMetricsListener(metrics::add);
+    ImmutableRatesProvider result = calibrator.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    assertPresentValue(result);
+    assertCurves(result, CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA));
+    assertEquals(metrics.size(), 1);
+    assertEquals(
+        metrics.get(0).getCurveNames(),
+        ImmutableList.of(USD_DSCON_CURVE_NAME, USD_FWD3_CURVE_NAME, EUR_DSC_CURVE_NAME, EUR_FWD3_CURVE_NAME));
+    assertTrue(metrics.get(0).getIterations().getAsInt() > 0);
+    assertTrue(metrics.get(0).getResidualNorm() < 1e-9);
+  }
+
+  public void calibration_newton_threeGroups() {
+    List<CalibrationMetrics> metrics = new ArrayList<>();
+    CurveCalibrator calibrator = CurveCalibrator.ofNewton(1e-9, 1e-9, 100).withMetricsListener(metrics::add);
+    ImmutableList<RatesCurveGroupDefinition> groups = ImmutableList.of(GROUP_1, GROUP_2, GROUP_3);
+    ImmutableRatesProvider result = calibrator.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA);
+    assertPresentValue(result);
+    assertCurves(result, CALIBRATOR.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA));
+    assertEquals(metrics.size(), 3);
+    assertEquals(metrics.get(2).getCurveNames(), ImmutableList.of(EUR_DSC_CURVE_NAME, EUR_FWD3_CURVE_NAME));
+  }
+
+  public void calibration_metrics_threeGroups() {
+    List<CalibrationMetrics> metrics = new ArrayList<>();
+    CurveCalibrator calibrator = CALIBRATOR.withMetricsListener(metrics::add);
+    ImmutableList<RatesCurveGroupDefinition> groups = ImmutableList.of(GROUP_1, GROUP_2, GROUP_3);
+    ImmutableRatesProvider result = calibrator.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA);
+    assertEquals(result, CALIBRATOR.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA));
+    assertEquals(metrics.size(), 3);
+    CalibrationMetrics metricsEur = metrics.get(2);
+    assertEquals(metricsEur.getCurveNames(), ImmutableList.of(EUR_DSC_CURVE_NAME, EUR_FWD3_CURVE_NAME));
+    assertEquals(metricsEur.getTradeCount(), EUR_DSC_NB_NODES + EUR_FWD3_NB_NODES);
+    assertEquals(metricsEur.getParameterCount(), EUR_DSC_NB_NODES + EUR_FWD3_NB_NODES);
+    for (CalibrationMetrics groupMetrics : metrics) {
+      int iterations = groupMetrics.getIterations().getAsInt();
+      assertTrue(iterations > 0);
+      DoubleArray residualNorms = groupMetrics.getResidualNorms().get();
+      assertEquals(residualNorms.size(), iterations + 1);
+      assertEquals(residualNorms.get(iterations), groupMetrics.getResidualNorm(), TOLERANCE_RESIDUAL);
+      assertTrue(groupMetrics.getFunctionEvaluations() > 0);
+      assertTrue(groupMetrics.getJacobianEvaluations() > 0);
+      assertTrue(groupMetrics.getResidualNorm() < TOLERANCE_RESIDUAL);
+      assertFalse(groupMetrics.getWallTime().isNegative());
+    }
+  }
+
+  public void calibration_metrics_newton() {
+    List<CalibrationMetrics> metrics = new ArrayList<>();
+    CurveCalibrator calibrator = CurveCalibrator.ofNewton(1e-9, 1e-9, 100).withMetricsListener(metrics::add);
+    calibrator.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    assertEquals(metrics.size(), 1);
+    CalibrationMetrics test = metrics.get(0);
+    int iterations = test.getIterations().getAsInt();
+    assertEquals(test.getJacobianEvaluations(), iterations + 1);
+    assertTrue(test.getFunctionEvaluations() >= iterations + 1);
+    // the residual decreases at every iteration, ending with the residual of the calibrated curves
+    DoubleArray residualNorms = test.getResidualNorms().get();
+    assertEquals(residualNorms.size(), iterations + 1);
+    for (int i = 1; i < residualNorms.size(); i++) {
+      assertTrue(residualNorms.get(i) < residualNorms.get(i - 1));
+    }
+    assertEquals(test.getResidualNorm(), residualNorms.get(iterations));
+  }
+
+  public void recalibrate_unchanged_metrics() {
+    List<CalibrationMetrics> metrics = new ArrayList<>();
+    ImmutableRatesProvider previous = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    CALIBRATOR.withMetricsListener(metrics::add)
+        .recalibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA, previous, ALL_QUOTES);
+    assertEquals(metrics.size(), 0);
+  }
+
+  public void recalibrate_unchanged() {
+    ImmutableRatesProvider previous = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    ImmutableRatesProvider result =
+        CALIBRATOR.recalibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA, previous, ALL_QUOTES);
+    assertEquals(result, previous);
+    RatesCurveGroup previousGroup = RatesCurveGroup.ofCurves(CURVE_GROUP_CONFIG, previous.getCurves().values());
+    ImmutableRatesProvider resultGroup =
+        CALIBRATOR.recalibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA, previousGroup, ALL_QUOTES);
+    assertEquals(resultGroup, previous);
+  }
+
+  public void recalibrate_quoteChanged() {
+    ImmutableRatesProvider previous = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    ImmutableMarketData marketData = ALL_QUOTES.toBuilder()
+        .addValue(QuoteId.of(StandardId.of(SCHEME, EUR_DSC_ID_VALUE[6])), EUR_DSC_MARKET_QUOTES[6] + 1.0E-4)
+        .build();
+    ImmutableRatesProvider result =
+        CALIBRATOR.recalibrate(CURVE_GROUP_CONFIG, marketData, REF_DATA, previous, ALL_QUOTES);
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, marketData, REF_DATA);
+    assertCurves(result, expected);
+    assertFalse(result.getCurves().get(EUR_DSC_CURVE_NAME).equals(previous.getCurves().get(EUR_DSC_CURVE_NAME)));
+  }
+
+  public void recalibrate_fxRateChanged() {
+    ImmutableRatesProvider previous = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, ALL_QUOTES, REF_DATA);
+    ImmutableMarketData marketData = ALL_QUOTES.toBuilder()
+        .addValue(FxRateId.of(EUR, USD), FxRate.of(EUR, USD, FX_RATE_EUR_USD + 0.01))
+        .build();
+    ImmutableRatesProvider result =
+        CALIBRATOR.recalibrate(CURVE_GROUP_CONFIG, marketData, REF_DATA, previous, ALL_QUOTES);
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_CONFIG, marketData, REF_DATA);
+    assertCurves(result, expected);
+  }
+
+  private void assertCurves(ImmutableRatesProvider result, ImmutableRatesProvider expected) {
+    Map<CurveName, Curve> expectedCurves = expected.getCurves();
+    Map<CurveName, Curve> resultCurves = result.getCurves();
+    assertEquals(resultCurves.keySet(), expectedCurves.keySet());
+    for (CurveName name : expectedCurves.keySet()) {
+      Curve expectedCurve = expectedCurves.get(name);
+      Curve resultCurve = resultCurves.get(name);
+      assertEquals(resultCurve.getParameterCount(), expectedCurve.getParameterCount());
+      for (int i = 0; i < expectedCurve.getParameterCount(); i++) {
+        assertEquals(resultCurve.getParameter(i), expectedCurve.getParameter(i), TOLERANCE_PARAM);
+      }
+      DoubleMatrix expectedJacobian = expectedCurve.getMetadata().getInfo(CurveInfoType.JACOBIAN).getJacobianMatrix();
+      DoubleMatrix resultJacobian = resultCurve.getMetadata().getInfo(CurveInfoType.JACOBIAN).getJacobianMatrix();
+      assertEquals(resultJacobian.rowCount(), expectedJacobian.rowCount());
+      for (int i = 0; i < expectedJacobian.rowCount(); i++) {
+        assertTrue(DoubleArrayMath.fuzzyEquals(
+            resultJacobian.rowArray(i), expectedJacobian.rowArray(i), TOLERANCE_JACOBIAN));
+      }
+    }
+  }
+
   private void assertPresentValue(RatesProvider result) {
     // Test PV USD;
     List<ResolvedTrade> usdTrades = new ArrayList<>();
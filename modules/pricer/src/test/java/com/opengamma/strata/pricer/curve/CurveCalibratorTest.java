@@ -19,4 +19,13 @@ public class CurveCalibratorTest {
     assertThat(CurveCalibrator.standard().toString()).isEqualTo("CurveCalibrator[ParSpread]");
   }
 
+  public void test_withParallelRows() {
+    CurveCalibrator base = CurveCalibrator.standard();
+    assertThat(base.isParallelRows()).isFalse();
+    CurveCalibrator test = base.withParallelRows(true);
+    assertThat(test.isParallelRows()).isTrue();
+    assertThat(test.getMeasures()).isSameAs(base.getMeasures());
+    assertThat(test.withParallelRows(false).isParallelRows()).isFalse();
+  }
+
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.MathException;
+
+/**
+ * Tests {@link NewtonCalibrationRootFinder}.
+ */
+@Test
+public class NewtonCalibrationRootFinderTest {
+
+  private static final double TOLERANCE = 1e-10;
+  // root at (1, 0, -1)
+  private static final Function<DoubleArray, DoubleArray> FUNCTION = x -> DoubleArray.of(
+      Math.exp(x.get(0) + x.get(1)) + x.get(2) - Math.E + 1d,
+      x.get(2) * Math.exp(x.get(0) - x.get(1)) + Math.E,
+      x.get(0) * x.get(0) + x.get(1) * x.get(1) + x.get(2) * x.get(2) - 2d);
+  private static final Function<DoubleArray, DoubleMatrix> JACOBIAN = x -> {
+    double exp1 = Math.exp(x.get(0) + x.get(1));
+    double exp2 = Math.exp(x.get(0) - x.get(1));
+    return DoubleMatrix.of(3, 3,
+        exp1, exp1, 1d,
+        x.get(2) * exp2, -x.get(2) * exp2, exp2,
+        2d * x.get(0), 2d * x.get(1), 2d * x.get(2));
+  };
+  private static final DoubleArray START = DoubleArray.of(0.8, 0.2, -0.7);
+
+  //-------------------------------------------------------------------------
+  public void test_solve() {
+    NewtonCalibrationRootFinder test = new NewtonCalibrationRootFinder(TOLERANCE, TOLERANCE, 100);
+    NewtonCalibrationRootFinder.Result result = test.solve(FUNCTION, JACOBIAN, START);
+    DoubleArray root = result.getRoot();
+    assertThat(root.get(0)).isCloseTo(1d, offset(1e-8));
+    assertThat(root.get(1)).isCloseTo(0d, offset(1e-8));
+    assertThat(root.get(2)).isCloseTo(-1d, offset(1e-8));
+    assertThat(test.findRoot(FUNCTION, JACOBIAN, START)).isEqualTo(root);
+    // residual decreases at every iteration
+    DoubleArray norms = result.getResidualNorms();
+    assertThat(norms.size()).isGreaterThan(1);
+    for (int i = 1; i < norms.size(); i++) {
+      assertThat(norms.get(i)).isLessThan(norms.get(i - 1));
+    }
+    assertThat(norms.get(norms.size() - 1)).isLessThan(TOLERANCE);
+    // decomposition is that of the Jacobian at the root
+    DoubleMatrix inverse = result.getDecomposition().solve(DoubleMatrix.identity(3));
+    DoubleMatrix jacobian = JACOBIAN.apply(root);
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        double product = 0d;
+        for (int k = 0; k < 3; k++) {
+          product += jacobian.get(i, k) * inverse.get(k, j);
+        }
+        assertThat(product).isCloseTo(i == j ? 1d : 0d, offset(1e-12));
+      }
+    }
+  }
+
+  public void test_solve_atRoot() {
+    NewtonCalibrationRootFinder test = new NewtonCalibrationRootFinder(TOLERANCE, TOLERANCE, 100);
+    DoubleArray root = test.findRoot(FUNCTION, JACOBIAN, START);
+    NewtonCalibrationRootFinder.Result result = test.solve(FUNCTION, JACOBIAN, root);
+    assertThat(result.getRoot()).isEqualTo(root);
+    assertThat(result.getResidualNorms().size()).isEqualTo(1);
+  }
+
+  public void test_solve_maxSteps() {
+    NewtonCalibrationRootFinder test = new NewtonCalibrationRootFinder(TOLERANCE, TOLERANCE, 1);
+    assertThrows(() -> test.solve(FUNCTION, JACOBIAN, START), MathException.class);
+  }
+
+  public void test_findRoot_noJacobian() {
+    // the Jacobian is calculated by finite difference
+    NewtonCalibrationRootFinder test = new NewtonCalibrationRootFinder(TOLERANCE, TOLERANCE, 100);
+    DoubleArray root = test.findRoot(FUNCTION, START);
+    assertThat(root.get(0)).isCloseTo(1d, offset(1e-8));
+    assertThat(root.get(1)).isCloseTo(0d, offset(1e-8));
+    assertThat(root.get(2)).isCloseTo(-1d, offset(1e-8));
+  }
+
+}
@@ -11,7 +11,9 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.testng.annotations.Test;
@@ -135,6 +137,17 @@ public class SyntheticCurveCalibratorTest {
     assertEquals(test.toString(), "SyntheticCurveCalibrator[CurveCalibrator[ParSpread], MarketQuote]");
   }
 
+  public void test_withMetricsListener() {
+    List<CalibrationMetrics> metrics = new ArrayList<>();
+    SyntheticCurveCalibrator test = CALIBRATOR_SYNTHETIC.withMetricsListener(metrics::add);
+    assertEquals(test.getMeasures(), MQ_MEASURES);
+    RatesProvider multicurveSyn = test.calibrate(GROUPS_SYN_EUR, MULTICURVE_INPUT_EUR_TSLARGE, REF_DATA);
+    assertEquals(multicurveSyn, CALIBRATOR_SYNTHETIC.calibrate(GROUPS_SYN_EUR, MULTICURVE_INPUT_EUR_TSLARGE, REF_DATA));
+    assertEquals(metrics.size(), 1);
+    assertEquals(metrics.get(0).getCurveNames().size(), GROUPS_SYN_EUR.getCurveDefinitions().size());
+    assertEquals(metrics.get(0).getTradeCount(), metrics.get(0).getParameterCount());
+  }
+
   //-------------------------------------------------------------------------
   // Check market data computation
   public void market_data() {